@@ -293,9 +293,10 @@ export class BprdApiService {
 
   /**
    * Get tematik data from BPRD API via backend proxy
+   * mode 'attributes': tanpa geometri, hanya assignments {nop -> layerKey} + legenda
    */
-  getTematikData(tematikRequest: any): Observable<any> {
-    const proxyUrl = this.restApiService.apiUrl + 'bprd/tematik';
+  getTematikData(tematikRequest: any, mode: 'full' | 'attributes' = 'full'): Observable<any> {
+    const proxyUrl = this.restApiService.apiUrl + 'bprd/tematik' + (mode === 'attributes' ? '?mode=attributes' : '');
     console.log(`🎨 Getting tematik data via backend proxy: ${proxyUrl}`, tematikRequest);
 
     const headers = new HttpHeaders({
@@ -703,6 +703,14 @@ export class RestApiService {
         return this.http.get<any>(this.apiUrl + `map/infonop`, { params: httpParams });
     }
 
+    /**
+     * POST /api/map/infonop/batch
+     * Detail banyak bidang dalam satu request (maks 2000 NOP)
+     */
+    getInfoNopBatch(nops: string[], geom: boolean = true): Observable<any> {
+        return this.http.post<any>(this.apiUrl + `map/infonop/batch`, { nops, geom });
+    }
+
     /**
      * POST /api/map/newnop
      * Buat bidang baru
@@ -0,0 +1,94 @@
+package com.example.leaflet_geo.benchmarks;
+
+import com.example.leaflet_geo.dto.BidangBoundaryDTO;
+import com.example.leaflet_geo.dto.KecamatanBoundaryDTO;
+import com.example.leaflet_geo.util.WkbToGeoJsonConverter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of boundary DTO lists as returned by /api/bprd/bidang
+ * and /api/bprd/boundaries (geojson already converted)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BoundarySerializationBenchmark {
+
+    /** Parcels per response (one blok .. a large kelurahan) */
+    @Param({ "100", "1000" })
+    public int parcels;
+
+    @Param({ "5", "50", "500" })
+    public int vertices;
+
+    @Param({ "SINGLE", "MULTI" })
+    public String kind;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<BidangBoundaryDTO> bidang;
+    private List<KecamatanBoundaryDTO> kecamatan;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        bidang = new ArrayList<>(parcels);
+        for (int i = 0; i < parcels; i++) {
+            String noUrut = String.format("%04d", i + 1);
+            String wkb = ParcelFixtures.toWkbHex(ParcelFixtures.geometry(kind, vertices, random));
+            BidangBoundaryDTO dto = new BidangBoundaryDTO();
+            dto.setId(String.valueOf(i + 1));
+            dto.setKdProp("35");
+            dto.setKdDati2("08");
+            dto.setKdKec("130");
+            dto.setKdKel("017");
+            dto.setKdBlok("005");
+            dto.setNoUrut(noUrut);
+            dto.setKdJnsOp("0");
+            dto.setNop("35.08.130.017.005." + noUrut + ".0");
+            dto.setGeom(wkb);
+            dto.setGeojson(WkbToGeoJsonConverter.convertWkbHexToGeoJson(wkb));
+            dto.setIsActive(true);
+            bidang.add(dto);
+        }
+
+        // Lumajang has 21 kecamatan; boundaries are large multi polygons
+        kecamatan = new ArrayList<>(21);
+        for (int i = 0; i < 21; i++) {
+            String wkb = ParcelFixtures.toWkbHex(ParcelFixtures.multiPolygon(vertices * 10, random));
+            KecamatanBoundaryDTO dto = new KecamatanBoundaryDTO(String.valueOf(i + 1),
+                    String.format("%03d", (i + 1) * 10), "KECAMATAN " + (i + 1), "#3388ff", true, wkb);
+            dto.setGeojson(WkbToGeoJsonConverter.convertWkbHexToGeoJson(wkb));
+            kecamatan.add(dto);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeBidangList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bidang);
+    }
+
+    @Benchmark
+    public byte[] serializeKecamatanList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(kecamatan);
+    }
+}
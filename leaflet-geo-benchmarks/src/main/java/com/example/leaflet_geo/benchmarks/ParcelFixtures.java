@@ -0,0 +1,66 @@
+package com.example.leaflet_geo.benchmarks;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.io.WKBWriter;
+
+import java.util.Random;
+
+/**
+ * Synthetic parcel geometries shaped like sig.bidang / BPRD data:
+ * EPSG:4326 around Lumajang, 3D WKB with SRID (same header as production,
+ * e.g. "01030000A0E6100000..."), fixed seed so runs are comparable.
+ */
+public final class ParcelFixtures {
+
+    private static final GeometryFactory FACTORY = new GeometryFactory(new PrecisionModel(), 4326);
+    private static final double CENTER_X = 113.22;
+    private static final double CENTER_Y = -8.13;
+    // ~20-30 m parcel radius in degrees
+    private static final double RADIUS = 0.00025;
+
+    private ParcelFixtures() {
+    }
+
+    /**
+     * Polygon parcel with the given number of distinct vertices
+     */
+    public static Polygon polygon(int vertices, Random random) {
+        double cx = CENTER_X + (random.nextDouble() - 0.5) * 0.2;
+        double cy = CENTER_Y + (random.nextDouble() - 0.5) * 0.2;
+        Coordinate[] ring = new Coordinate[vertices + 1];
+        for (int i = 0; i < vertices; i++) {
+            double angle = 2 * Math.PI * i / vertices;
+            double r = RADIUS * (0.8 + 0.4 * random.nextDouble());
+            ring[i] = new Coordinate(cx + r * Math.cos(angle), cy + r * Math.sin(angle), 0);
+        }
+        ring[vertices] = ring[0].copy();
+        return FACTORY.createPolygon(ring);
+    }
+
+    /**
+     * MultiPolygon of 3 parts sharing the vertex budget
+     */
+    public static Geometry multiPolygon(int vertices, Random random) {
+        int perPart = Math.max(3, vertices / 3);
+        return FACTORY.createMultiPolygon(new Polygon[] {
+                polygon(perPart, random),
+                polygon(perPart, random),
+                polygon(perPart, random)
+        });
+    }
+
+    public static Geometry geometry(String kind, int vertices, Random random) {
+        return "MULTI".equals(kind) ? multiPolygon(vertices, random) : polygon(vertices, random);
+    }
+
+    /**
+     * WKB hex (upper case, with SRID and Z) as returned by BPRD / PostGIS
+     */
+    public static String toWkbHex(Geometry geometry) {
+        return WKBWriter.toHex(new WKBWriter(3, true).write(geometry));
+    }
+}
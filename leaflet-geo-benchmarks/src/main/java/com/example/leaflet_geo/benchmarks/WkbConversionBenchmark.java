@@ -0,0 +1,53 @@
+package com.example.leaflet_geo.benchmarks;
+
+import com.example.leaflet_geo.util.WkbToGeoJsonConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WkbToGeoJsonConverter per parcel: full conversion and hex decoding only
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WkbConversionBenchmark {
+
+    @Param({ "5", "50", "500" })
+    public int vertices;
+
+    @Param({ "SINGLE", "MULTI" })
+    public String kind;
+
+    private String wkbHex;
+
+    @Setup
+    public void setup() {
+        wkbHex = ParcelFixtures.toWkbHex(ParcelFixtures.geometry(kind, vertices, new Random(42)));
+    }
+
+    @Benchmark
+    public Map<String, Object> convertWkbHexToGeoJson() {
+        return WkbToGeoJsonConverter.convertWkbHexToGeoJson(wkbHex);
+    }
+
+    @Benchmark
+    public byte[] hexStringToByteArray() {
+        return WkbToGeoJsonConverter.hexStringToByteArray(wkbHex);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.leaflet_geo.config;
+
+import com.example.leaflet_geo.service.BidangImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * CLI import bidang
+ *
+ * Aktif hanya jika aplikasi dijalankan dengan --import-bidang, lalu keluar
+ * setelah selesai (exit code 1 jika ada file yang gagal):
+ *
+ * java -jar leaflet-geo.jar --spring.main.web-application-type=none \
+ *      --import-bidang=blok-005.geojson [--import-bidang=...] [--nop-field=NOP] [--dry-run]
+ */
+@Component
+public class BidangImportRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(BidangImportRunner.class);
+
+    @Autowired
+    private BidangImportService bidangImportService;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<String> files = args.getOptionValues("import-bidang");
+        if (files == null || files.isEmpty()) {
+            return;
+        }
+        List<String> nopField = args.getOptionValues("nop-field");
+        boolean dryRun = args.containsOption("dry-run");
+
+        int failed = 0;
+        for (String file : files) {
+            try (InputStream in = Files.newInputStream(Path.of(file))) {
+                BidangImportService.ImportResult result = bidangImportService.importFile(file, in,
+                        nopField != null && !nopField.isEmpty() ? nopField.get(0) : "nop", dryRun);
+                if (result.errorCount() > 0) {
+                    failed++;
+                    log.error("Import {} rejected: {} error(s), nothing saved", file, result.errorCount());
+                    result.errors().forEach(error -> log.error("  line {} [{}]: {}", error.line(), error.nop(),
+                            error.message()));
+                } else {
+                    log.info("Import {}{}: {} inserted, {} updated", file, dryRun ? " (dry run)" : "",
+                            result.inserted(), result.updated());
+                }
+            } catch (Exception e) {
+                failed++;
+                log.error("Import {} failed: {}", file, e.getMessage());
+            }
+        }
+
+        int exitCode = failed > 0 ? 1 : 0;
+        System.exit(SpringApplication.exit(applicationContext, () -> exitCode));
+    }
+}
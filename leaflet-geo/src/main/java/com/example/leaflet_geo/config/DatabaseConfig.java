@@ -1,5 +1,7 @@
 package com.example.leaflet_geo.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.CommandLineRunner;
@@ -9,6 +11,8 @@ import org.springframework.stereotype.Component;
 @Component
 public class DatabaseConfig implements CommandLineRunner {
 
+    private static final Logger log = LoggerFactory.getLogger(DatabaseConfig.class);
+
     @Autowired
     @Qualifier("postgresJdbcTemplate")
     private JdbcTemplate postgresJdbcTemplate;
@@ -19,79 +23,79 @@ public class DatabaseConfig implements CommandLineRunner {
 
     @Override
     public void run(String... args) throws Exception {
-        System.out.println("🚀 Testing Multiple Database Connections...\n");
+        log.info("Testing Multiple Database Connections...");
 
         // Test PostgreSQL Connection
         testPostgreSQLConnection();
 
         // Oracle test disabled - using BPRD API instead of local Oracle
         // Uncomment to enable if using local Docker Oracle
-        // System.out.println("\n" + "=".repeat(50) + "\n");
+        // log.info("=".repeat(50));
         // testOracleConnection();
     }
 
     private void testPostgreSQLConnection() {
-        System.out.println("🐘 Testing PostgreSQL Connection...");
+        log.info("Testing PostgreSQL Connection...");
         try {
             // Test database connection
             String result = postgresJdbcTemplate
                     .queryForObject("SELECT 'PostgreSQL connected successfully!' as message", String.class);
-            System.out.println("✅ " + result);
+            log.info("{}", result);
 
             // Check if schema exists
             String schemaExists = postgresJdbcTemplate.queryForObject(
                     "SELECT CASE WHEN EXISTS(SELECT 1 FROM information_schema.schemata WHERE schema_name = 'sig') THEN 'Schema sig exists' ELSE 'Schema sig does not exist' END",
                     String.class);
-            System.out.println("📁 " + schemaExists);
+            log.info("{}", schemaExists);
 
             // Check if table exists
             String tableExists = postgresJdbcTemplate.queryForObject(
                     "SELECT CASE WHEN EXISTS(SELECT 1 FROM information_schema.tables WHERE table_schema = 'sig' AND table_name = 'bidang') THEN 'Table sig.bidang exists' ELSE 'Table sig.bidang does not exist' END",
                     String.class);
-            System.out.println("🗃️ " + tableExists);
+            log.info("{}", tableExists);
 
             // Count records if table exists
             try {
                 Long count = postgresJdbcTemplate.queryForObject("SELECT COUNT(*) FROM sig.bidang", Long.class);
-                System.out.println("📊 Total records in sig.bidang: " + count);
+                log.info("Total records in sig.bidang: {}", count);
             } catch (Exception e) {
-                System.out.println("⚠️ Could not count records: " + e.getMessage());
+                log.warn("Could not count records: {}", e.getMessage());
             }
 
         } catch (Exception e) {
-            System.err.println("❌ PostgreSQL connection failed: " + e.getMessage());
-            System.err.println("Please check your PostgreSQL configuration!");
+            log.error("PostgreSQL connection failed: {}", e.getMessage());
+            log.warn("Please check your PostgreSQL configuration!");
         }
     }
 
     private void testOracleConnection() {
-        System.out.println("🔶 Testing Oracle Connection...");
+        log.info("Testing Oracle Connection...");
         try {
             // Test database connection
             String result = oracleJdbcTemplate
                     .queryForObject("SELECT 'Oracle connected successfully!' as message FROM dual", String.class);
-            System.out.println("✅ " + result);
+            log.info("{}", result);
 
             // Get Oracle version
             String version = oracleJdbcTemplate.queryForObject("SELECT banner FROM v$version WHERE rownum = 1",
                     String.class);
-            System.out.println("🔧 Oracle Version: " + version);
+            log.info("Oracle Version: {}", version);
 
             // Check current user
             String currentUser = oracleJdbcTemplate.queryForObject("SELECT USER FROM dual", String.class);
-            System.out.println("👤 Current User: " + currentUser);
+            log.info("Current User: {}", currentUser);
 
             // Check if we can access system tables
             try {
                 Long tableCount = oracleJdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_tables", Long.class);
-                System.out.println("📊 Tables accessible by current user: " + tableCount);
+                log.info("Tables accessible by current user: {}", tableCount);
             } catch (Exception e) {
-                System.out.println("⚠️ Could not count tables: " + e.getMessage());
+                log.warn("Could not count tables: {}", e.getMessage());
             }
 
         } catch (Exception e) {
-            System.err.println("❌ Oracle connection failed: " + e.getMessage());
-            System.err.println("Please check your Oracle configuration!");
+            log.error("Oracle connection failed: {}", e.getMessage());
+            log.warn("Please check your Oracle configuration!");
         }
     }
 }
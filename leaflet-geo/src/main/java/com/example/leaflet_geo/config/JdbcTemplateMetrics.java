@@ -0,0 +1,106 @@
+package com.example.leaflet_geo.config;
+
+import com.example.leaflet_geo.service.SqlStatsService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlProvider;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * JdbcTemplate Metrics
+ *
+ * Membungkus JdbcTemplate dengan proxy yang mencatat setiap pemanggilan
+ * JdbcOperations (query*, update, batchUpdate, execute, call):
+ * - timer   jdbc.template        tag datasource, operation, outcome, exception
+ * - counter jdbc.template.errors tag datasource, operation, exception
+ *
+ * Waktu yang dicatat mencakup eksekusi SQL dan mapping hasil, sama seperti
+ * yang dirasakan pemanggil. Durasi yang sama diteruskan ke SqlStatsService
+ * (statistik per fingerprint SQL dan slow-query log). Gauge pool koneksi
+ * (jdbc.connections.*, hikaricp.connections.*) dicatat otomatis oleh actuator
+ * untuk setiap DataSource.
+ */
+@Component
+public class JdbcTemplateMetrics {
+
+    private static final Set<String> OPERATIONS = Arrays.stream(JdbcOperations.class.getMethods())
+            .map(Method::getName)
+            .collect(Collectors.toUnmodifiableSet());
+
+    private final MeterRegistry meterRegistry;
+    private final SqlStatsService sqlStatsService;
+
+    public JdbcTemplateMetrics(MeterRegistry meterRegistry, SqlStatsService sqlStatsService) {
+        this.meterRegistry = meterRegistry;
+        this.sqlStatsService = sqlStatsService;
+    }
+
+    /**
+     * Bungkus JdbcTemplate, semua metric diberi tag datasource
+     */
+    public JdbcTemplate instrument(String datasource, JdbcTemplate jdbcTemplate) {
+        ProxyFactory proxyFactory = new ProxyFactory(jdbcTemplate);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+            String operation = invocation.getMethod().getName();
+            if (!OPERATIONS.contains(operation)) {
+                return invocation.proceed();
+            }
+
+            long start = System.nanoTime();
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String exception = "none";
+            try {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                exception = e.getClass().getSimpleName();
+                Counter.builder("jdbc.template.errors")
+                        .description("Failed JdbcTemplate calls")
+                        .tag("datasource", datasource)
+                        .tag("operation", operation)
+                        .tag("exception", exception)
+                        .register(meterRegistry)
+                        .increment();
+                throw e;
+            } finally {
+                sqlStatsService.record(datasource, sqlOf(invocation.getArguments()), invocation.getArguments(),
+                        System.nanoTime() - start, !"none".equals(exception));
+                sample.stop(Timer.builder("jdbc.template")
+                        .description("JdbcTemplate call duration, including result mapping")
+                        .tag("datasource", datasource)
+                        .tag("operation", operation)
+                        .tag("outcome", "none".equals(exception) ? "SUCCESS" : "ERROR")
+                        .tag("exception", exception)
+                        .register(meterRegistry));
+            }
+        });
+        return (JdbcTemplate) proxyFactory.getProxy();
+    }
+
+    /**
+     * SQL dari argumen pertama: String, atau PreparedStatementCreator/CallableStatementCreator
+     * yang mengimplementasikan SqlProvider
+     */
+    private static String sqlOf(Object[] args) {
+        if (args.length == 0) {
+            return null;
+        }
+        if (args[0] instanceof String sql) {
+            return sql;
+        }
+        if (args[0] instanceof SqlProvider provider) {
+            return provider.getSql();
+        }
+        return null;
+    }
+}
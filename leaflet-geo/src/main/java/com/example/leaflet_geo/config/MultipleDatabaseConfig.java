@@ -1,6 +1,8 @@
 package com.example.leaflet_geo.config;
 
+import com.zaxxer.hikari.HikariDataSource;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.jdbc.DataSourceHealthIndicator;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.context.annotation.Bean;
@@ -10,6 +12,13 @@ import org.springframework.jdbc.core.JdbcTemplate;
 
 import javax.sql.DataSource;
 
+/**
+ * Multiple Database Config
+ *
+ * Enam DataSource (Hikari, nama pool = nama datasource) dan JdbcTemplate-nya.
+ * Setiap JdbcTemplate diinstrumentasi lewat JdbcTemplateMetrics sehingga
+ * latensi dan error bisa dibedakan per database di /actuator/prometheus.
+ */
 @Configuration
 public class MultipleDatabaseConfig {
 
@@ -18,103 +27,134 @@ public class MultipleDatabaseConfig {
     @Bean(name = "postgresDataSource")
     @ConfigurationProperties(prefix = "spring.datasource")
     public DataSource postgresDataSource() {
-        return DataSourceBuilder.create()
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
                 .url("jdbc:postgresql://localhost:5432/sig")
                 .username("postgres")
                 .password("root")
                 .driverClassName("org.postgresql.Driver")
                 .build();
+        dataSource.setPoolName("postgres");
+        return dataSource;
     }
 
     // Oracle sebagai secondary database (pointing to SISMIOP)
     @Bean(name = "oracleDataSource")
     public DataSource oracleDataSource() {
-        return DataSourceBuilder.create()
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
                 .url("jdbc:oracle:thin:@//localhost:1521/FREEPDB1")
                 .username("PBB")
                 .password("PBB")
                 .driverClassName("oracle.jdbc.OracleDriver")
                 .build();
+        dataSource.setPoolName("oracle");
+        return dataSource;
     }
 
     // MySQL SIMATDA sebagai database ketiga
     @Bean(name = "mysqlDataSource")
     public DataSource mysqlDataSource() {
-        return DataSourceBuilder.create()
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
                 .url("jdbc:mysql://192.178.10.112:3306/simpatda_lumajang?useSSL=false&serverTimezone=UTC")
                 .username("polinema")
                 .password("P0l1n3m4@bprd")
                 .driverClassName("com.mysql.cj.jdbc.Driver")
                 .build();
+        dataSource.setPoolName("mysql");
+        return dataSource;
     }
 
     // PostgreSQL BPHTB sebagai database keempat
     @Bean(name = "bphtbDataSource")
     public DataSource bphtbDataSource() {
-        return DataSourceBuilder.create()
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
                 .url("jdbc:postgresql://192.178.10.114:5432/mybphtb")
                 .username("postgres")
                 .password("BprdLum4j4ng@2025")
                 .driverClassName("org.postgresql.Driver")
                 .build();
+        dataSource.setPoolName("bphtb");
+        return dataSource;
     }
 
     // Oracle SISMIOP sebagai database kelima
     @Bean(name = "sismiopDataSource")
     public DataSource sismiopDataSource() {
-        return DataSourceBuilder.create()
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
                 .url("jdbc:oracle:thin:@//192.178.10.101:1521/SISMIOP")
                 .username("PBB")
                 .password("PBB")
                 .driverClassName("oracle.jdbc.OracleDriver")
                 .build();
+        dataSource.setPoolName("sismiop");
+        return dataSource;
     }
 
     // PostgreSQL E-PASIR sebagai database keenam
     @Bean(name = "epasirDataSource")
     public DataSource epasirDataSource() {
-        return DataSourceBuilder.create()
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
                 .url("jdbc:postgresql://192.178.10.225:5432/e-pasir-reborn")
                 .username("epasir")
                 .password("BPRD@2023#")
                 .driverClassName("org.postgresql.Driver")
                 .build();
+        dataSource.setPoolName("epasir");
+        return dataSource;
     }
 
     // JdbcTemplate untuk PostgreSQL (primary)
     @Primary
     @Bean(name = "postgresJdbcTemplate")
-    public JdbcTemplate postgresJdbcTemplate(@Qualifier("postgresDataSource") DataSource dataSource) {
-        return new JdbcTemplate(dataSource);
+    public JdbcTemplate postgresJdbcTemplate(@Qualifier("postgresDataSource") DataSource dataSource,
+            JdbcTemplateMetrics metrics) {
+        return metrics.instrument("postgres", new JdbcTemplate(dataSource));
+    }
+
+    // Health hanya untuk PostgreSQL (primary): database eksternal yang mati tidak
+    // membuat /actuator/health DOWN (management.health.db.enabled=false)
+    @Bean(name = "postgresHealthIndicator")
+    public DataSourceHealthIndicator postgresHealthIndicator(@Qualifier("postgresDataSource") DataSource dataSource) {
+        return new DataSourceHealthIndicator(dataSource);
     }
 
     // JdbcTemplate untuk Oracle (secondary)
     @Bean(name = "oracleJdbcTemplate")
-    public JdbcTemplate oracleJdbcTemplate(@Qualifier("oracleDataSource") DataSource dataSource) {
-        return new JdbcTemplate(dataSource);
+    public JdbcTemplate oracleJdbcTemplate(@Qualifier("oracleDataSource") DataSource dataSource,
+            JdbcTemplateMetrics metrics) {
+        return metrics.instrument("oracle", new JdbcTemplate(dataSource));
     }
 
     // JdbcTemplate untuk MySQL SIMATDA
     @Bean(name = "mysqlJdbcTemplate")
-    public JdbcTemplate mysqlJdbcTemplate(@Qualifier("mysqlDataSource") DataSource dataSource) {
-        return new JdbcTemplate(dataSource);
+    public JdbcTemplate mysqlJdbcTemplate(@Qualifier("mysqlDataSource") DataSource dataSource,
+            JdbcTemplateMetrics metrics) {
+        return metrics.instrument("mysql", new JdbcTemplate(dataSource));
     }
 
     // JdbcTemplate untuk PostgreSQL BPHTB
     @Bean(name = "bphtbJdbcTemplate")
-    public JdbcTemplate bphtbJdbcTemplate(@Qualifier("bphtbDataSource") DataSource dataSource) {
-        return new JdbcTemplate(dataSource);
+    public JdbcTemplate bphtbJdbcTemplate(@Qualifier("bphtbDataSource") DataSource dataSource,
+            JdbcTemplateMetrics metrics) {
+        return metrics.instrument("bphtb", new JdbcTemplate(dataSource));
     }
 
     // JdbcTemplate untuk Oracle SISMIOP
     @Bean(name = "sismiopJdbcTemplate")
-    public JdbcTemplate sismiopJdbcTemplate(@Qualifier("sismiopDataSource") DataSource dataSource) {
-        return new JdbcTemplate(dataSource);
+    public JdbcTemplate sismiopJdbcTemplate(@Qualifier("sismiopDataSource") DataSource dataSource,
+            JdbcTemplateMetrics metrics) {
+        return metrics.instrument("sismiop", new JdbcTemplate(dataSource));
     }
 
     // JdbcTemplate untuk PostgreSQL E-PASIR
     @Bean(name = "epasirJdbcTemplate")
-    public JdbcTemplate epasirJdbcTemplate(@Qualifier("epasirDataSource") DataSource dataSource) {
-        return new JdbcTemplate(dataSource);
+    public JdbcTemplate epasirJdbcTemplate(@Qualifier("epasirDataSource") DataSource dataSource,
+            JdbcTemplateMetrics metrics) {
+        return metrics.instrument("epasir", new JdbcTemplate(dataSource));
     }
 }
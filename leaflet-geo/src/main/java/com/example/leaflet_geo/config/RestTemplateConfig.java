@@ -1,9 +1,17 @@
 package com.example.leaflet_geo.config;
 
+import io.micrometer.common.KeyValue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.observation.ClientRequestObservationContext;
+import org.springframework.http.client.observation.ClientRequestObservationConvention;
+import org.springframework.http.client.observation.DefaultClientRequestObservationConvention;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 /**
  * Configuration class for RestTemplate
  */
@@ -11,12 +19,39 @@ import org.springframework.web.client.RestTemplate;
 public class RestTemplateConfig {
 
     /**
-     * Configure RestTemplate bean for HTTP client calls
-     * 
+     * Configure RestTemplate bean for HTTP client calls.
+     * Built from RestTemplateBuilder so every call is recorded as
+     * http.client.requests (tags: client.name = host, uri, method, status, outcome).
+     * Connect/read timeouts keep a slow or unreachable BPRD API from holding
+     * request threads (and single-flight waiters) indefinitely.
+     *
      * @return RestTemplate instance
      */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(RestTemplateBuilder builder,
+            @Value("${bprd.connect-timeout-ms:5000}") long connectTimeoutMs,
+            @Value("${bprd.read-timeout-ms:30000}") long readTimeoutMs) {
+        return builder
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .readTimeout(Duration.ofMillis(readTimeoutMs))
+                .build();
+    }
+
+    /**
+     * BPRD URLs are built by string concatenation (query parameters included),
+     * so tag outbound calls with the request path only to keep the uri tag
+     * bounded to one value per endpoint.
+     */
+    @Bean
+    public ClientRequestObservationConvention clientRequestObservationConvention() {
+        return new DefaultClientRequestObservationConvention() {
+            @Override
+            protected KeyValue uri(ClientRequestObservationContext context) {
+                if (context.getCarrier() != null) {
+                    return KeyValue.of("uri", context.getCarrier().getURI().getPath());
+                }
+                return super.uri(context);
+            }
+        };
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package com.example.leaflet_geo.config;
 
 import com.example.leaflet_geo.security.TokenAuthenticationFilter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
@@ -17,39 +18,63 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @EnableWebSecurity
 public class SecurityConfig {
 
+    /**
+     * Public endpoints - no auth required.
+     * TokenAuthenticationFilter skips these paths entirely (no token lookup).
+     */
+    public static final String[] PUBLIC_PATHS = {
+            "/api/auth/login",
+            "/api/auth/createadmin",
+            "/api/database-test/**",
+            // Map-related endpoints (public for map display)
+            "/api/bidang/**",
+            "/api/kecamatan/**",
+            "/api/kelurahan/**",
+            "/api/blok/**",
+            "/api/pemda/**",
+            "/api/map/**",
+            "/api/bprd/**",
+            "/api/shapefile/**",
+            "/api/ref-kecamatan/**",
+            "/api/ref-kelurahan/**",
+            "/api/dat-objek-pajak/**",
+            "/api/dat-subjek-pajak/**",
+            // Dashboard endpoints (public for dashboards)
+            "/api/pendapatan/**",
+            "/api/dashboard/**",
+            "/api/pajak/**",
+            // Monitoring (health check and Prometheus scrape)
+            "/actuator/health",
+            "/actuator/health/**",
+            "/actuator/prometheus"
+    };
+
+    /**
+     * Write endpoints under a public prefix that still require ADMIN; matched
+     * before PUBLIC_PATHS (also by TokenAuthenticationFilter).
+     */
+    public static final String[] ADMIN_API_PATHS = {
+            "/api/bidang/import"
+    };
+
     @Autowired
     private TokenAuthenticationFilter tokenAuthFilter;
 
+    @Value("${auth.bcrypt.strength:10}")
+    private int bcryptStrength;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         return http
                 .csrf(csrf -> csrf.disable())
                 .cors(Customizer.withDefaults())
                 .authorizeHttpRequests(auth -> auth
+                        // Admin write endpoints inside public prefixes (bulk import)
+                        .requestMatchers(ADMIN_API_PATHS).hasRole("ADMIN")
                         // Public endpoints - no auth required
-                        .requestMatchers("/api/auth/login").permitAll()
-                        .requestMatchers("/api/auth/createadmin").permitAll()
-                        .requestMatchers("/api/database-test/**").permitAll()
-                        .requestMatchers("/api/bidang/health").permitAll()
-                        .requestMatchers("/api/bidang/test").permitAll()
-                        .requestMatchers("/api/bidang/setup").permitAll()
-                        // Map-related endpoints (public for map display)
-                        .requestMatchers("/api/bidang/**").permitAll()
-                        .requestMatchers("/api/kecamatan/**").permitAll()
-                        .requestMatchers("/api/kelurahan/**").permitAll()
-                        .requestMatchers("/api/blok/**").permitAll()
-                        .requestMatchers("/api/pemda/**").permitAll()
-                        .requestMatchers("/api/map/**").permitAll()
-                        .requestMatchers("/api/bprd/**").permitAll()
-                        .requestMatchers("/api/shapefile/**").permitAll()
-                        .requestMatchers("/api/ref-kecamatan/**").permitAll()
-                        .requestMatchers("/api/ref-kelurahan/**").permitAll()
-                        .requestMatchers("/api/dat-objek-pajak/**").permitAll()
-                        .requestMatchers("/api/dat-subjek-pajak/**").permitAll()
-                        // Dashboard endpoints (public for dashboards)
-                        .requestMatchers("/api/pendapatan/**").permitAll()
-                        .requestMatchers("/api/dashboard/**").permitAll()
-                        .requestMatchers("/api/pajak/**").permitAll()
+                        .requestMatchers(PUBLIC_PATHS).permitAll()
+                        // Operational endpoints (SQL statistics, ...)
+                        .requestMatchers("/admin/**").hasRole("ADMIN")
                         // All other endpoints require authentication
                         .anyRequest().authenticated())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -57,8 +82,12 @@ public class SecurityConfig {
                 .build();
     }
 
+    /**
+     * BCrypt cost is configurable; existing hashes keep verifying because
+     * the cost is stored in each hash.
+     */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 }
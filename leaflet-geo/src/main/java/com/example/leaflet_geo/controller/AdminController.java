@@ -0,0 +1,88 @@
+package com.example.leaflet_geo.controller;
+
+import com.example.leaflet_geo.repository.SismiopMirror;
+import com.example.leaflet_geo.service.SingleFlightService;
+import com.example.leaflet_geo.service.SismiopMirrorService;
+import com.example.leaflet_geo.service.SqlStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * AdminController - Endpoint operasional (hanya ROLE_ADMIN)
+ *
+ * Endpoints:
+ * - GET /admin/sql-stats?top=20&sort=total - Top-N fingerprint SQL per datasource/endpoint
+ * - DELETE /admin/sql-stats - Reset statistik
+ * - GET /admin/sismiop-mirror - Status mirror SISMIOP per tabel
+ * - POST /admin/sismiop-mirror/sync - Jalankan sinkronisasi mirror sekarang
+ */
+@RestController
+@RequestMapping("/admin")
+public class AdminController {
+
+    @Autowired
+    private SqlStatsService sqlStatsService;
+
+    @Autowired
+    private SismiopMirrorService sismiopMirrorService;
+
+    @Autowired
+    private SismiopMirror sismiopMirror;
+
+    @Autowired
+    private SingleFlightService singleFlightService;
+
+    /**
+     * GET /admin/sql-stats
+     *
+     * @param top  jumlah baris (default 20, maks 500)
+     * @param sort total | avg | max | count | errors (default total)
+     */
+    @GetMapping("/sql-stats")
+    public ResponseEntity<Map<String, Object>> getSqlStats(
+            @RequestParam(defaultValue = "20") int top,
+            @RequestParam(defaultValue = "total") String sort) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("sort", sort);
+        response.put("fingerprints", sqlStatsService.size());
+        response.put("slowThresholdMs", sqlStatsService.slowThresholdMs());
+        response.put("coalescedRequests", singleFlightService.coalescedCount());
+        response.put("data", sqlStatsService.top(Math.max(1, Math.min(top, 500)), sort));
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/sql-stats")
+    public ResponseEntity<Map<String, Object>> resetSqlStats() {
+        sqlStatsService.reset();
+        return ResponseEntity.ok(Map.of("success", true, "message", "SQL statistics direset"));
+    }
+
+    @GetMapping("/sismiop-mirror")
+    public ResponseEntity<Map<String, Object>> getSismiopMirrorStatus() {
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("enabled", sismiopMirror.isEnabled());
+            response.put("readingLocal", sismiopMirror.isLocal());
+            response.put("running", sismiopMirrorService.isRunning());
+            response.put("firstSpptYear", sismiopMirror.firstSpptYear());
+            response.put("tables", sismiopMirrorService.status());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/sismiop-mirror/sync")
+    public ResponseEntity<Map<String, Object>> syncSismiopMirror() {
+        if (!sismiopMirrorService.trigger()) {
+            return ResponseEntity.status(409).body(Map.of("success", false, "message", "Sinkronisasi sedang berjalan"));
+        }
+        return ResponseEntity.accepted().body(Map.of("success", true, "message", "Sinkronisasi mirror SISMIOP dimulai"));
+    }
+}
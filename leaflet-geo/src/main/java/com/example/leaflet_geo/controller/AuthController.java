@@ -5,13 +5,20 @@ import com.example.leaflet_geo.dto.auth.ChangePasswordRequest;
 import com.example.leaflet_geo.dto.auth.LoginRequest;
 import com.example.leaflet_geo.dto.auth.LoginResponse;
 import com.example.leaflet_geo.model.User;
+import com.example.leaflet_geo.security.AuthenticatedUser;
+import com.example.leaflet_geo.security.LoginAttemptLimiter;
 import com.example.leaflet_geo.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Authentication Controller
@@ -34,15 +41,36 @@ public class AuthController {
      * Matches legacy: POST /user/login
      */
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<LoginResponse>> login(@RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<ApiResponse<LoginResponse>>> login(
+            @RequestBody LoginRequest request,
+            HttpServletRequest httpRequest) {
+        CompletableFuture<LoginResponse> future;
         try {
-            LoginResponse result = authService.login(request);
-            return ResponseEntity.ok(
-                    ApiResponse.success("Selamat Datang " + result.getNama(), result));
+            // Alamat klien asli di belakang reverse proxy (server.forward-headers-strategy=native)
+            future = authService.login(request, httpRequest.getRemoteAddr());
         } catch (Exception e) {
-            return ResponseEntity.status(401).body(
-                    ApiResponse.error("Gagal login: " + e.getMessage()));
+            return CompletableFuture.completedFuture(loginError(e));
+        }
+        return future
+                .thenApply(result -> ResponseEntity.ok(
+                        ApiResponse.success("Selamat Datang " + result.getNama(), result)))
+                .exceptionally(e -> loginError(e instanceof CompletionException && e.getCause() != null
+                        ? e.getCause()
+                        : e));
+    }
+
+    private ResponseEntity<ApiResponse<LoginResponse>> loginError(Throwable e) {
+        if (e instanceof LoginAttemptLimiter.TooManyAttemptsException tooMany) {
+            return ResponseEntity.status(429)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(tooMany.getRetryAfterSeconds()))
+                    .body(ApiResponse.error("Gagal login: " + e.getMessage()));
+        }
+        if (e instanceof TaskRejectedException) {
+            return ResponseEntity.status(503).body(
+                    ApiResponse.error("Gagal login: server sedang sibuk, coba lagi"));
         }
+        return ResponseEntity.status(401).body(
+                ApiResponse.error("Gagal login: " + e.getMessage()));
     }
 
     /**
@@ -52,7 +80,7 @@ public class AuthController {
      * Matches legacy: POST /user/logout
      */
     @PostMapping("/logout")
-    public ResponseEntity<ApiResponse<Void>> logout(@AuthenticationPrincipal User currentUser) {
+    public ResponseEntity<ApiResponse<Void>> logout(@AuthenticationPrincipal AuthenticatedUser currentUser) {
         try {
             authService.logout(currentUser);
             return ResponseEntity.ok(
@@ -71,7 +99,7 @@ public class AuthController {
      */
     @PostMapping("/changepass")
     public ResponseEntity<ApiResponse<Void>> changePassword(
-            @AuthenticationPrincipal User currentUser,
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
             @RequestBody ChangePasswordRequest request) {
         try {
             authService.changePassword(currentUser, request);
@@ -109,13 +137,13 @@ public class AuthController {
      * NEW endpoint (not in legacy)
      */
     @GetMapping("/me")
-    public ResponseEntity<ApiResponse<LoginResponse>> getCurrentUser(@AuthenticationPrincipal User currentUser) {
+    public ResponseEntity<ApiResponse<LoginResponse>> getCurrentUser(@AuthenticationPrincipal AuthenticatedUser currentUser) {
         try {
             LoginResponse response = LoginResponse.builder()
-                    .nama(currentUser.getNama())
-                    .idUnit(currentUser.getIdUnit())
-                    .role(currentUser.getRole())
-                    .token(currentUser.getToken())
+                    .nama(currentUser.nama())
+                    .idUnit(currentUser.idUnit())
+                    .role(currentUser.role())
+                    .token(currentUser.token())
                     .build();
             return ResponseEntity.ok(
                     ApiResponse.success("User info retrieved", response));
@@ -1,21 +1,50 @@
 package com.example.leaflet_geo.controller;
 
+import com.example.leaflet_geo.service.BidangCountService;
+import com.example.leaflet_geo.service.BidangExportService;
+import com.example.leaflet_geo.service.BidangImportService;
+import com.example.leaflet_geo.service.DataVersionService;
+import com.example.leaflet_geo.service.FlatGeobufCacheService;
+import com.example.leaflet_geo.service.NopSearchService;
+import com.example.leaflet_geo.service.ReferenceDataService;
+import com.example.leaflet_geo.service.SingleFlightService;
+import com.example.leaflet_geo.service.TematikService;
+import com.example.leaflet_geo.util.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.ArrayList;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @RestController
 @RequestMapping("/api/bidang")
 @CrossOrigin(origins = "*")
 public class BidangController {
 
+    private static final String GEOMETRY_COLUMNS = "id, nop, ST_AsGeoJSON(geom) as geojson, kd_prop, kd_dati2, kd_kec, kd_kel, kd_blok, no_urut, kd_jns_op, created_at, is_active";
+
+    /** Batas atas parameter size pagination */
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\":\\s*(\\d+)");
+
     @Autowired
     @Qualifier("postgresJdbcTemplate")
     private JdbcTemplate postgresJdbcTemplate;
@@ -24,6 +53,33 @@ public class BidangController {
     @Qualifier("oracleJdbcTemplate")
     private JdbcTemplate oracleJdbcTemplate;
 
+    @Autowired
+    private BidangCountService bidangCountService;
+
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    @Autowired
+    private NopSearchService nopSearchService;
+
+    @Autowired
+    private BidangImportService bidangImportService;
+
+    @Autowired
+    private BidangExportService bidangExportService;
+
+    @Autowired
+    private FlatGeobufCacheService flatGeobufCacheService;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private TematikService tematikService;
+
+    @Autowired
+    private SingleFlightService singleFlightService;
+
     @GetMapping("/health")
     public ResponseEntity<String> healthCheck() {
         try {
@@ -62,35 +118,15 @@ public class BidangController {
     @GetMapping
     public ResponseEntity<Map<String, Object>> getAllBidang(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String count) {
         try {
-            int offset = page * size;
-
-            // Get total count
-            Long totalCount = postgresJdbcTemplate.queryForObject(
-                    "SELECT COUNT(*) FROM sig.bidang WHERE is_active = true", Long.class);
-
-            // Get paginated data
-            List<Map<String, Object>> data = postgresJdbcTemplate.queryForList(
-                    "SELECT * FROM sig.bidang WHERE is_active = true ORDER BY created_at DESC LIMIT ? OFFSET ?",
-                    size, offset);
-
-            // Calculate pagination info
-            int totalPages = (int) Math.ceil((double) totalCount / size);
-            boolean hasNext = page < totalPages - 1;
-            boolean hasPrev = page > 0;
-
-            Map<String, Object> response = Map.of(
-                    "data", data,
-                    "pagination", Map.of(
-                            "page", page,
-                            "size", size,
-                            "totalElements", totalCount,
-                            "totalPages", totalPages,
-                            "hasNext", hasNext,
-                            "hasPrev", hasPrev));
-
+            Map<String, Object> response = queryPage("*", "WHERE is_active = true", new ArrayList<>(),
+                    page, size, cursor, count);
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
         }
@@ -127,35 +163,16 @@ public class BidangController {
     @GetMapping("/geometry")
     public ResponseEntity<Map<String, Object>> getAllBidangWithGeometry(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "50") int size) {
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String count) {
         try {
-            int offset = page * size;
-
-            // Get total count
-            Long totalCount = postgresJdbcTemplate.queryForObject(
-                    "SELECT COUNT(*) FROM sig.bidang WHERE is_active = true AND geom IS NOT NULL", Long.class);
-
-            // Get paginated data with GeoJSON conversion
-            List<Map<String, Object>> data = postgresJdbcTemplate.queryForList(
-                    "SELECT id, nop, ST_AsGeoJSON(geom) as geojson, kd_prop, kd_dati2, kd_kec, kd_kel, kd_blok, no_urut, kd_jns_op, created_at, is_active FROM sig.bidang WHERE is_active = true AND geom IS NOT NULL ORDER BY created_at DESC LIMIT ? OFFSET ?",
-                    size, offset);
-
-            // Calculate pagination info
-            int totalPages = (int) Math.ceil((double) totalCount / size);
-            boolean hasNext = page < totalPages - 1;
-            boolean hasPrev = page > 0;
-
-            Map<String, Object> response = Map.of(
-                    "data", data,
-                    "pagination", Map.of(
-                            "page", page,
-                            "size", size,
-                            "totalElements", totalCount,
-                            "totalPages", totalPages,
-                            "hasNext", hasNext,
-                            "hasPrev", hasPrev));
-
+            Map<String, Object> response = queryPage(GEOMETRY_COLUMNS,
+                    "WHERE is_active = true AND geom IS NOT NULL", new ArrayList<>(),
+                    page, size, cursor, count);
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
         }
@@ -178,40 +195,24 @@ public class BidangController {
             @PathVariable String kdDati2,
             @PathVariable String kdKec,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String count,
+            ServletWebRequest request) {
+        if (dataVersionService.checkNotModified(request, dataVersionService.bidang(kdProp, kdDati2, kdKec, null))) {
+            return null;
+        }
         try {
-            int offset = page * size;
-
-            // Get total count
-            Long totalCount = postgresJdbcTemplate.queryForObject(
-                    "SELECT COUNT(*) FROM sig.bidang WHERE kd_prop = ? AND kd_dati2 = ? AND kd_kec = ? AND is_active = true",
-                    Long.class, kdProp, kdDati2, kdKec);
-
-            // Get paginated data
-            List<Map<String, Object>> data = postgresJdbcTemplate.queryForList(
-                    "SELECT * FROM sig.bidang WHERE kd_prop = ? AND kd_dati2 = ? AND kd_kec = ? AND is_active = true ORDER BY created_at DESC LIMIT ? OFFSET ?",
-                    kdProp, kdDati2, kdKec, size, offset);
-
-            // Calculate pagination info
-            int totalPages = (int) Math.ceil((double) totalCount / size);
-            boolean hasNext = page < totalPages - 1;
-            boolean hasPrev = page > 0;
-
-            Map<String, Object> response = Map.of(
-                    "data", data,
-                    "filters", Map.of(
-                            "kdProp", kdProp,
-                            "kdDati2", kdDati2,
-                            "kdKec", kdKec),
-                    "pagination", Map.of(
-                            "page", page,
-                            "size", size,
-                            "totalElements", totalCount,
-                            "totalPages", totalPages,
-                            "hasNext", hasNext,
-                            "hasPrev", hasPrev));
-
+            Map<String, Object> response = queryPage("*",
+                    "WHERE kd_prop = ? AND kd_dati2 = ? AND kd_kec = ? AND is_active = true",
+                    new ArrayList<>(List.of(kdProp, kdDati2, kdKec)), page, size, cursor, count);
+            response.put("filters", Map.of(
+                    "kdProp", kdProp,
+                    "kdDati2", kdDati2,
+                    "kdKec", kdKec));
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
         }
@@ -224,41 +225,25 @@ public class BidangController {
             @PathVariable String kdKec,
             @PathVariable String kdKel,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String count,
+            ServletWebRequest request) {
+        if (dataVersionService.checkNotModified(request, dataVersionService.bidang(kdProp, kdDati2, kdKec, kdKel))) {
+            return null;
+        }
         try {
-            int offset = page * size;
-
-            // Get total count
-            Long totalCount = postgresJdbcTemplate.queryForObject(
-                    "SELECT COUNT(*) FROM sig.bidang WHERE kd_prop = ? AND kd_dati2 = ? AND kd_kec = ? AND kd_kel = ? AND is_active = true",
-                    Long.class, kdProp, kdDati2, kdKec, kdKel);
-
-            // Get paginated data
-            List<Map<String, Object>> data = postgresJdbcTemplate.queryForList(
-                    "SELECT * FROM sig.bidang WHERE kd_prop = ? AND kd_dati2 = ? AND kd_kec = ? AND kd_kel = ? AND is_active = true ORDER BY created_at DESC LIMIT ? OFFSET ?",
-                    kdProp, kdDati2, kdKec, kdKel, size, offset);
-
-            // Calculate pagination info
-            int totalPages = (int) Math.ceil((double) totalCount / size);
-            boolean hasNext = page < totalPages - 1;
-            boolean hasPrev = page > 0;
-
-            Map<String, Object> response = Map.of(
-                    "data", data,
-                    "filters", Map.of(
-                            "kdProp", kdProp,
-                            "kdDati2", kdDati2,
-                            "kdKec", kdKec,
-                            "kdKel", kdKel),
-                    "pagination", Map.of(
-                            "page", page,
-                            "size", size,
-                            "totalElements", totalCount,
-                            "totalPages", totalPages,
-                            "hasNext", hasNext,
-                            "hasPrev", hasPrev));
-
+            Map<String, Object> response = queryPage("*",
+                    "WHERE kd_prop = ? AND kd_dati2 = ? AND kd_kec = ? AND kd_kel = ? AND is_active = true",
+                    new ArrayList<>(List.of(kdProp, kdDati2, kdKec, kdKel)), page, size, cursor, count);
+            response.put("filters", Map.of(
+                    "kdProp", kdProp,
+                    "kdDati2", kdDati2,
+                    "kdKec", kdKec,
+                    "kdKel", kdKel));
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
         }
@@ -270,40 +255,24 @@ public class BidangController {
             @PathVariable String kdDati2,
             @PathVariable String kdKec,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "50") int size) {
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String count,
+            ServletWebRequest request) {
+        if (dataVersionService.checkNotModified(request, dataVersionService.bidang(kdProp, kdDati2, kdKec, null))) {
+            return null;
+        }
         try {
-            int offset = page * size;
-
-            // Get total count
-            Long totalCount = postgresJdbcTemplate.queryForObject(
-                    "SELECT COUNT(*) FROM sig.bidang WHERE kd_prop = ? AND kd_dati2 = ? AND kd_kec = ? AND is_active = true AND geom IS NOT NULL",
-                    Long.class, kdProp, kdDati2, kdKec);
-
-            // Get paginated data with GeoJSON conversion
-            List<Map<String, Object>> data = postgresJdbcTemplate.queryForList(
-                    "SELECT id, nop, ST_AsGeoJSON(geom) as geojson, kd_prop, kd_dati2, kd_kec, kd_kel, kd_blok, no_urut, kd_jns_op, created_at, is_active FROM sig.bidang WHERE kd_prop = ? AND kd_dati2 = ? AND kd_kec = ? AND is_active = true AND geom IS NOT NULL ORDER BY created_at DESC LIMIT ? OFFSET ?",
-                    kdProp, kdDati2, kdKec, size, offset);
-
-            // Calculate pagination info
-            int totalPages = (int) Math.ceil((double) totalCount / size);
-            boolean hasNext = page < totalPages - 1;
-            boolean hasPrev = page > 0;
-
-            Map<String, Object> response = Map.of(
-                    "data", data,
-                    "filters", Map.of(
-                            "kdProp", kdProp,
-                            "kdDati2", kdDati2,
-                            "kdKec", kdKec),
-                    "pagination", Map.of(
-                            "page", page,
-                            "size", size,
-                            "totalElements", totalCount,
-                            "totalPages", totalPages,
-                            "hasNext", hasNext,
-                            "hasPrev", hasPrev));
-
+            Map<String, Object> response = queryPage(GEOMETRY_COLUMNS,
+                    "WHERE kd_prop = ? AND kd_dati2 = ? AND kd_kec = ? AND is_active = true AND geom IS NOT NULL",
+                    new ArrayList<>(List.of(kdProp, kdDati2, kdKec)), page, size, cursor, count);
+            response.put("filters", Map.of(
+                    "kdProp", kdProp,
+                    "kdDati2", kdDati2,
+                    "kdKec", kdKec));
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
         }
@@ -316,41 +285,92 @@ public class BidangController {
             @PathVariable String kdKec,
             @PathVariable String kdKel,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "50") int size) {
-        try {
-            int offset = page * size;
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String count,
+            ServletWebRequest request) {
+        if (dataVersionService.checkNotModified(request, dataVersionService.bidang(kdProp, kdDati2, kdKec, kdKel))) {
+            return null;
+        }
+        // request bersamaan untuk halaman yang sama berbagi satu query geometri
+        String key = String.join(":", "bidang-kelurahan-geometry", kdProp, kdDati2, kdKec, kdKel,
+                String.valueOf(page), String.valueOf(size), String.valueOf(cursor), String.valueOf(count));
+        return singleFlightService.execute(key,
+                () -> kelurahanGeometryPage(kdProp, kdDati2, kdKec, kdKel, page, size, cursor, count));
+    }
 
-            // Get total count
-            Long totalCount = postgresJdbcTemplate.queryForObject(
-                    "SELECT COUNT(*) FROM sig.bidang WHERE kd_prop = ? AND kd_dati2 = ? AND kd_kec = ? AND kd_kel = ? AND is_active = true AND geom IS NOT NULL",
-                    Long.class, kdProp, kdDati2, kdKec, kdKel);
+    private ResponseEntity<Map<String, Object>> kelurahanGeometryPage(String kdProp, String kdDati2, String kdKec,
+            String kdKel, int page, int size, String cursor, String count) {
+        try {
+            Map<String, Object> response = queryPage(GEOMETRY_COLUMNS,
+                    "WHERE kd_prop = ? AND kd_dati2 = ? AND kd_kec = ? AND kd_kel = ? AND is_active = true AND geom IS NOT NULL",
+                    new ArrayList<>(List.of(kdProp, kdDati2, kdKec, kdKel)), page, size, cursor, count);
+            response.put("filters", Map.of(
+                    "kdProp", kdProp,
+                    "kdDati2", kdDati2,
+                    "kdKec", kdKec,
+                    "kdKel", kdKel));
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
+        }
+    }
 
-            // Get paginated data with GeoJSON conversion
-            List<Map<String, Object>> data = postgresJdbcTemplate.queryForList(
-                    "SELECT id, nop, ST_AsGeoJSON(geom) as geojson, kd_prop, kd_dati2, kd_kec, kd_kel, kd_blok, no_urut, kd_jns_op, created_at, is_active FROM sig.bidang WHERE kd_prop = ? AND kd_dati2 = ? AND kd_kec = ? AND kd_kel = ? AND is_active = true AND geom IS NOT NULL ORDER BY created_at DESC LIMIT ? OFFSET ?",
-                    kdProp, kdDati2, kdKec, kdKel, size, offset);
-
-            // Calculate pagination info
-            int totalPages = (int) Math.ceil((double) totalCount / size);
-            boolean hasNext = page < totalPages - 1;
-            boolean hasPrev = page > 0;
-
-            Map<String, Object> response = Map.of(
-                    "data", data,
-                    "filters", Map.of(
-                            "kdProp", kdProp,
-                            "kdDati2", kdDati2,
-                            "kdKec", kdKec,
-                            "kdKel", kdKel),
-                    "pagination", Map.of(
-                            "page", page,
-                            "size", size,
-                            "totalElements", totalCount,
-                            "totalPages", totalPages,
-                            "hasNext", hasNext,
-                            "hasPrev", hasPrev));
+    /**
+     * Bidang satu kelurahan sebagai FlatGeobuf dengan spatial index
+     * GET /api/bidang/kelurahan/35/08/130/017/fgb
+     *
+     * File dilayani dari cache disk dan mendukung header Range, sehingga
+     * client cukup mengambil header + index lalu feature di viewport. ETag
+     * berasal dari file (bukan versi data) agar If-Range bisa dievaluasi.
+     */
+    @GetMapping("/kelurahan/{kdProp}/{kdDati2}/{kdKec}/{kdKel}/fgb")
+    public ResponseEntity<?> getBidangByKelurahanFlatGeobuf(
+            @PathVariable String kdProp,
+            @PathVariable String kdDati2,
+            @PathVariable String kdKec,
+            @PathVariable String kdKel,
+            ServletWebRequest request) {
+        try {
+            return flatGeobufCacheService.serve(flatGeobufCacheService.bidang(kdProp, kdDati2, kdKec, kdKel),
+                    bidangExportService.baseName(kdKec, kdKel) + ".fgb", request);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
+        }
+    }
 
+    /**
+     * Klasifikasi tematik bidang satu kelurahan (tanpa geometri)
+     * GET /api/bidang/kelurahan/35/08/130/017/tematik?jenis=njop|pembayaran|penggunaan|znt&tahun=2025
+     *
+     * Response: legenda classes [{id, label, color, count}] + array ids (id bidang)
+     * dan classIds yang sejajar; kelas 0 = tidak terklasifikasi. Geometri
+     * diambil dari endpoint geometry / fgb dan diwarnai di client per id.
+     */
+    @GetMapping("/kelurahan/{kdProp}/{kdDati2}/{kdKec}/{kdKel}/tematik")
+    public ResponseEntity<Map<String, Object>> getBidangTematik(
+            @PathVariable String kdProp,
+            @PathVariable String kdDati2,
+            @PathVariable String kdKec,
+            @PathVariable String kdKel,
+            @RequestParam String jenis,
+            @RequestParam(required = false) String tahun,
+            @RequestParam(required = false) String breaks) {
+        try {
+            Map<String, Object> response = tematikService.classify(kdProp, kdDati2, kdKec, kdKel, jenis, tahun,
+                    breaks);
+            response.put("filters", Map.of(
+                    "kdProp", kdProp,
+                    "kdDati2", kdDati2,
+                    "kdKec", kdKec,
+                    "kdKel", kdKel));
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
         }
@@ -364,13 +384,13 @@ public class BidangController {
             @RequestParam(required = false) String kdKel,
             @RequestParam(required = false) String nop,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String count) {
         try {
-            int offset = page * size;
-
             // Build dynamic query
             StringBuilder whereClause = new StringBuilder("WHERE is_active = true");
-            java.util.List<Object> params = new java.util.ArrayList<>();
+            List<Object> params = new ArrayList<>();
 
             if (kdProp != null && !kdProp.isEmpty()) {
                 whereClause.append(" AND kd_prop = ?");
@@ -389,48 +409,254 @@ public class BidangController {
                 params.add(kdKel);
             }
             if (nop != null && !nop.isEmpty()) {
-                whereClause.append(" AND nop ILIKE ?");
-                params.add("%" + nop + "%");
+                whereClause.append(" AND CAST(nop AS text) ILIKE ?");
+                params.add(containsPattern(nop));
             }
 
-            // Get total count
-            String countQuery = "SELECT COUNT(*) FROM sig.bidang " + whereClause;
-            Long totalCount = postgresJdbcTemplate.queryForObject(countQuery, Long.class, params.toArray());
-
-            // Get paginated data
-            String dataQuery = "SELECT * FROM sig.bidang " + whereClause + " ORDER BY created_at DESC LIMIT ? OFFSET ?";
-            params.add(size);
-            params.add(offset);
-
-            List<Map<String, Object>> data = postgresJdbcTemplate.queryForList(dataQuery, params.toArray());
-
-            // Calculate pagination info
-            int totalPages = (int) Math.ceil((double) totalCount / size);
-            boolean hasNext = page < totalPages - 1;
-            boolean hasPrev = page > 0;
-
-            Map<String, Object> response = Map.of(
-                    "data", data,
-                    "filters", Map.of(
-                            "kdProp", kdProp != null ? kdProp : "",
-                            "kdDati2", kdDati2 != null ? kdDati2 : "",
-                            "kdKec", kdKec != null ? kdKec : "",
-                            "kdKel", kdKel != null ? kdKel : "",
-                            "nop", nop != null ? nop : ""),
-                    "pagination", Map.of(
-                            "page", page,
-                            "size", size,
-                            "totalElements", totalCount,
-                            "totalPages", totalPages,
-                            "hasNext", hasNext,
-                            "hasPrev", hasPrev));
+            Map<String, Object> response = queryPage("*", whereClause.toString(), params,
+                    page, size, cursor, count);
+            response.put("filters", Map.of(
+                    "kdProp", kdProp != null ? kdProp : "",
+                    "kdDati2", kdDati2 != null ? kdDati2 : "",
+                    "kdKec", kdKec != null ? kdKec : "",
+                    "kdKel", kdKel != null ? kdKel : "",
+                    "nop", nop != null ? nop : ""));
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Autocomplete NOP
+     *
+     * Prefix dicari di index in-memory (NopSearchService, titik boleh diabaikan).
+     * Jika tidak ada hasil prefix, fallback ke pencarian substring di DB yang
+     * didukung index trigram (minimal 3 karakter).
+     */
+    @GetMapping("/nop-suggest")
+    public ResponseEntity<Map<String, Object>> suggestNop(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            int max = Math.max(1, Math.min(limit, 100));
+            String source = "index";
+            List<String> data = nopSearchService.prefix(q, max);
+            if (data.isEmpty() && q.trim().length() >= 3) {
+                source = "trigram";
+                data = postgresJdbcTemplate.queryForList(
+                        "SELECT TRIM(nop) FROM sig.bidang WHERE is_active = true AND CAST(nop AS text) ILIKE ? " +
+                                "ORDER BY nop LIMIT ?",
+                        String.class, containsPattern(q.trim()), max);
+            }
 
+            Map<String, Object> response = new HashMap<>();
+            response.put("q", q);
+            response.put("source", source);
+            response.put("count", data.size());
+            response.put("data", data);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
         }
     }
 
+    /**
+     * Pola ILIKE "mengandung value"; %, _ dan \ (escape default PostgreSQL) di input dicocokkan apa adanya
+     */
+    private static String containsPattern(String value) {
+        return "%" + value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    /**
+     * Ambil satu halaman sig.bidang, diurutkan created_at DESC, id DESC.
+     *
+     * Tanpa cursor memakai LIMIT/OFFSET (kompatibel dengan client lama).
+     * Dengan cursor (kosong = halaman pertama) memakai keyset
+     * "(created_at, id) < (?, ?)" sehingga biaya per halaman tidak bergantung
+     * pada kedalaman halaman.
+     *
+     * count: exact (COUNT(*)), estimate (statistik planner), none (tanpa total).
+     * Default exact untuk mode offset dan none untuk mode cursor.
+     */
+    private Map<String, Object> queryPage(String columns, String where, List<Object> params,
+            int page, int size, String cursor, String count) {
+        size = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        String countMode = count != null ? count : (cursor != null ? "none" : "exact");
+        Long totalCount = switch (countMode) {
+            case "exact" -> postgresJdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM sig.bidang " + where, Long.class, params.toArray());
+            case "estimate" -> estimateCount(where, params);
+            case "none" -> null;
+            default -> throw new IllegalArgumentException("Parameter count harus exact, estimate, atau none");
+        };
+
+        List<Object> dataParams = new ArrayList<>(params);
+        Map<String, Object> pagination = new HashMap<>();
+        pagination.put("size", size);
+        List<Map<String, Object>> data;
+
+        if (cursor != null) {
+            String dataWhere = where;
+            String[] key = PageCursor.decode(cursor, 2);
+            if (key != null) {
+                // parse di Java: cursor rusak = 400, bukan error CAST di database
+                Timestamp createdAt;
+                UUID id;
+                try {
+                    createdAt = Timestamp.valueOf(LocalDateTime.parse(key[0]));
+                    id = UUID.fromString(key[1]);
+                } catch (DateTimeParseException | IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Cursor tidak valid", e);
+                }
+                dataWhere += " AND (created_at, id) < (?, ?)";
+                dataParams.add(createdAt);
+                dataParams.add(id);
+            }
+            dataParams.add(size + 1);
+            List<Map<String, Object>> rows = postgresJdbcTemplate.queryForList(
+                    "SELECT " + columns + " FROM sig.bidang " + dataWhere
+                            + " ORDER BY created_at DESC, id DESC LIMIT ?",
+                    dataParams.toArray());
+
+            boolean hasNext = rows.size() > size;
+            data = hasNext ? rows.subList(0, size) : rows;
+            String nextCursor = null;
+            if (hasNext) {
+                Map<String, Object> last = data.get(data.size() - 1);
+                nextCursor = PageCursor.encode(
+                        ((Timestamp) last.get("created_at")).toLocalDateTime(), last.get("id"));
+            }
+            pagination.put("cursor", cursor);
+            pagination.put("nextCursor", nextCursor);
+            pagination.put("hasNext", hasNext);
+        } else {
+            dataParams.add(size);
+            dataParams.add(page * size);
+            data = postgresJdbcTemplate.queryForList(
+                    "SELECT " + columns + " FROM sig.bidang " + where
+                            + " ORDER BY created_at DESC, id DESC LIMIT ? OFFSET ?",
+                    dataParams.toArray());
+
+            pagination.put("page", page);
+            pagination.put("hasPrev", page > 0);
+            if (totalCount != null) {
+                int totalPages = (int) Math.ceil((double) totalCount / size);
+                pagination.put("totalPages", totalPages);
+                pagination.put("hasNext", page < totalPages - 1);
+            } else {
+                pagination.put("hasNext", data.size() == size);
+            }
+        }
+
+        if (totalCount != null) {
+            pagination.put("totalElements", totalCount);
+            pagination.put("countMode", countMode);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", data);
+        response.put("pagination", pagination);
+        return response;
+    }
+
+    /**
+     * Perkiraan jumlah baris tanpa scan: reltuples untuk listing tanpa filter,
+     * estimasi "Plan Rows" dari planner untuk query dengan filter.
+     */
+    private Long estimateCount(String where, List<Object> params) {
+        if (params.isEmpty()) {
+            Long reltuples = postgresJdbcTemplate.queryForObject(
+                    "SELECT GREATEST(reltuples, 0)::bigint FROM pg_class WHERE oid = 'sig.bidang'::regclass",
+                    Long.class);
+            if (reltuples != null && reltuples > 0) {
+                return reltuples;
+            }
+        }
+        String plan = postgresJdbcTemplate.queryForObject(
+                "EXPLAIN (FORMAT JSON) SELECT 1 FROM sig.bidang " + where, String.class, params.toArray());
+        Matcher matcher = PLAN_ROWS.matcher(plan != null ? plan : "");
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0L;
+    }
+
+    /**
+     * Import massal geometri bidang (GeoJSON, CSV nop,wkb_hex, atau zip shapefile)
+     *
+     * Semua baris divalidasi dulu; jika ada error tidak ada yang disimpan dan
+     * response 422 berisi daftar error per baris. dryRun=true hanya validasi.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<Map<String, Object>> importBidang(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "nop") String nopField,
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        try {
+            BidangImportService.ImportResult result = bidangImportService.importFile(
+                    file.getOriginalFilename(), file.getInputStream(), nopField, dryRun);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", result.errorCount() == 0);
+            response.put("received", result.received());
+            response.put("inserted", result.inserted());
+            response.put("updated", result.updated());
+            response.put("dryRun", result.dryRun());
+            response.put("errorCount", result.errorCount());
+            response.put("errors", result.errors());
+            return result.errorCount() == 0 ? ResponseEntity.ok(response)
+                    : ResponseEntity.unprocessableEntity().body(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Export bidang + atribut SISMIOP satu kecamatan/kelurahan sebagai file GIS
+     * GET /api/bidang/export?kd_kec=130&kd_kel=017&format=shp|fgb
+     *
+     * Hasil di-stream langsung dari cursor database ke response.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<?> exportBidang(
+            @RequestParam("kd_kec") String kdKec,
+            @RequestParam(name = "kd_kel", required = false) String kdKel,
+            @RequestParam(name = "kd_prop", required = false) String kdProp,
+            @RequestParam(name = "kd_dati2", required = false) String kdDati2,
+            @RequestParam(defaultValue = "shp") String format) {
+        String fileName;
+        try {
+            fileName = bidangExportService.baseName(kdKec, kdKel);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        StreamingResponseBody body;
+        MediaType contentType;
+        switch (format) {
+            case "shp" -> {
+                fileName += ".zip";
+                contentType = MediaType.parseMediaType("application/zip");
+                body = out -> bidangExportService.exportShapefile(kdProp, kdDati2, kdKec, kdKel, out);
+            }
+            case "fgb" -> {
+                fileName += ".fgb";
+                contentType = MediaType.APPLICATION_OCTET_STREAM;
+                body = out -> bidangExportService.exportFlatGeobuf(kdProp, kdDati2, kdKec, kdKel, out);
+            }
+            default -> {
+                return ResponseEntity.badRequest().body(Map.of(
+                        "error", "Format tidak didukung: " + format + " (tersedia: shp, fgb)"));
+            }
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(fileName).build().toString())
+                .contentType(contentType)
+                .body(body);
+    }
+
     @GetMapping("/setup")
     public ResponseEntity<Map<String, Object>> setupDatabase() {
         try {
@@ -488,6 +714,10 @@ public class BidangController {
                                 ) ON CONFLICT (id) DO NOTHING
                             """);
 
+            bidangCountService.invalidate();
+            nopSearchService.invalidate();
+            flatGeobufCacheService.invalidate(FlatGeobufCacheService.BIDANG);
+
             // Test the setup
             Long count = postgresJdbcTemplate.queryForObject("SELECT COUNT(*) FROM sig.bidang", Long.class);
 
@@ -571,42 +801,30 @@ public class BidangController {
 
     /**
      * Get kecamatan with count from PostgreSQL
-     * Uses system.kecamatan for names and sig.bidang for counts
+     * Uses system.kecamatan (cached) for names and sig.bidang for counts
      */
     @GetMapping("/kecamatan-with-count/{kdProp}/{kdDati2}")
     public ResponseEntity<Map<String, Object>> getKecamatanWithCount(
             @PathVariable String kdProp,
             @PathVariable String kdDati2) {
         try {
-            // Step 1: Get count from sig.bidang
-            List<Map<String, Object>> countData = postgresJdbcTemplate.queryForList(
-                    "SELECT kd_kec, COUNT(*) as jumlah_bidang FROM sig.bidang WHERE kd_prop = ? AND kd_dati2 = ? AND is_active = true GROUP BY kd_kec ORDER BY kd_kec",
-                    kdProp, kdDati2);
-
-            // Create count map
-            Map<String, Integer> countMap = new HashMap<>();
-            for (Map<String, Object> row : countData) {
-                String kdKec = (String) row.get("kd_kec");
-                Integer count = ((Number) row.get("jumlah_bidang")).intValue();
-                countMap.put(kdKec.trim(), count);
-            }
+            // Step 1: Get count from rollup (sig.bidang)
+            Map<String, Long> countMap = bidangCountService.countByKecamatan(kdProp, kdDati2);
 
-            // Step 2: Get names from PostgreSQL system.kecamatan
-            List<Map<String, Object>> kecamatanData = postgresJdbcTemplate.queryForList(
-                    "SELECT kd_prop, kd_dati2, kd_kec, nama FROM system.kecamatan WHERE kd_prop = ? AND kd_dati2 = ? AND is_active = true ORDER BY kd_kec",
-                    kdProp, kdDati2);
+            // Step 2: Get names from system.kecamatan (reference cache)
+            List<ReferenceDataService.Kecamatan> kecamatanData = referenceDataService.kecamatan(kdProp, kdDati2);
 
             // Step 3: Combine data
             List<Map<String, Object>> result = new ArrayList<>();
-            for (Map<String, Object> kecamatan : kecamatanData) {
-                String kdKec = ((String) kecamatan.get("kd_kec")).trim();
-                Integer count = countMap.getOrDefault(kdKec, 0);
+            for (ReferenceDataService.Kecamatan kecamatan : kecamatanData) {
+                String kdKec = kecamatan.kdKec();
+                Integer count = countMap.getOrDefault(kdKec, 0L).intValue();
 
                 Map<String, Object> combined = new HashMap<>();
-                combined.put("kdPropinsi", ((String) kecamatan.get("kd_prop")).trim());
-                combined.put("kdDati2", ((String) kecamatan.get("kd_dati2")).trim());
+                combined.put("kdPropinsi", kecamatan.kdProp());
+                combined.put("kdDati2", kecamatan.kdDati2());
                 combined.put("kdKecamatan", kdKec);
-                combined.put("nmKecamatan", kecamatan.get("nama"));
+                combined.put("nmKecamatan", kecamatan.nama());
                 combined.put("jumlahBidang", count);
 
                 result.add(combined);
@@ -626,7 +844,7 @@ public class BidangController {
 
     /**
      * Get kelurahan with count from PostgreSQL
-     * Uses system.kelurahan for names and sig.bidang for counts
+     * Uses system.kelurahan (cached) for names and sig.bidang for counts
      */
     @GetMapping("/kelurahan-with-count/{kdProp}/{kdDati2}/{kdKec}")
     public ResponseEntity<Map<String, Object>> getKelurahanWithCount(
@@ -634,36 +852,24 @@ public class BidangController {
             @PathVariable String kdDati2,
             @PathVariable String kdKec) {
         try {
-            // Step 1: Get count from sig.bidang
-            List<Map<String, Object>> countData = postgresJdbcTemplate.queryForList(
-                    "SELECT kd_kel, COUNT(*) as jumlah_bidang FROM sig.bidang WHERE kd_prop = ? AND kd_dati2 = ? AND kd_kec = ? AND is_active = true GROUP BY kd_kel ORDER BY kd_kel",
-                    kdProp, kdDati2, kdKec);
-
-            // Create count map
-            Map<String, Integer> countMap = new HashMap<>();
-            for (Map<String, Object> row : countData) {
-                String kdKel = (String) row.get("kd_kel");
-                Integer count = ((Number) row.get("jumlah_bidang")).intValue();
-                countMap.put(kdKel.trim(), count);
-            }
+            // Step 1: Get count from rollup (sig.bidang)
+            Map<String, Long> countMap = bidangCountService.countByKelurahan(kdProp, kdDati2, kdKec);
 
-            // Step 2: Get names from PostgreSQL system.kelurahan
-            List<Map<String, Object>> kelurahanData = postgresJdbcTemplate.queryForList(
-                    "SELECT kd_prop, kd_dati2, kd_kec, kd_kel, nama FROM system.kelurahan WHERE kd_prop = ? AND kd_dati2 = ? AND kd_kec = ? AND is_active = true ORDER BY kd_kel",
-                    kdProp, kdDati2, kdKec);
+            // Step 2: Get names from system.kelurahan (reference cache)
+            List<ReferenceDataService.Kelurahan> kelurahanData = referenceDataService.kelurahan(kdProp, kdDati2, kdKec);
 
             // Step 3: Combine data
             List<Map<String, Object>> result = new ArrayList<>();
-            for (Map<String, Object> kelurahan : kelurahanData) {
-                String kdKel = ((String) kelurahan.get("kd_kel")).trim();
-                Integer count = countMap.getOrDefault(kdKel, 0);
+            for (ReferenceDataService.Kelurahan kelurahan : kelurahanData) {
+                String kdKel = kelurahan.kdKel();
+                Integer count = countMap.getOrDefault(kdKel, 0L).intValue();
 
                 Map<String, Object> combined = new HashMap<>();
-                combined.put("kdPropinsi", ((String) kelurahan.get("kd_prop")).trim());
-                combined.put("kdDati2", ((String) kelurahan.get("kd_dati2")).trim());
-                combined.put("kdKecamatan", ((String) kelurahan.get("kd_kec")).trim());
+                combined.put("kdPropinsi", kelurahan.kdProp());
+                combined.put("kdDati2", kelurahan.kdDati2());
+                combined.put("kdKecamatan", kelurahan.kdKec());
                 combined.put("kdKelurahan", kdKel);
-                combined.put("nmKelurahan", kelurahan.get("nama"));
+                combined.put("nmKelurahan", kelurahan.nama());
                 combined.put("jumlahBidang", count);
 
                 result.add(combined);
@@ -687,8 +893,7 @@ public class BidangController {
     @GetMapping("/total-count")
     public ResponseEntity<Map<String, Object>> getTotalBidangCount() {
         try {
-            Long totalCount = postgresJdbcTemplate.queryForObject(
-                    "SELECT COUNT(*) FROM sig.bidang WHERE is_active = true", Long.class);
+            long totalCount = bidangCountService.totalCount();
 
             return ResponseEntity.ok(Map.of(
                     "totalBidang", totalCount,
@@ -712,18 +917,16 @@ public class BidangController {
             @PathVariable String kdKec,
             @PathVariable String kdKel) {
         try {
-            // Step 1: Get count from PostgreSQL
-            List<Map<String, Object>> countData = postgresJdbcTemplate.queryForList(
-                    "SELECT kd_blok, COUNT(*) as jumlah_bidang FROM sig.bidang WHERE kd_prop = ? AND kd_dati2 = ? AND kd_kec = ? AND kd_kel = ? AND is_active = true GROUP BY kd_blok ORDER BY kd_blok",
-                    kdProp, kdDati2, kdKec, kdKel);
+            // Step 1: Get count from rollup (sorted by kd_blok)
+            Map<String, Long> countData = bidangCountService.countByBlok(kdProp, kdDati2, kdKec, kdKel);
 
             // Step 2: Create result list with blok codes and counts
             List<Map<String, Object>> result = new ArrayList<>();
-            for (Map<String, Object> row : countData) {
+            for (Map.Entry<String, Long> row : countData.entrySet()) {
                 Map<String, Object> blokData = new HashMap<>();
-                blokData.put("kdBlok", row.get("kd_blok"));
-                blokData.put("nmBlok", "Blok " + row.get("kd_blok")); // Simple name generation
-                blokData.put("jumlahBidang", ((Long) row.get("jumlah_bidang")).intValue());
+                blokData.put("kdBlok", row.getKey());
+                blokData.put("nmBlok", "Blok " + row.getKey()); // Simple name generation
+                blokData.put("jumlahBidang", row.getValue().intValue());
                 result.add(blokData);
             }
 
@@ -1,9 +1,12 @@
 package com.example.leaflet_geo.controller;
 
+import com.example.leaflet_geo.service.DataVersionService;
+import com.example.leaflet_geo.service.FlatGeobufCacheService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.http.ResponseEntity;
 
 import java.util.*;
@@ -14,6 +17,7 @@ import java.util.*;
  * CRUD Endpoints:
  * - GET /api/blok - Paginated list with filtering
  * - GET /api/blok/list?kd_kec=&kd_kel= - Daftar blok (dropdown)
+ * - GET /api/blok/fgb?kd_kec=&kd_kel= - Blok satu kelurahan sebagai FlatGeobuf (Range)
  * - GET /api/blok/{id} - Detail satu blok
  * - POST /api/blok - Create new blok
  * - PUT /api/blok/{id} - Update blok
@@ -29,6 +33,12 @@ public class BlokController {
     @Qualifier("postgresJdbcTemplate")
     private JdbcTemplate postgresJdbcTemplate;
 
+    @Autowired
+    private FlatGeobufCacheService flatGeobufCacheService;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
     /**
      * GET /api/blok?page=0&size=10&kd_kec=&kd_kel=&kd_blok=
      * Paginated list dengan filter
@@ -39,7 +49,11 @@ public class BlokController {
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String kd_kec,
             @RequestParam(required = false) String kd_kel,
-            @RequestParam(required = false) String kd_blok) {
+            @RequestParam(required = false) String kd_blok,
+            ServletWebRequest request) {
+        if (dataVersionService.checkNotModified(request, dataVersionService.blok(kd_kec, kd_kel))) {
+            return null;
+        }
         try {
             StringBuilder whereClause = new StringBuilder("WHERE 1=1");
             List<Object> params = new ArrayList<>();
@@ -90,7 +104,11 @@ public class BlokController {
     @GetMapping("/list")
     public ResponseEntity<List<Map<String, Object>>> getBlokList(
             @RequestParam String kd_kec,
-            @RequestParam String kd_kel) {
+            @RequestParam String kd_kel,
+            ServletWebRequest request) {
+        if (dataVersionService.checkNotModified(request, dataVersionService.blok(kd_kec, kd_kel))) {
+            return null;
+        }
         try {
             List<Map<String, Object>> data = postgresJdbcTemplate.queryForList(
                     "SELECT id, TRIM(kd_prop) as kd_prop, TRIM(kd_dati2) as kd_dati2, " +
@@ -105,8 +123,31 @@ public class BlokController {
         }
     }
 
+    /**
+     * GET /api/blok/fgb?kd_kec=130&kd_kel=017
+     * FlatGeobuf dengan spatial index dari cache disk, mendukung header Range
+     * (ETag dari file, lihat FlatGeobufCacheService.serve)
+     */
+    @GetMapping("/fgb")
+    public ResponseEntity<?> getBlokFlatGeobuf(
+            @RequestParam String kd_kec,
+            @RequestParam String kd_kel,
+            ServletWebRequest request) {
+        try {
+            return flatGeobufCacheService.serve(flatGeobufCacheService.blok(kd_kec, kd_kel),
+                    "blok_" + kd_kec.trim() + "_" + kd_kel.trim() + ".fgb", request);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getBlokById(@PathVariable String id) {
+    public ResponseEntity<Map<String, Object>> getBlokById(@PathVariable String id, ServletWebRequest request) {
+        if (dataVersionService.checkNotModified(request, dataVersionService.blok(null, null))) {
+            return null;
+        }
         try {
             Map<String, Object> data = postgresJdbcTemplate.queryForMap(
                     "SELECT id, TRIM(kd_prop) as kd_prop, TRIM(kd_dati2) as kd_dati2, " +
@@ -121,8 +162,8 @@ public class BlokController {
     }
 
     @GetMapping("/view")
-    public ResponseEntity<Map<String, Object>> viewBlok(@RequestParam String id) {
-        return getBlokById(id);
+    public ResponseEntity<Map<String, Object>> viewBlok(@RequestParam String id, ServletWebRequest request) {
+        return getBlokById(id, request);
     }
 
     @PostMapping
@@ -156,6 +197,7 @@ public class BlokController {
             }
 
             Map<String, Object> result = postgresJdbcTemplate.queryForMap(sql, params);
+            flatGeobufCacheService.invalidate(FlatGeobufCacheService.BLOK);
             return ResponseEntity
                     .ok(Map.of("success", true, "message", "Blok berhasil ditambahkan", "id", result.get("id")));
         } catch (Exception e) {
@@ -189,6 +231,7 @@ public class BlokController {
 
             if (updated == 0)
                 return ResponseEntity.status(404).body(Map.of("error", "Blok tidak ditemukan"));
+            flatGeobufCacheService.invalidate(FlatGeobufCacheService.BLOK);
             return ResponseEntity.ok(Map.of("success", true, "message", "Blok berhasil diupdate"));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
@@ -202,6 +245,7 @@ public class BlokController {
                     "UPDATE sig.blok SET is_active = false, updated_at = NOW() WHERE id = ?::uuid", id);
             if (updated == 0)
                 return ResponseEntity.status(404).body(Map.of("error", "Blok tidak ditemukan"));
+            flatGeobufCacheService.invalidate(FlatGeobufCacheService.BLOK);
             return ResponseEntity.ok(Map.of("success", true, "message", "Blok berhasil dihapus"));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
@@ -215,6 +259,7 @@ public class BlokController {
                     "UPDATE sig.blok SET is_active = true, updated_at = NOW() WHERE id = ?::uuid", id);
             if (updated == 0)
                 return ResponseEntity.status(404).body(Map.of("error", "Blok tidak ditemukan"));
+            flatGeobufCacheService.invalidate(FlatGeobufCacheService.BLOK);
             return ResponseEntity.ok(Map.of("success", true, "message", "Blok berhasil dipulihkan"));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
@@ -4,10 +4,17 @@ import com.example.leaflet_geo.dto.KecamatanBoundaryDTO;
 import com.example.leaflet_geo.dto.KelurahanBoundaryDTO;
 import com.example.leaflet_geo.dto.BlokBoundaryDTO;
 import com.example.leaflet_geo.dto.BidangBoundaryDTO;
+import com.example.leaflet_geo.service.BidangCountService;
+import com.example.leaflet_geo.service.ResponseCacheService;
+import com.example.leaflet_geo.service.SingleFlightService;
 import com.example.leaflet_geo.util.WkbToGeoJsonConverter;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.web.bind.annotation.*;
@@ -23,6 +30,8 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class BprdProxyController {
 
+    private static final Logger log = LoggerFactory.getLogger(BprdProxyController.class);
+
     @Autowired
     private RestTemplate restTemplate;
 
@@ -33,11 +42,22 @@ public class BprdProxyController {
     @Qualifier("postgresJdbcTemplate")
     private JdbcTemplate postgresJdbcTemplate;
 
+    @Autowired
+    private BidangCountService bidangCountService;
+
+    @Autowired
+    private ResponseCacheService responseCacheService;
+
+    @Autowired
+    private SingleFlightService singleFlightService;
+
     private String cachedToken = null;
-    private final String BPRD_BASE_URL = "https://bprd.lumajangkab.go.id:1151/api";
+
+    @Value("${bprd.base-url:https://bprd.lumajangkab.go.id:1151/api}")
+    private String bprdBaseUrl;
 
     public BprdProxyController() {
-        System.out.println("🏗️ BprdProxyController initialized!");
+        log.debug("BprdProxyController initialized!");
     }
 
     /**
@@ -45,13 +65,18 @@ public class BprdProxyController {
      * Converts WKB hex string to GeoJSON for Leaflet consumption
      */
     @GetMapping("/boundaries")
-    public ResponseEntity<?> getBoundaries() {
-        System.out.println("🗺️ Boundaries request received");
+    public ResponseEntity<?> getBoundaries(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return responseCacheService.get("bprd:kecamatan", null, acceptEncoding, this::fetchBoundaries);
+    }
+
+    private ResponseEntity<?> fetchBoundaries() {
+        log.debug("Boundaries request received");
 
         try {
             // Step 1: Login if no token
             if (cachedToken == null) {
-                System.out.println("🔑 No token found, logging in...");
+                log.debug("No token found, logging in...");
 
                 Map<String, String> credentials = new HashMap<>();
                 credentials.put("username", "user");
@@ -63,7 +88,7 @@ public class BprdProxyController {
                 HttpEntity<Map<String, String>> loginRequest = new HttpEntity<>(credentials, loginHeaders);
 
                 ResponseEntity<String> loginResponse = restTemplate.exchange(
-                        BPRD_BASE_URL + "/user/login",
+                        bprdBaseUrl + "/user/login",
                         HttpMethod.POST,
                         loginRequest,
                         String.class);
@@ -74,7 +99,7 @@ public class BprdProxyController {
 
                     if (user != null && user.get("token") != null) {
                         cachedToken = (String) user.get("token");
-                        System.out.println("✅ Login successful, token: " + cachedToken.substring(0, 10) + "...");
+                        log.info("Login successful, token cached");
                     } else {
                         return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                                 .body(Map.of("error", "Login failed - no token received"));
@@ -86,7 +111,7 @@ public class BprdProxyController {
             }
 
             // Step 2: Get boundaries
-            System.out.println("🗺️ Getting boundaries with token...");
+            log.debug("Getting boundaries with token...");
 
             HttpHeaders boundariesHeaders = new HttpHeaders();
             boundariesHeaders.set("Authorization", "Bearer " + cachedToken);
@@ -95,7 +120,7 @@ public class BprdProxyController {
             HttpEntity<?> boundariesRequest = new HttpEntity<>(boundariesHeaders);
 
             ResponseEntity<String> boundariesResponse = restTemplate.exchange(
-                    BPRD_BASE_URL + "/kecamatan/list?option=false",
+                    bprdBaseUrl + "/kecamatan/list?option=false",
                     HttpMethod.GET,
                     boundariesRequest,
                     String.class);
@@ -107,7 +132,7 @@ public class BprdProxyController {
                         boundariesResponse.getBody(),
                         List.class);
 
-                System.out.println("📡 Received " + rawBoundaries.size() + " raw boundaries from BPRD API");
+                log.debug("Received {} raw boundaries from BPRD API", rawBoundaries.size());
 
                 // Convert WKB to GeoJSON for each boundary
                 List<KecamatanBoundaryDTO> convertedBoundaries = new ArrayList<>();
@@ -134,28 +159,27 @@ public class BprdProxyController {
                             if (geoJson != null) {
                                 dto.setGeojson(geoJson);
                                 successCount++;
-                                System.out.println("✅ Converted " + nama + " to GeoJSON");
+                                log.debug("Converted {} to GeoJSON", nama);
                             } else {
                                 failCount++;
-                                System.err.println("⚠️ Failed to convert " + nama + " - setting null GeoJSON");
+                                log.warn("Failed to convert {} - setting null GeoJSON", nama);
                                 dto.setGeojson(null);
                             }
                         } else {
                             failCount++;
-                            System.err.println("⚠️ No geometry data for " + nama);
+                            log.warn("No geometry data for {}", nama);
                         }
 
                         convertedBoundaries.add(dto);
 
                     } catch (Exception e) {
                         failCount++;
-                        System.err.println("❌ Error processing boundary: " + e.getMessage());
-                        e.printStackTrace();
+                        log.error("Error processing boundary", e);
                     }
                 }
 
-                System.out.println("📊 Conversion complete: " + successCount + " success, " + failCount + " failed");
-                System.out.println("✅ Successfully processed " + convertedBoundaries.size() + " boundaries");
+                log.debug("Conversion complete: {} success, {} failed", successCount, failCount);
+                log.debug("Successfully processed {} boundaries", convertedBoundaries.size());
 
                 return ResponseEntity.ok(convertedBoundaries);
             } else {
@@ -166,8 +190,7 @@ public class BprdProxyController {
             }
 
         } catch (Exception e) {
-            System.err.println("❌ Error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error getting boundaries", e);
 
             // Clear token on error and try to return useful info
             cachedToken = null;
@@ -181,7 +204,7 @@ public class BprdProxyController {
      */
     @GetMapping("/test")
     public ResponseEntity<?> test() {
-        System.out.println("🧪 Test endpoint hit");
+        log.debug("Test endpoint hit");
         return ResponseEntity.ok(Map.of(
                 "message", "Controller is working!",
                 "timestamp", System.currentTimeMillis(),
@@ -193,13 +216,19 @@ public class BprdProxyController {
      * Converts WKB hex string to GeoJSON for Leaflet consumption
      */
     @GetMapping("/kelurahan")
-    public ResponseEntity<?> getKelurahanBoundaries(@RequestParam("kd_kec") String kdKec) {
-        System.out.println("🏘️ Kelurahan boundaries request received for kecamatan: " + kdKec);
+    public ResponseEntity<?> getKelurahanBoundaries(@RequestParam("kd_kec") String kdKec,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return responseCacheService.get("bprd:kelurahan:" + kdKec, null, acceptEncoding,
+                () -> fetchKelurahanBoundaries(kdKec));
+    }
+
+    private ResponseEntity<?> fetchKelurahanBoundaries(String kdKec) {
+        log.debug("Kelurahan boundaries request received for kecamatan: {}", kdKec);
 
         try {
             // Step 1: Login if no token
             if (cachedToken == null) {
-                System.out.println("🔑 No token found, logging in...");
+                log.debug("No token found, logging in...");
 
                 Map<String, String> credentials = new HashMap<>();
                 credentials.put("username", "user");
@@ -211,7 +240,7 @@ public class BprdProxyController {
                 HttpEntity<Map<String, String>> loginRequest = new HttpEntity<>(credentials, loginHeaders);
 
                 ResponseEntity<String> loginResponse = restTemplate.exchange(
-                        BPRD_BASE_URL + "/user/login",
+                        bprdBaseUrl + "/user/login",
                         HttpMethod.POST,
                         loginRequest,
                         String.class);
@@ -222,7 +251,7 @@ public class BprdProxyController {
 
                     if (user != null && user.get("token") != null) {
                         cachedToken = (String) user.get("token");
-                        System.out.println("✅ Login successful for kelurahan request");
+                        log.info("Login successful for kelurahan request");
                     } else {
                         return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                                 .body(Map.of("error", "Login failed - no token received"));
@@ -234,7 +263,7 @@ public class BprdProxyController {
             }
 
             // Step 2: Get kelurahan boundaries
-            System.out.println("🏘️ Getting kelurahan boundaries for kecamatan " + kdKec + " with token...");
+            log.debug("Getting kelurahan boundaries for kecamatan {} with token...", kdKec);
 
             HttpHeaders boundariesHeaders = new HttpHeaders();
             boundariesHeaders.set("Authorization", "Bearer " + cachedToken);
@@ -242,8 +271,8 @@ public class BprdProxyController {
 
             HttpEntity<?> boundariesRequest = new HttpEntity<>(boundariesHeaders);
 
-            String url = BPRD_BASE_URL + "/kelurahan/list?kd_kec=" + kdKec + "&option=false";
-            System.out.println("🌐 Requesting: " + url);
+            String url = bprdBaseUrl + "/kelurahan/list?kd_kec=" + kdKec + "&option=false";
+            log.debug("Requesting: {}", url);
 
             ResponseEntity<String> boundariesResponse = restTemplate.exchange(
                     url,
@@ -258,7 +287,7 @@ public class BprdProxyController {
                         boundariesResponse.getBody(),
                         List.class);
 
-                System.out.println("📡 Received " + rawBoundaries.size() + " kelurahan boundaries from BPRD API");
+                log.debug("Received {} kelurahan boundaries from BPRD API", rawBoundaries.size());
 
                 // Convert WKB to GeoJSON for each boundary
                 List<KelurahanBoundaryDTO> convertedBoundaries = new ArrayList<>();
@@ -285,30 +314,27 @@ public class BprdProxyController {
                             if (geoJson != null) {
                                 dto.setGeojson(geoJson);
                                 successCount++;
-                                System.out.println("✅ Converted kelurahan " + nama + " to GeoJSON");
+                                log.debug("Converted kelurahan {} to GeoJSON", nama);
                             } else {
                                 failCount++;
-                                System.err
-                                        .println("⚠️ Failed to convert kelurahan " + nama + " - setting null GeoJSON");
+                                log.warn("Failed to convert kelurahan {} - setting null GeoJSON", nama);
                                 dto.setGeojson(null);
                             }
                         } else {
                             failCount++;
-                            System.err.println("⚠️ No geometry data for kelurahan " + nama);
+                            log.warn("No geometry data for kelurahan {}", nama);
                         }
 
                         convertedBoundaries.add(dto);
 
                     } catch (Exception e) {
                         failCount++;
-                        System.err.println("❌ Error processing kelurahan boundary: " + e.getMessage());
-                        e.printStackTrace();
+                        log.error("Error processing kelurahan boundary", e);
                     }
                 }
 
-                System.out.println(
-                        "📊 Kelurahan conversion complete: " + successCount + " success, " + failCount + " failed");
-                System.out.println("✅ Successfully processed " + convertedBoundaries.size() + " kelurahan boundaries");
+                log.debug("Kelurahan conversion complete: {} success, {} failed", successCount, failCount);
+                log.debug("Successfully processed {} kelurahan boundaries", convertedBoundaries.size());
 
                 return ResponseEntity.ok(convertedBoundaries);
             } else {
@@ -320,8 +346,7 @@ public class BprdProxyController {
             }
 
         } catch (Exception e) {
-            System.err.println("❌ Error fetching kelurahan boundaries: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fetching kelurahan boundaries", e);
 
             // Clear token on error
             cachedToken = null;
@@ -340,14 +365,20 @@ public class BprdProxyController {
     @GetMapping("/blok")
     public ResponseEntity<?> getBlokBoundaries(
             @RequestParam("kd_kec") String kdKec,
-            @RequestParam("kd_kel") String kdKel) {
+            @RequestParam("kd_kel") String kdKel,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return responseCacheService.get("bprd:blok:" + kdKec + ":" + kdKel, null, acceptEncoding,
+                () -> fetchBlokBoundaries(kdKec, kdKel));
+    }
+
+    private ResponseEntity<?> fetchBlokBoundaries(String kdKec, String kdKel) {
 
-        System.out.println("🏗️ Getting blok boundaries for kd_kec=" + kdKec + ", kd_kel=" + kdKel);
+        log.debug("Getting blok boundaries for kd_kec={}, kd_kel={}", kdKec, kdKel);
 
         try {
             // Step 1: Login if no token
             if (cachedToken == null) {
-                System.out.println("� No token found, logging in...");
+                log.debug("No token found, logging in...");
 
                 Map<String, String> credentials = new HashMap<>();
                 credentials.put("username", "user");
@@ -357,8 +388,8 @@ public class BprdProxyController {
                 loginHeaders.setContentType(MediaType.APPLICATION_JSON);
                 HttpEntity<Map<String, String>> loginRequest = new HttpEntity<>(credentials, loginHeaders);
 
-                String loginUrl = BPRD_BASE_URL + "/auth/signin";
-                System.out.println("📡 Calling login API: " + loginUrl);
+                String loginUrl = bprdBaseUrl + "/auth/signin";
+                log.debug("Calling login API: {}", loginUrl);
 
                 ResponseEntity<Map> loginResponse = restTemplate.exchange(
                         loginUrl,
@@ -370,14 +401,14 @@ public class BprdProxyController {
                     Map<String, Object> responseBody = loginResponse.getBody();
                     if (responseBody != null && responseBody.containsKey("token")) {
                         cachedToken = (String) responseBody.get("token");
-                        System.out.println("✅ Login successful! Token cached.");
+                        log.info("Login successful! Token cached.");
                     } else {
-                        System.err.println("❌ Login response missing token");
+                        log.warn("Login response missing token");
                         return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                                 .body(Map.of("error", "Authentication failed - no token in response"));
                     }
                 } else {
-                    System.err.println("❌ Login failed with status: " + loginResponse.getStatusCode());
+                    log.warn("Login failed with status: {}", loginResponse.getStatusCode());
                     return ResponseEntity.status(loginResponse.getStatusCode())
                             .body(Map.of("error", "Authentication failed"));
                 }
@@ -389,8 +420,8 @@ public class BprdProxyController {
             }
 
             // Call BPRD blok API
-            String blokUrl = BPRD_BASE_URL + "/blok/list?kd_kec=" + kdKec + "&kd_kel=" + kdKel;
-            System.out.println("📡 Calling BPRD blok API: " + blokUrl);
+            String blokUrl = bprdBaseUrl + "/blok/list?kd_kec=" + kdKec + "&kd_kel=" + kdKel;
+            log.debug("Calling BPRD blok API: {}", blokUrl);
 
             HttpHeaders headers = new HttpHeaders();
             headers.set("Authorization", "Bearer " + cachedToken);
@@ -403,7 +434,7 @@ public class BprdProxyController {
                     List.class);
 
             if (response.getStatusCode() != HttpStatus.OK) {
-                System.err.println("❌ BPRD blok API returned status: " + response.getStatusCode());
+                log.warn("BPRD blok API returned status: {}", response.getStatusCode());
                 return ResponseEntity.status(response.getStatusCode())
                         .body(Map.of("error", "BPRD API error: " + response.getStatusCode()));
             }
@@ -413,11 +444,11 @@ public class BprdProxyController {
             List<Map<String, Object>> rawBlokBoundaries = (List<Map<String, Object>>) response.getBody();
 
             if (rawBlokBoundaries == null || rawBlokBoundaries.isEmpty()) {
-                System.out.println("⚠️ No blok boundaries found for kd_kec=" + kdKec + ", kd_kel=" + kdKel);
+                log.debug("No blok boundaries found for kd_kec={}, kd_kel={}", kdKec, kdKel);
                 return ResponseEntity.ok(new ArrayList<>());
             }
 
-            System.out.println("📡 Received " + rawBlokBoundaries.size() + " raw blok boundaries from BPRD API");
+            log.debug("Received {} raw blok boundaries from BPRD API", rawBlokBoundaries.size());
 
             // Convert WKB to GeoJSON for each blok boundary
             List<BlokBoundaryDTO> convertedBlokBoundaries = new ArrayList<>();
@@ -442,9 +473,9 @@ public class BprdProxyController {
                         Map<String, Object> geoJson = WkbToGeoJsonConverter.convertWkbHexToGeoJson(geomWkbHex);
                         dto.setGeojson(geoJson);
                         successCount++;
-                        System.out.println("✅ Converted blok " + kdBlok + " geometry successfully");
+                        log.debug("Converted blok {} geometry successfully", kdBlok);
                     } else {
-                        System.out.println("⚠️ Empty geometry for blok " + kdBlok);
+                        log.debug("Empty geometry for blok {}", kdBlok);
                         failCount++;
                     }
 
@@ -452,18 +483,15 @@ public class BprdProxyController {
 
                 } catch (Exception e) {
                     failCount++;
-                    System.err.println("❌ Failed to process blok boundary: " + e.getMessage());
-                    e.printStackTrace();
+                    log.error("Failed to process blok boundary", e);
                 }
             }
 
-            System.out.println(
-                    "🏗️ Blok boundary conversion complete: " + successCount + " success, " + failCount + " failed");
+            log.debug("Blok boundary conversion complete: {} success, {} failed", successCount, failCount);
             return ResponseEntity.ok(convertedBlokBoundaries);
 
         } catch (Exception e) {
-            System.err.println("❌ Error getting blok boundaries: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error getting blok boundaries", e);
 
             // Clear token on error
             cachedToken = null;
@@ -485,15 +513,20 @@ public class BprdProxyController {
     public ResponseEntity<?> getBidangBoundaries(
             @RequestParam("kd_kec") String kdKec,
             @RequestParam("kd_kel") String kdKel,
-            @RequestParam("kd_blok") String kdBlok) {
+            @RequestParam("kd_blok") String kdBlok,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return responseCacheService.get("bprd:bidang:" + kdKec + ":" + kdKel + ":" + kdBlok, null, acceptEncoding,
+                () -> fetchBidangBoundaries(kdKec, kdKel, kdBlok));
+    }
+
+    private ResponseEntity<?> fetchBidangBoundaries(String kdKec, String kdKel, String kdBlok) {
 
-        System.out.println(
-                "📦 Getting bidang boundaries for kd_kec=" + kdKec + ", kd_kel=" + kdKel + ", kd_blok=" + kdBlok);
+        log.debug("Getting bidang boundaries for kd_kec={}, kd_kel={}, kd_blok={}", kdKec, kdKel, kdBlok);
 
         try {
             // Step 1: Login if no token
             if (cachedToken == null) {
-                System.out.println("🔑 No token found, logging in...");
+                log.debug("No token found, logging in...");
 
                 Map<String, String> credentials = new HashMap<>();
                 credentials.put("username", "user");
@@ -503,8 +536,8 @@ public class BprdProxyController {
                 loginHeaders.setContentType(MediaType.APPLICATION_JSON);
                 HttpEntity<Map<String, String>> loginRequest = new HttpEntity<>(credentials, loginHeaders);
 
-                String loginUrl = BPRD_BASE_URL + "/auth/signin";
-                System.out.println("📡 Calling login API: " + loginUrl);
+                String loginUrl = bprdBaseUrl + "/auth/signin";
+                log.debug("Calling login API: {}", loginUrl);
 
                 ResponseEntity<Map> loginResponse = restTemplate.exchange(
                         loginUrl,
@@ -516,14 +549,14 @@ public class BprdProxyController {
                     Map<String, Object> responseBody = loginResponse.getBody();
                     if (responseBody != null && responseBody.containsKey("token")) {
                         cachedToken = (String) responseBody.get("token");
-                        System.out.println("✅ Login successful! Token cached.");
+                        log.info("Login successful! Token cached.");
                     } else {
-                        System.err.println("❌ Login response missing token");
+                        log.warn("Login response missing token");
                         return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                                 .body(Map.of("error", "Authentication failed - no token in response"));
                     }
                 } else {
-                    System.err.println("❌ Login failed with status: " + loginResponse.getStatusCode());
+                    log.warn("Login failed with status: {}", loginResponse.getStatusCode());
                     return ResponseEntity.status(loginResponse.getStatusCode())
                             .body(Map.of("error", "Authentication failed"));
                 }
@@ -535,9 +568,9 @@ public class BprdProxyController {
             }
 
             // Call BPRD bidang API
-            String bidangUrl = BPRD_BASE_URL + "/bidang/list?kd_kec=" + kdKec + "&kd_kel=" + kdKel + "&kd_blok="
+            String bidangUrl = bprdBaseUrl + "/bidang/list?kd_kec=" + kdKec + "&kd_kel=" + kdKel + "&kd_blok="
                     + kdBlok;
-            System.out.println("📡 Calling BPRD bidang API: " + bidangUrl);
+            log.debug("Calling BPRD bidang API: {}", bidangUrl);
 
             HttpHeaders headers = new HttpHeaders();
             headers.set("Authorization", "Bearer " + cachedToken);
@@ -550,7 +583,7 @@ public class BprdProxyController {
                     List.class);
 
             if (response.getStatusCode() != HttpStatus.OK) {
-                System.err.println("❌ BPRD bidang API returned status: " + response.getStatusCode());
+                log.warn("BPRD bidang API returned status: {}", response.getStatusCode());
                 return ResponseEntity.status(response.getStatusCode())
                         .body(Map.of("error", "BPRD API error: " + response.getStatusCode()));
             }
@@ -560,12 +593,11 @@ public class BprdProxyController {
             List<Map<String, Object>> rawBidangBoundaries = (List<Map<String, Object>>) response.getBody();
 
             if (rawBidangBoundaries == null || rawBidangBoundaries.isEmpty()) {
-                System.out.println("⚠️ No bidang boundaries found for kd_kec=" + kdKec + ", kd_kel=" + kdKel
-                        + ", kd_blok=" + kdBlok);
+                log.debug("No bidang boundaries found for kd_kec={}, kd_kel={}, kd_blok={}", kdKec, kdKel, kdBlok);
                 return ResponseEntity.ok(new ArrayList<>());
             }
 
-            System.out.println("📡 Received " + rawBidangBoundaries.size() + " raw bidang boundaries from BPRD API");
+            log.debug("Received {} raw bidang boundaries from BPRD API", rawBidangBoundaries.size());
 
             // Convert WKB to GeoJSON for each bidang boundary
             List<BidangBoundaryDTO> convertedBidangBoundaries = new ArrayList<>();
@@ -576,8 +608,8 @@ public class BprdProxyController {
                 try {
                     // Debug: Log available keys in first boundary
                     if (successCount == 0) {
-                        System.out.println("🔍 Available keys in raw bidang boundary: " + rawBidangBoundary.keySet());
-                        System.out.println("📋 Sample raw bidang boundary: " + rawBidangBoundary);
+                        log.debug("Available keys in raw bidang boundary: {}", rawBidangBoundary.keySet());
+                        log.debug("Sample raw bidang boundary: {}", rawBidangBoundary);
                     }
 
                     String id = (String) rawBidangBoundary.get("id");
@@ -592,7 +624,7 @@ public class BprdProxyController {
 
                     // Debug: Log no_urut extraction for first few records
                     if (successCount < 3) {
-                        System.out.println("🔍 Extracted no_urut: '" + noUrut + "' from NOP: " + nop);
+                        log.debug("Extracted no_urut: '{}' from NOP: {}", noUrut, nop);
                     }
                     Boolean isActive = (Boolean) rawBidangBoundary.get("is_active");
                     String geomWkbHex = (String) rawBidangBoundary.get("geom");
@@ -607,9 +639,9 @@ public class BprdProxyController {
                         Map<String, Object> geoJson = WkbToGeoJsonConverter.convertWkbHexToGeoJson(geomWkbHex);
                         dto.setGeojson(geoJson);
                         successCount++;
-                        System.out.println("✅ Converted bidang " + nop + " geometry successfully");
+                        log.debug("Converted bidang {} geometry successfully", nop);
                     } else {
-                        System.out.println("⚠️ Empty geometry for bidang " + nop);
+                        log.debug("Empty geometry for bidang {}", nop);
                         failCount++;
                     }
 
@@ -617,18 +649,15 @@ public class BprdProxyController {
 
                 } catch (Exception e) {
                     failCount++;
-                    System.err.println("❌ Failed to process bidang boundary: " + e.getMessage());
-                    e.printStackTrace();
+                    log.error("Failed to process bidang boundary", e);
                 }
             }
 
-            System.out.println(
-                    "📦 Bidang boundary conversion complete: " + successCount + " success, " + failCount + " failed");
+            log.debug("Bidang boundary conversion complete: {} success, {} failed", successCount, failCount);
             return ResponseEntity.ok(convertedBidangBoundaries);
 
         } catch (Exception e) {
-            System.err.println("❌ Error getting bidang boundaries: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error getting bidang boundaries", e);
 
             // Clear token on error
             cachedToken = null;
@@ -651,14 +680,13 @@ public class BprdProxyController {
             @RequestParam String no_urut,
             @RequestParam String kd_jns_op) {
         try {
-            System.out.println("🏠 Getting bidang detail from BPRD API...");
-            System.out.println("Parameters: id=" + id + ", kd_prop=" + kd_prop + ", kd_dati2=" + kd_dati2 +
-                    ", kd_kec=" + kd_kec + ", kd_kel=" + kd_kel + ", kd_blok=" + kd_blok +
-                    ", no_urut=" + no_urut + ", kd_jns_op=" + kd_jns_op);
+            log.debug("Getting bidang detail from BPRD API...");
+            log.debug("Parameters: id={}, kd_prop={}, kd_dati2={}, kd_kec={}, kd_kel={}, kd_blok={}, no_urut={}, kd_jns_op={}",
+                    id, kd_prop, kd_dati2, kd_kec, kd_kel, kd_blok, no_urut, kd_jns_op);
 
             // Step 1: Ensure we have a valid token (login if needed)
             if (cachedToken == null) {
-                System.out.println("🔐 No cached token found, performing login...");
+                log.debug("No cached token found, performing login...");
 
                 Map<String, String> credentials = new HashMap<>();
                 credentials.put("username", "user");
@@ -670,7 +698,7 @@ public class BprdProxyController {
                 HttpEntity<Map<String, String>> loginRequest = new HttpEntity<>(credentials, loginHeaders);
 
                 ResponseEntity<String> loginResponse = restTemplate.exchange(
-                        BPRD_BASE_URL + "/user/login",
+                        bprdBaseUrl + "/user/login",
                         HttpMethod.POST,
                         loginRequest,
                         String.class);
@@ -681,7 +709,7 @@ public class BprdProxyController {
 
                     if (user != null && user.get("token") != null) {
                         cachedToken = (String) user.get("token");
-                        System.out.println("✅ Login successful for bidang detail request");
+                        log.info("Login successful for bidang detail request");
                     } else {
                         return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                                 .body(Map.of("error", "Login failed - no token received"));
@@ -693,7 +721,7 @@ public class BprdProxyController {
             }
 
             // Build the infonop API URL
-            String infonopUrl = BPRD_BASE_URL + "/map/infonop" +
+            String infonopUrl = bprdBaseUrl + "/map/infonop" +
                     "?id=" + id +
                     "&kd_prop=" + kd_prop +
                     "&kd_dati2=" + kd_dati2 +
@@ -703,7 +731,7 @@ public class BprdProxyController {
                     "&no_urut=" + no_urut +
                     "&kd_jns_op=" + kd_jns_op;
 
-            System.out.println("📡 Calling BPRD infonop API: " + infonopUrl);
+            log.debug("Calling BPRD infonop API: {}", infonopUrl);
 
             // Set up headers with authentication
             HttpHeaders headers = new HttpHeaders();
@@ -719,17 +747,16 @@ public class BprdProxyController {
                     Map.class);
 
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                System.out.println("✅ Successfully got bidang detail from BPRD API");
+                log.debug("Successfully got bidang detail from BPRD API");
                 return ResponseEntity.ok(response.getBody());
             } else {
-                System.err.println("❌ Failed to get bidang detail: " + response.getStatusCode());
+                log.warn("Failed to get bidang detail: {}", response.getStatusCode());
                 return ResponseEntity.status(response.getStatusCode())
                         .body(Map.of("error", "Failed to get bidang detail from BPRD API"));
             }
 
         } catch (Exception e) {
-            System.err.println("❌ Error getting bidang detail: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error getting bidang detail", e);
 
             // Clear token on error
             cachedToken = null;
@@ -740,16 +767,27 @@ public class BprdProxyController {
 
     /**
      * Get tematik data from BPRD API
+     *
+     * mode=attributes: tanpa geometri, hanya assignments {nop -> layerKey} +
+     * legenda (label, color, count) per layer. Client mewarnai ulang bidang
+     * yang geometrinya sudah dimuat (tile / cache bidang) saat ganti tema.
+     * Request bersamaan dengan body dan mode sama berbagi satu panggilan BPRD.
      */
     @PostMapping("/tematik")
-    public ResponseEntity<?> getTematikData(@RequestBody Map<String, Object> tematikRequest) {
+    public ResponseEntity<?> getTematikData(@RequestBody Map<String, Object> tematikRequest,
+            @RequestParam(defaultValue = "full") String mode) throws JsonProcessingException {
+        String key = "bprd-tematik:" + mode.toLowerCase() + ":" + objectMapper.writeValueAsString(tematikRequest);
+        return singleFlightService.execute(key, () -> fetchTematik(tematikRequest, mode));
+    }
+
+    private ResponseEntity<?> fetchTematik(Map<String, Object> tematikRequest, String mode) {
         try {
-            System.out.println("🎨 Getting tematik data from BPRD API...");
-            System.out.println("Tematik Request: " + tematikRequest);
+            log.debug("Getting tematik data from BPRD API...");
+            log.debug("Tematik Request: {}", tematikRequest);
 
             // Step 1: Ensure we have a valid token (login if needed)
             if (cachedToken == null) {
-                System.out.println("🔐 No cached token found, performing login...");
+                log.debug("No cached token found, performing login...");
 
                 Map<String, String> credentials = new HashMap<>();
                 credentials.put("username", "user");
@@ -761,7 +799,7 @@ public class BprdProxyController {
                 HttpEntity<Map<String, String>> loginRequest = new HttpEntity<>(credentials, loginHeaders);
 
                 ResponseEntity<String> loginResponse = restTemplate.exchange(
-                        BPRD_BASE_URL + "/user/login",
+                        bprdBaseUrl + "/user/login",
                         HttpMethod.POST,
                         loginRequest,
                         String.class);
@@ -772,7 +810,7 @@ public class BprdProxyController {
 
                     if (user != null && user.get("token") != null) {
                         cachedToken = (String) user.get("token");
-                        System.out.println("✅ Login successful for tematik request");
+                        log.info("Login successful for tematik request");
                     } else {
                         return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                                 .body(Map.of("error", "Login failed - no token received"));
@@ -784,8 +822,8 @@ public class BprdProxyController {
             }
 
             // Step 2: Call BPRD tematik API
-            String tematikUrl = BPRD_BASE_URL + "/map/tematik";
-            System.out.println("📡 Calling BPRD tematik API: " + tematikUrl);
+            String tematikUrl = bprdBaseUrl + "/map/tematik";
+            log.debug("Calling BPRD tematik API: {}", tematikUrl);
 
             // Set up headers with authentication
             HttpHeaders headers = new HttpHeaders();
@@ -806,21 +844,22 @@ public class BprdProxyController {
                 @SuppressWarnings("unchecked")
                 Map<String, Object> tematikResponse = objectMapper.readValue(response.getBody(), Map.class);
 
-                System.out.println("✅ Successfully got tematik data from BPRD API");
+                log.debug("Successfully got tematik data from BPRD API");
 
-                // Process and convert WKB geometries to GeoJSON, and add unclassified layer
-                Map<String, Object> processedResponse = processTematikResponse(tematikResponse, tematikRequest);
+                // Process and convert WKB geometries to GeoJSON (or assignments only), and add unclassified layer
+                Map<String, Object> processedResponse = "attributes".equalsIgnoreCase(mode)
+                        ? processTematikAssignments(tematikResponse, tematikRequest)
+                        : processTematikResponse(tematikResponse, tematikRequest);
 
                 return ResponseEntity.ok(processedResponse);
             } else {
-                System.err.println("❌ Failed to get tematik data: " + response.getStatusCode());
+                log.warn("Failed to get tematik data: {}", response.getStatusCode());
                 return ResponseEntity.status(response.getStatusCode())
                         .body(Map.of("error", "Failed to get tematik data from BPRD API"));
             }
 
         } catch (Exception e) {
-            System.err.println("❌ Error getting tematik data: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error getting tematik data", e);
 
             // Clear token on error
             cachedToken = null;
@@ -836,7 +875,7 @@ public class BprdProxyController {
     private Map<String, Object> processTematikResponse(Map<String, Object> tematikResponse,
             Map<String, Object> tematikRequest) {
         try {
-            System.out.println("🔄 Processing tematik response with WKB conversion...");
+            log.debug("Processing tematik response with WKB conversion...");
 
             Map<String, Object> processedResponse = new HashMap<>(tematikResponse);
 
@@ -877,8 +916,7 @@ public class BprdProxyController {
                                             .convertWkbHexToGeoJson(geomWkbHex);
                                     processedBidang.put("geojson", geoJson);
                                 } catch (Exception e) {
-                                    System.err.println(
-                                            "⚠️ Failed to convert geometry for bidang " + bidangData.get("nop"));
+                                    log.warn("Failed to convert geometry for bidang {}", bidangData.get("nop"));
                                     processedBidang.put("geojson", null);
                                 }
                             }
@@ -892,54 +930,105 @@ public class BprdProxyController {
                     processedLayers.put(layerKey, processedLayer);
                 }
 
-                // Calculate unclassified bidang count from local PostgreSQL
-                try {
-                    String kdKec = (String) tematikRequest.get("id_kecamatan");
-                    @SuppressWarnings("unchecked")
-                    List<String> kdKelList = (List<String>) tematikRequest.get("id_kelurahan");
-                    String kdKel = kdKelList != null && !kdKelList.isEmpty() ? kdKelList.get(0) : null;
-
-                    if (kdKec != null && kdKel != null) {
-                        // Get total bidang count from local PostgreSQL
-                        Long totalBidangCount = postgresJdbcTemplate.queryForObject(
-                                "SELECT COUNT(*) FROM sig.bidang WHERE kd_kec = ? AND kd_kel = ? AND is_active = true",
-                                Long.class, kdKec, kdKel);
-
-                        int totalBidang = totalBidangCount != null ? totalBidangCount.intValue() : 0;
-                        int unclassifiedCount = totalBidang - totalClassifiedBidang;
-
-                        System.out.println("📊 Bidang counts - Total: " + totalBidang +
-                                ", Classified: " + totalClassifiedBidang +
-                                ", Unclassified: " + unclassifiedCount);
-
-                        // Add unclassified layer if there are unclassified bidang
-                        if (unclassifiedCount > 0) {
-                            Map<String, Object> unclassifiedLayer = new HashMap<>();
-                            unclassifiedLayer.put("label", "Tidak Terklasifikasi");
-                            unclassifiedLayer.put("color", "RGB(128,128,128)"); // Gray color
-                            unclassifiedLayer.put("data", new ArrayList<>()); // Empty data - just for legend count
-                            unclassifiedLayer.put("count", unclassifiedCount); // Add count for legend display
-
-                            processedLayers.put("unclassified", unclassifiedLayer);
-                            System.out.println("➕ Added unclassified layer with " + unclassifiedCount + " bidang");
-                        }
-                    }
-                } catch (Exception e) {
-                    System.err.println("⚠️ Could not calculate unclassified bidang: " + e.getMessage());
-                    // Continue without unclassified layer
-                }
+                addUnclassifiedLayer(processedLayers, totalClassifiedBidang, tematikRequest);
 
                 processedResponse.put("layer", processedLayers);
             }
 
-            System.out.println("✅ Tematik response processed successfully");
+            log.debug("Tematik response processed successfully");
             return processedResponse;
 
         } catch (Exception e) {
-            System.err.println("❌ Error processing tematik response: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error processing tematik response", e);
             return tematikResponse; // Return original if processing fails
         }
     }
 
+    /**
+     * Tematik tanpa geometri: assignments {nop -> layerKey} dan layer berisi
+     * label, color, count (tanpa data), plus layer "unclassified"
+     */
+    private Map<String, Object> processTematikAssignments(Map<String, Object> tematikResponse,
+            Map<String, Object> tematikRequest) {
+        Map<String, Object> processedResponse = new HashMap<>(tematikResponse);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> layerMap = (Map<String, Object>) tematikResponse.get("layer");
+        if (layerMap == null) {
+            return processedResponse;
+        }
+
+        Map<String, Object> processedLayers = new HashMap<>();
+        Map<String, String> assignments = new HashMap<>();
+        int totalClassifiedBidang = 0;
+        for (Map.Entry<String, Object> layerEntry : layerMap.entrySet()) {
+            String layerKey = layerEntry.getKey();
+            @SuppressWarnings("unchecked")
+            Map<String, Object> layerData = (Map<String, Object>) layerEntry.getValue();
+            @SuppressWarnings("unchecked")
+            List<Map<String, Object>> dataList = (List<Map<String, Object>>) layerData.get("data");
+
+            int count = 0;
+            if (dataList != null) {
+                for (Map<String, Object> bidangData : dataList) {
+                    Object nop = bidangData.get("nop");
+                    if (nop != null) {
+                        assignments.put(nop.toString().trim(), layerKey);
+                    }
+                }
+                count = dataList.size();
+            }
+            totalClassifiedBidang += count;
+
+            Map<String, Object> processedLayer = new HashMap<>();
+            processedLayer.put("label", layerData.get("label"));
+            processedLayer.put("color", layerData.get("color"));
+            processedLayer.put("count", count);
+            processedLayers.put(layerKey, processedLayer);
+        }
+
+        addUnclassifiedLayer(processedLayers, totalClassifiedBidang, tematikRequest);
+        processedResponse.put("layer", processedLayers);
+        processedResponse.put("assignments", assignments);
+        log.debug("Tematik assignments: {} bidang in {} layers", assignments.size(), layerMap.size());
+        return processedResponse;
+    }
+
+    /**
+     * Layer "unclassified" (hanya count untuk legenda) = total bidang kelurahan
+     * dari rollup lokal dikurangi bidang yang terklasifikasi
+     */
+    private void addUnclassifiedLayer(Map<String, Object> processedLayers, int totalClassifiedBidang,
+            Map<String, Object> tematikRequest) {
+        try {
+            String kdKec = (String) tematikRequest.get("id_kecamatan");
+            @SuppressWarnings("unchecked")
+            List<String> kdKelList = (List<String>) tematikRequest.get("id_kelurahan");
+            String kdKel = kdKelList != null && !kdKelList.isEmpty() ? kdKelList.get(0) : null;
+
+            if (kdKec != null && kdKel != null) {
+                // Get total bidang count from local rollup
+                int totalBidang = (int) bidangCountService.countInKelurahan(kdKec, kdKel);
+                int unclassifiedCount = totalBidang - totalClassifiedBidang;
+
+                log.debug("Bidang counts - Total: {}, Classified: {}, Unclassified: {}",
+                        totalBidang, totalClassifiedBidang, unclassifiedCount);
+
+                // Add unclassified layer if there are unclassified bidang
+                if (unclassifiedCount > 0) {
+                    Map<String, Object> unclassifiedLayer = new HashMap<>();
+                    unclassifiedLayer.put("label", "Tidak Terklasifikasi");
+                    unclassifiedLayer.put("color", "RGB(128,128,128)"); // Gray color
+                    unclassifiedLayer.put("data", new ArrayList<>()); // Empty data - just for legend count
+                    unclassifiedLayer.put("count", unclassifiedCount); // Add count for legend display
+
+                    processedLayers.put("unclassified", unclassifiedLayer);
+                    log.debug("Added unclassified layer with {} bidang", unclassifiedCount);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Could not calculate unclassified bidang: {}", e.getMessage());
+            // Continue without unclassified layer
+        }
+    }
+
 }
\ No newline at end of file
@@ -19,6 +19,9 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class DatObjekPajakController {
 
+    /** Batas atas parameter size pagination */
+    private static final int MAX_PAGE_SIZE = 1000;
+
     @Autowired
     private DatObjekPajakRepository datObjekPajakRepository;
 
@@ -32,12 +35,20 @@ public class DatObjekPajakController {
     /**
      * Get all objek pajak with pagination
      * GET /api/dat-objek-pajak?page=0&size=10
+     * GET /api/dat-objek-pajak?cursor=&size=10 (keyset, tanpa OFFSET dan COUNT)
      */
     @GetMapping
     public ResponseEntity<Map<String, Object>> getAllDatObjekPajak(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        size = pageSize(size);
         try {
+            if (cursor != null) {
+                List<DatObjekPajak> rows = datObjekPajakRepository.findPaginated(cursor, size + 1);
+                return ResponseEntity.ok(buildKeysetResponse(rows, size, cursor, null));
+            }
+
             int offset = page * size;
             List<DatObjekPajak> data = datObjekPajakRepository.findPaginated(offset, size);
             int totalCount = datObjekPajakRepository.count();
@@ -59,6 +70,10 @@ public class DatObjekPajakController {
             response.put("message", "Data objek pajak berhasil diambil");
 
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of(
                     "success", false,
@@ -137,8 +152,19 @@ public class DatObjekPajakController {
             @PathVariable String kdDati2,
             @PathVariable String kdKecamatan,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        size = pageSize(size);
         try {
+            if (cursor != null) {
+                List<DatObjekPajak> rows = datObjekPajakRepository.findPaginatedByKecamatan(kdPropinsi, kdDati2,
+                        kdKecamatan, cursor, size + 1);
+                return ResponseEntity.ok(buildKeysetResponse(rows, size, cursor, Map.of(
+                        "kdPropinsi", kdPropinsi,
+                        "kdDati2", kdDati2,
+                        "kdKecamatan", kdKecamatan)));
+            }
+
             int offset = page * size;
             List<DatObjekPajak> data = datObjekPajakRepository.findPaginatedByKecamatan(kdPropinsi, kdDati2,
                     kdKecamatan, offset, size);
@@ -165,6 +191,10 @@ public class DatObjekPajakController {
             response.put("message", "Data objek pajak berhasil diambil");
 
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of(
                     "success", false,
@@ -184,8 +214,20 @@ public class DatObjekPajakController {
             @PathVariable String kdKecamatan,
             @PathVariable String kdKelurahan,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        size = pageSize(size);
         try {
+            if (cursor != null) {
+                List<DatObjekPajak> rows = datObjekPajakRepository.findPaginatedByKelurahan(kdPropinsi, kdDati2,
+                        kdKecamatan, kdKelurahan, cursor, size + 1);
+                return ResponseEntity.ok(buildKeysetResponse(rows, size, cursor, Map.of(
+                        "kdPropinsi", kdPropinsi,
+                        "kdDati2", kdDati2,
+                        "kdKecamatan", kdKecamatan,
+                        "kdKelurahan", kdKelurahan)));
+            }
+
             int offset = page * size;
             List<DatObjekPajak> data = datObjekPajakRepository.findPaginatedByKelurahan(kdPropinsi, kdDati2,
                     kdKecamatan, kdKelurahan, offset, size);
@@ -213,6 +255,10 @@ public class DatObjekPajakController {
             response.put("message", "Data objek pajak berhasil diambil");
 
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of(
                     "success", false,
@@ -295,4 +341,38 @@ public class DatObjekPajakController {
                     ApiResponse.error("Error: " + e.getMessage()));
         }
     }
+
+    /**
+     * size dibatasi 1..MAX_PAGE_SIZE (size 0 membuat halaman keyset kosong dengan hasNext = true)
+     */
+    private static int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Bangun response untuk mode keyset. Repository diminta size + 1 baris
+     * sehingga hasNext diketahui tanpa COUNT(*).
+     */
+    private Map<String, Object> buildKeysetResponse(List<DatObjekPajak> rows, int size, String cursor,
+            Map<String, Object> filters) {
+        boolean hasNext = rows.size() > size;
+        List<DatObjekPajak> data = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? datObjekPajakRepository.nextCursor(data.get(data.size() - 1)) : null;
+
+        Map<String, Object> pagination = new HashMap<>();
+        pagination.put("size", size);
+        pagination.put("cursor", cursor);
+        pagination.put("nextCursor", nextCursor);
+        pagination.put("hasNext", hasNext);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", data);
+        if (filters != null) {
+            response.put("filters", filters);
+        }
+        response.put("pagination", pagination);
+        response.put("success", true);
+        response.put("message", "Data objek pajak berhasil diambil");
+        return response;
+    }
 }
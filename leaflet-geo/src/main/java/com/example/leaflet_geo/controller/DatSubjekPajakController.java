@@ -138,13 +138,14 @@ public class DatSubjekPajakController {
     }
 
     /**
-     * Search subjek pajak by name
-     * GET /api/dat-subjek-pajak/search/name?nmWp=...
+     * Search subjek pajak by name (ranked, maksimal limit hasil)
+     * GET /api/dat-subjek-pajak/search/name?nmWp=...&limit=50
      */
     @GetMapping("/search/name")
-    public ResponseEntity<ApiResponse<List<DatSubjekPajak>>> searchDatSubjekPajakByName(@RequestParam String nmWp) {
+    public ResponseEntity<ApiResponse<List<DatSubjekPajak>>> searchDatSubjekPajakByName(@RequestParam String nmWp,
+            @RequestParam(defaultValue = "50") int limit) {
         try {
-            List<DatSubjekPajak> data = datSubjekPajakRepository.findByNmWpContaining(nmWp);
+            List<DatSubjekPajak> data = datSubjekPajakRepository.searchByName(nmWp, Math.max(1, Math.min(limit, 500)));
             return ResponseEntity.ok(
                     ApiResponse.success("Pencarian subjek pajak dengan nama '" + nmWp + "' berhasil", data,
                             (long) data.size()));
@@ -1,9 +1,14 @@
 package com.example.leaflet_geo.controller;
 
+import com.example.leaflet_geo.service.DataVersionService;
+import com.example.leaflet_geo.service.ReferenceDataService;
+import com.example.leaflet_geo.service.ResponseCacheService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 
 import java.util.*;
@@ -29,6 +34,15 @@ public class KecamatanController {
     @Qualifier("postgresJdbcTemplate")
     private JdbcTemplate postgresJdbcTemplate;
 
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private ResponseCacheService responseCacheService;
+
     /**
      * GET /api/kecamatan?page=0&size=10&kd_kec=&nama=
      * Paginated list dengan filter
@@ -38,7 +52,11 @@ public class KecamatanController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String kd_kec,
-            @RequestParam(required = false) String nama) {
+            @RequestParam(required = false) String nama,
+            ServletWebRequest request) {
+        if (dataVersionService.checkNotModified(request, dataVersionService.kecamatan())) {
+            return null;
+        }
         try {
             // Build WHERE clause with filters
             StringBuilder whereClause = new StringBuilder("WHERE 1=1");
@@ -87,8 +105,18 @@ public class KecamatanController {
      * Untuk dropdown (tidak termasuk yang non-aktif)
      */
     @GetMapping("/list")
-    public ResponseEntity<List<Map<String, Object>>> getKecamatanList(
-            @RequestParam(defaultValue = "true") String option) {
+    public ResponseEntity<?> getKecamatanList(
+            @RequestParam(defaultValue = "true") String option,
+            ServletWebRequest request) {
+        DataVersionService.Version version = dataVersionService.kecamatan();
+        if (dataVersionService.checkNotModified(request, version)) {
+            return null;
+        }
+        return responseCacheService.get("kecamatan:list:" + option, version != null ? version.etag() : null,
+                request.getHeader(HttpHeaders.ACCEPT_ENCODING), () -> kecamatanList(option));
+    }
+
+    private ResponseEntity<?> kecamatanList(String option) {
         try {
             List<Map<String, Object>> data;
 
@@ -121,7 +149,10 @@ public class KecamatanController {
      * Detail satu kecamatan
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getKecamatanById(@PathVariable String id) {
+    public ResponseEntity<Map<String, Object>> getKecamatanById(@PathVariable String id, ServletWebRequest request) {
+        if (dataVersionService.checkNotModified(request, dataVersionService.kecamatan())) {
+            return null;
+        }
         try {
             Map<String, Object> data = postgresJdbcTemplate.queryForMap(
                     "SELECT id, TRIM(kd_prop) as kd_prop, TRIM(kd_dati2) as kd_dati2, " +
@@ -141,8 +172,8 @@ public class KecamatanController {
      * GET /api/kecamatan/view?id=xxx (legacy format)
      */
     @GetMapping("/view")
-    public ResponseEntity<Map<String, Object>> viewKecamatan(@RequestParam String id) {
-        return getKecamatanById(id);
+    public ResponseEntity<Map<String, Object>> viewKecamatan(@RequestParam String id, ServletWebRequest request) {
+        return getKecamatanById(id, request);
     }
 
     /**
@@ -182,6 +213,8 @@ public class KecamatanController {
 
             Map<String, Object> result = postgresJdbcTemplate.queryForMap(sql, params);
 
+            referenceDataService.invalidateRegions();
+
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "Kecamatan berhasil ditambahkan",
@@ -225,6 +258,8 @@ public class KecamatanController {
                 return ResponseEntity.status(404).body(Map.of("error", "Kecamatan tidak ditemukan"));
             }
 
+            referenceDataService.invalidateRegions();
+
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "Kecamatan berhasil diupdate"));
@@ -247,6 +282,8 @@ public class KecamatanController {
                 return ResponseEntity.status(404).body(Map.of("error", "Kecamatan tidak ditemukan"));
             }
 
+            referenceDataService.invalidateRegions();
+
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "Kecamatan berhasil dihapus"));
@@ -269,6 +306,8 @@ public class KecamatanController {
                 return ResponseEntity.status(404).body(Map.of("error", "Kecamatan tidak ditemukan"));
             }
 
+            referenceDataService.invalidateRegions();
+
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "Kecamatan berhasil dipulihkan"));
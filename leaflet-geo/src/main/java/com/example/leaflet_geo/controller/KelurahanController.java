@@ -1,9 +1,14 @@
 package com.example.leaflet_geo.controller;
 
+import com.example.leaflet_geo.service.DataVersionService;
+import com.example.leaflet_geo.service.ReferenceDataService;
+import com.example.leaflet_geo.service.ResponseCacheService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 
 import java.util.*;
@@ -29,6 +34,15 @@ public class KelurahanController {
     @Qualifier("postgresJdbcTemplate")
     private JdbcTemplate postgresJdbcTemplate;
 
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private ResponseCacheService responseCacheService;
+
     /**
      * GET /api/kelurahan?page=0&size=10&kd_kec=&kd_kel=&nama=
      * Paginated list dengan filter
@@ -39,7 +53,11 @@ public class KelurahanController {
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String kd_kec,
             @RequestParam(required = false) String kd_kel,
-            @RequestParam(required = false) String nama) {
+            @RequestParam(required = false) String nama,
+            ServletWebRequest request) {
+        if (dataVersionService.checkNotModified(request, dataVersionService.kelurahan(kd_kec))) {
+            return null;
+        }
         try {
             StringBuilder whereClause = new StringBuilder("WHERE 1=1");
             List<Object> params = new ArrayList<>();
@@ -89,9 +107,20 @@ public class KelurahanController {
      * Untuk dropdown (tidak termasuk yang non-aktif)
      */
     @GetMapping("/list")
-    public ResponseEntity<List<Map<String, Object>>> getKelurahanList(
+    public ResponseEntity<?> getKelurahanList(
             @RequestParam String kd_kec,
-            @RequestParam(defaultValue = "true") String option) {
+            @RequestParam(defaultValue = "true") String option,
+            ServletWebRequest request) {
+        DataVersionService.Version version = dataVersionService.kelurahan(kd_kec);
+        if (dataVersionService.checkNotModified(request, version)) {
+            return null;
+        }
+        return responseCacheService.get("kelurahan:list:" + kd_kec.trim() + ":" + option,
+                version != null ? version.etag() : null, request.getHeader(HttpHeaders.ACCEPT_ENCODING),
+                () -> kelurahanList(kd_kec, option));
+    }
+
+    private ResponseEntity<?> kelurahanList(String kd_kec, String option) {
         try {
             List<Map<String, Object>> data;
 
@@ -127,7 +156,10 @@ public class KelurahanController {
      * Detail satu kelurahan
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getKelurahanById(@PathVariable String id) {
+    public ResponseEntity<Map<String, Object>> getKelurahanById(@PathVariable String id, ServletWebRequest request) {
+        if (dataVersionService.checkNotModified(request, dataVersionService.kelurahan(null))) {
+            return null;
+        }
         try {
             Map<String, Object> data = postgresJdbcTemplate.queryForMap(
                     "SELECT id, TRIM(kd_prop) as kd_prop, TRIM(kd_dati2) as kd_dati2, " +
@@ -147,8 +179,8 @@ public class KelurahanController {
      * GET /api/kelurahan/view?id=xxx (legacy format)
      */
     @GetMapping("/view")
-    public ResponseEntity<Map<String, Object>> viewKelurahan(@RequestParam String id) {
-        return getKelurahanById(id);
+    public ResponseEntity<Map<String, Object>> viewKelurahan(@RequestParam String id, ServletWebRequest request) {
+        return getKelurahanById(id, request);
     }
 
     /**
@@ -187,6 +219,8 @@ public class KelurahanController {
 
             Map<String, Object> result = postgresJdbcTemplate.queryForMap(sql, params);
 
+            referenceDataService.invalidateRegions();
+
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "Kelurahan berhasil ditambahkan",
@@ -230,6 +264,8 @@ public class KelurahanController {
                 return ResponseEntity.status(404).body(Map.of("error", "Kelurahan tidak ditemukan"));
             }
 
+            referenceDataService.invalidateRegions();
+
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "Kelurahan berhasil diupdate"));
@@ -252,6 +288,8 @@ public class KelurahanController {
                 return ResponseEntity.status(404).body(Map.of("error", "Kelurahan tidak ditemukan"));
             }
 
+            referenceDataService.invalidateRegions();
+
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "Kelurahan berhasil dihapus"));
@@ -274,6 +312,8 @@ public class KelurahanController {
                 return ResponseEntity.status(404).body(Map.of("error", "Kelurahan tidak ditemukan"));
             }
 
+            referenceDataService.invalidateRegions();
+
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "Kelurahan berhasil dipulihkan"));
@@ -1,5 +1,11 @@
 package com.example.leaflet_geo.controller;
 
+import com.example.leaflet_geo.service.BidangCountService;
+import com.example.leaflet_geo.service.FlatGeobufCacheService;
+import com.example.leaflet_geo.service.NopSearchService;
+import com.example.leaflet_geo.service.ReferenceDataService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -14,6 +20,7 @@ import java.util.*;
  * Endpoint:
  * - GET /api/map/carinop?nop= - Cari bidang berdasarkan NOP
  * - GET /api/map/infonop - Detail bidang dari Oracle SISMIOP
+ * - POST /api/map/infonop/batch - Detail banyak bidang sekaligus
  * - POST /api/map/newnop - Buat bidang baru
  * - POST /api/map/updatenop - Update geometry bidang
  * - POST /api/map/updatekecamatan - Update geometry kecamatan
@@ -25,6 +32,44 @@ import java.util.*;
 @CrossOrigin(origins = "*")
 public class MapController {
 
+    private static final Logger log = LoggerFactory.getLogger(MapController.class);
+
+    /** Kolom detail objek/subjek pajak SISMIOP (dipakai infonop dan infonop/batch) */
+    private static final String SISMIOP_DETAIL_SELECT = "SELECT " +
+            "DAT_OBJEK_PAJAK.KD_PROPINSI, DAT_OBJEK_PAJAK.KD_DATI2, DAT_OBJEK_PAJAK.KD_KECAMATAN, " +
+            "DAT_OBJEK_PAJAK.KD_KELURAHAN, DAT_OBJEK_PAJAK.KD_BLOK, DAT_OBJEK_PAJAK.NO_URUT, " +
+            "DAT_OBJEK_PAJAK.KD_JNS_OP, " +
+            "DAT_OBJEK_PAJAK.JALAN_OP, DAT_OBJEK_PAJAK.BLOK_KAV_NO_OP, " +
+            "DAT_OBJEK_PAJAK.RT_OP, DAT_OBJEK_PAJAK.RW_OP, " +
+            "DAT_OBJEK_PAJAK.TOTAL_LUAS_BUMI, DAT_OBJEK_PAJAK.TOTAL_LUAS_BNG, " +
+            "DAT_OBJEK_PAJAK.NJOP_BUMI, DAT_OBJEK_PAJAK.NJOP_BNG, " +
+            "DAT_SUBJEK_PAJAK.NM_WP, DAT_SUBJEK_PAJAK.NPWP, " +
+            "DAT_SUBJEK_PAJAK.JALAN_WP, DAT_SUBJEK_PAJAK.KELURAHAN_WP, DAT_SUBJEK_PAJAK.KOTA_WP, " +
+            "REF_KECAMATAN.NM_KECAMATAN, REF_KELURAHAN.NM_KELURAHAN, " +
+            "DAT_OP_BUMI.KD_ZNT " +
+            "FROM DAT_OBJEK_PAJAK " +
+            "LEFT JOIN DAT_SUBJEK_PAJAK ON DAT_OBJEK_PAJAK.SUBJEK_PAJAK_ID = DAT_SUBJEK_PAJAK.SUBJEK_PAJAK_ID " +
+            "LEFT JOIN DAT_OP_BUMI ON DAT_OP_BUMI.KD_PROPINSI = DAT_OBJEK_PAJAK.KD_PROPINSI AND " +
+            "    DAT_OP_BUMI.KD_DATI2 = DAT_OBJEK_PAJAK.KD_DATI2 AND " +
+            "    DAT_OP_BUMI.KD_KECAMATAN = DAT_OBJEK_PAJAK.KD_KECAMATAN AND " +
+            "    DAT_OP_BUMI.KD_KELURAHAN = DAT_OBJEK_PAJAK.KD_KELURAHAN AND " +
+            "    DAT_OP_BUMI.KD_BLOK = DAT_OBJEK_PAJAK.KD_BLOK AND " +
+            "    DAT_OP_BUMI.NO_URUT = DAT_OBJEK_PAJAK.NO_URUT AND " +
+            "    DAT_OP_BUMI.KD_JNS_OP = DAT_OBJEK_PAJAK.KD_JNS_OP " +
+            "LEFT JOIN REF_KECAMATAN ON REF_KECAMATAN.KD_PROPINSI = DAT_OBJEK_PAJAK.KD_PROPINSI AND " +
+            "    REF_KECAMATAN.KD_DATI2 = DAT_OBJEK_PAJAK.KD_DATI2 AND " +
+            "    REF_KECAMATAN.KD_KECAMATAN = DAT_OBJEK_PAJAK.KD_KECAMATAN " +
+            "LEFT JOIN REF_KELURAHAN ON REF_KELURAHAN.KD_PROPINSI = DAT_OBJEK_PAJAK.KD_PROPINSI AND " +
+            "    REF_KELURAHAN.KD_DATI2 = DAT_OBJEK_PAJAK.KD_DATI2 AND " +
+            "    REF_KELURAHAN.KD_KECAMATAN = DAT_OBJEK_PAJAK.KD_KECAMATAN AND " +
+            "    REF_KELURAHAN.KD_KELURAHAN = DAT_OBJEK_PAJAK.KD_KELURAHAN ";
+
+    /** Maksimum NOP per request infonop/batch */
+    private static final int BATCH_MAX_NOP = 2000;
+
+    /** NOP per query (7 bind parameter per NOP, di bawah batas 1000 elemen IN-list Oracle) */
+    private static final int BATCH_CHUNK_SIZE = 500;
+
     @Autowired
     @Qualifier("postgresJdbcTemplate")
     private JdbcTemplate postgresJdbcTemplate;
@@ -33,6 +78,18 @@ public class MapController {
     @Qualifier("oracleJdbcTemplate")
     private JdbcTemplate oracleJdbcTemplate;
 
+    @Autowired
+    private BidangCountService bidangCountService;
+
+    @Autowired
+    private NopSearchService nopSearchService;
+
+    @Autowired
+    private FlatGeobufCacheService flatGeobufCacheService;
+
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
     /**
      * GET /api/map/carinop?nop=35.09.130.017.005.0001.0
      * Mencari blok ID berdasarkan NOP
@@ -57,17 +114,24 @@ public class MapController {
             String kdKel = parts[3];
             String kdBlok = parts[4];
 
-            // Cari blok dan nama-nama
-            Map<String, Object> result = postgresJdbcTemplate.queryForMap(
-                    "SELECT b.id as id_blok, " +
-                            "k.id as id_kecamatan, k.nama as nama_kecamatan, " +
-                            "l.id as id_kelurahan, l.nama as nama_kelurahan, " +
-                            "TRIM(b.kd_kec) as kd_kec, TRIM(b.kd_kel) as kd_kel " +
+            // Cari blok, nama kecamatan/kelurahan dari reference cache
+            Map<String, Object> blok = postgresJdbcTemplate.queryForMap(
+                    "SELECT b.id as id_blok, TRIM(b.kd_kec) as kd_kec, TRIM(b.kd_kel) as kd_kel " +
                             "FROM sig.blok b " +
-                            "LEFT JOIN system.kecamatan k ON k.kd_kec = b.kd_kec " +
-                            "LEFT JOIN system.kelurahan l ON l.kd_kec = b.kd_kec AND l.kd_kel = b.kd_kel " +
                             "WHERE b.kd_prop = ? AND b.kd_dati2 = ? AND b.kd_kec = ? AND b.kd_kel = ? AND b.kd_blok = ?",
                     kdProp, kdDati2, kdKec, kdKel, kdBlok);
+            ReferenceDataService.Kecamatan kecamatan = referenceDataService.findKecamatan((String) blok.get("kd_kec"));
+            ReferenceDataService.Kelurahan kelurahan = referenceDataService.findKelurahan(
+                    (String) blok.get("kd_kec"), (String) blok.get("kd_kel"));
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("id_blok", blok.get("id_blok"));
+            result.put("id_kecamatan", kecamatan != null ? kecamatan.id() : null);
+            result.put("nama_kecamatan", kecamatan != null ? kecamatan.nama() : null);
+            result.put("id_kelurahan", kelurahan != null ? kelurahan.id() : null);
+            result.put("nama_kelurahan", kelurahan != null ? kelurahan.nama() : null);
+            result.put("kd_kec", blok.get("kd_kec"));
+            result.put("kd_kel", blok.get("kd_kel"));
 
             return ResponseEntity.ok(result);
         } catch (Exception e) {
@@ -106,41 +170,14 @@ public class MapController {
             Map<String, Object> oracleData = null;
             try {
                 oracleData = oracleJdbcTemplate.queryForMap(
-                        "SELECT " +
-                                "DAT_OBJEK_PAJAK.JALAN_OP, DAT_OBJEK_PAJAK.BLOK_KAV_NO_OP, " +
-                                "DAT_OBJEK_PAJAK.RT_OP, DAT_OBJEK_PAJAK.RW_OP, " +
-                                "DAT_OBJEK_PAJAK.TOTAL_LUAS_BUMI, DAT_OBJEK_PAJAK.TOTAL_LUAS_BNG, " +
-                                "DAT_OBJEK_PAJAK.NJOP_BUMI, DAT_OBJEK_PAJAK.NJOP_BNG, " +
-                                "DAT_SUBJEK_PAJAK.NM_WP, DAT_SUBJEK_PAJAK.NPWP, " +
-                                "DAT_SUBJEK_PAJAK.JALAN_WP, DAT_SUBJEK_PAJAK.KELURAHAN_WP, DAT_SUBJEK_PAJAK.KOTA_WP, " +
-                                "REF_KECAMATAN.NM_KECAMATAN, REF_KELURAHAN.NM_KELURAHAN, " +
-                                "DAT_OP_BUMI.KD_ZNT " +
-                                "FROM DAT_OBJEK_PAJAK " +
-                                "LEFT JOIN DAT_SUBJEK_PAJAK ON DAT_OBJEK_PAJAK.SUBJEK_PAJAK_ID = DAT_SUBJEK_PAJAK.SUBJEK_PAJAK_ID "
-                                +
-                                "LEFT JOIN DAT_OP_BUMI ON DAT_OP_BUMI.KD_PROPINSI = DAT_OBJEK_PAJAK.KD_PROPINSI AND " +
-                                "    DAT_OP_BUMI.KD_DATI2 = DAT_OBJEK_PAJAK.KD_DATI2 AND " +
-                                "    DAT_OP_BUMI.KD_KECAMATAN = DAT_OBJEK_PAJAK.KD_KECAMATAN AND " +
-                                "    DAT_OP_BUMI.KD_KELURAHAN = DAT_OBJEK_PAJAK.KD_KELURAHAN AND " +
-                                "    DAT_OP_BUMI.KD_BLOK = DAT_OBJEK_PAJAK.KD_BLOK AND " +
-                                "    DAT_OP_BUMI.NO_URUT = DAT_OBJEK_PAJAK.NO_URUT AND " +
-                                "    DAT_OP_BUMI.KD_JNS_OP = DAT_OBJEK_PAJAK.KD_JNS_OP " +
-                                "LEFT JOIN REF_KECAMATAN ON REF_KECAMATAN.KD_PROPINSI = DAT_OBJEK_PAJAK.KD_PROPINSI AND "
-                                +
-                                "    REF_KECAMATAN.KD_DATI2 = DAT_OBJEK_PAJAK.KD_DATI2 AND " +
-                                "    REF_KECAMATAN.KD_KECAMATAN = DAT_OBJEK_PAJAK.KD_KECAMATAN " +
-                                "LEFT JOIN REF_KELURAHAN ON REF_KELURAHAN.KD_PROPINSI = DAT_OBJEK_PAJAK.KD_PROPINSI AND "
-                                +
-                                "    REF_KELURAHAN.KD_DATI2 = DAT_OBJEK_PAJAK.KD_DATI2 AND " +
-                                "    REF_KELURAHAN.KD_KECAMATAN = DAT_OBJEK_PAJAK.KD_KECAMATAN AND " +
-                                "    REF_KELURAHAN.KD_KELURAHAN = DAT_OBJEK_PAJAK.KD_KELURAHAN " +
+                        SISMIOP_DETAIL_SELECT +
                                 "WHERE DAT_OBJEK_PAJAK.KD_PROPINSI = ? AND DAT_OBJEK_PAJAK.KD_DATI2 = ? AND " +
                                 "DAT_OBJEK_PAJAK.KD_KECAMATAN = ? AND DAT_OBJEK_PAJAK.KD_KELURAHAN = ? AND " +
                                 "DAT_OBJEK_PAJAK.KD_BLOK = ? AND DAT_OBJEK_PAJAK.NO_URUT = ? AND DAT_OBJEK_PAJAK.KD_JNS_OP = ?",
                         kd_prop, kd_dati2, kd_kec, kd_kel, kd_blok, no_urut, kd_jns_op);
             } catch (Exception oracleEx) {
                 // Oracle tidak tersedia, gunakan data minimal
-                System.out.println("Oracle SISMIOP tidak tersedia: " + oracleEx.getMessage());
+                log.warn("Oracle SISMIOP tidak tersedia: {}", oracleEx.getMessage());
             }
 
             // Get geometry from PostgreSQL
@@ -153,26 +190,110 @@ public class MapController {
                     kd_prop, kd_dati2, kd_kec, kd_kel, kd_blok, no_urut, kd_jns_op);
 
             // Build response
-            Map<String, Object> response = new HashMap<>();
-            response.put("nop", nop);
-            response.put("id", bidangData.get("id"));
-            response.put("geom", bidangData.get("geom"));
-
-            if (oracleData != null) {
-                response.put("detail", true);
-                response.put("alamatOP", formatAlamatOP(oracleData));
-                response.put("namaWP", oracleData.get("NM_WP"));
-                response.put("npwp", oracleData.get("NPWP"));
-                response.put("alamatWP", formatAlamatWP(oracleData));
-                response.put("luasTanah", formatLuas(oracleData.get("TOTAL_LUAS_BUMI")));
-                response.put("luasBangunan", formatLuas(oracleData.get("TOTAL_LUAS_BNG")));
-                response.put("njopBumi", formatCurrency(oracleData.get("NJOP_BUMI")));
-                response.put("njopBangunan", formatCurrency(oracleData.get("NJOP_BNG")));
-                response.put("kodeZNT", oracleData.get("KD_ZNT"));
-            } else {
-                response.put("detail", false);
+            Map<String, Object> response = buildInfoNop(nop, bidangData, oracleData);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of(
+                    "error", "Gagal mengambil info NOP",
+                    "message", e.getMessage()));
+        }
+    }
+
+    /**
+     * POST /api/map/infonop/batch
+     * Detail banyak bidang sekaligus: satu query SISMIOP dan satu query
+     * sig.bidang per potongan 500 NOP (IN-list komposit), lalu digabung per NOP.
+     *
+     * @param body { nops: ["35.08.010.001.001.0001.0", ...], geom: true }
+     * @return data per NOP (urutan sama dengan request), format sama dengan infonop
+     */
+    @PostMapping("/infonop/batch")
+    public ResponseEntity<Map<String, Object>> getInfoNopBatch(@RequestBody Map<String, Object> body) {
+        try {
+            Object nopsParam = body.get("nops");
+            if (!(nopsParam instanceof List<?> rawNops) || rawNops.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "nops wajib diisi (array NOP)"));
+            }
+            if (rawNops.size() > BATCH_MAX_NOP) {
+                return ResponseEntity.badRequest().body(Map.of(
+                        "error", "Maksimal " + BATCH_MAX_NOP + " NOP per request"));
+            }
+            boolean includeGeom = !Boolean.FALSE.equals(body.get("geom"));
+
+            // Parse & dedupe, simpan urutan request
+            Map<String, String[]> keys = new LinkedHashMap<>();
+            List<String> invalid = new ArrayList<>();
+            for (Object raw : rawNops) {
+                String[] parts = raw != null ? parseNop(raw.toString()) : null;
+                if (parts == null) {
+                    invalid.add(String.valueOf(raw));
+                } else {
+                    keys.putIfAbsent(String.join(".", parts), parts);
+                }
+            }
+
+            List<String[]> keyList = new ArrayList<>(keys.values());
+            Map<String, Map<String, Object>> oracleRows = new HashMap<>();
+            Map<String, Map<String, Object>> bidangRows = new HashMap<>();
+
+            for (int from = 0; from < keyList.size(); from += BATCH_CHUNK_SIZE) {
+                List<String[]> chunk = keyList.subList(from, Math.min(from + BATCH_CHUNK_SIZE, keyList.size()));
+                Object[] params = chunk.stream().flatMap(Arrays::stream).toArray();
+                String tuples = String.join(", ", Collections.nCopies(chunk.size(), "(?, ?, ?, ?, ?, ?, ?)"));
+
+                try {
+                    oracleJdbcTemplate.query(
+                            SISMIOP_DETAIL_SELECT +
+                                    "WHERE (DAT_OBJEK_PAJAK.KD_PROPINSI, DAT_OBJEK_PAJAK.KD_DATI2, " +
+                                    "DAT_OBJEK_PAJAK.KD_KECAMATAN, DAT_OBJEK_PAJAK.KD_KELURAHAN, DAT_OBJEK_PAJAK.KD_BLOK, " +
+                                    "DAT_OBJEK_PAJAK.NO_URUT, DAT_OBJEK_PAJAK.KD_JNS_OP) IN (" + tuples + ")",
+                            rs -> {
+                                Map<String, Object> row = new HashMap<>();
+                                for (int i = 1; i <= rs.getMetaData().getColumnCount(); i++) {
+                                    row.put(rs.getMetaData().getColumnLabel(i), rs.getObject(i));
+                                }
+                                oracleRows.put(nopKey(row.get("KD_PROPINSI"), row.get("KD_DATI2"),
+                                        row.get("KD_KECAMATAN"), row.get("KD_KELURAHAN"), row.get("KD_BLOK"),
+                                        row.get("NO_URUT"), row.get("KD_JNS_OP")), row);
+                            },
+                            params);
+                } catch (Exception oracleEx) {
+                    // Oracle tidak tersedia, NOP pada potongan ini tanpa detail
+                    log.warn("Oracle SISMIOP tidak tersedia: {}", oracleEx.getMessage());
+                }
+
+                postgresJdbcTemplate.query(
+                        "SELECT id, kd_prop, kd_dati2, kd_kec, kd_kel, kd_blok, no_urut, kd_jns_op" +
+                                (includeGeom ? ", geom" : "") + " FROM sig.bidang " +
+                                "WHERE is_active = true AND " +
+                                "(kd_prop, kd_dati2, kd_kec, kd_kel, kd_blok, no_urut, kd_jns_op) IN (" + tuples + ")",
+                        rs -> {
+                            Map<String, Object> row = new HashMap<>();
+                            row.put("id", rs.getObject("id"));
+                            row.put("geom", includeGeom ? rs.getString("geom") : null);
+                            bidangRows.put(nopKey(rs.getString("kd_prop"), rs.getString("kd_dati2"),
+                                    rs.getString("kd_kec"), rs.getString("kd_kel"), rs.getString("kd_blok"),
+                                    rs.getString("no_urut"), rs.getString("kd_jns_op")), row);
+                        },
+                        params);
             }
 
+            List<Map<String, Object>> data = new ArrayList<>(keys.size());
+            List<String> notFound = new ArrayList<>();
+            for (String nop : keys.keySet()) {
+                Map<String, Object> bidangData = bidangRows.get(nop);
+                if (bidangData == null) {
+                    notFound.add(nop);
+                }
+                data.add(buildInfoNop(nop, bidangData, oracleRows.get(nop)));
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("count", data.size());
+            response.put("data", data);
+            response.put("notFound", notFound);
+            response.put("invalid", invalid);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of(
@@ -216,6 +337,9 @@ public class MapController {
                             +
                             "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, true, NOW())",
                     parts[0], parts[1], parts[2], parts[3], parts[4], parts[5], parts[6], nop, geometry);
+            bidangCountService.increment(parts[0], parts[1], parts[2], parts[3], parts[4]);
+            nopSearchService.add(nop);
+            flatGeobufCacheService.invalidate(FlatGeobufCacheService.BIDANG);
 
             return ResponseEntity.ok(Map.of("message", "NOP " + nop + " berhasil disimpan"));
         } catch (Exception e) {
@@ -247,10 +371,13 @@ public class MapController {
                         geom, id);
 
                 if (updated == 0) {
+                    // item sebelumnya mungkin sudah terupdate
+                    flatGeobufCacheService.invalidate(FlatGeobufCacheService.BIDANG);
                     return ResponseEntity.status(404).body(Map.of(
                             "error", "Bidang dengan ID " + id + " tidak ditemukan"));
                 }
             }
+            flatGeobufCacheService.invalidate(FlatGeobufCacheService.BIDANG);
 
             return ResponseEntity.ok(Map.of("message", "Bidang berhasil diupdate"));
         } catch (Exception e) {
@@ -332,6 +459,7 @@ public class MapController {
             if (updated == 0) {
                 return ResponseEntity.status(404).body(Map.of("error", "Blok tidak ditemukan"));
             }
+            flatGeobufCacheService.invalidate(FlatGeobufCacheService.BLOK);
 
             return ResponseEntity.ok(Map.of("message", "Blok berhasil diupdate"));
         } catch (Exception e) {
@@ -343,6 +471,56 @@ public class MapController {
 
     // ========== HELPER METHODS ==========
 
+    /**
+     * Response infonop: id/geom dari sig.bidang (boleh null), detail dari SISMIOP (boleh null)
+     */
+    private Map<String, Object> buildInfoNop(String nop, Map<String, Object> bidangData,
+            Map<String, Object> oracleData) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("nop", nop);
+        response.put("id", bidangData != null ? bidangData.get("id") : null);
+        response.put("geom", bidangData != null ? bidangData.get("geom") : null);
+
+        if (oracleData != null) {
+            response.put("detail", true);
+            response.put("alamatOP", formatAlamatOP(oracleData));
+            response.put("namaWP", oracleData.get("NM_WP"));
+            response.put("npwp", oracleData.get("NPWP"));
+            response.put("alamatWP", formatAlamatWP(oracleData));
+            response.put("luasTanah", formatLuas(oracleData.get("TOTAL_LUAS_BUMI")));
+            response.put("luasBangunan", formatLuas(oracleData.get("TOTAL_LUAS_BNG")));
+            response.put("njopBumi", formatCurrency(oracleData.get("NJOP_BUMI")));
+            response.put("njopBangunan", formatCurrency(oracleData.get("NJOP_BNG")));
+            response.put("kodeZNT", oracleData.get("KD_ZNT"));
+        } else {
+            response.put("detail", false);
+        }
+        return response;
+    }
+
+    /**
+     * Parse NOP "35.08.010.001.001.0001.0" atau 18 digit tanpa titik,
+     * null jika format tidak valid
+     */
+    private static String[] parseNop(String nop) {
+        String digits = nop.trim().replace(".", "");
+        if (!digits.matches("\\d{18}")) {
+            return null;
+        }
+        return new String[] {
+                digits.substring(0, 2), digits.substring(2, 4), digits.substring(4, 7),
+                digits.substring(7, 10), digits.substring(10, 13), digits.substring(13, 17),
+                digits.substring(17, 18) };
+    }
+
+    private static String nopKey(Object... parts) {
+        StringJoiner joiner = new StringJoiner(".");
+        for (Object part : parts) {
+            joiner.add(part != null ? part.toString().trim() : "");
+        }
+        return joiner.toString();
+    }
+
     private String formatAlamatOP(Map<String, Object> data) {
         StringBuilder sb = new StringBuilder();
         if (data.get("JALAN_OP") != null)
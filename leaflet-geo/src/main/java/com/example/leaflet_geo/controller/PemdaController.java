@@ -1,9 +1,11 @@
 package com.example.leaflet_geo.controller;
 
+import com.example.leaflet_geo.service.DataVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.http.ResponseEntity;
 
 import java.util.Map;
@@ -24,6 +26,9 @@ public class PemdaController {
     @Qualifier("postgresJdbcTemplate")
     private JdbcTemplate postgresJdbcTemplate;
 
+    @Autowired
+    private DataVersionService dataVersionService;
+
     /**
      * GET /api/pemda/defaultview
      * Mengembalikan koordinat tengah peta dan zoom level default
@@ -40,7 +45,10 @@ public class PemdaController {
      * @return Default view configuration
      */
     @GetMapping("/defaultview")
-    public ResponseEntity<Map<String, Object>> getDefaultView() {
+    public ResponseEntity<Map<String, Object>> getDefaultView(ServletWebRequest request) {
+        if (dataVersionService.checkNotModified(request, dataVersionService.pemda())) {
+            return null;
+        }
         try {
             Map<String, Object> data = postgresJdbcTemplate.queryForMap(
                     "SELECT TRIM(kd_prop) as kd_prop, TRIM(kd_dati2) as kd_dati2, " +
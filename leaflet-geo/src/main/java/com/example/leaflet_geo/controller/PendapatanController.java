@@ -7,6 +7,7 @@ import com.example.leaflet_geo.dto.TopKontributorDTO;
 import com.example.leaflet_geo.dto.TrendBulananDTO;
 import com.example.leaflet_geo.dto.PajakDataDTO;
 import com.example.leaflet_geo.service.PendapatanService;
+import com.example.leaflet_geo.service.SingleFlightService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,20 +20,25 @@ import java.util.Map;
 public class PendapatanController {
 
     private final PendapatanService pendapatanService;
+    private final SingleFlightService singleFlightService;
 
-    public PendapatanController(PendapatanService pendapatanService) {
+    public PendapatanController(PendapatanService pendapatanService, SingleFlightService singleFlightService) {
         this.pendapatanService = pendapatanService;
+        this.singleFlightService = singleFlightService;
     }
 
     /**
      * Get Dashboard Summary
      * GET /api/pendapatan/summary?tahun=2025
+     *
+     * Request bersamaan untuk tahun yang sama berbagi satu agregasi.
      */
     @GetMapping("/summary")
     public ResponseEntity<ApiResponse<DashboardSummaryDTO>> getDashboardSummary(
             @RequestParam(defaultValue = "2025") Integer tahun) {
         try {
-            DashboardSummaryDTO summary = pendapatanService.getDashboardSummary(tahun);
+            DashboardSummaryDTO summary = singleFlightService.execute("pendapatan-summary:" + tahun,
+                    () -> pendapatanService.getDashboardSummary(tahun));
             return ResponseEntity.ok(
                     ApiResponse.success("Dashboard summary untuk tahun " + tahun + " berhasil diambil", summary));
         } catch (Exception e) {
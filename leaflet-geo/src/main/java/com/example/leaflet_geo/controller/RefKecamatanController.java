@@ -2,7 +2,7 @@ package com.example.leaflet_geo.controller;
 
 import com.example.leaflet_geo.dto.ApiResponse;
 import com.example.leaflet_geo.model.RefKecamatan;
-import com.example.leaflet_geo.repository.RefKecamatanRepository;
+import com.example.leaflet_geo.service.ReferenceDataService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -17,7 +17,7 @@ import java.util.Map;
 public class RefKecamatanController {
 
     @Autowired
-    private RefKecamatanRepository refKecamatanRepository;
+    private ReferenceDataService referenceDataService;
 
     /**
      * Get all kecamatan data
@@ -25,8 +25,8 @@ public class RefKecamatanController {
     @GetMapping
     public ResponseEntity<ApiResponse<List<RefKecamatan>>> getAllKecamatan() {
         try {
-            List<RefKecamatan> kecamatanList = refKecamatanRepository.findAll();
-            long totalCount = refKecamatanRepository.count();
+            List<RefKecamatan> kecamatanList = referenceDataService.refKecamatan();
+            long totalCount = kecamatanList.size();
             return ResponseEntity.ok(
                     ApiResponse.success("Data kecamatan berhasil diambil", kecamatanList, totalCount));
         } catch (Exception e) {
@@ -41,7 +41,7 @@ public class RefKecamatanController {
     @GetMapping("/propinsi/{kdPropinsi}")
     public ResponseEntity<ApiResponse<List<RefKecamatan>>> getKecamatanByPropinsi(@PathVariable String kdPropinsi) {
         try {
-            List<RefKecamatan> kecamatanList = refKecamatanRepository.findByKdPropinsi(kdPropinsi);
+            List<RefKecamatan> kecamatanList = kecamatan(kdPropinsi, null);
             return ResponseEntity.ok(
                     ApiResponse.success(
                             "Data kecamatan untuk propinsi " + kdPropinsi + " berhasil diambil",
@@ -61,7 +61,7 @@ public class RefKecamatanController {
             @PathVariable String kdPropinsi,
             @PathVariable String kdDati2) {
         try {
-            List<RefKecamatan> kecamatanList = refKecamatanRepository.findByKdPropinsiAndKdDati2(kdPropinsi, kdDati2);
+            List<RefKecamatan> kecamatanList = kecamatan(kdPropinsi, kdDati2);
             return ResponseEntity.ok(
                     ApiResponse.success(
                             "Data kecamatan untuk propinsi " + kdPropinsi + " dan dati2 " + kdDati2
@@ -83,7 +83,10 @@ public class RefKecamatanController {
             @PathVariable String kdDati2,
             @PathVariable String kdKecamatan) {
         try {
-            RefKecamatan kecamatan = refKecamatanRepository.findByPrimaryKey(kdPropinsi, kdDati2, kdKecamatan);
+            RefKecamatan kecamatan = kecamatan(kdPropinsi, kdDati2).stream()
+                    .filter(k -> sameCode(k.getKdKecamatan(), kdKecamatan))
+                    .findFirst()
+                    .orElse(null);
             if (kecamatan != null) {
                 return ResponseEntity.ok(
                         ApiResponse.success("Data kecamatan ditemukan", kecamatan));
@@ -103,7 +106,10 @@ public class RefKecamatanController {
     @GetMapping("/search")
     public ResponseEntity<ApiResponse<List<RefKecamatan>>> searchKecamatanByName(@RequestParam String nama) {
         try {
-            List<RefKecamatan> kecamatanList = refKecamatanRepository.findByNmKecamatanContaining(nama);
+            String keyword = nama.toUpperCase();
+            List<RefKecamatan> kecamatanList = referenceDataService.refKecamatan().stream()
+                    .filter(k -> k.getNmKecamatan() != null && k.getNmKecamatan().toUpperCase().contains(keyword))
+                    .toList();
             return ResponseEntity.ok(
                     ApiResponse.success(
                             "Pencarian kecamatan dengan nama '" + nama + "' berhasil",
@@ -121,7 +127,7 @@ public class RefKecamatanController {
     @GetMapping("/count")
     public ResponseEntity<ApiResponse<Long>> getKecamatanCount() {
         try {
-            long count = refKecamatanRepository.count();
+            long count = referenceDataService.refKecamatan().size();
             return ResponseEntity.ok(
                     ApiResponse.success("Jumlah data kecamatan berhasil diambil", count));
         } catch (Exception e) {
@@ -141,8 +147,9 @@ public class RefKecamatanController {
             @RequestParam(defaultValue = "10") int size) {
         try {
             int offset = page * size;
-            List<RefKecamatan> kecamatanList = refKecamatanRepository.findAllWithPagination(offset, size);
-            long totalCount = refKecamatanRepository.count();
+            List<RefKecamatan> all = referenceDataService.refKecamatan();
+            List<RefKecamatan> kecamatanList = page(all, offset, size);
+            long totalCount = all.size();
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -163,4 +170,24 @@ public class RefKecamatanController {
             return ResponseEntity.internalServerError().body(response);
         }
     }
-}
\ No newline at end of file
+
+    private List<RefKecamatan> kecamatan(String kdPropinsi, String kdDati2) {
+        return referenceDataService.refKecamatan().stream()
+                .filter(k -> sameCode(k.getKdPropinsi(), kdPropinsi) && sameCode(k.getKdDati2(), kdDati2))
+                .toList();
+    }
+
+    /**
+     * Kode cocok jika filter null atau sama setelah trim (kolom CHAR Oracle bisa ber-padding)
+     */
+    private static boolean sameCode(String value, String code) {
+        return code == null || (value != null && value.trim().equals(code.trim()));
+    }
+
+    private static <T> List<T> page(List<T> list, int offset, int size) {
+        if (offset >= list.size() || size <= 0) {
+            return List.of();
+        }
+        return list.subList(Math.max(0, offset), Math.min(list.size(), offset + size));
+    }
+}
@@ -2,7 +2,7 @@ package com.example.leaflet_geo.controller;
 
 import com.example.leaflet_geo.dto.ApiResponse;
 import com.example.leaflet_geo.model.RefKelurahan;
-import com.example.leaflet_geo.repository.RefKelurahanRepository;
+import com.example.leaflet_geo.service.ReferenceDataService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -17,7 +17,7 @@ import java.util.Map;
 public class RefKelurahanController {
 
     @Autowired
-    private RefKelurahanRepository refKelurahanRepository;
+    private ReferenceDataService referenceDataService;
 
     /**
      * Get all kelurahan data
@@ -25,8 +25,8 @@ public class RefKelurahanController {
     @GetMapping
     public ResponseEntity<ApiResponse<List<RefKelurahan>>> getAllKelurahan() {
         try {
-            List<RefKelurahan> kelurahanList = refKelurahanRepository.findAll();
-            long totalCount = refKelurahanRepository.count();
+            List<RefKelurahan> kelurahanList = referenceDataService.refKelurahan();
+            long totalCount = kelurahanList.size();
             return ResponseEntity.ok(
                     ApiResponse.success("Data kelurahan berhasil diambil", kelurahanList, totalCount));
         } catch (Exception e) {
@@ -41,8 +41,8 @@ public class RefKelurahanController {
     @GetMapping("/propinsi/{kdPropinsi}")
     public ResponseEntity<ApiResponse<List<RefKelurahan>>> getKelurahanByPropinsi(@PathVariable String kdPropinsi) {
         try {
-            List<RefKelurahan> kelurahanList = refKelurahanRepository.findByKdPropinsi(kdPropinsi);
-            long totalCount = refKelurahanRepository.countByKdPropinsi(kdPropinsi);
+            List<RefKelurahan> kelurahanList = kelurahan(kdPropinsi, null, null);
+            long totalCount = kelurahanList.size();
             return ResponseEntity.ok(
                     ApiResponse.success(
                             "Data kelurahan untuk propinsi " + kdPropinsi + " berhasil diambil",
@@ -62,8 +62,8 @@ public class RefKelurahanController {
             @PathVariable String kdPropinsi,
             @PathVariable String kdDati2) {
         try {
-            List<RefKelurahan> kelurahanList = refKelurahanRepository.findByKdPropinsiAndKdDati2(kdPropinsi, kdDati2);
-            long totalCount = refKelurahanRepository.countByKdPropinsiAndKdDati2(kdPropinsi, kdDati2);
+            List<RefKelurahan> kelurahanList = kelurahan(kdPropinsi, kdDati2, null);
+            long totalCount = kelurahanList.size();
             return ResponseEntity.ok(
                     ApiResponse.success(
                             "Data kelurahan untuk propinsi " + kdPropinsi + " dan dati2 " + kdDati2
@@ -85,10 +85,8 @@ public class RefKelurahanController {
             @PathVariable String kdDati2,
             @PathVariable String kdKecamatan) {
         try {
-            List<RefKelurahan> kelurahanList = refKelurahanRepository
-                    .findByKdPropinsiAndKdDati2AndKdKecamatan(kdPropinsi, kdDati2, kdKecamatan);
-            long totalCount = refKelurahanRepository.countByKdPropinsiAndKdDati2AndKdKecamatan(kdPropinsi, kdDati2,
-                    kdKecamatan);
+            List<RefKelurahan> kelurahanList = kelurahan(kdPropinsi, kdDati2, kdKecamatan);
+            long totalCount = kelurahanList.size();
             return ResponseEntity.ok(
                     ApiResponse.success(
                             "Data kelurahan untuk propinsi " + kdPropinsi + ", dati2 " + kdDati2 + ", dan kecamatan "
@@ -111,8 +109,10 @@ public class RefKelurahanController {
             @PathVariable String kdKecamatan,
             @PathVariable String kdKelurahan) {
         try {
-            RefKelurahan kelurahan = refKelurahanRepository.findByPrimaryKey(kdPropinsi, kdDati2, kdKecamatan,
-                    kdKelurahan);
+            RefKelurahan kelurahan = kelurahan(kdPropinsi, kdDati2, kdKecamatan).stream()
+                    .filter(k -> sameCode(k.getKdKelurahan(), kdKelurahan))
+                    .findFirst()
+                    .orElse(null);
             if (kelurahan != null) {
                 return ResponseEntity.ok(
                         ApiResponse.success("Data kelurahan ditemukan", kelurahan));
@@ -132,7 +132,10 @@ public class RefKelurahanController {
     @GetMapping("/search")
     public ResponseEntity<ApiResponse<List<RefKelurahan>>> searchKelurahanByName(@RequestParam String nama) {
         try {
-            List<RefKelurahan> kelurahanList = refKelurahanRepository.findByNmKelurahanContaining(nama);
+            String keyword = nama.toUpperCase();
+            List<RefKelurahan> kelurahanList = referenceDataService.refKelurahan().stream()
+                    .filter(k -> k.getNmKelurahan() != null && k.getNmKelurahan().toUpperCase().contains(keyword))
+                    .toList();
             return ResponseEntity.ok(
                     ApiResponse.success(
                             "Pencarian kelurahan dengan nama '" + nama + "' berhasil",
@@ -150,7 +153,9 @@ public class RefKelurahanController {
     @GetMapping("/sektor/{kdSektor}")
     public ResponseEntity<ApiResponse<List<RefKelurahan>>> getKelurahanBySektor(@PathVariable String kdSektor) {
         try {
-            List<RefKelurahan> kelurahanList = refKelurahanRepository.findByKdSektor(kdSektor);
+            List<RefKelurahan> kelurahanList = referenceDataService.refKelurahan().stream()
+                    .filter(k -> k.getKdSektor() != null && sameCode(k.getKdSektor(), kdSektor))
+                    .toList();
             return ResponseEntity.ok(
                     ApiResponse.success(
                             "Data kelurahan untuk sektor " + kdSektor + " berhasil diambil",
@@ -168,7 +173,9 @@ public class RefKelurahanController {
     @GetMapping("/kodepos/{kdPosKelurahan}")
     public ResponseEntity<ApiResponse<List<RefKelurahan>>> getKelurahanByKodePos(@PathVariable String kdPosKelurahan) {
         try {
-            List<RefKelurahan> kelurahanList = refKelurahanRepository.findByKdPosKelurahan(kdPosKelurahan);
+            List<RefKelurahan> kelurahanList = referenceDataService.refKelurahan().stream()
+                    .filter(k -> k.getKdPosKelurahan() != null && sameCode(k.getKdPosKelurahan(), kdPosKelurahan))
+                    .toList();
             return ResponseEntity.ok(
                     ApiResponse.success(
                             "Data kelurahan untuk kode pos " + kdPosKelurahan + " berhasil diambil",
@@ -186,7 +193,7 @@ public class RefKelurahanController {
     @GetMapping("/count")
     public ResponseEntity<ApiResponse<Long>> getKelurahanCount() {
         try {
-            long count = refKelurahanRepository.count();
+            long count = referenceDataService.refKelurahan().size();
             return ResponseEntity.ok(
                     ApiResponse.success("Jumlah data kelurahan berhasil diambil", count));
         } catch (Exception e) {
@@ -208,8 +215,9 @@ public class RefKelurahanController {
             @RequestParam(defaultValue = "10") int size) {
         try {
             int offset = page * size;
-            List<RefKelurahan> kelurahanList = refKelurahanRepository.findAllWithPagination(offset, size);
-            long totalCount = refKelurahanRepository.count();
+            List<RefKelurahan> all = referenceDataService.refKelurahan();
+            List<RefKelurahan> kelurahanList = page(all, offset, size);
+            long totalCount = all.size();
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -241,9 +249,9 @@ public class RefKelurahanController {
             @RequestParam(defaultValue = "10") int size) {
         try {
             int offset = page * size;
-            List<RefKelurahan> kelurahanList = refKelurahanRepository.findByKdPropinsiWithPagination(kdPropinsi, offset,
-                    size);
-            long totalCount = refKelurahanRepository.countByKdPropinsi(kdPropinsi);
+            List<RefKelurahan> all = kelurahan(kdPropinsi, null, null);
+            List<RefKelurahan> kelurahanList = page(all, offset, size);
+            long totalCount = all.size();
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -278,9 +286,9 @@ public class RefKelurahanController {
             @RequestParam(defaultValue = "10") int size) {
         try {
             int offset = page * size;
-            List<RefKelurahan> kelurahanList = refKelurahanRepository
-                    .findByKdPropinsiAndKdDati2WithPagination(kdPropinsi, kdDati2, offset, size);
-            long totalCount = refKelurahanRepository.countByKdPropinsiAndKdDati2(kdPropinsi, kdDati2);
+            List<RefKelurahan> all = kelurahan(kdPropinsi, kdDati2, null);
+            List<RefKelurahan> kelurahanList = page(all, offset, size);
+            long totalCount = all.size();
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -317,11 +325,9 @@ public class RefKelurahanController {
             @RequestParam(defaultValue = "10") int size) {
         try {
             int offset = page * size;
-            List<RefKelurahan> kelurahanList = refKelurahanRepository
-                    .findByKdPropinsiAndKdDati2AndKdKecamatanWithPagination(kdPropinsi, kdDati2, kdKecamatan, offset,
-                            size);
-            long totalCount = refKelurahanRepository.countByKdPropinsiAndKdDati2AndKdKecamatan(kdPropinsi, kdDati2,
-                    kdKecamatan);
+            List<RefKelurahan> all = kelurahan(kdPropinsi, kdDati2, kdKecamatan);
+            List<RefKelurahan> kelurahanList = page(all, offset, size);
+            long totalCount = all.size();
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -346,4 +352,25 @@ public class RefKelurahanController {
             return ResponseEntity.internalServerError().body(response);
         }
     }
+
+    private List<RefKelurahan> kelurahan(String kdPropinsi, String kdDati2, String kdKecamatan) {
+        return referenceDataService.refKelurahan().stream()
+                .filter(k -> sameCode(k.getKdPropinsi(), kdPropinsi) && sameCode(k.getKdDati2(), kdDati2)
+                        && sameCode(k.getKdKecamatan(), kdKecamatan))
+                .toList();
+    }
+
+    /**
+     * Kode cocok jika filter null atau sama setelah trim (kolom CHAR Oracle bisa ber-padding)
+     */
+    private static boolean sameCode(String value, String code) {
+        return code == null || (value != null && value.trim().equals(code.trim()));
+    }
+
+    private static <T> List<T> page(List<T> list, int offset, int size) {
+        if (offset >= list.size() || size <= 0) {
+            return List.of();
+        }
+        return list.subList(Math.max(0, offset), Math.min(list.size(), offset + size));
+    }
 }
@@ -63,9 +63,10 @@ public interface BidangRepository extends JpaRepository<Bidang, UUID> {
     );
     
     /**
-     * Custom query to find by partial NOP
+     * Custom query to find by partial NOP (prefix, memakai idx_bidang_nop_prefix)
      */
-    @Query("SELECT b FROM Bidang b WHERE b.nop LIKE :partialNop% AND b.isActive = true")
+    @Query(value = "SELECT * FROM sig.bidang WHERE CAST(nop AS text) LIKE :partialNop || '%' AND is_active = true",
+            nativeQuery = true)
     List<Bidang> findByPartialNop(@Param("partialNop") String partialNop);
     
     /**
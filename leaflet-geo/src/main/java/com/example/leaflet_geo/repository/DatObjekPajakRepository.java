@@ -1,22 +1,35 @@
 package com.example.leaflet_geo.repository;
 
 import com.example.leaflet_geo.model.DatObjekPajak;
+import com.example.leaflet_geo.util.PageCursor;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public class DatObjekPajakRepository {
 
+    /**
+     * Kolom NOP composite, urutan sesuai ORDER BY (dipakai sebagai keyset)
+     */
+    private static final String[] NOP_COLUMNS = {
+        "KD_PROPINSI", "KD_DATI2", "KD_KECAMATAN", "KD_KELURAHAN", "KD_BLOK", "NO_URUT", "KD_JNS_OP"
+    };
+
     private final JdbcTemplate oracleJdbcTemplate;
+    private final SismiopMirror sismiopMirror;
 
-    public DatObjekPajakRepository(@Qualifier("oracleJdbcTemplate") JdbcTemplate oracleJdbcTemplate) {
+    public DatObjekPajakRepository(@Qualifier("oracleJdbcTemplate") JdbcTemplate oracleJdbcTemplate, SismiopMirror sismiopMirror) {
         this.oracleJdbcTemplate = oracleJdbcTemplate;
+        this.sismiopMirror = sismiopMirror;
     }
 
     private DatObjekPajak mapRowToDatObjekPajak(java.sql.ResultSet rs, int rowNum) throws java.sql.SQLException {
@@ -65,105 +78,257 @@ public class DatObjekPajakRepository {
     }
 
     public List<DatObjekPajak> findAll() {
-        String sql = "SELECT * FROM SYSTEM.DAT_OBJEK_PAJAK ORDER BY KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_BLOK, NO_URUT, KD_JNS_OP";
-        return oracleJdbcTemplate.query(sql, this::mapRowToDatObjekPajak);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT * FROM " + route.table("DAT_OBJEK_PAJAK") + " ORDER BY KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_BLOK, NO_URUT, KD_JNS_OP";
+        return route.jdbc().query(sql, this::mapRowToDatObjekPajak);
     }
 
     public int count() {
-        String sql = "SELECT COUNT(*) FROM SYSTEM.DAT_OBJEK_PAJAK";
-        return oracleJdbcTemplate.queryForObject(sql, Integer.class);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT COUNT(*) FROM " + route.table("DAT_OBJEK_PAJAK");
+        return route.jdbc().queryForObject(sql, Integer.class);
     }
 
     public Optional<DatObjekPajak> findById(String kdPropinsi, String kdDati2, String kdKecamatan, String kdKelurahan, String kdBlok, String noUrut, String kdJnsOp) {
-        String sql = "SELECT * FROM SYSTEM.DAT_OBJEK_PAJAK WHERE KD_PROPINSI = ? AND KD_DATI2 = ? AND KD_KECAMATAN = ? AND KD_KELURAHAN = ? AND KD_BLOK = ? AND NO_URUT = ? AND KD_JNS_OP = ?";
-        List<DatObjekPajak> result = oracleJdbcTemplate.query(sql, this::mapRowToDatObjekPajak, kdPropinsi, kdDati2, kdKecamatan, kdKelurahan, kdBlok, noUrut, kdJnsOp);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT * FROM " + route.table("DAT_OBJEK_PAJAK") + " WHERE KD_PROPINSI = ? AND KD_DATI2 = ? AND KD_KECAMATAN = ? AND KD_KELURAHAN = ? AND KD_BLOK = ? AND NO_URUT = ? AND KD_JNS_OP = ?";
+        List<DatObjekPajak> result = route.jdbc().query(sql, this::mapRowToDatObjekPajak, kdPropinsi, kdDati2, kdKecamatan, kdKelurahan, kdBlok, noUrut, kdJnsOp);
         return result.isEmpty() ? Optional.empty() : Optional.of(result.get(0));
     }
 
     public List<DatObjekPajak> findByKecamatan(String kdPropinsi, String kdDati2, String kdKecamatan) {
-        String sql = "SELECT * FROM SYSTEM.DAT_OBJEK_PAJAK WHERE KD_PROPINSI = ? AND KD_DATI2 = ? AND KD_KECAMATAN = ? ORDER BY KD_KELURAHAN, KD_BLOK, NO_URUT, KD_JNS_OP";
-        return oracleJdbcTemplate.query(sql, this::mapRowToDatObjekPajak, kdPropinsi, kdDati2, kdKecamatan);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT * FROM " + route.table("DAT_OBJEK_PAJAK") + " WHERE KD_PROPINSI = ? AND KD_DATI2 = ? AND KD_KECAMATAN = ? ORDER BY KD_KELURAHAN, KD_BLOK, NO_URUT, KD_JNS_OP";
+        return route.jdbc().query(sql, this::mapRowToDatObjekPajak, kdPropinsi, kdDati2, kdKecamatan);
     }
 
     public List<DatObjekPajak> findByKelurahan(String kdPropinsi, String kdDati2, String kdKecamatan, String kdKelurahan) {
-        String sql = "SELECT * FROM SYSTEM.DAT_OBJEK_PAJAK WHERE KD_PROPINSI = ? AND KD_DATI2 = ? AND KD_KECAMATAN = ? AND KD_KELURAHAN = ? ORDER BY KD_BLOK, NO_URUT, KD_JNS_OP";
-        return oracleJdbcTemplate.query(sql, this::mapRowToDatObjekPajak, kdPropinsi, kdDati2, kdKecamatan, kdKelurahan);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT * FROM " + route.table("DAT_OBJEK_PAJAK") + " WHERE KD_PROPINSI = ? AND KD_DATI2 = ? AND KD_KECAMATAN = ? AND KD_KELURAHAN = ? ORDER BY KD_BLOK, NO_URUT, KD_JNS_OP";
+        return route.jdbc().query(sql, this::mapRowToDatObjekPajak, kdPropinsi, kdDati2, kdKecamatan, kdKelurahan);
     }
 
     public List<DatObjekPajak> findByKecamatanAndKelurahanAndNoUrut(String kdPropinsi, String kdDati2, String kdKecamatan, String kdKelurahan, String noUrut) {
-        String sql = "SELECT * FROM SYSTEM.DAT_OBJEK_PAJAK WHERE KD_PROPINSI = ? AND KD_DATI2 = ? AND KD_KECAMATAN = ? AND KD_KELURAHAN = ? AND NO_URUT = ? ORDER BY KD_BLOK, KD_JNS_OP";
-        return oracleJdbcTemplate.query(sql, this::mapRowToDatObjekPajak, kdPropinsi, kdDati2, kdKecamatan, kdKelurahan, noUrut);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT * FROM " + route.table("DAT_OBJEK_PAJAK") + " WHERE KD_PROPINSI = ? AND KD_DATI2 = ? AND KD_KECAMATAN = ? AND KD_KELURAHAN = ? AND NO_URUT = ? ORDER BY KD_BLOK, KD_JNS_OP";
+        return route.jdbc().query(sql, this::mapRowToDatObjekPajak, kdPropinsi, kdDati2, kdKecamatan, kdKelurahan, noUrut);
     }
 
     public List<DatObjekPajak> findBySubjekPajakId(String subjekPajakId) {
-        String sql = "SELECT * FROM SYSTEM.DAT_OBJEK_PAJAK WHERE SUBJEK_PAJAK_ID = ? ORDER BY KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_BLOK, NO_URUT, KD_JNS_OP";
-        return oracleJdbcTemplate.query(sql, this::mapRowToDatObjekPajak, subjekPajakId);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT * FROM " + route.table("DAT_OBJEK_PAJAK") + " WHERE SUBJEK_PAJAK_ID = ? ORDER BY KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_BLOK, NO_URUT, KD_JNS_OP";
+        return route.jdbc().query(sql, this::mapRowToDatObjekPajak, subjekPajakId);
     }
 
     public List<DatObjekPajak> findByNoFormulirSpop(String noFormulirSpop) {
-        String sql = "SELECT * FROM SYSTEM.DAT_OBJEK_PAJAK WHERE NO_FORMULIR_SPOP = ? ORDER BY KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_BLOK, NO_URUT, KD_JNS_OP";
-        return oracleJdbcTemplate.query(sql, this::mapRowToDatObjekPajak, noFormulirSpop);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT * FROM " + route.table("DAT_OBJEK_PAJAK") + " WHERE NO_FORMULIR_SPOP = ? ORDER BY KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_BLOK, NO_URUT, KD_JNS_OP";
+        return route.jdbc().query(sql, this::mapRowToDatObjekPajak, noFormulirSpop);
     }
 
     public List<DatObjekPajak> findByNpwp(String npwp) {
-        String sql = "SELECT op.* FROM SYSTEM.DAT_OBJEK_PAJAK op " +
-                    "INNER JOIN SYSTEM.DAT_SUBJEK_PAJAK sp ON op.SUBJEK_PAJAK_ID = sp.SUBJEK_PAJAK_ID " +
+        SismiopMirror.Route route = route();
+        String sql = "SELECT op.* FROM " + route.table("DAT_OBJEK_PAJAK") + " op " +
+                    "INNER JOIN " + route.table("DAT_SUBJEK_PAJAK") + " sp ON op.SUBJEK_PAJAK_ID = sp.SUBJEK_PAJAK_ID " +
                     "WHERE sp.NPWP = ? ORDER BY op.KD_PROPINSI, op.KD_DATI2, op.KD_KECAMATAN, op.KD_KELURAHAN, op.KD_BLOK, op.NO_URUT, op.KD_JNS_OP";
-        return oracleJdbcTemplate.query(sql, this::mapRowToDatObjekPajak, npwp);
+        return route.jdbc().query(sql, this::mapRowToDatObjekPajak, npwp);
     }
 
     public List<DatObjekPajak> findPaginated(int offset, int pageSize) {
-        String sql = "SELECT * FROM (SELECT a.*, ROWNUM rnum FROM (SELECT * FROM SYSTEM.DAT_OBJEK_PAJAK ORDER BY KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_BLOK, NO_URUT, KD_JNS_OP) a WHERE ROWNUM <= ?) WHERE rnum > ?";
-        return oracleJdbcTemplate.query(sql, this::mapRowToDatObjekPajak, offset + pageSize, offset);
+        SismiopMirror.Route route = route();
+        String sql = route.page("SELECT * FROM " + route.table("DAT_OBJEK_PAJAK") + " ORDER BY KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_BLOK, NO_URUT, KD_JNS_OP");
+        return route.jdbc().query(sql, this::mapRowToDatObjekPajak, route.pageArgs(offset, pageSize));
     }
 
     public List<DatObjekPajak> findPaginatedByKecamatan(String kdPropinsi, String kdDati2, String kdKecamatan, int offset, int pageSize) {
-        String sql = "SELECT * FROM (SELECT a.*, ROWNUM rnum FROM (SELECT * FROM SYSTEM.DAT_OBJEK_PAJAK WHERE KD_PROPINSI = ? AND KD_DATI2 = ? AND KD_KECAMATAN = ? ORDER BY KD_KELURAHAN, KD_BLOK, NO_URUT, KD_JNS_OP) a WHERE ROWNUM <= ?) WHERE rnum > ?";
-        return oracleJdbcTemplate.query(sql, this::mapRowToDatObjekPajak, kdPropinsi, kdDati2, kdKecamatan, offset + pageSize, offset);
+        SismiopMirror.Route route = route();
+        String sql = route.page("SELECT * FROM " + route.table("DAT_OBJEK_PAJAK") + " WHERE KD_PROPINSI = ? AND KD_DATI2 = ? AND KD_KECAMATAN = ? ORDER BY KD_KELURAHAN, KD_BLOK, NO_URUT, KD_JNS_OP");
+        return route.jdbc().query(sql, this::mapRowToDatObjekPajak, route.pageArgs(offset, pageSize, kdPropinsi, kdDati2, kdKecamatan));
     }
 
     public int countByKecamatan(String kdPropinsi, String kdDati2, String kdKecamatan) {
-        String sql = "SELECT COUNT(*) FROM SYSTEM.DAT_OBJEK_PAJAK WHERE KD_PROPINSI = ? AND KD_DATI2 = ? AND KD_KECAMATAN = ?";
-        return oracleJdbcTemplate.queryForObject(sql, Integer.class, kdPropinsi, kdDati2, kdKecamatan);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT COUNT(*) FROM " + route.table("DAT_OBJEK_PAJAK") + " WHERE KD_PROPINSI = ? AND KD_DATI2 = ? AND KD_KECAMATAN = ?";
+        return route.jdbc().queryForObject(sql, Integer.class, kdPropinsi, kdDati2, kdKecamatan);
     }
 
     public List<DatObjekPajak> findPaginatedByKelurahan(String kdPropinsi, String kdDati2, String kdKecamatan, String kdKelurahan, int offset, int pageSize) {
-        String sql = "SELECT * FROM (SELECT a.*, ROWNUM rnum FROM (SELECT * FROM SYSTEM.DAT_OBJEK_PAJAK WHERE KD_PROPINSI = ? AND KD_DATI2 = ? AND KD_KECAMATAN = ? AND KD_KELURAHAN = ? ORDER BY KD_BLOK, NO_URUT, KD_JNS_OP) a WHERE ROWNUM <= ?) WHERE rnum > ?";
-        return oracleJdbcTemplate.query(sql, this::mapRowToDatObjekPajak, kdPropinsi, kdDati2, kdKecamatan, kdKelurahan, offset + pageSize, offset);
+        SismiopMirror.Route route = route();
+        String sql = route.page("SELECT * FROM " + route.table("DAT_OBJEK_PAJAK") + " WHERE KD_PROPINSI = ? AND KD_DATI2 = ? AND KD_KECAMATAN = ? AND KD_KELURAHAN = ? ORDER BY KD_BLOK, NO_URUT, KD_JNS_OP");
+        return route.jdbc().query(sql, this::mapRowToDatObjekPajak, route.pageArgs(offset, pageSize, kdPropinsi, kdDati2, kdKecamatan, kdKelurahan));
     }
 
     public int countByKelurahan(String kdPropinsi, String kdDati2, String kdKecamatan, String kdKelurahan) {
-        String sql = "SELECT COUNT(*) FROM SYSTEM.DAT_OBJEK_PAJAK WHERE KD_PROPINSI = ? AND KD_DATI2 = ? AND KD_KECAMATAN = ? AND KD_KELURAHAN = ?";
-        return oracleJdbcTemplate.queryForObject(sql, Integer.class, kdPropinsi, kdDati2, kdKecamatan, kdKelurahan);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT COUNT(*) FROM " + route.table("DAT_OBJEK_PAJAK") + " WHERE KD_PROPINSI = ? AND KD_DATI2 = ? AND KD_KECAMATAN = ? AND KD_KELURAHAN = ?";
+        return route.jdbc().queryForObject(sql, Integer.class, kdPropinsi, kdDati2, kdKecamatan, kdKelurahan);
+    }
+
+    /**
+     * Keyset pagination (seek) - halaman berikutnya setelah cursor.
+     * Tidak memakai OFFSET sehingga biaya per halaman O(pageSize) berapapun kedalamannya.
+     *
+     * @param cursor   Token dari {@link #nextCursor(DatObjekPajak)}, null untuk halaman pertama
+     * @param pageSize Jumlah baris yang diambil
+     */
+    public List<DatObjekPajak> findPaginated(String cursor, int pageSize) {
+        return findAfter(new String[0], cursor, pageSize);
+    }
+
+    public List<DatObjekPajak> findPaginatedByKecamatan(String kdPropinsi, String kdDati2, String kdKecamatan, String cursor, int pageSize) {
+        return findAfter(new String[]{kdPropinsi, kdDati2, kdKecamatan}, cursor, pageSize);
+    }
+
+    public List<DatObjekPajak> findPaginatedByKelurahan(String kdPropinsi, String kdDati2, String kdKecamatan, String kdKelurahan, String cursor, int pageSize) {
+        return findAfter(new String[]{kdPropinsi, kdDati2, kdKecamatan, kdKelurahan}, cursor, pageSize);
+    }
+
+    /**
+     * Buat cursor dari baris terakhir sebuah halaman
+     */
+    public String nextCursor(DatObjekPajak last) {
+        return PageCursor.encode(last.getKdPropinsi(), last.getKdDati2(), last.getKdKecamatan(),
+                last.getKdKelurahan(), last.getKdBlok(), last.getNoUrut(), last.getKdJnsOp());
+    }
+
+    /**
+     * Bangun query seek: prefix NOP yang difilter dengan "=", sisa kolom dengan
+     * predikat bersarang (c1 > ? OR (c1 = ? AND (c2 > ? ...))) karena Oracle
+     * tidak mendukung row value comparison.
+     */
+    private List<DatObjekPajak> findAfter(String[] prefix, String cursor, int pageSize) {
+        String[] key = PageCursor.decode(cursor, NOP_COLUMNS.length);
+        List<Object> params = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+
+        for (int i = 0; i < prefix.length; i++) {
+            conditions.add(NOP_COLUMNS[i] + " = ?");
+            params.add(prefix[i]);
+        }
+
+        String[] sortColumns = Arrays.copyOfRange(NOP_COLUMNS, prefix.length, NOP_COLUMNS.length);
+        if (key != null) {
+            for (int i = 0; i < prefix.length; i++) {
+                if (!key[i].equals(prefix[i])) {
+                    throw new IllegalArgumentException("Cursor tidak valid");
+                }
+            }
+            String[] values = Arrays.copyOfRange(key, prefix.length, key.length);
+            // Predikat leading ">=" agar optimizer bisa melakukan index range scan
+            conditions.add(sortColumns[0] + " >= ?");
+            params.add(values[0]);
+            conditions.add(buildSeekPredicate(sortColumns, values, 0, params));
+        }
+
+        String where = conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+        SismiopMirror.Route route = route();
+        String sql = route.first("SELECT * FROM " + route.table("DAT_OBJEK_PAJAK") + where
+                + " ORDER BY " + String.join(", ", sortColumns));
+        params.add(pageSize);
+        return route.jdbc().query(sql, this::mapRowToDatObjekPajak, params.toArray());
+    }
+
+    private String buildSeekPredicate(String[] columns, String[] values, int index, List<Object> params) {
+        String column = columns[index];
+        params.add(values[index]);
+        if (index == columns.length - 1) {
+            return "(" + column + " > ?)";
+        }
+        params.add(values[index]);
+        String rest = buildSeekPredicate(columns, values, index + 1, params);
+        return "(" + column + " > ? OR (" + column + " = ? AND " + rest + "))";
     }
 
     /**
      * Find by ID with reference data (kecamatan, kelurahan, propinsi, dati2)
      */
     public Optional<DatObjekPajak> findByIdWithReferences(String kdPropinsi, String kdDati2, String kdKecamatan, String kdKelurahan, String kdBlok, String noUrut, String kdJnsOp) {
+        SismiopMirror.Route route = route();
         String sql = """
             SELECT op.*, 
                    kec.NM_KECAMATAN,
                    kel.NM_KELURAHAN,
                    prop.NM_PROPINSI,
                    dati2.NM_DATI2
-            FROM SYSTEM.DAT_OBJEK_PAJAK op
-            LEFT JOIN SYSTEM.REF_KECAMATAN kec ON op.KD_PROPINSI = kec.KD_PROPINSI 
+            FROM %1$s op
+            LEFT JOIN %2$s kec ON op.KD_PROPINSI = kec.KD_PROPINSI 
                                                 AND op.KD_DATI2 = kec.KD_DATI2 
                                                 AND op.KD_KECAMATAN = kec.KD_KECAMATAN
-            LEFT JOIN SYSTEM.REF_KELURAHAN kel ON op.KD_PROPINSI = kel.KD_PROPINSI 
+            LEFT JOIN %3$s kel ON op.KD_PROPINSI = kel.KD_PROPINSI 
                                                 AND op.KD_DATI2 = kel.KD_DATI2 
                                                 AND op.KD_KECAMATAN = kel.KD_KECAMATAN 
                                                 AND op.KD_KELURAHAN = kel.KD_KELURAHAN
-            LEFT JOIN SYSTEM.REF_PROPINSI prop ON op.KD_PROPINSI = prop.KD_PROPINSI
-            LEFT JOIN SYSTEM.REF_DATI2 dati2 ON op.KD_PROPINSI = dati2.KD_PROPINSI 
+            LEFT JOIN %4$s prop ON op.KD_PROPINSI = prop.KD_PROPINSI
+            LEFT JOIN %5$s dati2 ON op.KD_PROPINSI = dati2.KD_PROPINSI 
                                               AND op.KD_DATI2 = dati2.KD_DATI2
             WHERE op.KD_PROPINSI = ? AND op.KD_DATI2 = ? AND op.KD_KECAMATAN = ? 
                   AND op.KD_KELURAHAN = ? AND op.KD_BLOK = ? AND op.NO_URUT = ? AND op.KD_JNS_OP = ?
-            """;
+            """.formatted(route.table("DAT_OBJEK_PAJAK"), route.table("REF_KECAMATAN"), route.table("REF_KELURAHAN"),
+                route.table("REF_PROPINSI"), route.table("REF_DATI2"));
         
-        List<DatObjekPajak> result = oracleJdbcTemplate.query(sql, this::mapRowToDatObjekPajak, 
+        List<DatObjekPajak> result = route.jdbc().query(sql, this::mapRowToDatObjekPajak, 
             kdPropinsi, kdDati2, kdKecamatan, kdKelurahan, kdBlok, noUrut, kdJnsOp);
         return result.isEmpty() ? Optional.empty() : Optional.of(result.get(0));
     }
+
+    /**
+     * Atribut ringkas objek pajak + nama WP per kecamatan/kelurahan untuk export GIS
+     *
+     * Kolom: NOP composite, NM_WP, JALAN_OP, TOTAL_LUAS_BUMI, TOTAL_LUAS_BNG, NJOP_BUMI, NJOP_BNG.
+     * Baris dikirim ke handler satu per satu (kdKelurahan null = seluruh kecamatan).
+     */
+    public void forEachExportAttributes(String kdKecamatan, String kdKelurahan, RowCallbackHandler handler) {
+        SismiopMirror.Route route = route();
+        String sql = """
+            SELECT op.KD_PROPINSI, op.KD_DATI2, op.KD_KECAMATAN, op.KD_KELURAHAN, op.KD_BLOK, op.NO_URUT, op.KD_JNS_OP,
+                   sp.NM_WP, op.JALAN_OP, op.TOTAL_LUAS_BUMI, op.TOTAL_LUAS_BNG, op.NJOP_BUMI, op.NJOP_BNG
+            FROM %1$s op
+            LEFT JOIN %2$s sp ON sp.SUBJEK_PAJAK_ID = op.SUBJEK_PAJAK_ID
+            WHERE op.KD_KECAMATAN = ?
+            """.formatted(route.table("DAT_OBJEK_PAJAK"), route.table("DAT_SUBJEK_PAJAK"));
+        if (kdKelurahan != null) {
+            route.jdbc().query(sql + " AND op.KD_KELURAHAN = ?", handler, kdKecamatan, kdKelurahan);
+        } else {
+            route.jdbc().query(sql, handler, kdKecamatan);
+        }
+    }
+
+    /**
+     * Atribut tematik objek pajak per kelurahan: NOP composite, TOTAL_LUAS_BUMI, NJOP_BUMI, KD_ZNT, JNS_BUMI
+     *
+     * Satu objek pajak normalnya punya satu baris DAT_OP_BUMI (NO_BUMI = 1).
+     */
+    public void forEachTematikAttributes(String kdKecamatan, String kdKelurahan, RowCallbackHandler handler) {
+        SismiopMirror.Route route = route();
+        String sql = """
+            SELECT op.KD_PROPINSI, op.KD_DATI2, op.KD_KECAMATAN, op.KD_KELURAHAN, op.KD_BLOK, op.NO_URUT, op.KD_JNS_OP,
+                   op.TOTAL_LUAS_BUMI, op.NJOP_BUMI, b.KD_ZNT, b.JNS_BUMI
+            FROM %1$s op
+            LEFT JOIN %2$s b ON b.KD_PROPINSI = op.KD_PROPINSI AND b.KD_DATI2 = op.KD_DATI2
+                AND b.KD_KECAMATAN = op.KD_KECAMATAN AND b.KD_KELURAHAN = op.KD_KELURAHAN
+                AND b.KD_BLOK = op.KD_BLOK AND b.NO_URUT = op.NO_URUT AND b.KD_JNS_OP = op.KD_JNS_OP
+                AND b.NO_BUMI = 1
+            WHERE op.KD_KECAMATAN = ? AND op.KD_KELURAHAN = ?
+            """.formatted(route.table("DAT_OBJEK_PAJAK"), route.table("DAT_OP_BUMI"));
+        route.jdbc().query(sql, handler, kdKecamatan, kdKelurahan);
+    }
+
+    /**
+     * Status pembayaran SPPT satu tahun per kelurahan: NOP composite, STATUS_PEMBAYARAN_SPPT
+     */
+    public void forEachStatusPembayaran(String kdKecamatan, String kdKelurahan, String tahun,
+            RowCallbackHandler handler) {
+        SismiopMirror.Route route = sismiopMirror.routeSppt(oracleJdbcTemplate, "SYSTEM.", tahun);
+        String sql = """
+            SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_BLOK, NO_URUT, KD_JNS_OP,
+                   STATUS_PEMBAYARAN_SPPT
+            FROM %s
+            WHERE KD_KECAMATAN = ? AND KD_KELURAHAN = ? AND THN_PAJAK_SPPT = ?
+            """.formatted(route.table("SPPT"));
+        route.jdbc().query(sql, handler, kdKecamatan, kdKelurahan, tahun);
+    }
+
+    private SismiopMirror.Route route() {
+        return sismiopMirror.route(oracleJdbcTemplate, "SYSTEM.");
+    }
 }
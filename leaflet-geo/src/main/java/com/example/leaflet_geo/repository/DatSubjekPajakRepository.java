@@ -11,10 +11,16 @@ import java.util.Optional;
 @Repository
 public class DatSubjekPajakRepository {
 
+    private static final String SEARCH_COLUMNS = "sp.SUBJEK_PAJAK_ID, sp.NM_WP, sp.JALAN_WP, sp.BLOK_KAV_NO_WP, "
+            + "sp.RW_WP, sp.RT_WP, sp.KELURAHAN_WP, sp.KOTA_WP, sp.KD_POS_WP, sp.TELP_WP, sp.NPWP, "
+            + "sp.STATUS_PEKERJAAN_WP, sp.NPWPD, sp.EMAIL";
+
     private final JdbcTemplate oracleJdbcTemplate;
+    private final SismiopMirror sismiopMirror;
 
-    public DatSubjekPajakRepository(@Qualifier("oracleJdbcTemplate") JdbcTemplate oracleJdbcTemplate) {
+    public DatSubjekPajakRepository(@Qualifier("oracleJdbcTemplate") JdbcTemplate oracleJdbcTemplate, SismiopMirror sismiopMirror) {
         this.oracleJdbcTemplate = oracleJdbcTemplate;
+        this.sismiopMirror = sismiopMirror;
     }
 
     private DatSubjekPajak mapRowToDatSubjekPajak(java.sql.ResultSet rs, int rowNum) throws java.sql.SQLException {
@@ -44,75 +50,119 @@ public class DatSubjekPajakRepository {
     }
 
     public List<DatSubjekPajak> findAll() {
-        String sql = "SELECT * FROM SYSTEM.DAT_SUBJEK_PAJAK ORDER BY SUBJEK_PAJAK_ID";
-        return oracleJdbcTemplate.query(sql, this::mapRowToDatSubjekPajak);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT * FROM " + route.table("DAT_SUBJEK_PAJAK") + " ORDER BY SUBJEK_PAJAK_ID";
+        return route.jdbc().query(sql, this::mapRowToDatSubjekPajak);
     }
 
     public int count() {
-        String sql = "SELECT COUNT(*) FROM SYSTEM.DAT_SUBJEK_PAJAK";
-        return oracleJdbcTemplate.queryForObject(sql, Integer.class);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT COUNT(*) FROM " + route.table("DAT_SUBJEK_PAJAK");
+        return route.jdbc().queryForObject(sql, Integer.class);
     }
 
     public Optional<DatSubjekPajak> findById(String subjekPajakId) {
-        String sql = "SELECT * FROM SYSTEM.DAT_SUBJEK_PAJAK WHERE SUBJEK_PAJAK_ID = ?";
-        List<DatSubjekPajak> result = oracleJdbcTemplate.query(sql, this::mapRowToDatSubjekPajak, subjekPajakId);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT * FROM " + route.table("DAT_SUBJEK_PAJAK") + " WHERE SUBJEK_PAJAK_ID = ?";
+        List<DatSubjekPajak> result = route.jdbc().query(sql, this::mapRowToDatSubjekPajak, subjekPajakId);
         return result.isEmpty() ? Optional.empty() : Optional.of(result.get(0));
     }
 
     public List<DatSubjekPajak> findByNpwp(String npwp) {
-        String sql = "SELECT * FROM SYSTEM.DAT_SUBJEK_PAJAK WHERE NPWP = ? ORDER BY SUBJEK_PAJAK_ID";
-        return oracleJdbcTemplate.query(sql, this::mapRowToDatSubjekPajak, npwp);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT * FROM " + route.table("DAT_SUBJEK_PAJAK") + " WHERE NPWP = ? ORDER BY SUBJEK_PAJAK_ID";
+        return route.jdbc().query(sql, this::mapRowToDatSubjekPajak, npwp);
     }
 
     public List<DatSubjekPajak> findByNpwpd(String npwpd) {
-        String sql = "SELECT * FROM SYSTEM.DAT_SUBJEK_PAJAK WHERE NPWPD = ? ORDER BY SUBJEK_PAJAK_ID";
-        return oracleJdbcTemplate.query(sql, this::mapRowToDatSubjekPajak, npwpd);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT * FROM " + route.table("DAT_SUBJEK_PAJAK") + " WHERE NPWPD = ? ORDER BY SUBJEK_PAJAK_ID";
+        return route.jdbc().query(sql, this::mapRowToDatSubjekPajak, npwpd);
     }
 
     public List<DatSubjekPajak> findByNmWpContaining(String nmWp) {
-        String sql = "SELECT * FROM SYSTEM.DAT_SUBJEK_PAJAK WHERE UPPER(NM_WP) LIKE UPPER(?) ORDER BY NM_WP";
-        return oracleJdbcTemplate.query(sql, this::mapRowToDatSubjekPajak, "%" + nmWp + "%");
+        SismiopMirror.Route route = route();
+        String sql = "SELECT * FROM " + route.table("DAT_SUBJEK_PAJAK") + " WHERE UPPER(NM_WP) LIKE UPPER(?) ORDER BY NM_WP";
+        return route.jdbc().query(sql, this::mapRowToDatSubjekPajak, "%" + nmWp + "%");
+    }
+
+    /**
+     * Pencarian nama wajib pajak, maksimal limit baris
+     *
+     * Di mirror: full-text atas NM_WP/JALAN_WP/KELURAHAN_WP yang dinormalisasi
+     * (sismiop.normalize_nama, V007/V009), setiap kata sebagai prefix, diurutkan
+     * ts_rank_cd. Selama mirror belum siap: substring NM_WP di Oracle.
+     */
+    public List<DatSubjekPajak> searchByName(String query, int limit) {
+        SismiopMirror.Route route = route();
+        if (route.local()) {
+            String sql = """
+                SELECT %1$s, NULL AS NM_KECAMATAN, NULL AS NM_KELURAHAN, NULL AS NM_PROPINSI, NULL AS NM_DATI2
+                FROM %2$s sp,
+                     (SELECT CASE WHEN n = '' THEN NULL
+                                  ELSE to_tsquery('simple', regexp_replace(n, ' ', ':* & ', 'g') || ':*') END AS q
+                      FROM (SELECT sismiop.normalize_nama(?) AS n) t) tq
+                WHERE sp.search_vector @@ tq.q
+                ORDER BY ts_rank_cd(sp.search_vector, tq.q) DESC, sp.NM_WP, sp.SUBJEK_PAJAK_ID
+                LIMIT ?
+                """.formatted(SEARCH_COLUMNS, route.table("DAT_SUBJEK_PAJAK"));
+            return route.jdbc().query(sql, this::mapRowToDatSubjekPajak, query, limit);
+        }
+        String sql = route.first("SELECT " + SEARCH_COLUMNS
+                + ", NULL AS NM_KECAMATAN, NULL AS NM_KELURAHAN, NULL AS NM_PROPINSI, NULL AS NM_DATI2 FROM "
+                + route.table("DAT_SUBJEK_PAJAK") + " sp WHERE UPPER(sp.NM_WP) LIKE UPPER(?) ORDER BY sp.NM_WP");
+        return route.jdbc().query(sql, this::mapRowToDatSubjekPajak, "%" + query.trim() + "%", limit);
     }
 
     public List<DatSubjekPajak> findByEmail(String email) {
-        String sql = "SELECT * FROM SYSTEM.DAT_SUBJEK_PAJAK WHERE EMAIL = ? ORDER BY SUBJEK_PAJAK_ID";
-        return oracleJdbcTemplate.query(sql, this::mapRowToDatSubjekPajak, email);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT * FROM " + route.table("DAT_SUBJEK_PAJAK") + " WHERE EMAIL = ? ORDER BY SUBJEK_PAJAK_ID";
+        return route.jdbc().query(sql, this::mapRowToDatSubjekPajak, email);
     }
 
     public List<DatSubjekPajak> findByKotaWp(String kotaWp) {
-        String sql = "SELECT * FROM SYSTEM.DAT_SUBJEK_PAJAK WHERE UPPER(KOTA_WP) LIKE UPPER(?) ORDER BY SUBJEK_PAJAK_ID";
-        return oracleJdbcTemplate.query(sql, this::mapRowToDatSubjekPajak, "%" + kotaWp + "%");
+        SismiopMirror.Route route = route();
+        String sql = "SELECT * FROM " + route.table("DAT_SUBJEK_PAJAK") + " WHERE UPPER(KOTA_WP) LIKE UPPER(?) ORDER BY SUBJEK_PAJAK_ID";
+        return route.jdbc().query(sql, this::mapRowToDatSubjekPajak, "%" + kotaWp + "%");
     }
 
     public List<DatSubjekPajak> findByKelurahanWp(String kelurahanWp) {
-        String sql = "SELECT * FROM SYSTEM.DAT_SUBJEK_PAJAK WHERE UPPER(KELURAHAN_WP) LIKE UPPER(?) ORDER BY SUBJEK_PAJAK_ID";
-        return oracleJdbcTemplate.query(sql, this::mapRowToDatSubjekPajak, "%" + kelurahanWp + "%");
+        SismiopMirror.Route route = route();
+        String sql = "SELECT * FROM " + route.table("DAT_SUBJEK_PAJAK") + " WHERE UPPER(KELURAHAN_WP) LIKE UPPER(?) ORDER BY SUBJEK_PAJAK_ID";
+        return route.jdbc().query(sql, this::mapRowToDatSubjekPajak, "%" + kelurahanWp + "%");
     }
 
     public List<DatSubjekPajak> findPaginated(int offset, int pageSize) {
-        String sql = "SELECT * FROM (SELECT a.*, ROWNUM rnum FROM (SELECT * FROM SYSTEM.DAT_SUBJEK_PAJAK ORDER BY SUBJEK_PAJAK_ID) a WHERE ROWNUM <= ?) WHERE rnum > ?";
-        return oracleJdbcTemplate.query(sql, this::mapRowToDatSubjekPajak, offset + pageSize, offset);
+        SismiopMirror.Route route = route();
+        String sql = route.page("SELECT * FROM " + route.table("DAT_SUBJEK_PAJAK") + " ORDER BY SUBJEK_PAJAK_ID");
+        return route.jdbc().query(sql, this::mapRowToDatSubjekPajak, route.pageArgs(offset, pageSize));
     }
 
     /**
      * Find by ID with reference data (kecamatan, kelurahan, propinsi, dati2)
      */
     public Optional<DatSubjekPajak> findByIdWithReferences(String subjekPajakId) {
+        SismiopMirror.Route route = route();
         String sql = """
             SELECT sp.*, 
                    kec.NM_KECAMATAN,
                    kel.NM_KELURAHAN,
                    prop.NM_PROPINSI,
                    dati2.NM_DATI2
-            FROM SYSTEM.DAT_SUBJEK_PAJAK sp
-            LEFT JOIN SYSTEM.REF_KECAMATAN kec ON sp.KELURAHAN_WP = kec.NM_KECAMATAN
-            LEFT JOIN SYSTEM.REF_KELURAHAN kel ON sp.KELURAHAN_WP = kel.NM_KELURAHAN
-            LEFT JOIN SYSTEM.REF_PROPINSI prop ON sp.KOTA_WP = prop.NM_PROPINSI
-            LEFT JOIN SYSTEM.REF_DATI2 dati2 ON sp.KOTA_WP = dati2.NM_DATI2
+            FROM %1$s sp
+            LEFT JOIN %2$s kec ON sp.KELURAHAN_WP = kec.NM_KECAMATAN
+            LEFT JOIN %3$s kel ON sp.KELURAHAN_WP = kel.NM_KELURAHAN
+            LEFT JOIN %4$s prop ON sp.KOTA_WP = prop.NM_PROPINSI
+            LEFT JOIN %5$s dati2 ON sp.KOTA_WP = dati2.NM_DATI2
             WHERE sp.SUBJEK_PAJAK_ID = ?
-            """;
+            """.formatted(route.table("DAT_SUBJEK_PAJAK"), route.table("REF_KECAMATAN"), route.table("REF_KELURAHAN"),
+                route.table("REF_PROPINSI"), route.table("REF_DATI2"));
         
-        List<DatSubjekPajak> result = oracleJdbcTemplate.query(sql, this::mapRowToDatSubjekPajak, subjekPajakId);
+        List<DatSubjekPajak> result = route.jdbc().query(sql, this::mapRowToDatSubjekPajak, subjekPajakId);
         return result.isEmpty() ? Optional.empty() : Optional.of(result.get(0));
     }
+
+    private SismiopMirror.Route route() {
+        return sismiopMirror.route(oracleJdbcTemplate, "SYSTEM.");
+    }
 }
@@ -18,6 +18,9 @@ public class RefKecamatanRepository {
     @Qualifier("oracleJdbcTemplate")
     private JdbcTemplate oracleJdbcTemplate;
 
+    @Autowired
+    private SismiopMirror sismiopMirror;
+
     private static final RowMapper<RefKecamatan> ROW_MAPPER = new RowMapper<RefKecamatan>() {
         @Override
         public RefKecamatan mapRow(ResultSet rs, int rowNum) throws SQLException {
@@ -31,38 +34,49 @@ public class RefKecamatanRepository {
     };
 
     public List<RefKecamatan> findAll() {
-        String sql = "SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, NM_KECAMATAN FROM SYSTEM.REF_KECAMATAN ORDER BY KD_PROPINSI, KD_DATI2, KD_KECAMATAN";
-        return oracleJdbcTemplate.query(sql, ROW_MAPPER);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, NM_KECAMATAN FROM " + route.table("REF_KECAMATAN") + " ORDER BY KD_PROPINSI, KD_DATI2, KD_KECAMATAN";
+        return route.jdbc().query(sql, ROW_MAPPER);
     }
 
     public List<RefKecamatan> findByKdPropinsi(String kdPropinsi) {
-        String sql = "SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, NM_KECAMATAN FROM SYSTEM.REF_KECAMATAN WHERE KD_PROPINSI = ? ORDER BY KD_DATI2, KD_KECAMATAN";
-        return oracleJdbcTemplate.query(sql, ROW_MAPPER, kdPropinsi);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, NM_KECAMATAN FROM " + route.table("REF_KECAMATAN") + " WHERE KD_PROPINSI = ? ORDER BY KD_DATI2, KD_KECAMATAN";
+        return route.jdbc().query(sql, ROW_MAPPER, kdPropinsi);
     }
 
     public List<RefKecamatan> findByKdPropinsiAndKdDati2(String kdPropinsi, String kdDati2) {
-        String sql = "SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, NM_KECAMATAN FROM SYSTEM.REF_KECAMATAN WHERE KD_PROPINSI = ? AND KD_DATI2 = ? ORDER BY KD_KECAMATAN";
-        return oracleJdbcTemplate.query(sql, ROW_MAPPER, kdPropinsi, kdDati2);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, NM_KECAMATAN FROM " + route.table("REF_KECAMATAN") + " WHERE KD_PROPINSI = ? AND KD_DATI2 = ? ORDER BY KD_KECAMATAN";
+        return route.jdbc().query(sql, ROW_MAPPER, kdPropinsi, kdDati2);
     }
 
     public RefKecamatan findByPrimaryKey(String kdPropinsi, String kdDati2, String kdKecamatan) {
-        String sql = "SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, NM_KECAMATAN FROM SYSTEM.REF_KECAMATAN WHERE KD_PROPINSI = ? AND KD_DATI2 = ? AND KD_KECAMATAN = ?";
-        List<RefKecamatan> results = oracleJdbcTemplate.query(sql, ROW_MAPPER, kdPropinsi, kdDati2, kdKecamatan);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, NM_KECAMATAN FROM " + route.table("REF_KECAMATAN") + " WHERE KD_PROPINSI = ? AND KD_DATI2 = ? AND KD_KECAMATAN = ?";
+        List<RefKecamatan> results = route.jdbc().query(sql, ROW_MAPPER, kdPropinsi, kdDati2, kdKecamatan);
         return results.isEmpty() ? null : results.get(0);
     }
 
     public List<RefKecamatan> findByNmKecamatanContaining(String namaKecamatan) {
-        String sql = "SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, NM_KECAMATAN FROM SYSTEM.REF_KECAMATAN WHERE UPPER(NM_KECAMATAN) LIKE UPPER(?) ORDER BY KD_PROPINSI, KD_DATI2, KD_KECAMATAN";
-        return oracleJdbcTemplate.query(sql, ROW_MAPPER, "%" + namaKecamatan + "%");
+        SismiopMirror.Route route = route();
+        String sql = "SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, NM_KECAMATAN FROM " + route.table("REF_KECAMATAN") + " WHERE UPPER(NM_KECAMATAN) LIKE UPPER(?) ORDER BY KD_PROPINSI, KD_DATI2, KD_KECAMATAN";
+        return route.jdbc().query(sql, ROW_MAPPER, "%" + namaKecamatan + "%");
     }
 
     public long count() {
-        String sql = "SELECT COUNT(*) FROM SYSTEM.REF_KECAMATAN";
-        return oracleJdbcTemplate.queryForObject(sql, Long.class);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT COUNT(*) FROM " + route.table("REF_KECAMATAN");
+        return route.jdbc().queryForObject(sql, Long.class);
     }
 
     public List<RefKecamatan> findAllWithPagination(int offset, int limit) {
-        String sql = "SELECT * FROM (SELECT ROWNUM rn, KD_PROPINSI, KD_DATI2, KD_KECAMATAN, NM_KECAMATAN FROM SYSTEM.REF_KECAMATAN ORDER BY KD_PROPINSI, KD_DATI2, KD_KECAMATAN) WHERE rn > ? AND rn <= ?";
-        return oracleJdbcTemplate.query(sql, ROW_MAPPER, offset, offset + limit);
+        SismiopMirror.Route route = route();
+        String sql = route.page("SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, NM_KECAMATAN FROM " + route.table("REF_KECAMATAN") + " ORDER BY KD_PROPINSI, KD_DATI2, KD_KECAMATAN");
+        return route.jdbc().query(sql, ROW_MAPPER, route.pageArgs(offset, limit));
+    }
+
+    private SismiopMirror.Route route() {
+        return sismiopMirror.route(oracleJdbcTemplate, "SYSTEM.");
     }
 }
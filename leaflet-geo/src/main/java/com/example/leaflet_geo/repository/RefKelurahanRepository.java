@@ -18,6 +18,9 @@ public class RefKelurahanRepository {
     @Qualifier("oracleJdbcTemplate")
     private JdbcTemplate oracleJdbcTemplate;
 
+    @Autowired
+    private SismiopMirror sismiopMirror;
+
     private static final RowMapper<RefKelurahan> ROW_MAPPER = new RowMapper<RefKelurahan>() {
         @Override
         public RefKelurahan mapRow(ResultSet rs, int rowNum) throws SQLException {
@@ -35,83 +38,103 @@ public class RefKelurahanRepository {
     };
 
     public List<RefKelurahan> findAll() {
-        String sql = "SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_SEKTOR, NM_KELURAHAN, NO_KELURAHAN, KD_POS_KELURAHAN FROM SYSTEM.REF_KELURAHAN ORDER BY KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN";
-        return oracleJdbcTemplate.query(sql, ROW_MAPPER);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_SEKTOR, NM_KELURAHAN, NO_KELURAHAN, KD_POS_KELURAHAN FROM " + route.table("REF_KELURAHAN") + " ORDER BY KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN";
+        return route.jdbc().query(sql, ROW_MAPPER);
     }
 
     public List<RefKelurahan> findByKdPropinsi(String kdPropinsi) {
-        String sql = "SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_SEKTOR, NM_KELURAHAN, NO_KELURAHAN, KD_POS_KELURAHAN FROM SYSTEM.REF_KELURAHAN WHERE KD_PROPINSI = ? ORDER BY KD_DATI2, KD_KECAMATAN, KD_KELURAHAN";
-        return oracleJdbcTemplate.query(sql, ROW_MAPPER, kdPropinsi);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_SEKTOR, NM_KELURAHAN, NO_KELURAHAN, KD_POS_KELURAHAN FROM " + route.table("REF_KELURAHAN") + " WHERE KD_PROPINSI = ? ORDER BY KD_DATI2, KD_KECAMATAN, KD_KELURAHAN";
+        return route.jdbc().query(sql, ROW_MAPPER, kdPropinsi);
     }
 
     public List<RefKelurahan> findByKdPropinsiAndKdDati2(String kdPropinsi, String kdDati2) {
-        String sql = "SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_SEKTOR, NM_KELURAHAN, NO_KELURAHAN, KD_POS_KELURAHAN FROM SYSTEM.REF_KELURAHAN WHERE KD_PROPINSI = ? AND KD_DATI2 = ? ORDER BY KD_KECAMATAN, KD_KELURAHAN";
-        return oracleJdbcTemplate.query(sql, ROW_MAPPER, kdPropinsi, kdDati2);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_SEKTOR, NM_KELURAHAN, NO_KELURAHAN, KD_POS_KELURAHAN FROM " + route.table("REF_KELURAHAN") + " WHERE KD_PROPINSI = ? AND KD_DATI2 = ? ORDER BY KD_KECAMATAN, KD_KELURAHAN";
+        return route.jdbc().query(sql, ROW_MAPPER, kdPropinsi, kdDati2);
     }
 
     public List<RefKelurahan> findByKdPropinsiAndKdDati2AndKdKecamatan(String kdPropinsi, String kdDati2, String kdKecamatan) {
-        String sql = "SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_SEKTOR, NM_KELURAHAN, NO_KELURAHAN, KD_POS_KELURAHAN FROM SYSTEM.REF_KELURAHAN WHERE KD_PROPINSI = ? AND KD_DATI2 = ? AND KD_KECAMATAN = ? ORDER BY KD_KELURAHAN";
-        return oracleJdbcTemplate.query(sql, ROW_MAPPER, kdPropinsi, kdDati2, kdKecamatan);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_SEKTOR, NM_KELURAHAN, NO_KELURAHAN, KD_POS_KELURAHAN FROM " + route.table("REF_KELURAHAN") + " WHERE KD_PROPINSI = ? AND KD_DATI2 = ? AND KD_KECAMATAN = ? ORDER BY KD_KELURAHAN";
+        return route.jdbc().query(sql, ROW_MAPPER, kdPropinsi, kdDati2, kdKecamatan);
     }
 
     public RefKelurahan findByPrimaryKey(String kdPropinsi, String kdDati2, String kdKecamatan, String kdKelurahan) {
-        String sql = "SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_SEKTOR, NM_KELURAHAN, NO_KELURAHAN, KD_POS_KELURAHAN FROM SYSTEM.REF_KELURAHAN WHERE KD_PROPINSI = ? AND KD_DATI2 = ? AND KD_KECAMATAN = ? AND KD_KELURAHAN = ?";
-        List<RefKelurahan> results = oracleJdbcTemplate.query(sql, ROW_MAPPER, kdPropinsi, kdDati2, kdKecamatan, kdKelurahan);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_SEKTOR, NM_KELURAHAN, NO_KELURAHAN, KD_POS_KELURAHAN FROM " + route.table("REF_KELURAHAN") + " WHERE KD_PROPINSI = ? AND KD_DATI2 = ? AND KD_KECAMATAN = ? AND KD_KELURAHAN = ?";
+        List<RefKelurahan> results = route.jdbc().query(sql, ROW_MAPPER, kdPropinsi, kdDati2, kdKecamatan, kdKelurahan);
         return results.isEmpty() ? null : results.get(0);
     }
 
     public List<RefKelurahan> findByNmKelurahanContaining(String namaKelurahan) {
-        String sql = "SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_SEKTOR, NM_KELURAHAN, NO_KELURAHAN, KD_POS_KELURAHAN FROM SYSTEM.REF_KELURAHAN WHERE UPPER(NM_KELURAHAN) LIKE UPPER(?) ORDER BY KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN";
-        return oracleJdbcTemplate.query(sql, ROW_MAPPER, "%" + namaKelurahan + "%");
+        SismiopMirror.Route route = route();
+        String sql = "SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_SEKTOR, NM_KELURAHAN, NO_KELURAHAN, KD_POS_KELURAHAN FROM " + route.table("REF_KELURAHAN") + " WHERE UPPER(NM_KELURAHAN) LIKE UPPER(?) ORDER BY KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN";
+        return route.jdbc().query(sql, ROW_MAPPER, "%" + namaKelurahan + "%");
     }
 
     public List<RefKelurahan> findByKdSektor(String kdSektor) {
-        String sql = "SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_SEKTOR, NM_KELURAHAN, NO_KELURAHAN, KD_POS_KELURAHAN FROM SYSTEM.REF_KELURAHAN WHERE KD_SEKTOR = ? ORDER BY KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN";
-        return oracleJdbcTemplate.query(sql, ROW_MAPPER, kdSektor);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_SEKTOR, NM_KELURAHAN, NO_KELURAHAN, KD_POS_KELURAHAN FROM " + route.table("REF_KELURAHAN") + " WHERE KD_SEKTOR = ? ORDER BY KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN";
+        return route.jdbc().query(sql, ROW_MAPPER, kdSektor);
     }
 
     public List<RefKelurahan> findByKdPosKelurahan(String kdPosKelurahan) {
-        String sql = "SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_SEKTOR, NM_KELURAHAN, NO_KELURAHAN, KD_POS_KELURAHAN FROM SYSTEM.REF_KELURAHAN WHERE KD_POS_KELURAHAN = ? ORDER BY KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN";
-        return oracleJdbcTemplate.query(sql, ROW_MAPPER, kdPosKelurahan);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_SEKTOR, NM_KELURAHAN, NO_KELURAHAN, KD_POS_KELURAHAN FROM " + route.table("REF_KELURAHAN") + " WHERE KD_POS_KELURAHAN = ? ORDER BY KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN";
+        return route.jdbc().query(sql, ROW_MAPPER, kdPosKelurahan);
     }
 
     public long count() {
-        String sql = "SELECT COUNT(*) FROM SYSTEM.REF_KELURAHAN";
-        return oracleJdbcTemplate.queryForObject(sql, Long.class);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT COUNT(*) FROM " + route.table("REF_KELURAHAN");
+        return route.jdbc().queryForObject(sql, Long.class);
     }
 
     public long countByKdPropinsi(String kdPropinsi) {
-        String sql = "SELECT COUNT(*) FROM SYSTEM.REF_KELURAHAN WHERE KD_PROPINSI = ?";
-        return oracleJdbcTemplate.queryForObject(sql, Long.class, kdPropinsi);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT COUNT(*) FROM " + route.table("REF_KELURAHAN") + " WHERE KD_PROPINSI = ?";
+        return route.jdbc().queryForObject(sql, Long.class, kdPropinsi);
     }
 
     public long countByKdPropinsiAndKdDati2(String kdPropinsi, String kdDati2) {
-        String sql = "SELECT COUNT(*) FROM SYSTEM.REF_KELURAHAN WHERE KD_PROPINSI = ? AND KD_DATI2 = ?";
-        return oracleJdbcTemplate.queryForObject(sql, Long.class, kdPropinsi, kdDati2);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT COUNT(*) FROM " + route.table("REF_KELURAHAN") + " WHERE KD_PROPINSI = ? AND KD_DATI2 = ?";
+        return route.jdbc().queryForObject(sql, Long.class, kdPropinsi, kdDati2);
     }
 
     public long countByKdPropinsiAndKdDati2AndKdKecamatan(String kdPropinsi, String kdDati2, String kdKecamatan) {
-        String sql = "SELECT COUNT(*) FROM SYSTEM.REF_KELURAHAN WHERE KD_PROPINSI = ? AND KD_DATI2 = ? AND KD_KECAMATAN = ?";
-        return oracleJdbcTemplate.queryForObject(sql, Long.class, kdPropinsi, kdDati2, kdKecamatan);
+        SismiopMirror.Route route = route();
+        String sql = "SELECT COUNT(*) FROM " + route.table("REF_KELURAHAN") + " WHERE KD_PROPINSI = ? AND KD_DATI2 = ? AND KD_KECAMATAN = ?";
+        return route.jdbc().queryForObject(sql, Long.class, kdPropinsi, kdDati2, kdKecamatan);
     }
 
     public List<RefKelurahan> findAllWithPagination(int offset, int limit) {
-        String sql = "SELECT * FROM (SELECT ROWNUM rn, KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_SEKTOR, NM_KELURAHAN, NO_KELURAHAN, KD_POS_KELURAHAN FROM SYSTEM.REF_KELURAHAN ORDER BY KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN) WHERE rn > ? AND rn <= ?";
-        return oracleJdbcTemplate.query(sql, ROW_MAPPER, offset, offset + limit);
+        SismiopMirror.Route route = route();
+        String sql = route.page("SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_SEKTOR, NM_KELURAHAN, NO_KELURAHAN, KD_POS_KELURAHAN FROM " + route.table("REF_KELURAHAN") + " ORDER BY KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN");
+        return route.jdbc().query(sql, ROW_MAPPER, route.pageArgs(offset, limit));
     }
 
     public List<RefKelurahan> findByKdPropinsiWithPagination(String kdPropinsi, int offset, int limit) {
-        String sql = "SELECT * FROM (SELECT ROWNUM rn, KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_SEKTOR, NM_KELURAHAN, NO_KELURAHAN, KD_POS_KELURAHAN FROM SYSTEM.REF_KELURAHAN WHERE KD_PROPINSI = ? ORDER BY KD_DATI2, KD_KECAMATAN, KD_KELURAHAN) WHERE rn > ? AND rn <= ?";
-        return oracleJdbcTemplate.query(sql, ROW_MAPPER, kdPropinsi, offset, offset + limit);
+        SismiopMirror.Route route = route();
+        String sql = route.page("SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_SEKTOR, NM_KELURAHAN, NO_KELURAHAN, KD_POS_KELURAHAN FROM " + route.table("REF_KELURAHAN") + " WHERE KD_PROPINSI = ? ORDER BY KD_DATI2, KD_KECAMATAN, KD_KELURAHAN");
+        return route.jdbc().query(sql, ROW_MAPPER, route.pageArgs(offset, limit, kdPropinsi));
     }
 
     public List<RefKelurahan> findByKdPropinsiAndKdDati2WithPagination(String kdPropinsi, String kdDati2, int offset, int limit) {
-        String sql = "SELECT * FROM (SELECT ROWNUM rn, KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_SEKTOR, NM_KELURAHAN, NO_KELURAHAN, KD_POS_KELURAHAN FROM SYSTEM.REF_KELURAHAN WHERE KD_PROPINSI = ? AND KD_DATI2 = ? ORDER BY KD_KECAMATAN, KD_KELURAHAN) WHERE rn > ? AND rn <= ?";
-        return oracleJdbcTemplate.query(sql, ROW_MAPPER, kdPropinsi, kdDati2, offset, offset + limit);
+        SismiopMirror.Route route = route();
+        String sql = route.page("SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_SEKTOR, NM_KELURAHAN, NO_KELURAHAN, KD_POS_KELURAHAN FROM " + route.table("REF_KELURAHAN") + " WHERE KD_PROPINSI = ? AND KD_DATI2 = ? ORDER BY KD_KECAMATAN, KD_KELURAHAN");
+        return route.jdbc().query(sql, ROW_MAPPER, route.pageArgs(offset, limit, kdPropinsi, kdDati2));
     }
 
     public List<RefKelurahan> findByKdPropinsiAndKdDati2AndKdKecamatanWithPagination(String kdPropinsi, String kdDati2, String kdKecamatan, int offset, int limit) {
-        String sql = "SELECT * FROM (SELECT ROWNUM rn, KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_SEKTOR, NM_KELURAHAN, NO_KELURAHAN, KD_POS_KELURAHAN FROM SYSTEM.REF_KELURAHAN WHERE KD_PROPINSI = ? AND KD_DATI2 = ? AND KD_KECAMATAN = ? ORDER BY KD_KELURAHAN) WHERE rn > ? AND rn <= ?";
-        return oracleJdbcTemplate.query(sql, ROW_MAPPER, kdPropinsi, kdDati2, kdKecamatan, offset, offset + limit);
+        SismiopMirror.Route route = route();
+        String sql = route.page("SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, KD_SEKTOR, NM_KELURAHAN, NO_KELURAHAN, KD_POS_KELURAHAN FROM " + route.table("REF_KELURAHAN") + " WHERE KD_PROPINSI = ? AND KD_DATI2 = ? AND KD_KECAMATAN = ? ORDER BY KD_KELURAHAN");
+        return route.jdbc().query(sql, ROW_MAPPER, route.pageArgs(offset, limit, kdPropinsi, kdDati2, kdKecamatan));
+    }
+
+    private SismiopMirror.Route route() {
+        return sismiopMirror.route(oracleJdbcTemplate, "SYSTEM.");
     }
 }
@@ -0,0 +1,217 @@
+package com.example.leaflet_geo.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * SISMIOP Mirror
+ *
+ * Menentukan sumber baca tabel SISMIOP: mirror lokal (schema sismiop di
+ * PostgreSQL, diisi SismiopMirrorService) atau Oracle. Mirror dipakai jika
+ * sismiop.mirror.enabled dan sismiop.mirror.read-local aktif, dan semua tabel
+ * di {@link #TABLES} sudah pernah tersinkron (sismiop.sync_table). Selama itu
+ * belum terpenuhi repository tetap membaca Oracle.
+ *
+ * Query yang sama dipakai di kedua sumber: nama kolom tanpa quote (Oracle
+ * uppercase, PostgreSQL lowercase) cocok di keduanya, hanya nama tabel dan
+ * pagination yang berbeda, lihat {@link Route}.
+ */
+@Component
+public class SismiopMirror {
+
+    private static final Logger log = LoggerFactory.getLogger(SismiopMirror.class);
+
+    public static final String SCHEMA = "sismiop";
+
+    /**
+     * Tabel yang dimirror, urutan = urutan sinkronisasi
+     */
+    public static final List<String> TABLES = List.of(
+            "REF_PROPINSI", "REF_DATI2", "REF_KECAMATAN", "REF_KELURAHAN",
+            "DAT_SUBJEK_PAJAK", "DAT_OBJEK_PAJAK", "DAT_OP_BUMI", "SPPT");
+
+    /**
+     * Kolom tambahan mirror yang tidak ada di Oracle
+     */
+    public static final Set<String> SYNC_COLUMNS = Set.of("ROW_HASH", "SYNC_PARTITION", "SYNCED_AT", "SEARCH_VECTOR");
+
+    private static final long READY_CHECK_MILLIS = 60_000;
+
+    private final JdbcTemplate postgresJdbcTemplate;
+    private final boolean enabled;
+    private final boolean readLocal;
+    private final int spptYears;
+
+    private volatile boolean ready;
+    private volatile long readyCheckedAt;
+
+    public SismiopMirror(@Qualifier("postgresJdbcTemplate") JdbcTemplate postgresJdbcTemplate,
+            @Value("${sismiop.mirror.enabled:false}") boolean enabled,
+            @Value("${sismiop.mirror.read-local:true}") boolean readLocal,
+            @Value("${sismiop.mirror.sppt-years:3}") int spptYears) {
+        this.postgresJdbcTemplate = postgresJdbcTemplate;
+        this.enabled = enabled;
+        this.readLocal = readLocal;
+        this.spptYears = Math.max(1, spptYears);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Jumlah tahun SPPT terakhir yang dimirror (termasuk tahun berjalan)
+     */
+    public int spptYears() {
+        return spptYears;
+    }
+
+    /**
+     * Tahun SPPT paling awal yang ada di mirror
+     */
+    public String firstSpptYear() {
+        return String.valueOf(Year.now().getValue() - spptYears + 1);
+    }
+
+    /**
+     * true jika query dibaca dari mirror lokal
+     */
+    public boolean isLocal() {
+        if (!enabled || !readLocal) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        if (now - readyCheckedAt > READY_CHECK_MILLIS) {
+            ready = checkReady();
+            readyCheckedAt = now;
+        }
+        return ready;
+    }
+
+    /**
+     * Paksa cek ulang status mirror (dipanggil setelah sinkronisasi)
+     */
+    public void invalidate() {
+        readyCheckedAt = 0;
+    }
+
+    /**
+     * Sumber baca untuk tabel SISMIOP
+     *
+     * @param oracleJdbcTemplate JdbcTemplate Oracle yang dipakai jika mirror belum siap
+     * @param oracleSchema       prefix schema Oracle, mis. "SYSTEM." atau "" untuk schema user
+     */
+    public Route route(JdbcTemplate oracleJdbcTemplate, String oracleSchema) {
+        return isLocal()
+                ? new Route(postgresJdbcTemplate, true, SCHEMA + ".")
+                : new Route(oracleJdbcTemplate, false, oracleSchema);
+    }
+
+    /**
+     * Seperti {@link #route}, tetapi SPPT tahun di luar jendela mirror tetap dibaca dari Oracle
+     */
+    public Route routeSppt(JdbcTemplate oracleJdbcTemplate, String oracleSchema, String tahun) {
+        Route route = route(oracleJdbcTemplate, oracleSchema);
+        if (route.local() && (tahun == null || tahun.compareTo(firstSpptYear()) < 0)) {
+            return new Route(oracleJdbcTemplate, false, oracleSchema);
+        }
+        return route;
+    }
+
+    private boolean checkReady() {
+        try {
+            Integer synced = postgresJdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM " + SCHEMA + ".sync_table WHERE last_success_at IS NOT NULL AND table_name IN ("
+                            + String.join(", ", TABLES.stream().map(t -> "'" + t + "'").toList()) + ")",
+                    Integer.class);
+            boolean isReady = synced != null && synced == TABLES.size();
+            if (isReady != ready) {
+                log.info("SISMIOP mirror {}", isReady ? "ready, reading from PostgreSQL" : "not ready, reading from Oracle");
+            }
+            return isReady;
+        } catch (Exception e) {
+            log.warn("SISMIOP mirror status unavailable, reading from Oracle: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Sumber baca terpilih
+     *
+     * @param jdbc   JdbcTemplate yang dipakai
+     * @param local  true = mirror PostgreSQL
+     * @param schema prefix nama tabel
+     */
+    public record Route(JdbcTemplate jdbc, boolean local, String schema) {
+
+        /**
+         * Nama tabel lengkap, mis. SYSTEM.DAT_OBJEK_PAJAK atau sismiop.dat_objek_pajak
+         */
+        public String table(String name) {
+            return schema + (local ? name.toLowerCase(Locale.ROOT) : name);
+        }
+
+        /**
+         * Bungkus query ber-ORDER BY dengan offset pagination; argumen dari {@link #pageArgs}
+         */
+        public String page(String orderedSql) {
+            if (local) {
+                return orderedSql + " LIMIT ? OFFSET ?";
+            }
+            return "SELECT * FROM (SELECT a.*, ROWNUM rnum FROM (" + orderedSql + ") a WHERE ROWNUM <= ?) WHERE rnum > ?";
+        }
+
+        public Object[] pageArgs(int offset, int limit, Object... params) {
+            Object[] args = Arrays.copyOf(params, params.length + 2);
+            args[params.length] = local ? limit : offset + limit;
+            args[params.length + 1] = offset;
+            return args;
+        }
+
+        /**
+         * Batasi query ber-ORDER BY ke N baris pertama; N jadi argumen terakhir
+         */
+        public String first(String orderedSql) {
+            return local ? orderedSql + " LIMIT ?" : "SELECT * FROM (" + orderedSql + ") WHERE ROWNUM <= ?";
+        }
+
+        /**
+         * Samakan baris queryForMap/queryForList dengan bentuk Oracle: key uppercase, tanpa kolom mirror
+         */
+        public Map<String, Object> row(Map<String, Object> row) {
+            if (!local) {
+                return row;
+            }
+            Map<String, Object> result = new LinkedCaseInsensitiveMap<>(row.size());
+            row.forEach((key, value) -> {
+                String column = key.toUpperCase(Locale.ROOT);
+                if (!SYNC_COLUMNS.contains(column)) {
+                    result.put(column, value);
+                }
+            });
+            return result;
+        }
+
+        public List<Map<String, Object>> rows(List<Map<String, Object>> rows) {
+            if (!local) {
+                return rows;
+            }
+            List<Map<String, Object>> result = new ArrayList<>(rows.size());
+            rows.forEach(row -> result.add(row(row)));
+            return result;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.leaflet_geo.security;
+
+import com.example.leaflet_geo.model.User;
+
+/**
+ * Principal request yang terautentikasi
+ *
+ * Snapshot immutable dari system."user" saat token di-resolve, aman dibagi
+ * antar request lewat {@link TokenCache}. Bukan entity JPA: operasi tulis
+ * (logout, ganti password) memuat ulang User berdasarkan id.
+ */
+public record AuthenticatedUser(String id, String username, String nama, String idUnit, String role,
+        String token) {
+
+    public static AuthenticatedUser of(User user) {
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getNama(), user.getIdUnit(),
+                user.getRole(), user.getToken());
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.leaflet_geo.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Login Attempt Limiter
+ *
+ * Membatasi percobaan login gagal per username dan per IP klien (setelah
+ * X-Forwarded-For dari proxy internal, lihat server.forward-headers-strategy).
+ * Beberapa kegagalan pertama bebas; setelah batas, setiap kegagalan
+ * menambah jeda (backoff eksponensial, dibatasi) alih-alih mengunci akun
+ * selama seluruh window. Counter hilang setelah window tanpa kegagalan.
+ *
+ * Setiap percobaan dimulai dengan {@link #acquire} (percobaan yang sedang
+ * berjalan ikut dihitung, jadi request bersamaan tidak bisa lolos semua
+ * sebelum kegagalannya tercatat) dan diakhiri tepat satu dari
+ * {@link #recordFailure}, {@link #recordSuccess} atau {@link #release}.
+ * Login berhasil mereset counter username dan mengurangi separuh counter IP,
+ * sehingga satu kantor di belakang NAT yang sama tidak terkunci bersama.
+ */
+@Component
+public class LoginAttemptLimiter {
+
+    private final int maxPerUser;
+    private final int maxPerIp;
+    private final long windowMillis;
+    private final long backoffBaseMillis;
+    private final long backoffMaxMillis;
+    private final LongSupplier clock;
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LoginAttemptLimiter(@Value("${auth.login.max-attempts-per-user:5}") int maxPerUser,
+            @Value("${auth.login.max-attempts-per-ip:20}") int maxPerIp,
+            @Value("${auth.login.window-seconds:900}") long windowSeconds,
+            @Value("${auth.login.backoff-base-ms:1000}") long backoffBaseMillis,
+            @Value("${auth.login.backoff-max-seconds:300}") long backoffMaxSeconds) {
+        this(maxPerUser, maxPerIp, windowSeconds, backoffBaseMillis, backoffMaxSeconds, System::currentTimeMillis);
+    }
+
+    LoginAttemptLimiter(int maxPerUser, int maxPerIp, long windowSeconds, long backoffBaseMillis,
+            long backoffMaxSeconds, LongSupplier clock) {
+        this.maxPerUser = maxPerUser;
+        this.maxPerIp = maxPerIp;
+        this.windowMillis = windowSeconds * 1000;
+        this.backoffBaseMillis = backoffBaseMillis;
+        this.backoffMaxMillis = backoffMaxSeconds * 1000;
+        this.clock = clock;
+    }
+
+    /**
+     * Mulai satu percobaan login untuk username dari ip
+     *
+     * @throws TooManyAttemptsException jika username atau IP sedang dalam jeda
+     */
+    public void acquire(String username, String ip) {
+        long now = clock.getAsLong();
+        long retryAfter = reserve(userKey(username), maxPerUser, now);
+        if (retryAfter > 0) {
+            throw new TooManyAttemptsException(retryAfter);
+        }
+        retryAfter = reserve(ipKey(ip), maxPerIp, now);
+        if (retryAfter > 0) {
+            finish(userKey(username), now, Outcome.RELEASE, maxPerUser);
+            throw new TooManyAttemptsException(retryAfter);
+        }
+    }
+
+    public void recordFailure(String username, String ip) {
+        long now = clock.getAsLong();
+        finish(userKey(username), now, Outcome.FAILURE, maxPerUser);
+        finish(ipKey(ip), now, Outcome.FAILURE, maxPerIp);
+        if (states.size() > 10_000) {
+            states.values().removeIf(state -> state.pending() == 0 && expired(state, now));
+        }
+    }
+
+    public void recordSuccess(String username, String ip) {
+        long now = clock.getAsLong();
+        finish(userKey(username), now, Outcome.SUCCESS_RESET, maxPerUser);
+        finish(ipKey(ip), now, Outcome.SUCCESS_DECAY, maxPerIp);
+    }
+
+    /**
+     * Akhiri percobaan tanpa hasil (mis. server sibuk, user tidak aktif)
+     */
+    public void release(String username, String ip) {
+        long now = clock.getAsLong();
+        finish(userKey(username), now, Outcome.RELEASE, maxPerUser);
+        finish(ipKey(ip), now, Outcome.RELEASE, maxPerIp);
+    }
+
+    /**
+     * @return 0 jika diizinkan (percobaan dicatat sebagai pending), selain itu sisa jeda dalam ms
+     */
+    private long reserve(String key, int free, long now) {
+        long[] retryAfter = new long[1];
+        states.compute(key, (k, state) -> {
+            if (state == null || expired(state, now)) {
+                state = new State(0, 0, now, 0);
+            }
+            if (now < state.blockedUntil()) {
+                retryAfter[0] = state.blockedUntil() - now;
+                return state;
+            }
+            // Setelah batas bebas hanya satu percobaan sekaligus
+            if (state.failures() + state.pending() >= free && state.pending() > 0) {
+                retryAfter[0] = backoffBaseMillis;
+                return state;
+            }
+            return new State(state.failures(), state.pending() + 1, now, state.blockedUntil());
+        });
+        return retryAfter[0];
+    }
+
+    private void finish(String key, long now, Outcome outcome, int free) {
+        states.computeIfPresent(key, (k, state) -> {
+            int pending = Math.max(0, state.pending() - 1);
+            return switch (outcome) {
+                case FAILURE -> {
+                    int failures = state.failures() + 1;
+                    long blockedUntil = failures >= free ? now + backoff(failures - free) : state.blockedUntil();
+                    yield new State(failures, pending, now, blockedUntil);
+                }
+                case SUCCESS_RESET -> pending == 0 ? null : new State(0, pending, state.lastSeen(), 0);
+                case SUCCESS_DECAY -> new State(state.failures() / 2, pending, state.lastSeen(), 0);
+                case RELEASE -> new State(state.failures(), pending, state.lastSeen(), state.blockedUntil());
+            };
+        });
+    }
+
+    private long backoff(int step) {
+        return Math.min(backoffBaseMillis << Math.min(step, 30), backoffMaxMillis);
+    }
+
+    /**
+     * Tidak ada percobaan selama window: counter (dan pending yang tidak pernah diakhiri) dibuang
+     */
+    private boolean expired(State state, long now) {
+        return now - state.lastSeen() > windowMillis && now >= state.blockedUntil();
+    }
+
+    private static String userKey(String username) {
+        return "user:" + (username != null ? username.toLowerCase() : "");
+    }
+
+    private static String ipKey(String ip) {
+        return "ip:" + ip;
+    }
+
+    private enum Outcome {
+        FAILURE, SUCCESS_RESET, SUCCESS_DECAY, RELEASE
+    }
+
+    /**
+     * @param failures     kegagalan dalam window
+     * @param pending      percobaan yang sedang berjalan
+     * @param lastSeen     waktu percobaan / kegagalan terakhir
+     * @param blockedUntil percobaan berikutnya ditolak sebelum waktu ini
+     */
+    private record State(int failures, int pending, long lastSeen, long blockedUntil) {
+    }
+
+    public static class TooManyAttemptsException extends RuntimeException {
+
+        private final long retryAfterSeconds;
+
+        public TooManyAttemptsException(long retryAfterMillis) {
+            super("Terlalu banyak percobaan login, coba lagi nanti");
+            this.retryAfterSeconds = Math.max(1, (retryAfterMillis + 999) / 1000);
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+}
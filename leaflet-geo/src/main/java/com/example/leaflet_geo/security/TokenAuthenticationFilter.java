@@ -1,5 +1,6 @@
 package com.example.leaflet_geo.security;
 
+import com.example.leaflet_geo.config.SecurityConfig;
 import com.example.leaflet_geo.model.User;
 import com.example.leaflet_geo.repository.UserRepository;
 import jakarta.servlet.FilterChain;
@@ -12,6 +13,7 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
@@ -24,6 +26,9 @@ import java.util.Optional;
  * 
  * Validates Bearer token from Authorization header against database.
  * Matches legacy Yii 2 HttpBearerAuth behavior.
+ * Resolved principals are kept in {@link TokenCache} for a short TTL.
+ * Public paths ({@link SecurityConfig#PUBLIC_PATHS}) are not filtered at all,
+ * except the admin endpoints inside them ({@link SecurityConfig#ADMIN_API_PATHS}).
  */
 @Component
 public class TokenAuthenticationFilter extends OncePerRequestFilter {
@@ -31,6 +36,27 @@ public class TokenAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TokenCache tokenCache;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String pattern : SecurityConfig.ADMIN_API_PATHS) {
+            if (pathMatcher.match(pattern, path)) {
+                return false;
+            }
+        }
+        for (String pattern : SecurityConfig.PUBLIC_PATHS) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
             HttpServletResponse response,
@@ -40,24 +66,33 @@ public class TokenAuthenticationFilter extends OncePerRequestFilter {
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
-            Optional<User> userOpt = userRepository.findByToken(token);
+            TokenCache.CachedPrincipal cached = tokenCache.get(token);
 
-            if (userOpt.isPresent() && Boolean.TRUE.equals(userOpt.get().getIsActive())) {
-                User user = userOpt.get();
+            if (cached == null) {
+                Optional<User> userOpt = userRepository.findByToken(token);
 
-                // Build authorities based on role
-                List<GrantedAuthority> authorities = new ArrayList<>();
-                if (Boolean.TRUE.equals(user.getIsAdmin())) {
-                    authorities.add(new SimpleGrantedAuthority("ROLE_ADMIN"));
-                }
-                if (user.getRole() != null && !user.getRole().isEmpty()) {
-                    authorities.add(new SimpleGrantedAuthority("ROLE_" + user.getRole().toUpperCase()));
+                if (userOpt.isPresent() && Boolean.TRUE.equals(userOpt.get().getIsActive())) {
+                    User user = userOpt.get();
+
+                    // Build authorities based on role
+                    List<GrantedAuthority> authorities = new ArrayList<>();
+                    if (Boolean.TRUE.equals(user.getIsAdmin())) {
+                        authorities.add(new SimpleGrantedAuthority("ROLE_ADMIN"));
+                    }
+                    if (user.getRole() != null && !user.getRole().isEmpty()) {
+                        authorities.add(new SimpleGrantedAuthority("ROLE_" + user.getRole().toUpperCase()));
+                    }
+                    authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
+
+                    tokenCache.put(token, AuthenticatedUser.of(user), authorities);
+                    cached = tokenCache.get(token);
                 }
-                authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
+            }
 
+            if (cached != null) {
                 // Set authentication in context
-                UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(user, null,
-                        authorities);
+                UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(cached.user(),
+                        null, cached.authorities());
                 SecurityContextHolder.getContext().setAuthentication(auth);
             }
         }
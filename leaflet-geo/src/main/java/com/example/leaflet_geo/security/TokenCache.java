@@ -0,0 +1,75 @@
+package com.example.leaflet_geo.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Token Cache
+ *
+ * Cache token -> principal + authorities agar filter tidak query
+ * system."user" di setiap request. Principal berupa snapshot immutable
+ * ({@link AuthenticatedUser}), bukan entity JPA, karena dibagi antar request.
+ * Ukuran dibatasi (LRU) dan setiap entry kedaluwarsa setelah TTL. AuthService
+ * meng-evict entry saat login, logout, dan ganti password.
+ */
+@Component
+public class TokenCache {
+
+    private final long ttlMillis;
+    private final int maxSize;
+    private final LinkedHashMap<String, CachedPrincipal> entries;
+
+    public TokenCache(@Value("${auth.token-cache.ttl-seconds:60}") long ttlSeconds,
+            @Value("${auth.token-cache.max-size:10000}") int maxSize) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedPrincipal> eldest) {
+                return size() > TokenCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Ambil principal dari cache, null jika tidak ada atau sudah kedaluwarsa
+     */
+    public synchronized CachedPrincipal get(String token) {
+        CachedPrincipal cached = entries.get(token);
+        if (cached != null && cached.expiresAt() < System.currentTimeMillis()) {
+            entries.remove(token);
+            return null;
+        }
+        return cached;
+    }
+
+    public synchronized void put(String token, AuthenticatedUser user, List<GrantedAuthority> authorities) {
+        entries.put(token, new CachedPrincipal(user, List.copyOf(authorities),
+                System.currentTimeMillis() + ttlMillis));
+    }
+
+    /**
+     * Hapus semua token milik user (login, logout, ganti password)
+     */
+    public synchronized void evictUser(String userId) {
+        Iterator<CachedPrincipal> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (userId.equals(it.next().user().id())) {
+                it.remove();
+            }
+        }
+    }
+
+    public synchronized void evictToken(String token) {
+        entries.remove(token);
+    }
+
+    public record CachedPrincipal(AuthenticatedUser user, List<GrantedAuthority> authorities, long expiresAt) {
+    }
+}
@@ -5,12 +5,25 @@ import com.example.leaflet_geo.dto.auth.LoginRequest;
 import com.example.leaflet_geo.dto.auth.LoginResponse;
 import com.example.leaflet_geo.model.User;
 import com.example.leaflet_geo.repository.UserRepository;
+import com.example.leaflet_geo.security.AuthenticatedUser;
+import com.example.leaflet_geo.security.LoginAttemptLimiter;
+import com.example.leaflet_geo.security.TokenCache;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Authentication Service
@@ -21,33 +34,129 @@ import java.util.UUID;
 @Service
 public class AuthService {
 
+    /** Batas waktu verifikasi BCrypt, termasuk antre di pool */
+    private static final long VERIFY_TIMEOUT_SECONDS = 10;
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private TokenCache tokenCache;
+
+    @Autowired
+    private LoginAttemptLimiter loginAttemptLimiter;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor applicationTaskExecutor;
+
+    /**
+     * Bounded pool for BCrypt verification, so bursts of logins cannot use
+     * more CPU than its threads. Rejects (instead of queueing forever) when
+     * the queue is full. Owned by this service, not a bean: an Executor bean
+     * would replace Boot's applicationTaskExecutor used for async requests.
+     */
+    private final ThreadPoolTaskExecutor passwordVerificationExecutor;
+
+    public AuthService(@Value("${auth.bcrypt.threads:2}") int bcryptThreads,
+            @Value("${auth.bcrypt.queue-capacity:100}") int bcryptQueueCapacity) {
+        passwordVerificationExecutor = new ThreadPoolTaskExecutor();
+        passwordVerificationExecutor.setCorePoolSize(bcryptThreads);
+        passwordVerificationExecutor.setMaxPoolSize(bcryptThreads);
+        passwordVerificationExecutor.setQueueCapacity(bcryptQueueCapacity);
+        passwordVerificationExecutor.setThreadNamePrefix("bcrypt-");
+        passwordVerificationExecutor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        passwordVerificationExecutor.shutdown();
+    }
+
     /**
      * Login user and generate token
      * Matches legacy: POST /user/login
+     *
+     * BCrypt verification runs on the bounded verification pool and the
+     * token is issued on applicationTaskExecutor, so no servlet thread waits
+     * for either. The future fails with TaskRejectedException when the pool
+     * is saturated or verification times out; the method itself throws
+     * LoginAttemptLimiter.TooManyAttemptsException when rate limited.
      */
-    public LoginResponse login(LoginRequest request) {
-        User user = userRepository.findByUsername(request.getUsername())
-                .orElseThrow(() -> new RuntimeException("User tidak ditemukan"));
+    public CompletableFuture<LoginResponse> login(LoginRequest request, String clientIp) {
+        String username = request.getUsername();
+        loginAttemptLimiter.acquire(username, clientIp);
+
+        User user;
+        try {
+            user = userRepository.findByUsername(username).orElse(null);
+        } catch (RuntimeException e) {
+            loginAttemptLimiter.release(username, clientIp);
+            throw e;
+        }
+        if (user == null) {
+            loginAttemptLimiter.recordFailure(username, clientIp);
+            throw new RuntimeException("User tidak ditemukan");
+        }
 
         if (!Boolean.TRUE.equals(user.getIsActive())) {
+            loginAttemptLimiter.release(username, clientIp);
             throw new RuntimeException("User tidak aktif");
         }
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            throw new RuntimeException("Password salah");
+        return verifyPassword(request.getPassword(), user.getPassword())
+                .handleAsync((matches, error) -> {
+                    if (error != null) {
+                        loginAttemptLimiter.release(username, clientIp);
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause()
+                                : error;
+                        if (cause instanceof TimeoutException) {
+                            throw new TaskRejectedException("Verifikasi password melebihi batas waktu", cause);
+                        }
+                        throw error instanceof CompletionException completion
+                                ? completion
+                                : new CompletionException(error);
+                    }
+                    if (!matches) {
+                        loginAttemptLimiter.recordFailure(username, clientIp);
+                        throw new RuntimeException("Password salah");
+                    }
+                    loginAttemptLimiter.recordSuccess(username, clientIp);
+                    return issueToken(user);
+                }, applicationTaskExecutor);
+    }
+
+    /**
+     * BCrypt matches di pool verifikasi, dibatasi VERIFY_TIMEOUT_SECONDS.
+     * matches yang sudah berjalan tidak bisa diinterupsi (cancel tidak
+     * menghentikannya), jadi task yang baru mulai setelah batas waktu lewat
+     * dilewati agar antrean yang sudah timeout tidak tetap memakan CPU.
+     */
+    private CompletableFuture<Boolean> verifyPassword(String rawPassword, String hash) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(VERIFY_TIMEOUT_SECONDS);
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                if (System.nanoTime() - deadline >= 0) {
+                    throw new TaskRejectedException("Verifikasi password melebihi batas waktu");
+                }
+                return passwordEncoder.matches(rawPassword, hash);
+            }, passwordVerificationExecutor).orTimeout(VERIFY_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TaskRejectedException e) {
+            return CompletableFuture.failedFuture(e);
         }
+    }
 
+    private LoginResponse issueToken(User user) {
         // Generate new token (64 char random string like Yii)
         String token = UUID.randomUUID().toString().replace("-", "") +
                 UUID.randomUUID().toString().replace("-", "");
         user.setToken(token);
         userRepository.save(user);
+        tokenCache.evictUser(user.getId());
 
         return LoginResponse.builder()
                 .nama(user.getNama())
@@ -61,23 +170,35 @@ public class AuthService {
      * Logout user by clearing token
      * Matches legacy: POST /user/logout
      */
-    public void logout(User currentUser) {
-        currentUser.setToken(null);
-        userRepository.save(currentUser);
+    public void logout(AuthenticatedUser currentUser) {
+        User user = reload(currentUser);
+        user.setToken(null);
+        userRepository.save(user);
+        tokenCache.evictUser(user.getId());
     }
 
     /**
      * Change password
      * Matches legacy: POST /user/changepass
      */
-    public void changePassword(User currentUser, ChangePasswordRequest request) {
-        if (!passwordEncoder.matches(request.getOldPass(), currentUser.getPassword())) {
+    public void changePassword(AuthenticatedUser currentUser, ChangePasswordRequest request) {
+        User user = reload(currentUser);
+        if (!passwordEncoder.matches(request.getOldPass(), user.getPassword())) {
             throw new RuntimeException("Password lama tidak valid");
         }
 
-        currentUser.setPassword(passwordEncoder.encode(request.getNewPass()));
-        currentUser.setUpdatedAt(LocalDateTime.now());
-        userRepository.save(currentUser);
+        user.setPassword(passwordEncoder.encode(request.getNewPass()));
+        user.setUpdatedAt(LocalDateTime.now());
+        userRepository.save(user);
+        tokenCache.evictUser(user.getId());
+    }
+
+    /**
+     * Entity terbaru dari database; principal hanya snapshot (bisa setua TTL TokenCache)
+     */
+    private User reload(AuthenticatedUser currentUser) {
+        return userRepository.findById(currentUser.id())
+                .orElseThrow(() -> new RuntimeException("User tidak ditemukan"));
     }
 
     /**
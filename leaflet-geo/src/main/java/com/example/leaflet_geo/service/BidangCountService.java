@@ -0,0 +1,167 @@
+package com.example.leaflet_geo.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rollup jumlah bidang aktif per kecamatan / kelurahan / blok
+ *
+ * Dimuat sekali dengan satu GROUP BY atas sig.bidang, lalu dijaga secara
+ * incremental oleh operasi tulis (newnop). Snapshot dimuat ulang
+ * setelah TTL untuk merekonsiliasi perubahan yang dilakukan di luar aplikasi.
+ */
+@Service
+public class BidangCountService {
+
+    private static final String SEP = "|";
+
+    private final JdbcTemplate postgresJdbcTemplate;
+    private final long ttlMillis;
+
+    private volatile Rollup rollup;
+
+    public BidangCountService(@Qualifier("postgresJdbcTemplate") JdbcTemplate postgresJdbcTemplate,
+            @Value("${bidang.count.ttl-seconds:600}") long ttlSeconds) {
+        this.postgresJdbcTemplate = postgresJdbcTemplate;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    /**
+     * Jumlah bidang per kecamatan dalam satu kabupaten (kd_kec -> jumlah)
+     */
+    public Map<String, Long> countByKecamatan(String kdProp, String kdDati2) {
+        return current().children(key(kdProp, kdDati2));
+    }
+
+    /**
+     * Jumlah bidang per kelurahan dalam satu kecamatan (kd_kel -> jumlah)
+     */
+    public Map<String, Long> countByKelurahan(String kdProp, String kdDati2, String kdKec) {
+        return current().children(key(kdProp, kdDati2, kdKec));
+    }
+
+    /**
+     * Jumlah bidang per blok dalam satu kelurahan (kd_blok -> jumlah)
+     */
+    public Map<String, Long> countByBlok(String kdProp, String kdDati2, String kdKec, String kdKel) {
+        return current().children(key(kdProp, kdDati2, kdKec, kdKel));
+    }
+
+    /**
+     * Jumlah bidang di satu kelurahan tanpa kd_prop/kd_dati2 (dipakai proxy BPRD)
+     */
+    public long countInKelurahan(String kdKec, String kdKel) {
+        LongAdder adder = current().kelurahan.get(key(kdKec, kdKel));
+        return adder != null ? adder.sum() : 0;
+    }
+
+    /**
+     * Total bidang aktif
+     */
+    public long totalCount() {
+        return current().total.sum();
+    }
+
+    /**
+     * Catat bidang baru (dipanggil setelah INSERT berhasil)
+     */
+    public void increment(String kdProp, String kdDati2, String kdKec, String kdKel, String kdBlok) {
+        Rollup current = rollup;
+        if (current == null) {
+            // Belum dimuat, snapshot berikutnya sudah termasuk perubahan ini
+            return;
+        }
+        current.add(kdProp.trim(), kdDati2.trim(), kdKec.trim(), kdKel.trim(), kdBlok.trim(), 1);
+    }
+
+    /**
+     * Buang snapshot, dimuat ulang pada pembacaan berikutnya
+     */
+    public void invalidate() {
+        rollup = null;
+    }
+
+    private Rollup current() {
+        Rollup current = rollup;
+        if (current == null || System.currentTimeMillis() - current.loadedAt > ttlMillis) {
+            synchronized (this) {
+                current = rollup;
+                if (current == null || System.currentTimeMillis() - current.loadedAt > ttlMillis) {
+                    current = load();
+                    rollup = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Rollup load() {
+        Rollup loaded = new Rollup();
+        postgresJdbcTemplate.query(
+                "SELECT kd_prop, kd_dati2, kd_kec, kd_kel, kd_blok, COUNT(*) AS jumlah FROM sig.bidang " +
+                        "WHERE is_active = true GROUP BY kd_prop, kd_dati2, kd_kec, kd_kel, kd_blok",
+                rs -> {
+                    loaded.add(rs.getString("kd_prop").trim(), rs.getString("kd_dati2").trim(),
+                            rs.getString("kd_kec").trim(), rs.getString("kd_kel").trim(),
+                            rs.getString("kd_blok").trim(), rs.getLong("jumlah"));
+                });
+        return loaded;
+    }
+
+    private static String key(String... parts) {
+        StringBuilder sb = new StringBuilder();
+        for (String part : parts) {
+            if (sb.length() > 0) {
+                sb.append(SEP);
+            }
+            sb.append(part.trim());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Snapshot rollup: parent key (prop|dati2[|kec[|kel]]) -> kode anak -> jumlah,
+     * plus indeks kec|kel -> jumlah untuk lookup tanpa kd_prop/kd_dati2
+     */
+    private static final class Rollup {
+        final long loadedAt = System.currentTimeMillis();
+        final ConcurrentHashMap<String, ConcurrentHashMap<String, LongAdder>> levels = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<String, LongAdder> kelurahan = new ConcurrentHashMap<>();
+        final LongAdder total = new LongAdder();
+
+        void add(String kdProp, String kdDati2, String kdKec, String kdKel, String kdBlok, long delta) {
+            addChild(key(kdProp, kdDati2), kdKec, delta);
+            addChild(key(kdProp, kdDati2, kdKec), kdKel, delta);
+            addChild(key(kdProp, kdDati2, kdKec, kdKel), kdBlok, delta);
+            kelurahan.computeIfAbsent(key(kdKec, kdKel), k -> new LongAdder()).add(delta);
+            total.add(delta);
+        }
+
+        private void addChild(String parent, String child, long delta) {
+            levels.computeIfAbsent(parent, k -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(child, k -> new LongAdder())
+                    .add(delta);
+        }
+
+        Map<String, Long> children(String parent) {
+            Map<String, Long> result = new TreeMap<>();
+            Map<String, LongAdder> level = levels.get(parent);
+            if (level != null) {
+                level.forEach((code, adder) -> {
+                    long count = adder.sum();
+                    if (count > 0) {
+                        result.put(code, count);
+                    }
+                });
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.leaflet_geo.service;
+
+import com.example.leaflet_geo.config.JdbcTemplateMetrics;
+import com.example.leaflet_geo.repository.DatObjekPajakRepository;
+import com.example.leaflet_geo.util.FlatGeobufWriter;
+import com.example.leaflet_geo.util.FlatGeobufWriter.ColumnType;
+import com.example.leaflet_geo.util.ShapefileWriter;
+import com.example.leaflet_geo.util.ShapefileWriter.Field;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygonal;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKBReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Export bidang + atribut SISMIOP per kecamatan/kelurahan ke format GIS
+ *
+ * Geometri dibaca dari sig.bidang lewat cursor forward-only (fetch size,
+ * dalam transaksi read-only) dan langsung ditulis ke writer format, tanpa
+ * menampung hasil query. Atribut objek pajak (lebih kecil, tanpa geometri)
+ * dimuat dulu ke map per NOP dari mirror SISMIOP atau Oracle.
+ */
+@Service
+public class BidangExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BidangExportService.class);
+
+    private static final int FETCH_SIZE = 1000;
+
+    /**
+     * Kolom atribut export, urutan = urutan nilai per baris
+     */
+    public static final List<Field> FIELDS = List.of(
+            new Field("NOP", 'C', 24, 0),
+            new Field("KD_KEC", 'C', 3, 0),
+            new Field("KD_KEL", 'C', 3, 0),
+            new Field("KD_BLOK", 'C', 3, 0),
+            new Field("NO_URUT", 'C', 4, 0),
+            new Field("KD_JNS_OP", 'C', 1, 0),
+            new Field("NM_WP", 'C', 100, 0),
+            new Field("JALAN_OP", 'C', 100, 0),
+            new Field("LUAS_BUMI", 'N', 15, 2),
+            new Field("LUAS_BNG", 'N', 15, 2),
+            new Field("NJOP_BUMI", 'N', 18, 0),
+            new Field("NJOP_BNG", 'N', 18, 0));
+
+    private final JdbcTemplate cursorJdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final DatObjekPajakRepository datObjekPajakRepository;
+
+    public BidangExportService(@Qualifier("postgresJdbcTemplate") JdbcTemplate postgresJdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            DatObjekPajakRepository datObjekPajakRepository,
+            JdbcTemplateMetrics jdbcTemplateMetrics) {
+        // JdbcTemplate terpisah: fetch size hanya untuk query export
+        JdbcTemplate cursorJdbcTemplate = new JdbcTemplate(postgresJdbcTemplate.getDataSource());
+        cursorJdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.cursorJdbcTemplate = jdbcTemplateMetrics.instrument("postgres", cursorJdbcTemplate);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.datObjekPajakRepository = datObjekPajakRepository;
+    }
+
+    /**
+     * Nama file tanpa ekstensi, mis. bidang_130_017
+     *
+     * @throws IllegalArgumentException jika kd_kec / kd_kel bukan 3 digit angka
+     */
+    public String baseName(String kdKec, String kdKel) {
+        if (kdKec == null || !kdKec.matches("\\d{3}") || (kdKel != null && !kdKel.matches("\\d{3}"))) {
+            throw new IllegalArgumentException("kd_kec dan kd_kel harus 3 digit angka");
+        }
+        return "bidang_" + kdKec + (kdKel != null ? "_" + kdKel : "");
+    }
+
+    /**
+     * Tulis zip Shapefile (.shp/.shx/.dbf/.prj/.cpg) ke out
+     */
+    public void exportShapefile(String kdProp, String kdDati2, String kdKec, String kdKel, OutputStream out)
+            throws IOException {
+        long start = System.currentTimeMillis();
+        Map<String, Object[]> attributes = attributes(kdKec, kdKel);
+        try (ShapefileWriter writer = new ShapefileWriter(FIELDS)) {
+            forEachBidang(kdProp, kdDati2, kdKec, kdKel, attributes, (geometry, values) -> {
+                try {
+                    writer.write(geometry, values);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.writeZip(out, baseName(kdKec, kdKel));
+            log.info("Exported {} bidang (kec={}, kel={}) as shapefile in {} ms", writer.count(), kdKec, kdKel,
+                    System.currentTimeMillis() - start);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Tulis FlatGeobuf (dengan packed Hilbert R-tree) ke out
+     */
+    public void exportFlatGeobuf(String kdProp, String kdDati2, String kdKec, String kdKel, OutputStream out)
+            throws IOException {
+        long start = System.currentTimeMillis();
+        Map<String, Object[]> attributes = attributes(kdKec, kdKel);
+        try (FlatGeobufWriter writer = new FlatGeobufWriter(baseName(kdKec, kdKel), flatGeobufColumns())) {
+            forEachBidang(kdProp, kdDati2, kdKec, kdKel, attributes, (geometry, values) -> {
+                try {
+                    writer.write(geometry, values);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.writeTo(out);
+            log.info("Exported {} bidang (kec={}, kel={}) as flatgeobuf in {} ms", writer.count(), kdKec, kdKel,
+                    System.currentTimeMillis() - start);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * {@link #FIELDS} sebagai kolom FlatGeobuf: C -> string, N desimal -> double, N bulat -> long
+     */
+    private static List<FlatGeobufWriter.Column> flatGeobufColumns() {
+        List<FlatGeobufWriter.Column> columns = new ArrayList<>(FIELDS.size());
+        for (Field field : FIELDS) {
+            ColumnType type = field.type() == 'C' ? ColumnType.STRING
+                    : field.decimals() > 0 ? ColumnType.DOUBLE : ColumnType.LONG;
+            columns.add(new FlatGeobufWriter.Column(field.name(), type));
+        }
+        return columns;
+    }
+
+    /**
+     * Penerima satu bidang: geometri polygonal 2D + nilai sesuai {@link #FIELDS}
+     */
+    @FunctionalInterface
+    public interface BidangConsumer {
+        void accept(Geometry geometry, Object[] values);
+    }
+
+    /**
+     * Stream bidang aktif (kdProp/kdDati2/kdKel null = semua) urut kd_kel, kd_blok, no_urut
+     */
+    public void forEachBidang(String kdProp, String kdDati2, String kdKec, String kdKel,
+            Map<String, Object[]> attributes, BidangConsumer consumer) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT TRIM(nop) AS nop, kd_kec, kd_kel, kd_blok, no_urut, kd_jns_op, " +
+                        "ST_AsBinary(ST_Force2D(geom)) AS wkb FROM sig.bidang " +
+                        "WHERE is_active = true AND geom IS NOT NULL AND kd_kec = ?");
+        List<Object> params = new ArrayList<>();
+        params.add(kdKec);
+        if (kdProp != null) {
+            sql.append(" AND kd_prop = ?");
+            params.add(kdProp);
+        }
+        if (kdDati2 != null) {
+            sql.append(" AND kd_dati2 = ?");
+            params.add(kdDati2);
+        }
+        if (kdKel != null) {
+            sql.append(" AND kd_kel = ?");
+            params.add(kdKel);
+        }
+        sql.append(" ORDER BY kd_kel, kd_blok, no_urut, kd_jns_op");
+
+        WKBReader wkbReader = new WKBReader();
+        int[] skipped = new int[1];
+        readOnlyTransaction.executeWithoutResult(status -> cursorJdbcTemplate.query(sql.toString(), rs -> {
+            Geometry geometry;
+            try {
+                byte[] wkb = rs.getBytes("wkb");
+                geometry = wkb != null ? wkbReader.read(wkb) : null;
+            } catch (ParseException e) {
+                geometry = null;
+            }
+            if (!(geometry instanceof Polygonal) || geometry.isEmpty()) {
+                skipped[0]++;
+                return;
+            }
+            geometry.setSRID(4326);
+
+            String nop = rs.getString("nop");
+            Object[] sismiop = attributes.get(nop);
+            consumer.accept(geometry, new Object[] {
+                    nop, trim(rs.getString("kd_kec")), trim(rs.getString("kd_kel")), trim(rs.getString("kd_blok")),
+                    trim(rs.getString("no_urut")), trim(rs.getString("kd_jns_op")),
+                    sismiop != null ? sismiop[0] : null, sismiop != null ? sismiop[1] : null,
+                    sismiop != null ? sismiop[2] : null, sismiop != null ? sismiop[3] : null,
+                    sismiop != null ? sismiop[4] : null, sismiop != null ? sismiop[5] : null });
+        }, params.toArray()));
+        if (skipped[0] > 0) {
+            log.warn("Export kec={} kel={}: skipped {} bidang with empty or non-polygon geometry", kdKec, kdKel,
+                    skipped[0]);
+        }
+    }
+
+    /**
+     * NOP (XX.XX.XXX.XXX.XXX.XXXX.X) -> [NM_WP, JALAN_OP, TOTAL_LUAS_BUMI, TOTAL_LUAS_BNG, NJOP_BUMI, NJOP_BNG]
+     */
+    public Map<String, Object[]> attributes(String kdKec, String kdKel) {
+        Map<String, Object[]> attributes = new HashMap<>();
+        try {
+            datObjekPajakRepository.forEachExportAttributes(kdKec, kdKel, rs -> {
+                String nop = String.join(".", trim(rs.getString("KD_PROPINSI")), trim(rs.getString("KD_DATI2")),
+                        trim(rs.getString("KD_KECAMATAN")), trim(rs.getString("KD_KELURAHAN")),
+                        trim(rs.getString("KD_BLOK")), trim(rs.getString("NO_URUT")), trim(rs.getString("KD_JNS_OP")));
+                attributes.put(nop, new Object[] {
+                        trim(rs.getString("NM_WP")), trim(rs.getString("JALAN_OP")),
+                        rs.getBigDecimal("TOTAL_LUAS_BUMI"), rs.getBigDecimal("TOTAL_LUAS_BNG"),
+                        rs.getBigDecimal("NJOP_BUMI"), rs.getBigDecimal("NJOP_BNG") });
+            });
+        } catch (Exception e) {
+            // Export geometri tetap jalan tanpa atribut SISMIOP
+            log.warn("SISMIOP attributes unavailable for export kec={} kel={}: {}", kdKec, kdKel, e.getMessage());
+        }
+        return attributes;
+    }
+
+    private static String trim(String value) {
+        return value != null ? value.trim() : null;
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.leaflet_geo.service;
+
+import com.example.leaflet_geo.util.GeometryImportReader;
+import com.example.leaflet_geo.util.GeometryImportReader.Feature;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.WKBWriter;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Import massal geometri bidang
+ *
+ * Alur dalam satu transaksi PostgreSQL:
+ * 1. COPY semua feature ke tabel staging sementara (bidang_import, ON COMMIT DROP)
+ * 2. Validasi di staging: format NOP, NOP ganda dalam file, tipe geometri,
+ *    SRID 4326, ST_IsValid
+ * 3. Jika tidak ada error: upsert ke sig.bidang per NOP (insert baru, atau
+ *    update geom + aktifkan kembali jika NOP sudah ada)
+ *
+ * Jika ada satu saja error, atau dryRun, transaksi di-rollback sehingga
+ * sig.bidang tidak berubah sama sekali.
+ */
+@Service
+public class BidangImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BidangImportService.class);
+
+    private static final int MAX_REPORTED_ERRORS = 200;
+
+    private static final String NOP_PATTERN = "^\\d{2}\\.\\d{2}\\.\\d{3}\\.\\d{3}\\.\\d{3}\\.\\d{4}\\.\\d$";
+
+    private final JdbcTemplate postgresJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BidangCountService bidangCountService;
+    private final NopSearchService nopSearchService;
+    private final FlatGeobufCacheService flatGeobufCacheService;
+
+    public BidangImportService(@Qualifier("postgresJdbcTemplate") JdbcTemplate postgresJdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            BidangCountService bidangCountService,
+            NopSearchService nopSearchService,
+            FlatGeobufCacheService flatGeobufCacheService) {
+        this.postgresJdbcTemplate = postgresJdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.bidangCountService = bidangCountService;
+        this.nopSearchService = nopSearchService;
+        this.flatGeobufCacheService = flatGeobufCacheService;
+    }
+
+    /**
+     * Import file GeoJSON, CSV nop,wkb atau zip shapefile (format dari ekstensi nama file)
+     */
+    public ImportResult importFile(String filename, InputStream in, String nopField, boolean dryRun)
+            throws IOException {
+        return importFeatures(GeometryImportReader.read(filename, in, nopField), dryRun);
+    }
+
+    public ImportResult importFeatures(List<Feature> features, boolean dryRun) {
+        long start = System.currentTimeMillis();
+        List<ImportError> errors = new ArrayList<>();
+        StringBuilder csv = new StringBuilder();
+        for (Feature feature : features) {
+            if (feature.error() != null) {
+                errors.add(new ImportError(feature.line(), feature.nop(), feature.error()));
+                continue;
+            }
+            csv.append(feature.line()).append(',')
+                    .append(csvValue(normalizeNop(feature.nop()))).append(',')
+                    .append(ewkbHex(feature.geometry())).append('\n');
+        }
+
+        ImportResult result = transactionTemplate.execute(status -> {
+            stage(csv.toString());
+            errors.addAll(validate());
+            if (!errors.isEmpty()) {
+                errors.sort(Comparator.comparingInt(ImportError::line));
+                status.setRollbackOnly();
+                return new ImportResult(features.size(), 0, 0, dryRun, errors.size(),
+                        errors.subList(0, Math.min(errors.size(), MAX_REPORTED_ERRORS)));
+            }
+
+            long inserted;
+            long updated;
+            if (dryRun) {
+                updated = count("SELECT COUNT(*) FROM bidang_import s JOIN sig.bidang b ON b.nop = s.nop");
+                inserted = features.size() - updated;
+                status.setRollbackOnly();
+            } else {
+                List<Boolean> upserts = postgresJdbcTemplate.queryForList("""
+                        INSERT INTO sig.bidang (kd_prop, kd_dati2, kd_kec, kd_kel, kd_blok, no_urut, kd_jns_op,
+                                                nop, geom, is_active, created_at)
+                        SELECT substr(nop, 1, 2), substr(nop, 4, 2), substr(nop, 7, 3), substr(nop, 11, 3),
+                               substr(nop, 15, 3), substr(nop, 19, 4), substr(nop, 24, 1),
+                               nop, ST_Force3D(geom), true, NOW()
+                        FROM bidang_import
+                        ON CONFLICT (kd_prop, kd_dati2, kd_kec, kd_kel, kd_blok, no_urut, kd_jns_op)
+                        DO UPDATE SET geom = EXCLUDED.geom, is_active = true, updated_at = NOW()
+                        RETURNING (xmax = 0)
+                        """, Boolean.class);
+                inserted = upserts.stream().filter(Boolean.TRUE::equals).count();
+                updated = upserts.size() - inserted;
+            }
+            return new ImportResult(features.size(), inserted, updated, dryRun, 0, List.of());
+        });
+
+        if (result != null && !dryRun && result.errorCount() == 0) {
+            bidangCountService.invalidate();
+            nopSearchService.invalidate();
+            flatGeobufCacheService.invalidate(FlatGeobufCacheService.BIDANG);
+        }
+        log.info("Bidang import: received={}, inserted={}, updated={}, errors={}, dryRun={}, {} ms",
+                features.size(), result != null ? result.inserted() : 0, result != null ? result.updated() : 0,
+                result != null ? result.errorCount() : 0, dryRun, System.currentTimeMillis() - start);
+        return result;
+    }
+
+    private void stage(String csv) {
+        postgresJdbcTemplate.execute(
+                "CREATE TEMP TABLE bidang_import (line int, nop text, geom geometry) ON COMMIT DROP");
+        Connection connection = DataSourceUtils.getConnection(postgresJdbcTemplate.getDataSource());
+        try {
+            connection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyIn("COPY bidang_import (line, nop, geom) FROM STDIN WITH (FORMAT csv)", new StringReader(csv));
+        } catch (Exception e) {
+            throw new IllegalStateException("COPY ke staging gagal: " + e.getMessage(), e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, postgresJdbcTemplate.getDataSource());
+        }
+    }
+
+    private List<ImportError> validate() {
+        return postgresJdbcTemplate.query("""
+                SELECT line, nop, message FROM (
+                    SELECT line, nop, 'Format NOP tidak valid (XX.XX.XXX.XXX.XXX.XXXX.X)' AS message
+                    FROM bidang_import WHERE nop IS NULL OR nop !~ ?
+                    UNION ALL
+                    SELECT line, nop, 'NOP ganda dalam file'
+                    FROM (SELECT line, nop, COUNT(*) OVER (PARTITION BY nop) AS n FROM bidang_import) d
+                    WHERE n > 1
+                    UNION ALL
+                    SELECT line, nop, 'Tipe geometri harus Polygon/MultiPolygon, bukan ' || ST_GeometryType(geom)
+                    FROM bidang_import WHERE ST_GeometryType(geom) NOT IN ('ST_Polygon', 'ST_MultiPolygon')
+                    UNION ALL
+                    SELECT line, nop, 'SRID harus 4326, bukan ' || ST_SRID(geom)
+                    FROM bidang_import WHERE ST_SRID(geom) <> 4326
+                    UNION ALL
+                    SELECT line, nop, 'Geometri tidak valid: ' || ST_IsValidReason(geom)
+                    FROM bidang_import WHERE NOT ST_IsValid(geom)
+                ) e
+                ORDER BY line
+                """,
+                (rs, rowNum) -> new ImportError(rs.getInt("line"), rs.getString("nop"), rs.getString("message")),
+                NOP_PATTERN);
+    }
+
+    private long count(String sql) {
+        Long count = postgresJdbcTemplate.queryForObject(sql, Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * 18 digit tanpa titik diubah ke format XX.XX.XXX.XXX.XXX.XXXX.X
+     */
+    private static String normalizeNop(String nop) {
+        if (nop == null) {
+            return null;
+        }
+        String value = nop.trim();
+        if (value.matches("\\d{18}")) {
+            return value.substring(0, 2) + "." + value.substring(2, 4) + "." + value.substring(4, 7) + "."
+                    + value.substring(7, 10) + "." + value.substring(10, 13) + "." + value.substring(13, 17) + "."
+                    + value.substring(17);
+        }
+        return value;
+    }
+
+    /**
+     * EWKB hex; SRID 0 (WKB tanpa SRID) dianggap 4326
+     */
+    private static String ewkbHex(Geometry geometry) {
+        if (geometry.getSRID() == 0) {
+            geometry.setSRID(4326);
+        }
+        Coordinate coordinate = geometry.getCoordinate();
+        int dimension = coordinate != null && !Double.isNaN(coordinate.getZ()) ? 3 : 2;
+        return WKBWriter.toHex(new WKBWriter(dimension, true).write(geometry));
+    }
+
+    private static String csvValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * @param received   jumlah feature dalam file
+     * @param inserted   bidang baru (dryRun: yang akan dibuat)
+     * @param updated    bidang yang geometrinya diganti (dryRun: yang akan diganti)
+     * @param errorCount jumlah error; jika > 0 tidak ada yang disimpan
+     * @param errors     maksimal 200 error pertama
+     */
+    public record ImportResult(int received, long inserted, long updated, boolean dryRun, int errorCount,
+            List<ImportError> errors) {
+    }
+
+    public record ImportError(int line, String nop, String message) {
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.leaflet_geo.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
@@ -10,6 +12,8 @@ import java.util.Map;
 @Service
 public class BphtbService {
 
+    private static final Logger log = LoggerFactory.getLogger(BphtbService.class);
+
     private final JdbcTemplate bphtbJdbcTemplate;
 
     public BphtbService(@Qualifier("bphtbJdbcTemplate") JdbcTemplate bphtbJdbcTemplate) {
@@ -125,7 +129,7 @@ public class BphtbService {
             return ((Number) result.get("target")).longValue();
         } catch (Exception e) {
             // Jika tidak ada data target di database, return 0 atau default value
-            System.err.println("Warning: No BPHTB target found for year " + tahun);
+            log.warn("No BPHTB target found for year {}", tahun);
             return 15_000_000_000L; // Default fallback 15 Miliar
         }
     }
@@ -0,0 +1,120 @@
+package com.example.leaflet_geo.service;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Versi data batas wilayah untuk conditional GET (ETag / Last-Modified)
+ *
+ * Versi satu subset = jumlah baris, jumlah baris aktif, dan timestamp
+ * perubahan terakhir (created/updated/deleted/recover_at). Query agregat ini
+ * jauh lebih murah dari query data + geometri, jadi controller memeriksa
+ * If-None-Match / If-Modified-Since dulu dan menjawab 304 tanpa query data
+ * jika versinya sama.
+ */
+@Service
+public class DataVersionService {
+
+    private static final Logger log = LoggerFactory.getLogger(DataVersionService.class);
+
+    private final JdbcTemplate postgresJdbcTemplate;
+
+    public DataVersionService(@Qualifier("postgresJdbcTemplate") JdbcTemplate postgresJdbcTemplate) {
+        this.postgresJdbcTemplate = postgresJdbcTemplate;
+    }
+
+    /**
+     * @param etag         weak ETag, mis. W/"kecamatan-1a-19-18e2f3c4d00"
+     * @param lastModified epoch millis perubahan terakhir, -1 jika tidak diketahui
+     */
+    public record Version(String etag, long lastModified) {
+    }
+
+    public Version kecamatan() {
+        return version("kecamatan", "system.kecamatan");
+    }
+
+    /**
+     * kdKec null = semua kelurahan
+     */
+    public Version kelurahan(String kdKec) {
+        return version("kelurahan", "system.kelurahan", "kd_kec", kdKec);
+    }
+
+    /**
+     * kdKec/kdKel null = tanpa filter
+     */
+    public Version blok(String kdKec, String kdKel) {
+        return version("blok", "sig.blok", "kd_kec", kdKec, "kd_kel", kdKel);
+    }
+
+    /**
+     * Subset bidang per wilayah; kode null = tanpa filter
+     */
+    public Version bidang(String kdProp, String kdDati2, String kdKec, String kdKel) {
+        return version("bidang", "sig.bidang", "kd_prop", kdProp, "kd_dati2", kdDati2, "kd_kec", kdKec,
+                "kd_kel", kdKel);
+    }
+
+    public Version pemda() {
+        return version("pemda", "system.pemda");
+    }
+
+    /**
+     * Pasang Cache-Control: no-cache (browser wajib revalidasi) lalu periksa
+     * header conditional request. True = response 304 sudah disiapkan, handler
+     * cukup mengembalikan null. Jika versi tidak diketahui selalu false.
+     */
+    public boolean checkNotModified(ServletWebRequest request, Version version) {
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        }
+        if (version == null) {
+            return false;
+        }
+        return request.checkNotModified(version.etag(), version.lastModified());
+    }
+
+    /**
+     * filters: pasangan kolom, nilai (nilai null atau kosong dilewati)
+     */
+    private Version version(String name, String table, String... filters) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT COUNT(*) AS total, COUNT(*) FILTER (WHERE is_active) AS active, " +
+                        "MAX(GREATEST(created_at, updated_at, deleted_at, recover_at)) AS modified FROM " + table);
+        List<Object> params = new ArrayList<>();
+        for (int i = 0; i < filters.length; i += 2) {
+            String value = filters[i + 1];
+            if (value == null || value.trim().isEmpty()) {
+                continue;
+            }
+            sql.append(params.isEmpty() ? " WHERE " : " AND ").append(filters[i]).append(" = ?");
+            params.add(value.trim());
+        }
+        try {
+            return postgresJdbcTemplate.queryForObject(sql.toString(), (rs, rowNum) -> {
+                Timestamp modified = rs.getTimestamp("modified");
+                long lastModified = modified != null ? modified.getTime() : -1;
+                String etag = "W/\"" + name + "-" + Long.toHexString(rs.getLong("total")) + "-"
+                        + Long.toHexString(rs.getLong("active")) + "-"
+                        + Long.toHexString(Math.max(lastModified, 0)) + "\"";
+                return new Version(etag, lastModified);
+            }, params.toArray());
+        } catch (Exception e) {
+            // tanpa versi: response normal tanpa ETag
+            log.debug("Version query for {} failed: {}", table, e.getMessage());
+            return null;
+        }
+    }
+}
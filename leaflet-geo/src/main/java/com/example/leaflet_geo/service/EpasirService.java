@@ -1,5 +1,7 @@
 package com.example.leaflet_geo.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
@@ -10,6 +12,8 @@ import java.util.Map;
 @Service
 public class EpasirService {
 
+    private static final Logger log = LoggerFactory.getLogger(EpasirService.class);
+
     private final JdbcTemplate epasirJdbcTemplate;
 
     public EpasirService(@Qualifier("epasirJdbcTemplate") JdbcTemplate epasirJdbcTemplate) {
@@ -59,7 +63,7 @@ public class EpasirService {
             Map<String, Object> result = epasirJdbcTemplate.queryForMap(sql, tahun);
             return ((Number) result.get("total_realisasi")).longValue();
         } catch (Exception e) {
-            System.err.println("Warning: Error fetching Mineral realisasi for year " + tahun + ": " + e.getMessage());
+            log.warn("Error fetching Mineral realisasi for year {}: {}", tahun, e.getMessage());
             return 0L;
         }
     }
@@ -74,7 +78,7 @@ public class EpasirService {
             // Untuk saat ini semua transaksi di t_skab adalah mineral
             return 0L;
         } catch (Exception e) {
-            System.err.println("Warning: Error fetching Walet realisasi for year " + tahun + ": " + e.getMessage());
+            log.warn("Error fetching Walet realisasi for year {}: {}", tahun, e.getMessage());
             return 0L;
         }
     }
@@ -103,7 +107,7 @@ public class EpasirService {
                 """;
             return epasirJdbcTemplate.queryForList(sql, tahun);
         } catch (Exception e) {
-            System.err.println("Warning: Error fetching E-PASIR monthly data: " + e.getMessage());
+            log.warn("Error fetching E-PASIR monthly data: {}", e.getMessage());
             return List.of();
         }
     }
@@ -0,0 +1,263 @@
+package com.example.leaflet_geo.service;
+
+import com.example.leaflet_geo.util.FlatGeobufWriter;
+import com.example.leaflet_geo.util.FlatGeobufWriter.Column;
+import com.example.leaflet_geo.util.FlatGeobufWriter.ColumnType;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygonal;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKBReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache file FlatGeobuf per kelurahan di disk (layer bidang dan blok)
+ *
+ * File dibuat saat pertama diminta lalu dipakai ulang sampai TTL habis atau
+ * layer di-invalidate setelah perubahan geometri. Endpoint melayani file ini
+ * lewat {@link #serve} sebagai Resource sehingga client (flatgeobuf.js) bisa
+ * membaca header + index lalu range-request hanya feature di viewport.
+ */
+@Service
+public class FlatGeobufCacheService {
+
+    private static final Logger log = LoggerFactory.getLogger(FlatGeobufCacheService.class);
+
+    public static final String BIDANG = "bidang";
+    public static final String BLOK = "blok";
+
+    private static final List<Column> BLOK_COLUMNS = List.of(
+            new Column("ID", ColumnType.STRING),
+            new Column("KD_PROP", ColumnType.STRING),
+            new Column("KD_DATI2", ColumnType.STRING),
+            new Column("KD_KEC", ColumnType.STRING),
+            new Column("KD_KEL", ColumnType.STRING),
+            new Column("KD_BLOK", ColumnType.STRING));
+
+    private final Path directory;
+    private final long ttlMillis;
+    private final BidangExportService bidangExportService;
+    private final JdbcTemplate postgresJdbcTemplate;
+
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public FlatGeobufCacheService(@Value("${fgb.cache.dir:${java.io.tmpdir}/leaflet-geo-fgb}") String directory,
+            @Value("${fgb.cache.ttl-seconds:86400}") long ttlSeconds,
+            BidangExportService bidangExportService,
+            @Qualifier("postgresJdbcTemplate") JdbcTemplate postgresJdbcTemplate) {
+        this.directory = Path.of(directory);
+        this.ttlMillis = ttlSeconds * 1000;
+        this.bidangExportService = bidangExportService;
+        this.postgresJdbcTemplate = postgresJdbcTemplate;
+    }
+
+    @FunctionalInterface
+    private interface FileWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * File .fgb bidang aktif satu kelurahan (dengan atribut SISMIOP)
+     */
+    public Path bidang(String kdProp, String kdDati2, String kdKec, String kdKel) throws IOException {
+        return cached(BIDANG, key(BIDANG, kdProp, kdDati2, kdKec, kdKel),
+                out -> bidangExportService.exportFlatGeobuf(kdProp, kdDati2, kdKec, kdKel, out));
+    }
+
+    /**
+     * File .fgb blok aktif satu kelurahan
+     */
+    public Path blok(String kdKec, String kdKel) throws IOException {
+        return cached(BLOK, key(BLOK, kdKec, kdKel), out -> writeBlok(kdKec, kdKel, out));
+    }
+
+    /**
+     * Hapus semua file cache satu layer; dipanggil setelah geometri layer berubah
+     */
+    public void invalidate(String layer) {
+        generation(layer).incrementAndGet();
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, layer + "_*.fgb")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to clear {} flatgeobuf cache: {}", layer, e.getMessage());
+        }
+    }
+
+    /**
+     * Response file .fgb dengan ETag kuat dari ukuran + mtime file
+     *
+     * File yang dibuat ulang mendapat ETag baru, sehingga range request lanjutan
+     * dengan If-Range lama menerima file utuh (200), bukan potongan file baru yang
+     * dicampur dengan header/index lama. Spring MVC tidak mengevaluasi If-Range.
+     *
+     * @return null jika If-None-Match / If-Modified-Since cocok (304 sudah disiapkan)
+     */
+    public ResponseEntity<Resource> serve(Path file, String fileName, ServletWebRequest request) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = "\"" + Long.toHexString(attributes.size()) + "-" + Long.toHexString(lastModified) + "\"";
+        if (request.checkNotModified(etag, lastModified)) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag)
+                .lastModified(lastModified)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.inline().filename(fileName).build().toString())
+                .contentType(MediaType.APPLICATION_OCTET_STREAM);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRangeMatches(ifRange, etag, lastModified)) {
+            // InputStreamResource tidak diproses sebagai Range oleh Spring: file utuh
+            return response.contentLength(attributes.size())
+                    .body(new InputStreamResource(Files.newInputStream(file)));
+        }
+        return response.body(new FileSystemResource(file));
+    }
+
+    /**
+     * If-Range berisi ETag (harus sama persis, weak tidak pernah cocok) atau HTTP-date
+     */
+    private static boolean ifRangeMatches(String ifRange, String etag, long lastModified) {
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toEpochSecond()
+                    == lastModified / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private Path cached(String layer, String key, FileWriter writer) throws IOException {
+        Path file = directory.resolve(key + ".fgb");
+        if (fresh(file)) {
+            return file;
+        }
+        synchronized (locks.computeIfAbsent(key, k -> new Object())) {
+            if (fresh(file)) {
+                return file;
+            }
+            long start = System.currentTimeMillis();
+            long generation = generation(layer).get();
+            Files.createDirectories(directory);
+            Path tmp = Files.createTempFile(directory, key, ".tmp");
+            try {
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16)) {
+                    writer.write(out);
+                }
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+            if (generation != generation(layer).get()) {
+                // layer berubah selama file dibuat: tandai kedaluwarsa agar request berikutnya membuat ulang
+                Files.setLastModifiedTime(file, FileTime.fromMillis(0));
+            }
+            log.info("Built flatgeobuf cache {} ({} bytes) in {} ms", key, Files.size(file),
+                    System.currentTimeMillis() - start);
+            return file;
+        }
+    }
+
+    private boolean fresh(Path file) {
+        try {
+            return Files.isRegularFile(file)
+                    && Files.getLastModifiedTime(file).toMillis() > System.currentTimeMillis() - ttlMillis;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private AtomicLong generation(String layer) {
+        return generations.computeIfAbsent(layer, k -> new AtomicLong());
+    }
+
+    /**
+     * Kode wilayah hanya angka, jadi aman dipakai sebagai nama file
+     */
+    private static String key(String layer, String... codes) {
+        StringBuilder key = new StringBuilder(layer);
+        for (String code : codes) {
+            String value = code != null ? code.trim() : "";
+            if (!value.matches("\\d{1,4}")) {
+                throw new IllegalArgumentException("Kode wilayah tidak valid: " + code);
+            }
+            key.append('_').append(value);
+        }
+        return key.toString();
+    }
+
+    private void writeBlok(String kdKec, String kdKel, OutputStream out) throws IOException {
+        WKBReader wkbReader = new WKBReader();
+        try (FlatGeobufWriter writer = new FlatGeobufWriter("blok_" + kdKec + "_" + kdKel, BLOK_COLUMNS)) {
+            postgresJdbcTemplate.query(
+                    "SELECT id, TRIM(kd_prop) as kd_prop, TRIM(kd_dati2) as kd_dati2, " +
+                            "TRIM(kd_kec) as kd_kec, TRIM(kd_kel) as kd_kel, TRIM(kd_blok) as kd_blok, " +
+                            "ST_AsBinary(ST_Force2D(geom)) as wkb " +
+                            "FROM sig.blok WHERE kd_kec = ? AND kd_kel = ? AND is_active = true AND geom IS NOT NULL " +
+                            "ORDER BY kd_blok ASC",
+                    rs -> {
+                        Geometry geometry;
+                        try {
+                            byte[] wkb = rs.getBytes("wkb");
+                            geometry = wkb != null ? wkbReader.read(wkb) : null;
+                        } catch (ParseException e) {
+                            geometry = null;
+                        }
+                        if (!(geometry instanceof Polygonal) || geometry.isEmpty()) {
+                            return;
+                        }
+                        try {
+                            writer.write(geometry, new Object[] {
+                                    rs.getString("id"), rs.getString("kd_prop"), rs.getString("kd_dati2"),
+                                    rs.getString("kd_kec"), rs.getString("kd_kel"), rs.getString("kd_blok") });
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    },
+                    kdKec, kdKel);
+            writer.writeTo(out);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
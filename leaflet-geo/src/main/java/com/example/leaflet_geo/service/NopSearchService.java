@@ -0,0 +1,221 @@
+package com.example.leaflet_geo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Index pencarian NOP
+ *
+ * Array terurut berisi NOP bidang aktif (sig.bidang) dalam bentuk digit saja,
+ * sehingga "3508130", "35.08.130" dan "35.08.130.0" sama-sama prefix yang sah.
+ * Autocomplete cukup binary search + scan N baris berikutnya, tanpa query DB.
+ *
+ * Dimuat saat aplikasi siap; NOP baru (newnop) disisipkan langsung. Setelah
+ * TTL snapshot dimuat ulang di background sementara snapshot lama tetap
+ * dipakai; NOP yang disisipkan selama reload diterapkan ulang ke snapshot
+ * baru (query reload mungkin sudah lewat sebelum INSERT-nya). Pencarian
+ * substring (bukan prefix) tetap lewat DB dengan index trigram, lihat
+ * V006__bidang_nop_search.sql.
+ */
+@Service
+public class NopSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(NopSearchService.class);
+
+    private final JdbcTemplate postgresJdbcTemplate;
+    private final long ttlMillis;
+
+    private final AtomicBoolean reloading = new AtomicBoolean();
+    private volatile Snapshot snapshot;
+    // Dijaga oleh this: NOP yang disisipkan selama reload background (null jika tidak ada reload),
+    // dan generasi yang dinaikkan invalidate() agar hasil reload yang sudah basi dibuang
+    private List<String> addedDuringReload;
+    private long generation;
+
+    public NopSearchService(@Qualifier("postgresJdbcTemplate") JdbcTemplate postgresJdbcTemplate,
+            @Value("${bidang.nop-index.ttl-seconds:600}") long ttlSeconds) {
+        this.postgresJdbcTemplate = postgresJdbcTemplate;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        Thread.ofVirtual().name("nop-index-preload").start(() -> {
+            try {
+                current();
+            } catch (Exception e) {
+                log.warn("Preload NOP index failed: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Maksimal limit NOP aktif yang diawali prefix (titik diabaikan), urut NOP
+     */
+    public List<String> prefix(String prefix, int limit) {
+        String key = digits(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Snapshot current = current();
+        int index = Arrays.binarySearch(current.keys, key);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        List<String> result = new ArrayList<>(Math.min(limit, 16));
+        for (int i = index; i < current.keys.length && result.size() < limit; i++) {
+            if (!current.keys[i].startsWith(key)) {
+                break;
+            }
+            result.add(current.nops[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Jumlah NOP di index
+     */
+    public int size() {
+        return current().keys.length;
+    }
+
+    /**
+     * Sisipkan NOP baru (dipanggil setelah INSERT berhasil)
+     */
+    public void add(String nop) {
+        synchronized (this) {
+            if (addedDuringReload != null) {
+                addedDuringReload.add(nop);
+            }
+            if (snapshot == null) {
+                // Belum dimuat, snapshot berikutnya sudah termasuk NOP ini
+                return;
+            }
+            snapshot = insert(snapshot, nop);
+        }
+    }
+
+    /**
+     * Buang snapshot, dimuat ulang pada pembacaan berikutnya
+     */
+    public void invalidate() {
+        synchronized (this) {
+            snapshot = null;
+            generation++;
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = load();
+                    snapshot = current;
+                }
+            }
+        } else if (System.currentTimeMillis() - current.loadedAt > ttlMillis
+                && reloading.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("nop-index-reload").start(() -> {
+                long started;
+                synchronized (this) {
+                    addedDuringReload = new ArrayList<>();
+                    started = generation;
+                }
+                try {
+                    Snapshot loaded = load();
+                    synchronized (this) {
+                        if (generation == started) {
+                            for (String nop : addedDuringReload) {
+                                loaded = insert(loaded, nop);
+                            }
+                            snapshot = loaded;
+                        }
+                    }
+                } catch (Exception e) {
+                    log.warn("Reload NOP index failed, keeping previous snapshot: {}", e.getMessage());
+                } finally {
+                    synchronized (this) {
+                        addedDuringReload = null;
+                    }
+                    reloading.set(false);
+                }
+            });
+        }
+        return current;
+    }
+
+    private Snapshot load() {
+        long start = System.currentTimeMillis();
+        List<String> nops = postgresJdbcTemplate.query(
+                "SELECT nop FROM sig.bidang WHERE is_active = true AND nop IS NOT NULL",
+                (rs, rowNum) -> rs.getString(1).trim());
+
+        String[][] entries = new String[nops.size()][];
+        for (int i = 0; i < entries.length; i++) {
+            String nop = nops.get(i);
+            entries[i] = new String[] { digits(nop), nop };
+        }
+        Arrays.sort(entries, (a, b) -> a[0].compareTo(b[0]));
+
+        String[] keys = new String[entries.length];
+        String[] sorted = new String[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            keys[i] = entries[i][0];
+            sorted[i] = entries[i][1];
+        }
+        log.info("Loaded NOP index: {} entries in {} ms", keys.length, System.currentTimeMillis() - start);
+        return new Snapshot(keys, sorted, System.currentTimeMillis());
+    }
+
+    private static Snapshot insert(Snapshot current, String nop) {
+        String key = digits(nop);
+        int index = Arrays.binarySearch(current.keys, key);
+        if (index >= 0) {
+            return current;
+        }
+        index = -index - 1;
+        return new Snapshot(insert(current.keys, index, key), insert(current.nops, index, nop.trim()),
+                current.loadedAt);
+    }
+
+    private static String[] insert(String[] array, int index, String value) {
+        String[] copy = new String[array.length + 1];
+        System.arraycopy(array, 0, copy, 0, index);
+        copy[index] = value;
+        System.arraycopy(array, index, copy, index + 1, array.length - index);
+        return copy;
+    }
+
+    private static String digits(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * keys[i] = digit NOP, nops[i] = NOP asli; keduanya urut keys
+     */
+    private record Snapshot(String[] keys, String[] nops, long loadedAt) {
+    }
+}
@@ -6,6 +6,8 @@ import com.example.leaflet_geo.dto.TargetRealisasiDTO;
 import com.example.leaflet_geo.dto.TopKontributorDTO;
 import com.example.leaflet_geo.dto.TrendBulananDTO;
 import com.example.leaflet_geo.dto.PajakDataDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
@@ -22,6 +24,8 @@ import java.util.function.Supplier;
 @Service
 public class PendapatanService {
 
+    private static final Logger log = LoggerFactory.getLogger(PendapatanService.class);
+
     private final JdbcTemplate mysqlJdbcTemplate;
     private final BphtbService bphtbService;
     private final SismiopService sismiopService;
@@ -68,7 +72,7 @@ public class PendapatanService {
             return CompletableFuture.supplyAsync(supplier)
                     .get(3, TimeUnit.SECONDS); // 3 seconds timeout per call
         } catch (Exception e) {
-            System.err.println("⚠️ Timeout/Error in " + taskName + ": " + e.getMessage());
+            log.warn("Timeout/Error in {}: {}", taskName, e.getMessage());
             return defaultValue;
         }
     }
@@ -134,7 +138,7 @@ public class PendapatanService {
             // Ganti realisasi mineral SIMPATDA dengan E-PASIR
             totalRealisasi = totalRealisasi.subtract(new BigDecimal(realisasiMineralSimpatda));
             totalRealisasi = totalRealisasi.add(new BigDecimal(realisasiMineralEpasir));
-            System.out.println("✅ Dashboard: Mineral SIMPATDA replaced with E-PASIR");
+            log.debug("Dashboard: Mineral SIMPATDA replaced with E-PASIR");
         }
 
         BigDecimal selisih = totalTarget.subtract(totalRealisasi);
@@ -480,7 +484,7 @@ public class PendapatanService {
             return dto;
         }, tahun), new ArrayList<>(), "MySQL Pajak Bulanan");
 
-        System.out.println("✅ MySQL Pajak Bulanan returned " + results.size() + " records for year " + tahun);
+        log.debug("MySQL Pajak Bulanan returned {} records for year {}", results.size(), tahun);
 
         // Add BPHTB monthly data from PostgreSQL
         try {
@@ -497,7 +501,7 @@ public class PendapatanService {
                 }
             }
         } catch (Exception e) {
-            System.err.println("⚠️ Could not fetch BPHTB monthly data: " + e.getMessage());
+            log.warn("Could not fetch BPHTB monthly data: {}", e.getMessage());
         }
 
         // Add PBB P2 monthly data from Oracle SISMIOP
@@ -515,7 +519,7 @@ public class PendapatanService {
                 }
             }
         } catch (Exception e) {
-            System.err.println("⚠️ Could not fetch PBB P2 monthly data: " + e.getMessage());
+            log.warn("Could not fetch PBB P2 monthly data: {}", e.getMessage());
         }
 
         return results;
@@ -0,0 +1,281 @@
+package com.example.leaflet_geo.service;
+
+import com.example.leaflet_geo.model.RefKecamatan;
+import com.example.leaflet_geo.model.RefKelurahan;
+import com.example.leaflet_geo.repository.RefKecamatanRepository;
+import com.example.leaflet_geo.repository.RefKelurahanRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Cache data referensi wilayah
+ *
+ * Snapshot immutable nama kecamatan/kelurahan dari system.kecamatan dan
+ * system.kelurahan (PostgreSQL) serta REF_KECAMATAN dan REF_KELURAHAN
+ * (SISMIOP, lewat repository sehingga ikut membaca mirror jika aktif).
+ * Isinya hanya beberapa ratus baris yang praktis tidak berubah dalam sehari,
+ * tetapi dibaca hampir di setiap request navigasi peta.
+ *
+ * Dimuat saat aplikasi siap, dimuat ulang setelah invalidate (CRUD kecamatan/
+ * kelurahan, sinkronisasi mirror SISMIOP) atau setelah TTL untuk perubahan
+ * di luar aplikasi. Jika muat ulang gagal, snapshot lama tetap dipakai.
+ */
+@Service
+public class ReferenceDataService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenceDataService.class);
+
+    private static final String SEP = "|";
+
+    private final JdbcTemplate postgresJdbcTemplate;
+    private final RefKecamatanRepository refKecamatanRepository;
+    private final RefKelurahanRepository refKelurahanRepository;
+    private final long ttlMillis;
+
+    private final Object regionsLock = new Object();
+    private final Object referencesLock = new Object();
+    private volatile Regions regions;
+    private volatile References references;
+
+    public ReferenceDataService(@Qualifier("postgresJdbcTemplate") JdbcTemplate postgresJdbcTemplate,
+            RefKecamatanRepository refKecamatanRepository,
+            RefKelurahanRepository refKelurahanRepository,
+            @Value("${reference.cache.ttl-seconds:3600}") long ttlSeconds) {
+        this.postgresJdbcTemplate = postgresJdbcTemplate;
+        this.refKecamatanRepository = refKecamatanRepository;
+        this.refKelurahanRepository = refKelurahanRepository;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    /**
+     * Muat snapshot di background agar request pertama tidak menunggu
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        Thread.ofVirtual().name("reference-data-preload").start(() -> {
+            try {
+                regions();
+            } catch (Exception e) {
+                log.warn("Preload system.kecamatan/kelurahan failed: {}", e.getMessage());
+            }
+            try {
+                references();
+            } catch (Exception e) {
+                log.warn("Preload REF_KECAMATAN/REF_KELURAHAN failed: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Kecamatan aktif (system.kecamatan) dalam satu kabupaten, urut kd_kec
+     */
+    public List<Kecamatan> kecamatan(String kdProp, String kdDati2) {
+        return regions().kecamatanByParent().getOrDefault(key(kdProp, kdDati2), List.of());
+    }
+
+    /**
+     * Kelurahan aktif (system.kelurahan) dalam satu kecamatan, urut kd_kel
+     */
+    public List<Kelurahan> kelurahan(String kdProp, String kdDati2, String kdKec) {
+        return regions().kelurahanByParent().getOrDefault(key(kdProp, kdDati2, kdKec), List.of());
+    }
+
+    /**
+     * Kecamatan berdasarkan kd_kec (termasuk nonaktif, yang aktif didahulukan), null jika tidak ada
+     */
+    public Kecamatan findKecamatan(String kdKec) {
+        return regions().kecamatanByKdKec().get(kdKec.trim());
+    }
+
+    /**
+     * Kelurahan berdasarkan kd_kec + kd_kel (termasuk nonaktif, yang aktif didahulukan), null jika tidak ada
+     */
+    public Kelurahan findKelurahan(String kdKec, String kdKel) {
+        return regions().kelurahanByKdKel().get(key(kdKec, kdKel));
+    }
+
+    /**
+     * Semua REF_KECAMATAN, urut primary key
+     */
+    public List<RefKecamatan> refKecamatan() {
+        return references().kecamatan();
+    }
+
+    /**
+     * Semua REF_KELURAHAN, urut primary key
+     */
+    public List<RefKelurahan> refKelurahan() {
+        return references().kelurahan();
+    }
+
+    /**
+     * Paksa muat ulang system.kecamatan/kelurahan pada akses berikutnya
+     */
+    public void invalidateRegions() {
+        Regions current = regions;
+        if (current != null) {
+            regions = new Regions(current.kecamatanByParent(), current.kelurahanByParent(),
+                    current.kecamatanByKdKec(), current.kelurahanByKdKel(), 0);
+        }
+    }
+
+    /**
+     * Paksa muat ulang REF_KECAMATAN/REF_KELURAHAN pada akses berikutnya
+     */
+    public void invalidateReferences() {
+        References current = references;
+        if (current != null) {
+            references = new References(current.kecamatan(), current.kelurahan(), 0);
+        }
+    }
+
+    private Regions regions() {
+        Regions current = regions;
+        if (current == null || isExpired(current.loadedAt())) {
+            synchronized (regionsLock) {
+                current = regions;
+                if (current == null || isExpired(current.loadedAt())) {
+                    current = reload(current, this::loadRegions, "system.kecamatan/kelurahan");
+                    regions = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private References references() {
+        References current = references;
+        if (current == null || isExpired(current.loadedAt())) {
+            synchronized (referencesLock) {
+                current = references;
+                if (current == null || isExpired(current.loadedAt())) {
+                    current = reload(current, this::loadReferences, "REF_KECAMATAN/REF_KELURAHAN");
+                    references = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private <T> T reload(T current, Supplier<T> loader, String name) {
+        try {
+            return loader.get();
+        } catch (RuntimeException e) {
+            if (current == null) {
+                throw e;
+            }
+            log.warn("Reload {} failed, keeping previous snapshot: {}", name, e.getMessage());
+            return current;
+        }
+    }
+
+    private Regions loadRegions() {
+        List<Kecamatan> kecamatanRows = postgresJdbcTemplate.query(
+                "SELECT id, kd_prop, kd_dati2, kd_kec, nama, is_active FROM system.kecamatan",
+                (rs, rowNum) -> new Kecamatan(rs.getObject("id"), trim(rs.getString("kd_prop")),
+                        trim(rs.getString("kd_dati2")), trim(rs.getString("kd_kec")), rs.getString("nama"),
+                        rs.getBoolean("is_active")));
+        List<Kelurahan> kelurahanRows = postgresJdbcTemplate.query(
+                "SELECT id, kd_prop, kd_dati2, kd_kec, kd_kel, nama, is_active FROM system.kelurahan",
+                (rs, rowNum) -> new Kelurahan(rs.getObject("id"), trim(rs.getString("kd_prop")),
+                        trim(rs.getString("kd_dati2")), trim(rs.getString("kd_kec")), trim(rs.getString("kd_kel")),
+                        rs.getString("nama"), rs.getBoolean("is_active")));
+
+        kecamatanRows.sort(Comparator.comparing(Kecamatan::kdKec, Comparator.nullsLast(Comparator.naturalOrder())));
+        kelurahanRows.sort(Comparator.comparing(Kelurahan::kdKel, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        Map<String, List<Kecamatan>> kecamatanByParent = new HashMap<>();
+        Map<String, Kecamatan> kecamatanByKdKec = new HashMap<>();
+        for (Kecamatan kecamatan : kecamatanRows) {
+            if (kecamatan.active()) {
+                kecamatanByParent.computeIfAbsent(key(kecamatan.kdProp(), kecamatan.kdDati2()), k -> new ArrayList<>())
+                        .add(kecamatan);
+            }
+            kecamatanByKdKec.merge(kecamatan.kdKec(), kecamatan, (a, b) -> a.active() || !b.active() ? a : b);
+        }
+
+        Map<String, List<Kelurahan>> kelurahanByParent = new HashMap<>();
+        Map<String, Kelurahan> kelurahanByKdKel = new HashMap<>();
+        for (Kelurahan kelurahan : kelurahanRows) {
+            if (kelurahan.active()) {
+                kelurahanByParent.computeIfAbsent(
+                        key(kelurahan.kdProp(), kelurahan.kdDati2(), kelurahan.kdKec()), k -> new ArrayList<>())
+                        .add(kelurahan);
+            }
+            kelurahanByKdKel.merge(key(kelurahan.kdKec(), kelurahan.kdKel()), kelurahan,
+                    (a, b) -> a.active() || !b.active() ? a : b);
+        }
+
+        log.info("Loaded {} kecamatan and {} kelurahan from system schema", kecamatanRows.size(), kelurahanRows.size());
+        return new Regions(immutable(kecamatanByParent), immutable(kelurahanByParent), Map.copyOf(kecamatanByKdKec),
+                Map.copyOf(kelurahanByKdKel), System.currentTimeMillis());
+    }
+
+    private References loadReferences() {
+        List<RefKecamatan> kecamatan = List.copyOf(refKecamatanRepository.findAll());
+        List<RefKelurahan> kelurahan = List.copyOf(refKelurahanRepository.findAll());
+        log.info("Loaded {} REF_KECAMATAN and {} REF_KELURAHAN rows", kecamatan.size(), kelurahan.size());
+        return new References(kecamatan, kelurahan, System.currentTimeMillis());
+    }
+
+    private boolean isExpired(long loadedAt) {
+        return System.currentTimeMillis() - loadedAt > ttlMillis;
+    }
+
+    private static <T> Map<String, List<T>> immutable(Map<String, List<T>> map) {
+        Map<String, List<T>> copy = new HashMap<>();
+        map.forEach((key, value) -> copy.put(key, List.copyOf(value)));
+        return Map.copyOf(copy);
+    }
+
+    private static String key(String... parts) {
+        StringBuilder key = new StringBuilder();
+        for (String part : parts) {
+            if (key.length() > 0) {
+                key.append(SEP);
+            }
+            key.append(trim(part));
+        }
+        return key.toString();
+    }
+
+    private static String trim(String value) {
+        return value != null ? value.trim() : "";
+    }
+
+    /**
+     * Baris system.kecamatan (kode sudah di-trim)
+     */
+    public record Kecamatan(Object id, String kdProp, String kdDati2, String kdKec, String nama, boolean active) {
+    }
+
+    /**
+     * Baris system.kelurahan (kode sudah di-trim)
+     */
+    public record Kelurahan(Object id, String kdProp, String kdDati2, String kdKec, String kdKel, String nama,
+            boolean active) {
+    }
+
+    private record Regions(Map<String, List<Kecamatan>> kecamatanByParent,
+            Map<String, List<Kelurahan>> kelurahanByParent,
+            Map<String, Kecamatan> kecamatanByKdKec,
+            Map<String, Kelurahan> kelurahanByKdKel,
+            long loadedAt) {
+    }
+
+    private record References(List<RefKecamatan> kecamatan, List<RefKelurahan> kelurahan, long loadedAt) {
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.leaflet_geo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache response JSON besar (batas wilayah GeoJSON) dalam bentuk gzip
+ *
+ * Body diserialisasi dan dikompresi sekali (level maksimum) saat cache miss,
+ * lalu byte gzip yang sama dikirim ke setiap client dengan Content-Encoding:
+ * gzip. Hanya bentuk terkompresi yang disimpan; client tanpa gzip (jarang)
+ * menerima hasil dekompresi. Entry berlaku selama versinya sama (versi data
+ * lokal) atau, tanpa versi, sampai TTL habis (proxy BPRD). Ukuran total
+ * dibatasi dengan eviksi LRU.
+ */
+@Service
+public class ResponseCacheService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseCacheService.class);
+
+    private record Entry(String version, byte[] gzip, long createdAt) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final SingleFlightService singleFlightService;
+    private final long ttlMillis;
+    private final long maxBytes;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+
+    public ResponseCacheService(ObjectMapper objectMapper, SingleFlightService singleFlightService,
+            @Value("${response.cache.ttl-seconds:600}") long ttlSeconds,
+            @Value("${response.cache.max-mb:64}") long maxMegabytes) {
+        this.objectMapper = objectMapper;
+        this.singleFlightService = singleFlightService;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxBytes = maxMegabytes * 1024 * 1024;
+    }
+
+    /**
+     * Response JSON dari cache, atau dari loader jika belum ada / versi berubah
+     *
+     * @param key            kunci cache (endpoint + parameter)
+     * @param version        versi data saat ini; null = berlaku TTL
+     * @param acceptEncoding header Accept-Encoding request
+     * @param loader         penghasil response; hanya status 2xx dengan body yang disimpan
+     */
+    public ResponseEntity<?> get(String key, String version, String acceptEncoding,
+            Supplier<ResponseEntity<?>> loader) {
+        Entry entry = lookup(key, version);
+        if (entry == null) {
+            // cache miss bersamaan untuk key + versi sama: satu loader, lainnya menunggu hasilnya
+            Object loaded = singleFlightService.execute("response-cache:" + key + ":" + version, () -> {
+                Entry current = lookup(key, version);
+                if (current != null) {
+                    return current;
+                }
+                ResponseEntity<?> response = loader.get();
+                if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+                    return response;
+                }
+                return store(key, version, response.getBody());
+            });
+            if (loaded instanceof ResponseEntity<?> response) {
+                return response;
+            }
+            entry = (Entry) loaded;
+        }
+        return respond(entry, acceptsGzip(acceptEncoding));
+    }
+
+    /**
+     * Hapus entry dengan awalan kunci tertentu
+     */
+    public synchronized void invalidate(String keyPrefix) {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Entry> e = it.next();
+            if (e.getKey().startsWith(keyPrefix)) {
+                totalBytes -= e.getValue().gzip().length;
+                it.remove();
+            }
+        }
+    }
+
+    private synchronized Entry lookup(String key, String version) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        boolean valid = version != null
+                ? version.equals(entry.version())
+                : entry.version() == null && System.currentTimeMillis() - entry.createdAt() < ttlMillis;
+        return valid ? entry : null;
+    }
+
+    private Entry store(String key, String version, Object body) {
+        long start = System.currentTimeMillis();
+        byte[] json;
+        byte[] gzip;
+        try {
+            json = objectMapper.writeValueAsBytes(body);
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (OutputStream out = new GZIPOutputStream(buffer) {
+                {
+                    def.setLevel(Deflater.BEST_COMPRESSION);
+                }
+            }) {
+                out.write(json);
+            }
+            gzip = buffer.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Entry entry = new Entry(version, gzip, System.currentTimeMillis());
+        synchronized (this) {
+            Entry previous = entries.put(key, entry);
+            totalBytes += gzip.length - (previous != null ? previous.gzip().length : 0);
+            Iterator<Entry> it = entries.values().iterator();
+            while (totalBytes > maxBytes && it.hasNext()) {
+                Entry eldest = it.next();
+                if (eldest == entry) {
+                    continue;
+                }
+                totalBytes -= eldest.gzip().length;
+                it.remove();
+            }
+        }
+        log.debug("Cached response {}: {} -> {} bytes gzip in {} ms", key, json.length, gzip.length,
+                System.currentTimeMillis() - start);
+        return entry;
+    }
+
+    private static ResponseEntity<?> respond(Entry entry, boolean gzip) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(entry.gzip());
+        }
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(entry.gzip()))) {
+            return builder.body(in.readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * gzip (atau x-gzip) dengan q > 0; tanpa gzip tercantum, berlaku q untuk *.
+     * "gzip;q=0, *" berarti gzip ditolak meskipun * diterima (RFC 9110 12.5.3).
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzipQ = -1;
+        double wildcardQ = -1;
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.trim().split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQ = Math.max(gzipQ, quality(parts));
+            } else if (coding.equals("*")) {
+                wildcardQ = Math.max(wildcardQ, quality(parts));
+            }
+        }
+        return (gzipQ >= 0 ? gzipQ : wildcardQ) > 0;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String param = parts[i].trim().toLowerCase(Locale.ROOT);
+            if (param.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.leaflet_geo.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
@@ -10,6 +12,8 @@ import java.util.Map;
 @Service
 public class SimatdaService {
 
+    private static final Logger log = LoggerFactory.getLogger(SimatdaService.class);
+
     private final JdbcTemplate mysqlJdbcTemplate;
 
     public SimatdaService(@Qualifier("mysqlJdbcTemplate") JdbcTemplate mysqlJdbcTemplate) {
@@ -33,7 +37,7 @@ public class SimatdaService {
             mysqlJdbcTemplate.queryForObject("SELECT 1", Integer.class);
             return true;
         } catch (Exception e) {
-            e.printStackTrace();
+            log.warn("SIMATDA connection test failed", e);
             return false;
         }
     }
@@ -0,0 +1,94 @@
+package com.example.leaflet_geo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Penggabungan request identik yang berjalan bersamaan (single-flight)
+ *
+ * Request pertama untuk satu kunci menjalankan komputasi; request lain dengan
+ * kunci sama yang datang selama komputasi berjalan menunggu dan menerima hasil
+ * (atau exception) yang sama, tanpa query ulang. Setelah selesai kunci dilepas,
+ * jadi ini bukan cache: request berikutnya menghitung ulang. Hasil dibagi ke
+ * banyak thread sehingga tidak boleh diubah oleh pemanggil.
+ *
+ * Request yang menunggu dibatasi single-flight.wait-timeout-ms; jika komputasi
+ * belum selesai, request tersebut gagal tanpa menunggu terus (komputasi tetap
+ * berjalan untuk request pertama).
+ */
+@Service
+public class SingleFlightService {
+
+    private static final Logger log = LoggerFactory.getLogger(SingleFlightService.class);
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final long waitTimeoutMillis;
+
+    public SingleFlightService(@Value("${single-flight.wait-timeout-ms:30000}") long waitTimeoutMillis) {
+        this.waitTimeoutMillis = waitTimeoutMillis;
+    }
+
+    /**
+     * Jalankan supplier, atau tunggu hasil komputasi yang sedang berjalan untuk key yang sama
+     *
+     * @param key kunci request (endpoint + parameter lengkap)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> supplier) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            long total = coalesced.incrementAndGet();
+            log.debug("Coalesced request {} (total coalesced: {})", key, total);
+            return (T) await(key, running);
+        }
+        try {
+            T result = supplier.get();
+            future.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Jumlah request yang memakai hasil request lain sejak aplikasi start
+     */
+    public long coalescedCount() {
+        return coalesced.get();
+    }
+
+    private Object await(String key, CompletableFuture<Object> future) {
+        try {
+            return future.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            log.warn("Timed out after {} ms waiting for in-flight request {}", waitTimeoutMillis, key);
+            throw new IllegalStateException("Timeout menunggu request yang sama selesai (" + waitTimeoutMillis + " ms)");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted menunggu request yang sama selesai", e);
+        }
+    }
+}
@@ -0,0 +1,641 @@
+package com.example.leaflet_geo.service;
+
+import com.example.leaflet_geo.repository.SismiopMirror;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * SISMIOP Mirror Sync
+ *
+ * Menyalin tabel SISMIOP (Oracle produksi) ke schema sismiop di PostgreSQL
+ * secara incremental dengan hashed row diff, karena tabel SISMIOP tidak punya
+ * kolom last-modified yang bisa diandalkan:
+ * 1. Satu GROUP BY di Oracle menghitung COUNT dan SUM(hash baris) per partisi
+ *    (kelurahan, tahun SPPT + kelurahan, atau range SUBJEK_PAJAK_ID).
+ * 2. Partisi yang checksum-nya sama dengan sinkronisasi terakhir dilewati.
+ * 3. Partisi yang berubah dibaca baris per baris; md5 setiap baris dibandingkan
+ *    dengan row_hash lokal, hanya baris baru/berubah yang di-upsert dan baris
+ *    yang hilang di Oracle dihapus. Satu partisi = satu transaksi PostgreSQL.
+ *
+ * Jalan terjadwal (sismiop.mirror.interval-ms) jika sismiop.mirror.enabled,
+ * atau manual lewat POST /admin/sismiop-mirror/sync.
+ */
+@Service
+public class SismiopMirrorService {
+
+    private static final Logger log = LoggerFactory.getLogger(SismiopMirrorService.class);
+
+    private static final String ALL = "*";
+    private static final String SEP = "|";
+    /** Prefix partition_key partisi range; sisanya batas bawah (inklusif) range */
+    private static final String RANGE = ">=";
+    private static final int RANGE_PARTITIONS = 64;
+    /** Batas range dihitung ulang jika range terbesar melebihi kelipatan ini dari ukuran ideal */
+    private static final int RANGE_SKEW = 4;
+
+    private static final List<String> NOP = List.of(
+            "KD_PROPINSI", "KD_DATI2", "KD_KECAMATAN", "KD_KELURAHAN", "KD_BLOK", "NO_URUT", "KD_JNS_OP");
+    private static final List<String> KELURAHAN = NOP.subList(0, 4);
+
+    private final JdbcTemplate sismiopJdbcTemplate;
+    private final JdbcTemplate postgresJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SismiopMirror sismiopMirror;
+    private final ReferenceDataService referenceDataService;
+    private final int batchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public SismiopMirrorService(@Qualifier("sismiopJdbcTemplate") JdbcTemplate sismiopJdbcTemplate,
+            @Qualifier("postgresJdbcTemplate") JdbcTemplate postgresJdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            SismiopMirror sismiopMirror,
+            ReferenceDataService referenceDataService,
+            @Value("${sismiop.mirror.batch-size:1000}") int batchSize) {
+        this.sismiopJdbcTemplate = sismiopJdbcTemplate;
+        this.postgresJdbcTemplate = postgresJdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sismiopMirror = sismiopMirror;
+        this.referenceDataService = referenceDataService;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${sismiop.mirror.interval-ms:3600000}",
+            initialDelayString = "${sismiop.mirror.initial-delay-ms:60000}")
+    public void scheduledSync() {
+        if (sismiopMirror.isEnabled()) {
+            syncAll();
+        }
+    }
+
+    /**
+     * Jalankan sinkronisasi di background
+     *
+     * @return false jika sinkronisasi lain sedang berjalan
+     */
+    public boolean trigger() {
+        if (running.get()) {
+            return false;
+        }
+        Thread.ofVirtual().name("sismiop-mirror").start(this::syncAll);
+        return true;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Sinkronisasi semua tabel secara berurutan. Kegagalan satu tabel dicatat
+     * di sismiop.sync_table dan tidak menghentikan tabel lain.
+     */
+    public void syncAll() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("SISMIOP mirror sync already running, skipped");
+            return;
+        }
+        try {
+            for (MirrorTable table : tables()) {
+                try {
+                    syncTable(table);
+                } catch (Exception e) {
+                    log.error("SISMIOP mirror sync failed for {}: {}", table.name(), e.getMessage(), e);
+                    recordError(table, e);
+                }
+            }
+        } finally {
+            running.set(false);
+            sismiopMirror.invalidate();
+            referenceDataService.invalidateReferences();
+        }
+    }
+
+    /**
+     * Status per tabel dari sismiop.sync_table
+     */
+    public List<Map<String, Object>> status() {
+        return postgresJdbcTemplate.queryForList(
+                "SELECT * FROM " + SismiopMirror.SCHEMA + ".sync_table ORDER BY table_name");
+    }
+
+    private List<MirrorTable> tables() {
+        return List.of(
+                new MirrorTable("REF_PROPINSI", List.of("KD_PROPINSI"), List.of(),
+                        List.of("KD_PROPINSI", "NM_PROPINSI"), null, null),
+                new MirrorTable("REF_DATI2", List.of("KD_PROPINSI", "KD_DATI2"), List.of(),
+                        List.of("KD_PROPINSI", "KD_DATI2", "NM_DATI2"), null, null),
+                new MirrorTable("REF_KECAMATAN", List.of("KD_PROPINSI", "KD_DATI2", "KD_KECAMATAN"), List.of(),
+                        List.of("KD_PROPINSI", "KD_DATI2", "KD_KECAMATAN", "NM_KECAMATAN"), null, null),
+                new MirrorTable("REF_KELURAHAN", KELURAHAN, List.of(),
+                        concat(KELURAHAN, List.of("KD_SEKTOR", "NM_KELURAHAN", "NO_KELURAHAN", "KD_POS_KELURAHAN")), null,
+                        null),
+                new MirrorTable("DAT_SUBJEK_PAJAK", List.of("SUBJEK_PAJAK_ID"), List.of(),
+                        List.of("SUBJEK_PAJAK_ID", "NM_WP", "JALAN_WP", "BLOK_KAV_NO_WP", "RW_WP", "RT_WP",
+                                "KELURAHAN_WP", "KOTA_WP", "KD_POS_WP", "TELP_WP", "NPWP", "STATUS_PEKERJAAN_WP",
+                                "NPWPD", "EMAIL"), null, "SUBJEK_PAJAK_ID"),
+                new MirrorTable("DAT_OBJEK_PAJAK", NOP, KELURAHAN,
+                        concat(NOP, List.of("SUBJEK_PAJAK_ID", "NO_FORMULIR_SPOP", "NO_PERSIL", "JALAN_OP",
+                                "BLOK_KAV_NO_OP", "RW_OP", "RT_OP", "KD_STATUS_CABANG", "KD_STATUS_WP",
+                                "TOTAL_LUAS_BUMI", "TOTAL_LUAS_BNG", "NJOP_BUMI", "NJOP_BNG", "STATUS_PETA_OP",
+                                "JNS_TRANSAKSI_OP", "TGL_PENDATAAN_OP", "NIP_PENDATA", "TGL_PEMERIKSAAN_OP",
+                                "NIP_PEMERIKSA_OP", "TGL_PEREKAMAN_OP", "NIP_PEREKAM_OP", "NO_SERTIFIKAT",
+                                "KETERANGAN_OP", "KETERANGAN_SPOP", "LATITUDE", "LONGITUDE")), null, null),
+                new MirrorTable("DAT_OP_BUMI", concat(NOP, List.of("NO_BUMI")), KELURAHAN,
+                        concat(NOP, List.of("NO_BUMI", "KD_ZNT", "LUAS_BUMI", "JNS_BUMI", "NILAI_SISTEM_BUMI")), null,
+                        null),
+                new MirrorTable("SPPT", concat(NOP, List.of("THN_PAJAK_SPPT")),
+                        concat(List.of("THN_PAJAK_SPPT"), KELURAHAN),
+                        concat(NOP, List.of("THN_PAJAK_SPPT", "SIKLUS_SPPT", "NM_WP_SPPT", "JLN_WP_SPPT",
+                                "BLOK_KAV_NO_WP_SPPT", "RW_WP_SPPT", "RT_WP_SPPT", "KELURAHAN_WP_SPPT",
+                                "KOTA_WP_SPPT", "KD_POS_WP_SPPT", "NPWP_SPPT", "NO_PERSIL_SPPT", "KD_KLS_TANAH",
+                                "THN_AWAL_KLS_TANAH", "KD_KLS_BNG", "THN_AWAL_KLS_BNG", "TGL_JATUH_TEMPO_SPPT",
+                                "LUAS_BUMI_SPPT", "LUAS_BNG_SPPT", "NJOP_BUMI_SPPT", "NJOP_BNG_SPPT", "NJOP_SPPT",
+                                "NJOPTKP_SPPT", "PBB_TERHUTANG_SPPT", "FAKTOR_PENGURANG_SPPT",
+                                "PBB_YG_HARUS_DIBAYAR_SPPT", "STATUS_PEMBAYARAN_SPPT", "STATUS_TAGIHAN_SPPT",
+                                "STATUS_CETAK_SPPT", "TGL_TERBIT_SPPT", "TGL_CETAK_SPPT", "NIP_PENCETAK_SPPT")),
+                        // THN_PAJAK_SPPT berupa CHAR(4), tahun dihitung dari Year.now() (bukan input user)
+                        "THN_PAJAK_SPPT >= '" + sismiopMirror.firstSpptYear() + "'", null));
+    }
+
+    private void syncTable(MirrorTable table) {
+        long start = System.nanoTime();
+        List<Column> columns = resolveColumns(table);
+
+        // 1. Checksum per partisi di Oracle
+        List<String> bounds = table.rangeKey() != null ? rangeBounds(table, false) : null;
+        Map<String, Partition> remote = checksums(table, columns, bounds);
+        if (bounds != null && isSkewed(remote)) {
+            log.info("SISMIOP mirror {}: {} ranges skewed, recomputing {} ranges", table.name(), bounds.size(),
+                    RANGE_PARTITIONS);
+            bounds = rangeBounds(table, true);
+            remote = checksums(table, columns, bounds);
+        }
+
+        // 2. Checksum sinkronisasi terakhir
+        Map<String, Partition> local = new HashMap<>();
+        postgresJdbcTemplate.query(
+                "SELECT partition_key, row_count, checksum FROM " + SismiopMirror.SCHEMA + ".sync_partition WHERE table_name = ?",
+                rs -> {
+                    local.put(rs.getString("partition_key"),
+                            new Partition(null, rs.getLong("row_count"), rs.getBigDecimal("checksum")));
+                },
+                table.name());
+
+        // 3. Diff partisi yang berubah, hapus partisi yang hilang
+        long rowCount = 0;
+        int changedPartitions = 0;
+        long[] totals = new long[2];
+        for (Map.Entry<String, Partition> entry : remote.entrySet()) {
+            Partition partition = entry.getValue();
+            rowCount += partition.rowCount();
+            Partition previous = local.remove(entry.getKey());
+            if (previous != null && previous.rowCount() == partition.rowCount()
+                    && previous.checksum().compareTo(partition.checksum()) == 0) {
+                continue;
+            }
+            long[] counts = syncPartition(table, columns, entry.getKey(), partition);
+            totals[0] += counts[0];
+            totals[1] += counts[1];
+            changedPartitions++;
+        }
+        for (String partitionKey : local.keySet()) {
+            totals[1] += dropPartition(table, partitionKey);
+            changedPartitions++;
+        }
+
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        postgresJdbcTemplate.update("""
+                INSERT INTO %s.sync_table (table_name, last_success_at, row_count, partitions, changed_partitions,
+                                           upserted, deleted, duration_ms, last_error, last_error_at)
+                VALUES (?, now(), ?, ?, ?, ?, ?, ?, NULL, NULL)
+                ON CONFLICT (table_name) DO UPDATE SET
+                    last_success_at = EXCLUDED.last_success_at, row_count = EXCLUDED.row_count,
+                    partitions = EXCLUDED.partitions, changed_partitions = EXCLUDED.changed_partitions,
+                    upserted = EXCLUDED.upserted, deleted = EXCLUDED.deleted, duration_ms = EXCLUDED.duration_ms,
+                    last_error = NULL, last_error_at = NULL
+                """.formatted(SismiopMirror.SCHEMA),
+                table.name(), rowCount, remote.size(), changedPartitions, totals[0], totals[1], durationMs);
+
+        log.atInfo()
+                .addKeyValue("table", table.name())
+                .addKeyValue("rows", rowCount)
+                .addKeyValue("partitions", remote.size())
+                .addKeyValue("changed_partitions", changedPartitions)
+                .addKeyValue("upserted", totals[0])
+                .addKeyValue("deleted", totals[1])
+                .addKeyValue("duration_ms", durationMs)
+                .log("SISMIOP mirror {}: {}/{} partitions changed, {} upserted, {} deleted in {} ms",
+                        table.name(), changedPartitions, remote.size(), totals[0], totals[1], durationMs);
+    }
+
+    /**
+     * COUNT dan SUM(hash baris) per partisi, satu pass di Oracle
+     *
+     * @param bounds batas bawah range (urut naik, elemen pertama "" = tanpa batas), null jika
+     *               partisi dibentuk dari table.partitionBy()
+     */
+    private Map<String, Partition> checksums(MirrorTable table, List<Column> columns, List<String> bounds) {
+        List<String> partitionBy = bounds != null ? List.of(rangeIndex(table.rangeKey(), bounds.size()))
+                : table.partitionBy();
+        String partitionSelect = IntStream.range(0, partitionBy.size())
+                .mapToObj(i -> partitionBy.get(i) + " AS P" + i + ", ")
+                .collect(Collectors.joining());
+        String groupBy = IntStream.range(0, partitionBy.size())
+                .mapToObj(i -> "P" + i)
+                .collect(Collectors.joining(", "));
+        // Ekspresi partisi di subquery: bind variable (batas range) tidak bisa dipakai di GROUP BY
+        String checksumSql = "SELECT " + (groupBy.isEmpty() ? "" : groupBy + ", ")
+                + "COUNT(*) AS CNT, SUM(H) AS CHK FROM (SELECT " + partitionSelect + oracleRowHash(columns)
+                + " AS H FROM " + table.name()
+                + (table.filter() != null ? " WHERE " + table.filter() : "") + ")"
+                + (groupBy.isEmpty() ? "" : " GROUP BY " + groupBy);
+        Object[] args = bounds != null ? bounds.subList(1, bounds.size()).toArray() : new Object[0];
+
+        Map<String, Partition> remote = new LinkedHashMap<>();
+        sismiopJdbcTemplate.query(checksumSql, rs -> {
+            Object[] values = new Object[partitionBy.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = rs.getObject(i + 1);
+            }
+            String key = partitionKey(values);
+            if (bounds != null) {
+                // {batas bawah inklusif, batas atas eksklusif}, null = tanpa batas
+                int index = rs.getInt(1);
+                values = new Object[] { bounds.get(index), index + 1 < bounds.size() ? bounds.get(index + 1) : null };
+                key = RANGE + bounds.get(index);
+            }
+            BigDecimal checksum = rs.getBigDecimal("CHK");
+            remote.put(key, new Partition(values, rs.getLong("CNT"), checksum != null ? checksum : BigDecimal.ZERO));
+        }, args);
+        return remote;
+    }
+
+    /**
+     * Batas bawah range partisi. Diambil dari partisi sinkronisasi terakhir agar
+     * batas stabil (partisi yang tidak berubah tetap dilewati); dihitung dengan satu
+     * pass NTILE di Oracle pada sinkronisasi pertama atau jika recompute.
+     *
+     * Range i = [bounds[i], bounds[i + 1]) pada kolom key yang ber-index, sehingga
+     * partisi yang berubah dibaca dengan index range scan, bukan full scan.
+     */
+    private List<String> rangeBounds(MirrorTable table, boolean recompute) {
+        if (!recompute) {
+            List<String> keys = postgresJdbcTemplate.queryForList(
+                    "SELECT partition_key FROM " + SismiopMirror.SCHEMA
+                            + ".sync_partition WHERE table_name = ? AND partition_key LIKE ?",
+                    String.class, table.name(), RANGE + "%");
+            if (!keys.isEmpty()) {
+                return rangeList(keys.stream().map(key -> key.substring(RANGE.length())));
+            }
+        }
+        String key = table.rangeKey();
+        List<String> minimums = sismiopJdbcTemplate.queryForList(
+                "SELECT MIN(" + key + ") FROM (SELECT " + key + ", NTILE(" + RANGE_PARTITIONS + ") OVER (ORDER BY "
+                        + key + ") AS T FROM " + table.name()
+                        + (table.filter() != null ? " WHERE " + table.filter() : "") + ") GROUP BY T",
+                String.class);
+        // Minimum terkecil diganti "" agar range pertama juga mencakup key baru yang lebih kecil
+        return rangeList(minimums.stream().sorted().skip(1));
+    }
+
+    private static List<String> rangeList(Stream<String> lowerBounds) {
+        List<String> bounds = new ArrayList<>();
+        bounds.add("");
+        lowerBounds.filter(bound -> bound != null && !bound.isEmpty())
+                .sorted()
+                .distinct()
+                .forEach(bounds::add);
+        return bounds;
+    }
+
+    /**
+     * Indeks range untuk satu baris; batas dibandingkan sebagai bind variable
+     */
+    private static String rangeIndex(String key, int ranges) {
+        if (ranges == 1) {
+            return "0";
+        }
+        StringBuilder expression = new StringBuilder("CASE");
+        for (int i = 1; i < ranges; i++) {
+            expression.append(" WHEN ").append(key).append(" < ? THEN ").append(i - 1);
+        }
+        return expression.append(" ELSE ").append(ranges - 1).append(" END").toString();
+    }
+
+    /**
+     * Range terbesar jauh di atas ukuran ideal (key baru menumpuk di range terakhir,
+     * atau tabel tumbuh dari sedikit baris)
+     */
+    private boolean isSkewed(Map<String, Partition> remote) {
+        long total = remote.values().stream().mapToLong(Partition::rowCount).sum();
+        long largest = remote.values().stream().mapToLong(Partition::rowCount).max().orElse(0);
+        return largest > (long) RANGE_SKEW * Math.max(total / RANGE_PARTITIONS, batchSize);
+    }
+
+    /**
+     * Diff satu partisi
+     *
+     * @return {upserted, deleted}
+     */
+    private long[] syncPartition(MirrorTable table, List<Column> columns, String partitionKey, Partition partition) {
+        String localTable = localTable(table);
+        List<String> keys = table.keys();
+        int[] keyIndexes = keys.stream().mapToInt(key -> indexOf(columns, key)).toArray();
+        int[] localKeyIndexes = IntStream.range(0, keys.size()).toArray();
+
+        return transactionTemplate.execute(status -> {
+            // key -> {nilai key..., row_hash}
+            Map<String, Object[]> existing = new HashMap<>();
+            postgresJdbcTemplate.query(
+                    "SELECT " + String.join(", ", keys) + ", row_hash FROM " + localTable + " WHERE sync_partition = ?",
+                    rs -> {
+                        Object[] row = new Object[keys.size() + 1];
+                        for (int i = 0; i < row.length; i++) {
+                            row[i] = rs.getObject(i + 1);
+                        }
+                        existing.put(rowKey(row, localKeyIndexes), row);
+                    },
+                    partitionKey);
+
+            String upsertSql = upsertSql(table, columns);
+            List<Object[]> batch = new ArrayList<>(batchSize);
+            long[] counts = new long[2];
+
+            List<String> conditions = new ArrayList<>();
+            List<Object> args = new ArrayList<>();
+            if (table.rangeKey() != null) {
+                Object lower = partition.values()[0];
+                Object upper = partition.values()[1];
+                // "" di Oracle = NULL, range pertama tanpa batas bawah
+                if (lower != null && !lower.toString().isEmpty()) {
+                    conditions.add(table.rangeKey() + " >= ?");
+                    args.add(lower);
+                }
+                if (upper != null) {
+                    conditions.add(table.rangeKey() + " < ?");
+                    args.add(upper);
+                }
+            } else {
+                table.partitionBy().forEach(expression -> conditions.add(expression + " = ?"));
+                args.addAll(Arrays.asList(partition.values()));
+            }
+            if (table.filter() != null) {
+                conditions.add(table.filter());
+            }
+            String selectSql = "SELECT " + columns.stream().map(Column::name).collect(Collectors.joining(", "))
+                    + " FROM " + table.name()
+                    + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions));
+
+            sismiopJdbcTemplate.query(selectSql, rs -> {
+                Object[] values = new Object[columns.size() + 2];
+                for (int i = 0; i < columns.size(); i++) {
+                    values[i] = readValue(rs, i + 1, columns.get(i));
+                }
+                String hash = rowHash(values, columns.size());
+                Object[] previous = existing.remove(rowKey(values, keyIndexes));
+                if (previous == null || !hash.equals(previous[keys.size()])) {
+                    values[columns.size()] = hash;
+                    values[columns.size() + 1] = partitionKey;
+                    batch.add(values);
+                    if (batch.size() >= batchSize) {
+                        counts[0] += batch.size();
+                        postgresJdbcTemplate.batchUpdate(upsertSql, batch);
+                        batch.clear();
+                    }
+                }
+            }, args.toArray());
+
+            if (!batch.isEmpty()) {
+                counts[0] += batch.size();
+                postgresJdbcTemplate.batchUpdate(upsertSql, batch);
+            }
+
+            if (!existing.isEmpty()) {
+                String deleteSql = "DELETE FROM " + localTable + " WHERE "
+                        + keys.stream().map(key -> key + " = ?").collect(Collectors.joining(" AND "));
+                List<Object[]> deletes = existing.values().stream()
+                        .map(row -> Arrays.copyOf(row, keys.size()))
+                        .toList();
+                postgresJdbcTemplate.batchUpdate(deleteSql, deletes);
+                counts[1] = deletes.size();
+            }
+
+            postgresJdbcTemplate.update("""
+                    INSERT INTO %s.sync_partition (table_name, partition_key, row_count, checksum, synced_at)
+                    VALUES (?, ?, ?, ?, now())
+                    ON CONFLICT (table_name, partition_key) DO UPDATE SET
+                        row_count = EXCLUDED.row_count, checksum = EXCLUDED.checksum, synced_at = EXCLUDED.synced_at
+                    """.formatted(SismiopMirror.SCHEMA),
+                    table.name(), partitionKey, partition.rowCount(), partition.checksum());
+
+            log.debug("SISMIOP mirror {} [{}]: {} upserted, {} deleted", table.name(), partitionKey, counts[0], counts[1]);
+            return counts;
+        });
+    }
+
+    /**
+     * Partisi yang tidak ada lagi di Oracle (mis. tahun SPPT keluar dari jendela mirror)
+     */
+    private long dropPartition(MirrorTable table, String partitionKey) {
+        Integer deleted = transactionTemplate.execute(status -> {
+            int rows = postgresJdbcTemplate.update(
+                    "DELETE FROM " + localTable(table) + " WHERE sync_partition = ?", partitionKey);
+            postgresJdbcTemplate.update(
+                    "DELETE FROM " + SismiopMirror.SCHEMA + ".sync_partition WHERE table_name = ? AND partition_key = ?",
+                    table.name(), partitionKey);
+            return rows;
+        });
+        return deleted != null ? deleted : 0;
+    }
+
+    private void recordError(MirrorTable table, Exception e) {
+        try {
+            postgresJdbcTemplate.update("""
+                    INSERT INTO %s.sync_table (table_name, last_error, last_error_at)
+                    VALUES (?, ?, now())
+                    ON CONFLICT (table_name) DO UPDATE SET
+                        last_error = EXCLUDED.last_error, last_error_at = EXCLUDED.last_error_at
+                    """.formatted(SismiopMirror.SCHEMA),
+                    table.name(), String.valueOf(e.getMessage()));
+        } catch (Exception statusError) {
+            log.warn("Cannot record SISMIOP mirror error for {}: {}", table.name(), statusError.getMessage());
+        }
+    }
+
+    /**
+     * Kolom yang benar-benar ada di Oracle (USER_TAB_COLUMNS) beserta tipe kolom mirror-nya.
+     * Kolom opsional yang tidak ada di Oracle dilewati (tetap NULL di mirror).
+     */
+    private List<Column> resolveColumns(MirrorTable table) {
+        Map<String, String> oracleTypes = new HashMap<>();
+        sismiopJdbcTemplate.query("SELECT COLUMN_NAME, DATA_TYPE FROM USER_TAB_COLUMNS WHERE TABLE_NAME = ?",
+                rs -> {
+                    oracleTypes.put(rs.getString("COLUMN_NAME"), rs.getString("DATA_TYPE"));
+                },
+                table.name());
+        Map<String, String> localTypes = new HashMap<>();
+        postgresJdbcTemplate.query(
+                "SELECT column_name, data_type FROM information_schema.columns WHERE table_schema = ? AND table_name = ?",
+                rs -> {
+                    localTypes.put(rs.getString("column_name").toUpperCase(Locale.ROOT), rs.getString("data_type"));
+                },
+                SismiopMirror.SCHEMA, table.name().toLowerCase(Locale.ROOT));
+
+        List<Column> columns = new ArrayList<>();
+        for (String name : table.columns()) {
+            String oracleType = oracleTypes.get(name);
+            String localType = localTypes.get(name);
+            if (oracleType == null || localType == null) {
+                if (table.keys().contains(name)) {
+                    throw new IllegalStateException("Kolom key " + table.name() + "." + name + " tidak ditemukan ("
+                            + (oracleType == null ? "Oracle" : "mirror") + ")");
+                }
+                log.warn("SISMIOP mirror {}: column {} not found in {}, skipped", table.name(), name,
+                        oracleType == null ? "Oracle" : "mirror");
+                continue;
+            }
+            columns.add(new Column(name, oracleType, localType));
+        }
+        return columns;
+    }
+
+    private static String upsertSql(MirrorTable table, List<Column> columns) {
+        String names = columns.stream().map(Column::name).collect(Collectors.joining(", "));
+        String placeholders = columns.stream()
+                .map(column -> "CAST(? AS " + column.localType() + ")")
+                .collect(Collectors.joining(", "));
+        String updates = columns.stream()
+                .filter(column -> !table.keys().contains(column.name()))
+                .map(column -> column.name() + " = EXCLUDED." + column.name())
+                .collect(Collectors.joining(", "));
+        return "INSERT INTO " + localTable(table) + " (" + names + ", row_hash, sync_partition, synced_at) VALUES ("
+                + placeholders + ", ?, ?, now()) ON CONFLICT (" + String.join(", ", table.keys()) + ") DO UPDATE SET "
+                + (updates.isEmpty() ? "" : updates + ", ")
+                + "row_hash = EXCLUDED.row_hash, sync_partition = EXCLUDED.sync_partition, synced_at = EXCLUDED.synced_at";
+    }
+
+    /**
+     * Hash baris untuk checksum: ORA_HASH dari gabungan ORA_HASH per kolom. Menggabungkan
+     * nilai kolom langsung bisa melebihi 4000 byte pada baris lebar (ORA-01489), gabungan
+     * hash paling panjang 11 karakter per kolom. DATE/TIMESTAMP diformat eksplisit agar
+     * tidak bergantung NLS_DATE_FORMAT.
+     */
+    private static String oracleRowHash(List<Column> columns) {
+        return columns.stream()
+                .map(column -> "ORA_HASH(" + (column.isTemporal()
+                        ? "TO_CHAR(" + column.name() + ", 'YYYYMMDDHH24MISS')" : column.name()) + ")")
+                .collect(Collectors.joining(" || '|' || ", "ORA_HASH(", ")"));
+    }
+
+    /**
+     * Nilai kolom Oracle dalam bentuk yang disimpan di mirror; CHAR di-trim agar
+     * pencarian di PostgreSQL (varchar) tidak bergantung pada padding.
+     */
+    private static Object readValue(ResultSet rs, int index, Column column) throws SQLException {
+        if (column.isTemporal()) {
+            return rs.getTimestamp(index);
+        }
+        if (column.oracleType().equals("NUMBER") || column.oracleType().equals("FLOAT")) {
+            return rs.getBigDecimal(index);
+        }
+        String value = rs.getString(index);
+        return value != null && column.oracleType().endsWith("CHAR") ? value.stripTrailing() : value;
+    }
+
+    private static String rowHash(Object[] values, int length) {
+        StringBuilder row = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            row.append(values[i] == null ? "\u0000" : values[i].toString()).append('\u001f');
+        }
+        try {
+            MessageDigest md5 = MessageDigest.getInstance("MD5");
+            return HexFormat.of().formatHex(md5.digest(row.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String rowKey(Object[] values, int[] indexes) {
+        StringBuilder key = new StringBuilder();
+        for (int index : indexes) {
+            key.append(values[index]).append(SEP);
+        }
+        return key.toString();
+    }
+
+    private static String partitionKey(Object[] values) {
+        if (values.length == 0) {
+            return ALL;
+        }
+        return Arrays.stream(values)
+                .map(value -> value == null ? "" : value.toString().strip())
+                .collect(Collectors.joining(SEP));
+    }
+
+    private static int indexOf(List<Column> columns, String name) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).name().equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Kolom " + name + " tidak ditemukan");
+    }
+
+    private static String localTable(MirrorTable table) {
+        return SismiopMirror.SCHEMA + "." + table.name().toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> concat(List<String> first, List<String> second) {
+        List<String> result = new ArrayList<>(first);
+        result.addAll(second);
+        return List.copyOf(result);
+    }
+
+    /**
+     * @param name        nama tabel Oracle (= nama tabel mirror, lowercase)
+     * @param keys        primary key
+     * @param partitionBy ekspresi Oracle pembentuk partisi; kolom prefix primary key agar index terpakai
+     * @param columns     kolom yang dimirror
+     * @param filter      predikat tambahan Oracle, null jika seluruh tabel
+     * @param rangeKey    kolom key ber-index untuk partisi range (menggantikan partitionBy), null jika tidak
+     */
+    private record MirrorTable(String name, List<String> keys, List<String> partitionBy, List<String> columns,
+            String filter, String rangeKey) {
+    }
+
+    private record Column(String name, String oracleType, String localType) {
+        boolean isTemporal() {
+            return oracleType.equals("DATE") || oracleType.startsWith("TIMESTAMP");
+        }
+    }
+
+    private record Partition(Object[] values, long rowCount, BigDecimal checksum) {
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.leaflet_geo.service;
 
+import com.example.leaflet_geo.repository.SismiopMirror;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
@@ -10,10 +13,14 @@ import java.util.Map;
 @Service
 public class SismiopService {
 
+    private static final Logger log = LoggerFactory.getLogger(SismiopService.class);
+
     private final JdbcTemplate sismiopJdbcTemplate;
+    private final SismiopMirror sismiopMirror;
 
-    public SismiopService(@Qualifier("sismiopJdbcTemplate") JdbcTemplate sismiopJdbcTemplate) {
+    public SismiopService(@Qualifier("sismiopJdbcTemplate") JdbcTemplate sismiopJdbcTemplate, SismiopMirror sismiopMirror) {
         this.sismiopJdbcTemplate = sismiopJdbcTemplate;
+        this.sismiopMirror = sismiopMirror;
     }
 
     /**
@@ -106,9 +113,10 @@ public class SismiopService {
         String noUrut = nop.substring(13, 17);
         String kdJnsOp = nop.substring(17, 18);
         
+        SismiopMirror.Route route = sismiopMirror.route(sismiopJdbcTemplate, "");
         String sql = """
             SELECT *
-            FROM DAT_OBJEK_PAJAK
+            FROM %s
             WHERE KD_PROPINSI = ?
               AND KD_DATI2 = ?
               AND KD_KECAMATAN = ?
@@ -116,14 +124,14 @@ public class SismiopService {
               AND KD_BLOK = ?
               AND NO_URUT = ?
               AND KD_JNS_OP = ?
-            """;
+            """.formatted(route.table("DAT_OBJEK_PAJAK"));
         
         try {
-            return sismiopJdbcTemplate.queryForMap(
+            return route.row(route.jdbc().queryForMap(
                 sql, 
                 kdPropinsi, kdDati2, kdKecamatan, kdKelurahan, 
                 kdBlok, noUrut, kdJnsOp
-            );
+            ));
         } catch (Exception e) {
             throw new RuntimeException("Data NOP tidak ditemukan: " + nop);
         }
@@ -133,9 +141,10 @@ public class SismiopService {
      * Get data subjek pajak by ID
      */
     public Map<String, Object> getSubjekPajakById(String subjekPajakId) {
-        String sql = "SELECT * FROM DAT_SUBJEK_PAJAK WHERE SUBJEK_PAJAK_ID = ?";
+        SismiopMirror.Route route = sismiopMirror.route(sismiopJdbcTemplate, "");
+        String sql = "SELECT * FROM " + route.table("DAT_SUBJEK_PAJAK") + " WHERE SUBJEK_PAJAK_ID = ?";
         try {
-            return sismiopJdbcTemplate.queryForMap(sql, subjekPajakId);
+            return route.row(route.jdbc().queryForMap(sql, subjekPajakId));
         } catch (Exception e) {
             throw new RuntimeException("Data Subjek Pajak tidak ditemukan: " + subjekPajakId);
         }
@@ -145,25 +154,27 @@ public class SismiopService {
      * Get list kecamatan
      */
     public List<Map<String, Object>> getKecamatanList() {
+        SismiopMirror.Route route = sismiopMirror.route(sismiopJdbcTemplate, "");
         String sql = """
             SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, NM_KECAMATAN
-            FROM REF_KECAMATAN
+            FROM %s
             ORDER BY KD_KECAMATAN
-            """;
-        return sismiopJdbcTemplate.queryForList(sql);
+            """.formatted(route.table("REF_KECAMATAN"));
+        return route.rows(route.jdbc().queryForList(sql));
     }
 
     /**
      * Get list kelurahan by kecamatan
      */
     public List<Map<String, Object>> getKelurahanByKecamatan(String kdKecamatan) {
+        SismiopMirror.Route route = sismiopMirror.route(sismiopJdbcTemplate, "");
         String sql = """
             SELECT KD_PROPINSI, KD_DATI2, KD_KECAMATAN, KD_KELURAHAN, NM_KELURAHAN
-            FROM REF_KELURAHAN
+            FROM %s
             WHERE KD_KECAMATAN = ?
             ORDER BY KD_KELURAHAN
-            """;
-        return sismiopJdbcTemplate.queryForList(sql, kdKecamatan);
+            """.formatted(route.table("REF_KELURAHAN"));
+        return route.rows(route.jdbc().queryForList(sql, kdKecamatan));
     }
 
     /**
@@ -182,9 +193,10 @@ public class SismiopService {
         String noUrut = nop.substring(13, 17);
         String kdJnsOp = nop.substring(17, 18);
         
+        SismiopMirror.Route route = sismiopMirror.routeSppt(sismiopJdbcTemplate, "", tahun);
         String sql = """
             SELECT *
-            FROM SPPT
+            FROM %s
             WHERE KD_PROPINSI = ?
               AND KD_DATI2 = ?
               AND KD_KECAMATAN = ?
@@ -193,14 +205,14 @@ public class SismiopService {
               AND NO_URUT = ?
               AND KD_JNS_OP = ?
               AND THN_PAJAK_SPPT = ?
-            """;
+            """.formatted(route.table("SPPT"));
         
         try {
-            return sismiopJdbcTemplate.queryForMap(
+            return route.row(route.jdbc().queryForMap(
                 sql, 
                 kdPropinsi, kdDati2, kdKecamatan, kdKelurahan, 
                 kdBlok, noUrut, kdJnsOp, tahun
-            );
+            ));
         } catch (Exception e) {
             throw new RuntimeException("Data SPPT tidak ditemukan untuk NOP: " + nop + " Tahun: " + tahun);
         }
@@ -223,7 +235,7 @@ public class SismiopService {
             }
             return 0L;
         } catch (Exception e) {
-            System.err.println("Warning: Error fetching PBB realisasi for year " + tahun + ": " + e.getMessage());
+            log.warn("Error fetching PBB realisasi for year {}: {}", tahun, e.getMessage());
             return 0L;
         }
     }
@@ -233,12 +245,13 @@ public class SismiopService {
      */
     public Long getTargetPbbTahunan(String tahun) {
         try {
+            SismiopMirror.Route route = sismiopMirror.routeSppt(sismiopJdbcTemplate, "", tahun);
             String sql = """
                 SELECT COALESCE(SUM(PBB_YG_HARUS_DIBAYAR_SPPT), 0) AS TOTAL_TARGET
-                FROM SPPT
+                FROM %s
                 WHERE THN_PAJAK_SPPT = ?
-                """;
-            Map<String, Object> result = sismiopJdbcTemplate.queryForMap(sql, tahun);
+                """.formatted(route.table("SPPT"));
+            Map<String, Object> result = route.jdbc().queryForMap(sql, tahun);
             Object value = result.get("TOTAL_TARGET");
             if (value instanceof Number) {
                 return ((Number) value).longValue();
@@ -246,7 +259,7 @@ public class SismiopService {
             // Fallback jika tidak ada data
             return 50_000_000_000L; // Default 50 Miliar
         } catch (Exception e) {
-            System.err.println("Warning: No PBB target found for year " + tahun + ", using default: " + e.getMessage());
+            log.warn("No PBB target found for year {}, using default: {}", tahun, e.getMessage());
             return 50_000_000_000L; // Default 50 Miliar
         }
     }
@@ -267,7 +280,7 @@ public class SismiopService {
                 """;
             return sismiopJdbcTemplate.queryForList(sql, tahun);
         } catch (Exception e) {
-            System.err.println("Warning: Error fetching PBB monthly data: " + e.getMessage());
+            log.warn("Error fetching PBB monthly data: {}", e.getMessage());
             return List.of();
         }
     }
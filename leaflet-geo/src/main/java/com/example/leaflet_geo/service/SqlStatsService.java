@@ -0,0 +1,213 @@
+package com.example.leaflet_geo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * SQL Statistics
+ *
+ * Statistik eksekusi JdbcTemplate per (datasource, endpoint, fingerprint SQL).
+ * Fingerprint = SQL dengan literal string/angka diganti "?", daftar IN
+ * diringkas dan whitespace dirapikan, sehingga query yang sama dengan nilai
+ * berbeda masuk ke satu baris. Query di atas threshold dicatat ke log (WARN)
+ * bersama bentuk bind parameter-nya (tipe, bukan nilai).
+ *
+ * Dipanggil oleh JdbcTemplateMetrics, dibaca lewat GET /admin/sql-stats.
+ */
+@Service
+public class SqlStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatsService.class);
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final String OTHER = "<other>";
+    private static final String UNMAPPED = "<unmapped>";
+    private static final int FINGERPRINT_CACHE_SIZE = 5000;
+
+    private final long slowThresholdNanos;
+    private final int maxEntries;
+    private final Map<Key, Stat> stats = new ConcurrentHashMap<>();
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+
+    public SqlStatsService(@Value("${sql.slow-query.threshold-ms:500}") long slowThresholdMs,
+            @Value("${sql.stats.max-entries:2000}") int maxEntries) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Catat satu eksekusi
+     *
+     * @param datasource nama datasource (postgres, sismiop, ...)
+     * @param sql        SQL mentah, null jika tidak diketahui
+     * @param args       argumen pemanggilan JdbcTemplate (untuk bentuk bind parameter)
+     * @param nanos      durasi
+     * @param failed     true jika melempar exception
+     */
+    public void record(String datasource, String sql, Object[] args, long nanos, boolean failed) {
+        if (sql == null) {
+            return;
+        }
+        String fingerprint = fingerprint(sql);
+        String endpoint = currentEndpoint();
+
+        Key key = new Key(datasource, endpoint, fingerprint);
+        Stat stat = stats.get(key);
+        if (stat == null) {
+            if (stats.size() >= maxEntries) {
+                key = new Key(datasource, endpoint, OTHER);
+            }
+            stat = stats.computeIfAbsent(key, k -> new Stat());
+        }
+        stat.count.increment();
+        stat.totalNanos.add(nanos);
+        stat.maxNanos.accumulateAndGet(nanos, Math::max);
+        if (failed) {
+            stat.errors.increment();
+        }
+
+        if (nanos >= slowThresholdNanos) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+            log.atWarn()
+                    .addKeyValue("datasource", datasource)
+                    .addKeyValue("endpoint", endpoint)
+                    .addKeyValue("duration_ms", millis)
+                    .addKeyValue("fingerprint", fingerprint)
+                    .addKeyValue("params", parameterShape(args))
+                    .log("Slow query on {} ({} ms): {}", datasource, millis, fingerprint);
+        }
+    }
+
+    /**
+     * Top-N fingerprint
+     *
+     * @param sortBy total | avg | max | count | errors
+     */
+    public List<Map<String, Object>> top(int limit, String sortBy) {
+        Comparator<Map<String, Object>> comparator = Comparator.comparingDouble(
+                row -> ((Number) row.get(switch (sortBy) {
+                    case "avg" -> "avgMs";
+                    case "max" -> "maxMs";
+                    case "count" -> "count";
+                    case "errors" -> "errors";
+                    default -> "totalMs";
+                })).doubleValue());
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        stats.forEach((key, stat) -> rows.add(stat.toMap(key)));
+        rows.sort(comparator.reversed());
+        return rows.size() > limit ? rows.subList(0, limit) : rows;
+    }
+
+    public int size() {
+        return stats.size();
+    }
+
+    public long slowThresholdMs() {
+        return TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos);
+    }
+
+    public void reset() {
+        stats.clear();
+    }
+
+    String fingerprint(String sql) {
+        String cached = fingerprints.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("(?+)");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        if (fingerprints.size() >= FINGERPRINT_CACHE_SIZE) {
+            fingerprints.clear();
+        }
+        fingerprints.put(sql, normalized);
+        return normalized;
+    }
+
+    /**
+     * Bentuk bind parameter: tipe setiap nilai (tanpa nilainya), mis. [String, Integer, null]
+     */
+    private static String parameterShape(Object[] args) {
+        if (args == null) {
+            return "[]";
+        }
+        for (int i = args.length - 1; i >= 0; i--) {
+            if (args[i] instanceof Object[] values) {
+                return shapeOf(values);
+            }
+            if (args[i] instanceof List<?> batch && !batch.isEmpty() && batch.get(0) instanceof Object[] first) {
+                return "batch " + batch.size() + " x " + shapeOf(first);
+            }
+        }
+        return "[]";
+    }
+
+    private static String shapeOf(Object[] values) {
+        List<String> types = new ArrayList<>(values.length);
+        for (Object value : values) {
+            types.add(value == null ? "null" : value.getClass().getSimpleName());
+        }
+        return types.toString();
+    }
+
+    /**
+     * Method + pattern handler; request tanpa pattern (filter, path yang tidak
+     * ter-mapping) digabung ke satu label agar jumlah key tetap terbatas
+     */
+    private static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            Object pattern = servletAttributes.getRequest().getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            return pattern != null ? servletAttributes.getRequest().getMethod() + " " + pattern : UNMAPPED;
+        }
+        return "-";
+    }
+
+    private record Key(String datasource, String endpoint, String fingerprint) {
+    }
+
+    private static final class Stat {
+        final LongAdder count = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+
+        Map<String, Object> toMap(Key key) {
+            long n = count.sum();
+            double totalMs = totalNanos.sum() / 1_000_000.0;
+            Map<String, Object> row = new HashMap<>();
+            row.put("datasource", key.datasource());
+            row.put("endpoint", key.endpoint());
+            row.put("fingerprint", key.fingerprint());
+            row.put("count", n);
+            row.put("errors", errors.sum());
+            row.put("totalMs", Math.round(totalMs * 10) / 10.0);
+            row.put("avgMs", n > 0 ? Math.round(totalMs / n * 100) / 100.0 : 0.0);
+            row.put("maxMs", Math.round(maxNanos.get() / 100_000.0) / 10.0);
+            return row;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.leaflet_geo.service;
+
+import com.example.leaflet_geo.repository.DatObjekPajakRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.NumberFormat;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Klasifikasi peta tematik bidang per kelurahan (NJOP, status pembayaran,
+ * penggunaan tanah, ZNT)
+ *
+ * Nilai atribut dibaca dari mirror SISMIOP (atau Oracle jika mirror belum
+ * siap) sebagai map NOP -> kelas, lalu bidang aktif kelurahan di-scan sekali
+ * dan setiap bidang diberi id kelas; bidang tanpa data SISMIOP masuk kelas 0
+ * (tidak terklasifikasi). Response hanya berisi legenda + array id bidang dan
+ * id kelas yang sejajar, geometri diambil client dari endpoint geometri /
+ * FlatGeobuf bidang.
+ */
+@Service
+public class TematikService {
+
+    private static final Logger log = LoggerFactory.getLogger(TematikService.class);
+
+    public static final String NJOP = "njop";
+    public static final String PEMBAYARAN = "pembayaran";
+    public static final String PENGGUNAAN = "penggunaan";
+    public static final String ZNT = "znt";
+
+    private static final Kelas UNCLASSIFIED = new Kelas("Tidak Terklasifikasi", "RGB(128,128,128)");
+
+    /**
+     * Gradasi warna kelas berurutan (NJOP rendah -> tinggi)
+     */
+    private static final String[] RAMP = {
+            "RGB(255,255,178)", "RGB(254,217,118)", "RGB(254,178,76)", "RGB(253,141,60)",
+            "RGB(240,59,32)", "RGB(189,0,38)", "RGB(128,0,38)" };
+
+    /**
+     * Warna kelas kategori (ZNT), dipakai berulang jika kode lebih banyak
+     */
+    private static final String[] PALETTE = {
+            "RGB(31,119,180)", "RGB(255,127,14)", "RGB(44,160,44)", "RGB(214,39,40)", "RGB(148,103,189)",
+            "RGB(140,86,75)", "RGB(227,119,194)", "RGB(188,189,34)", "RGB(23,190,207)", "RGB(174,199,232)",
+            "RGB(255,187,120)", "RGB(152,223,138)" };
+
+    /**
+     * JNS_BUMI SISMIOP
+     */
+    private static final Map<String, Kelas> PENGGUNAAN_KELAS = new LinkedHashMap<>();
+
+    static {
+        PENGGUNAAN_KELAS.put("1", new Kelas("Tanah dan Bangunan", "RGB(214,39,40)"));
+        PENGGUNAAN_KELAS.put("2", new Kelas("Kavling Siap Bangun", "RGB(255,187,120)"));
+        PENGGUNAAN_KELAS.put("3", new Kelas("Tanah Kosong", "RGB(44,160,44)"));
+        PENGGUNAAN_KELAS.put("4", new Kelas("Fasilitas Umum", "RGB(31,119,180)"));
+    }
+
+    /**
+     * Label + warna legenda (format warna sama dengan tematik BPRD)
+     */
+    public record Kelas(String label, String color) {
+    }
+
+    private final DatObjekPajakRepository datObjekPajakRepository;
+    private final JdbcTemplate postgresJdbcTemplate;
+    private final long[] defaultNjopBreaks;
+
+    public TematikService(DatObjekPajakRepository datObjekPajakRepository,
+            @Qualifier("postgresJdbcTemplate") JdbcTemplate postgresJdbcTemplate,
+            @Value("${tematik.njop.breaks:100000,250000,500000,1000000,2500000}") String njopBreaks) {
+        this.datObjekPajakRepository = datObjekPajakRepository;
+        this.postgresJdbcTemplate = postgresJdbcTemplate;
+        this.defaultNjopBreaks = parseBreaks(njopBreaks);
+    }
+
+    /**
+     * Klasifikasi bidang aktif satu kelurahan
+     *
+     * @param jenis  njop | pembayaran | penggunaan | znt
+     * @param tahun  tahun pajak SPPT untuk jenis pembayaran (null = tahun berjalan)
+     * @param breaks batas kelas NJOP bumi per m2, dipisah koma (null = default konfigurasi)
+     * @return jenis, classes [{id, label, color, count}], ids (id bidang) dan classIds sejajar
+     */
+    public Map<String, Object> classify(String kdProp, String kdDati2, String kdKec, String kdKel,
+            String jenis, String tahun, String breaks) {
+        long start = System.currentTimeMillis();
+        String type = jenis != null ? jenis.trim().toLowerCase(Locale.ROOT) : "";
+        List<Kelas> classes = new ArrayList<>();
+        classes.add(UNCLASSIFIED);
+        Map<String, Integer> nopClass = new HashMap<>();
+        String year = null;
+
+        switch (type) {
+            case NJOP -> {
+                long[] bounds = breaks != null && !breaks.isBlank() ? parseBreaks(breaks) : defaultNjopBreaks;
+                classes.addAll(njopClasses(bounds));
+                datObjekPajakRepository.forEachTematikAttributes(kdKec, kdKel, rs -> {
+                    BigDecimal luas = rs.getBigDecimal("TOTAL_LUAS_BUMI");
+                    BigDecimal njop = rs.getBigDecimal("NJOP_BUMI");
+                    if (luas == null || njop == null || luas.signum() <= 0) {
+                        return;
+                    }
+                    long perMeter = njop.divide(luas, 0, RoundingMode.HALF_UP).longValue();
+                    nopClass.put(nop(rs), 1 + bucket(bounds, perMeter));
+                });
+            }
+            case PEMBAYARAN -> {
+                year = tahun != null && !tahun.isBlank() ? tahun.trim() : String.valueOf(Year.now().getValue());
+                if (!year.matches("\\d{4}")) {
+                    throw new IllegalArgumentException("Tahun tidak valid: " + tahun);
+                }
+                classes.add(new Kelas("Lunas", "RGB(44,160,44)"));
+                classes.add(new Kelas("Belum Lunas", "RGB(214,39,40)"));
+                datObjekPajakRepository.forEachStatusPembayaran(kdKec, kdKel, year, rs -> {
+                    String status = trim(rs.getString("STATUS_PEMBAYARAN_SPPT"));
+                    if ("1".equals(status)) {
+                        nopClass.put(nop(rs), 1);
+                    } else if ("0".equals(status)) {
+                        nopClass.put(nop(rs), 2);
+                    }
+                });
+            }
+            case PENGGUNAAN -> {
+                List<String> codes = new ArrayList<>(PENGGUNAAN_KELAS.keySet());
+                classes.addAll(PENGGUNAAN_KELAS.values());
+                datObjekPajakRepository.forEachTematikAttributes(kdKec, kdKel, rs -> {
+                    int index = codes.indexOf(trim(rs.getString("JNS_BUMI")));
+                    if (index >= 0) {
+                        nopClass.put(nop(rs), 1 + index);
+                    }
+                });
+            }
+            case ZNT -> {
+                // kelas = kode ZNT yang ada di kelurahan, urut kode
+                Map<String, String> nopZnt = new HashMap<>();
+                datObjekPajakRepository.forEachTematikAttributes(kdKec, kdKel, rs -> {
+                    String znt = trim(rs.getString("KD_ZNT"));
+                    if (znt != null && !znt.isEmpty()) {
+                        nopZnt.put(nop(rs), znt);
+                    }
+                });
+                Map<String, Integer> zntClass = new HashMap<>();
+                for (String znt : new TreeSet<>(nopZnt.values())) {
+                    zntClass.put(znt, classes.size());
+                    classes.add(new Kelas("ZNT " + znt, PALETTE[(classes.size() - 1) % PALETTE.length]));
+                }
+                nopZnt.forEach((nop, znt) -> nopClass.put(nop, zntClass.get(znt)));
+            }
+            default -> throw new IllegalArgumentException(
+                    "Jenis tematik tidak dikenal: " + jenis + " (njop, pembayaran, penggunaan, znt)");
+        }
+
+        // satu scan bidang aktif: id kelas per bidang + jumlah per kelas (termasuk tidak terklasifikasi)
+        List<String> ids = new ArrayList<>();
+        int[][] classIds = { new int[1024] };
+        long[] counts = new long[classes.size()];
+        postgresJdbcTemplate.query(
+                "SELECT id, TRIM(nop) AS nop FROM sig.bidang " +
+                        "WHERE kd_prop = ? AND kd_dati2 = ? AND kd_kec = ? AND kd_kel = ? " +
+                        "AND is_active = true AND geom IS NOT NULL ORDER BY kd_blok, no_urut, kd_jns_op",
+                rs -> {
+                    String nop = rs.getString("nop");
+                    int classId = nop != null ? nopClass.getOrDefault(nop, 0) : 0;
+                    if (ids.size() == classIds[0].length) {
+                        classIds[0] = Arrays.copyOf(classIds[0], ids.size() * 2);
+                    }
+                    classIds[0][ids.size()] = classId;
+                    ids.add(rs.getString("id"));
+                    counts[classId]++;
+                },
+                kdProp, kdDati2, kdKec, kdKel);
+
+        List<Map<String, Object>> legend = new ArrayList<>(classes.size());
+        for (int i = 0; i < classes.size(); i++) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("id", i);
+            entry.put("label", classes.get(i).label());
+            entry.put("color", classes.get(i).color());
+            entry.put("count", counts[i]);
+            legend.add(entry);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("jenis", type);
+        if (year != null) {
+            response.put("tahun", year);
+        }
+        response.put("classes", legend);
+        response.put("ids", ids);
+        response.put("classIds", Arrays.copyOf(classIds[0], ids.size()));
+        response.put("total", ids.size());
+        log.debug("Tematik {} kec={} kel={}: {} bidang, {} NOP classified in {} ms", type, kdKec, kdKel,
+                ids.size(), nopClass.size(), System.currentTimeMillis() - start);
+        return response;
+    }
+
+    private static List<Kelas> njopClasses(long[] bounds) {
+        NumberFormat format = NumberFormat.getIntegerInstance(Locale.forLanguageTag("id-ID"));
+        List<Kelas> classes = new ArrayList<>(bounds.length + 1);
+        for (int i = 0; i <= bounds.length; i++) {
+            String label;
+            if (i == 0) {
+                label = "< " + format.format(bounds[0]);
+            } else if (i == bounds.length) {
+                label = ">= " + format.format(bounds[i - 1]);
+            } else {
+                label = format.format(bounds[i - 1]) + " - " + format.format(bounds[i]);
+            }
+            int color = bounds.length == 0 ? 0 : i * (RAMP.length - 1) / bounds.length;
+            classes.add(new Kelas(label + " /m2", RAMP[color]));
+        }
+        return classes;
+    }
+
+    /**
+     * Indeks kelas: jumlah batas yang <= nilai
+     */
+    private static int bucket(long[] bounds, long value) {
+        int index = Arrays.binarySearch(bounds, value);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    /**
+     * Batas kelas naik, mis. "100000,250000,500000"; maksimum 20 batas
+     */
+    private static long[] parseBreaks(String breaks) {
+        String[] parts = breaks.split(",");
+        if (parts.length == 0 || parts.length > 20) {
+            throw new IllegalArgumentException("Jumlah batas kelas harus 1-20");
+        }
+        long[] bounds = new long[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            try {
+                bounds[i] = Long.parseLong(parts[i].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Batas kelas tidak valid: " + parts[i]);
+            }
+            if (i > 0 && bounds[i] <= bounds[i - 1]) {
+                throw new IllegalArgumentException("Batas kelas harus naik: " + breaks);
+            }
+        }
+        return bounds;
+    }
+
+    /**
+     * NOP format sig.bidang: XX.XX.XXX.XXX.XXX.XXXX.X
+     */
+    private static String nop(ResultSet rs) throws SQLException {
+        return String.join(".", trim(rs.getString("KD_PROPINSI")), trim(rs.getString("KD_DATI2")),
+                trim(rs.getString("KD_KECAMATAN")), trim(rs.getString("KD_KELURAHAN")),
+                trim(rs.getString("KD_BLOK")), trim(rs.getString("NO_URUT")), trim(rs.getString("KD_JNS_OP")));
+    }
+
+    private static String trim(String value) {
+        return value != null ? value.trim() : null;
+    }
+}
@@ -0,0 +1,585 @@
+package com.example.leaflet_geo.util;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Polygon;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Penulis FlatGeobuf (https://flatgeobuf.org) untuk layer polygon EPSG:4326
+ *
+ * Semua geometri ditulis sebagai MultiPolygon 2D, dengan packed Hilbert
+ * R-tree (node size 16) sehingga client bisa membaca header + index lalu
+ * range-request hanya feature di dalam bbox.
+ *
+ * Index membutuhkan semua bbox dan ukuran feature sebelum feature pertama
+ * ditulis, jadi feature di-encode ke file sementara saat baris datang dari
+ * cursor (di memori hanya bbox + offset per feature), lalu {@link #writeTo}
+ * menulis header, index, dan menyalin feature dalam urutan Hilbert.
+ */
+public class FlatGeobufWriter implements Closeable {
+
+    private static final byte[] MAGIC = { 'f', 'g', 'b', 3, 'f', 'g', 'b', 0 };
+
+    private static final int NODE_SIZE = 16;
+    private static final int NODE_ITEM_BYTES = 40;
+    private static final int HILBERT_MAX = (1 << 16) - 1;
+
+    private static final byte GEOMETRY_POLYGON = 3;
+    private static final byte GEOMETRY_MULTIPOLYGON = 6;
+
+    /**
+     * Tipe kolom FlatGeobuf (enum ColumnType)
+     */
+    public enum ColumnType {
+        LONG(7), DOUBLE(10), STRING(11);
+
+        final byte code;
+
+        ColumnType(int code) {
+            this.code = (byte) code;
+        }
+    }
+
+    public record Column(String name, ColumnType type) {
+    }
+
+    private record FeatureRef(double minX, double minY, double maxX, double maxY, long position, int length) {
+    }
+
+    private final String name;
+    private final List<Column> columns;
+    private final Path body;
+    private final OutputStream bodyOut;
+    private final List<FeatureRef> features = new ArrayList<>();
+    private final Envelope extent = new Envelope();
+    private long bodyLength;
+
+    public FlatGeobufWriter(String name, List<Column> columns) throws IOException {
+        this.name = name;
+        this.columns = List.copyOf(columns);
+        this.body = Files.createTempFile("export-", ".fgb");
+        this.bodyOut = new BufferedOutputStream(Files.newOutputStream(body), 1 << 16);
+    }
+
+    public int count() {
+        return features.size();
+    }
+
+    /**
+     * Tulis satu feature; geometry harus Polygon atau MultiPolygon, values sejajar dengan columns
+     */
+    public void write(Geometry geometry, Object[] values) throws IOException {
+        byte[] feature = encodeFeature(geometry, values);
+        Envelope envelope = geometry.getEnvelopeInternal();
+        extent.expandToInclude(envelope);
+        features.add(new FeatureRef(envelope.getMinX(), envelope.getMinY(), envelope.getMaxX(), envelope.getMaxY(),
+                bodyLength, feature.length));
+        bodyOut.write(feature);
+        bodyLength += feature.length;
+    }
+
+    /**
+     * Tulis file .fgb lengkap (magic, header, index, feature) ke out
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        bodyOut.close();
+
+        List<FeatureRef> sorted = new ArrayList<>(features);
+        if (!extent.isNull()) {
+            double width = extent.getWidth();
+            double height = extent.getHeight();
+            sorted.sort(Comparator.comparing(f -> hilbert(f, width, height), Integer::compareUnsigned));
+        }
+
+        out.write(MAGIC);
+        out.write(encodeHeader(sorted.size()));
+        if (!sorted.isEmpty()) {
+            writeIndex(out, sorted);
+        }
+        try (FileChannel channel = FileChannel.open(body, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+            for (FeatureRef feature : sorted) {
+                if (feature.length() > buffer.capacity()) {
+                    buffer = ByteBuffer.allocate(feature.length());
+                }
+                buffer.clear().limit(feature.length());
+                long position = feature.position();
+                while (buffer.hasRemaining()) {
+                    int read = channel.read(buffer, position);
+                    if (read < 0) {
+                        throw new IOException("Unexpected end of temporary feature file");
+                    }
+                    position += read;
+                }
+                out.write(buffer.array(), 0, feature.length());
+            }
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        bodyOut.close();
+        Files.deleteIfExists(body);
+    }
+
+    // ===================== Packed Hilbert R-tree =====================
+
+    private int hilbert(FeatureRef feature, double width, double height) {
+        int x = width != 0 ? (int) Math.floor(HILBERT_MAX * ((feature.minX() + feature.maxX()) / 2 - extent.getMinX()) / width) : 0;
+        int y = height != 0 ? (int) Math.floor(HILBERT_MAX * ((feature.minY() + feature.maxY()) / 2 - extent.getMinY()) / height) : 0;
+        return hilbert(x, y);
+    }
+
+    /**
+     * Nilai Hilbert 32-bit dari koordinat grid 16-bit (algoritma flatbush/FlatGeobuf)
+     */
+    static int hilbert(int x, int y) {
+        int a = x ^ y;
+        int b = 0xFFFF ^ a;
+        int c = 0xFFFF ^ (x | y);
+        int d = x & (y ^ 0xFFFF);
+
+        int A = a | (b >>> 1);
+        int B = (a >>> 1) ^ a;
+        int C = ((c >>> 1) ^ (b & (d >>> 1))) ^ c;
+        int D = ((a & (c >>> 1)) ^ (d >>> 1)) ^ d;
+
+        a = A; b = B; c = C; d = D;
+        A = (a & (a >>> 2)) ^ (b & (b >>> 2));
+        B = (a & (b >>> 2)) ^ (b & ((a ^ b) >>> 2));
+        C ^= (a & (c >>> 2)) ^ (b & (d >>> 2));
+        D ^= (b & (c >>> 2)) ^ ((a ^ b) & (d >>> 2));
+
+        a = A; b = B; c = C; d = D;
+        A = (a & (a >>> 4)) ^ (b & (b >>> 4));
+        B = (a & (b >>> 4)) ^ (b & ((a ^ b) >>> 4));
+        C ^= (a & (c >>> 4)) ^ (b & (d >>> 4));
+        D ^= (b & (c >>> 4)) ^ ((a ^ b) & (d >>> 4));
+
+        a = A; b = B; c = C; d = D;
+        C ^= (a & (c >>> 8)) ^ (b & (d >>> 8));
+        D ^= (b & (c >>> 8)) ^ ((a ^ b) & (d >>> 8));
+
+        a = C ^ (C >>> 1);
+        b = D ^ (D >>> 1);
+
+        int i0 = x ^ y;
+        int i1 = b | (0xFFFF ^ (i0 | a));
+
+        i0 = (i0 | (i0 << 8)) & 0x00FF00FF;
+        i0 = (i0 | (i0 << 4)) & 0x0F0F0F0F;
+        i0 = (i0 | (i0 << 2)) & 0x33333333;
+        i0 = (i0 | (i0 << 1)) & 0x55555555;
+
+        i1 = (i1 | (i1 << 8)) & 0x00FF00FF;
+        i1 = (i1 | (i1 << 4)) & 0x0F0F0F0F;
+        i1 = (i1 | (i1 << 2)) & 0x33333333;
+        i1 = (i1 | (i1 << 1)) & 0x55555555;
+
+        return (i1 << 1) | i0;
+    }
+
+    /**
+     * Node disimpan top-down (root di awal, leaf di akhir). Leaf: bbox feature +
+     * byte offset feature di bagian data; node internal: bbox gabungan + indeks
+     * node anak pertama.
+     */
+    private static void writeIndex(OutputStream out, List<FeatureRef> sorted) throws IOException {
+        int numItems = sorted.size();
+        List<Integer> levelNumNodes = new ArrayList<>();
+        int n = numItems;
+        int numNodes = n;
+        levelNumNodes.add(n);
+        do {
+            n = (n + NODE_SIZE - 1) / NODE_SIZE;
+            numNodes += n;
+            levelNumNodes.add(n);
+        } while (n != 1);
+
+        int[] levelStart = new int[levelNumNodes.size()];
+        int remaining = numNodes;
+        for (int level = 0; level < levelNumNodes.size(); level++) {
+            remaining -= levelNumNodes.get(level);
+            levelStart[level] = remaining;
+        }
+
+        double[] minX = new double[numNodes];
+        double[] minY = new double[numNodes];
+        double[] maxX = new double[numNodes];
+        double[] maxY = new double[numNodes];
+        long[] offsets = new long[numNodes];
+
+        long featureOffset = 0;
+        for (int i = 0; i < numItems; i++) {
+            FeatureRef feature = sorted.get(i);
+            int node = levelStart[0] + i;
+            minX[node] = feature.minX();
+            minY[node] = feature.minY();
+            maxX[node] = feature.maxX();
+            maxY[node] = feature.maxY();
+            offsets[node] = featureOffset;
+            featureOffset += feature.length();
+        }
+
+        for (int level = 0; level < levelNumNodes.size() - 1; level++) {
+            int pos = levelStart[level];
+            int end = pos + levelNumNodes.get(level);
+            int parent = levelStart[level + 1];
+            while (pos < end) {
+                minX[parent] = Double.POSITIVE_INFINITY;
+                minY[parent] = Double.POSITIVE_INFINITY;
+                maxX[parent] = Double.NEGATIVE_INFINITY;
+                maxY[parent] = Double.NEGATIVE_INFINITY;
+                offsets[parent] = pos;
+                for (int j = 0; j < NODE_SIZE && pos < end; j++, pos++) {
+                    minX[parent] = Math.min(minX[parent], minX[pos]);
+                    minY[parent] = Math.min(minY[parent], minY[pos]);
+                    maxX[parent] = Math.max(maxX[parent], maxX[pos]);
+                    maxY[parent] = Math.max(maxY[parent], maxY[pos]);
+                }
+                parent++;
+            }
+        }
+
+        ByteBuffer item = ByteBuffer.allocate(NODE_ITEM_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        BufferedOutputStream buffered = new BufferedOutputStream(out, 1 << 16);
+        for (int node = 0; node < numNodes; node++) {
+            item.clear();
+            item.putDouble(minX[node]).putDouble(minY[node]).putDouble(maxX[node]).putDouble(maxY[node])
+                    .putLong(offsets[node]);
+            buffered.write(item.array());
+        }
+        buffered.flush();
+    }
+
+    // ===================== FlatBuffers encoding =====================
+
+    private byte[] encodeHeader(int featureCount) {
+        Builder builder = new Builder(1024);
+
+        int[] columnOffsets = new int[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            Column column = columns.get(i);
+            int columnName = builder.createString(column.name());
+            builder.startTable(2);
+            builder.addOffset(0, columnName);
+            builder.addByte(1, column.type().code);
+            columnOffsets[i] = builder.endTable();
+        }
+        int columnsVector = builder.createOffsetVector(columnOffsets);
+
+        int crsOrg = builder.createString("EPSG");
+        builder.startTable(2);
+        builder.addOffset(0, crsOrg);
+        builder.addInt(1, 4326);
+        int crs = builder.endTable();
+
+        int envelope = extent.isNull() ? 0 : builder.createDoubleVector(new double[] {
+                extent.getMinX(), extent.getMinY(), extent.getMaxX(), extent.getMaxY() });
+        int headerName = builder.createString(name);
+
+        builder.startTable(11);
+        builder.addOffset(0, headerName);
+        if (envelope != 0) {
+            builder.addOffset(1, envelope);
+        }
+        builder.addByte(2, GEOMETRY_MULTIPOLYGON);
+        builder.addOffset(7, columnsVector);
+        builder.addLong(8, featureCount);
+        // node size 0 = tanpa index (wajib jika tidak ada feature); 16 = default skema
+        builder.addShort(9, (short) (featureCount > 0 ? NODE_SIZE : 0));
+        builder.addOffset(10, crs);
+        return builder.finishSizePrefixed(builder.endTable());
+    }
+
+    private byte[] encodeFeature(Geometry geometry, Object[] values) {
+        Builder builder = new Builder(1024);
+
+        int[] parts = new int[geometry.getNumGeometries()];
+        for (int p = 0; p < parts.length; p++) {
+            Geometry part = geometry.getGeometryN(p);
+            if (!(part instanceof Polygon polygon)) {
+                throw new IllegalArgumentException("Bukan polygon: " + part.getGeometryType());
+            }
+            parts[p] = encodePolygon(builder, polygon);
+        }
+        int partsVector = builder.createOffsetVector(parts);
+        builder.startTable(8);
+        builder.addOffset(7, partsVector);
+        builder.addByte(6, GEOMETRY_MULTIPOLYGON);
+        int geometryTable = builder.endTable();
+
+        int properties = builder.createByteVector(encodeProperties(values));
+
+        builder.startTable(2);
+        builder.addOffset(0, geometryTable);
+        builder.addOffset(1, properties);
+        return builder.finishSizePrefixed(builder.endTable());
+    }
+
+    private static int encodePolygon(Builder builder, Polygon polygon) {
+        List<LineString> rings = new ArrayList<>(polygon.getNumInteriorRing() + 1);
+        rings.add(polygon.getExteriorRing());
+        for (int h = 0; h < polygon.getNumInteriorRing(); h++) {
+            rings.add(polygon.getInteriorRingN(h));
+        }
+        int numPoints = 0;
+        int[] ends = new int[rings.size()];
+        for (int r = 0; r < rings.size(); r++) {
+            numPoints += rings.get(r).getNumPoints();
+            ends[r] = numPoints;
+        }
+        double[] xy = new double[numPoints * 2];
+        int i = 0;
+        for (LineString ring : rings) {
+            for (Coordinate coordinate : ring.getCoordinates()) {
+                xy[i++] = coordinate.getX();
+                xy[i++] = coordinate.getY();
+            }
+        }
+
+        int xyVector = builder.createDoubleVector(xy);
+        int endsVector = rings.size() > 1 ? builder.createIntVector(ends) : 0;
+        builder.startTable(7);
+        if (endsVector != 0) {
+            builder.addOffset(0, endsVector);
+        }
+        builder.addOffset(1, xyVector);
+        builder.addByte(6, GEOMETRY_POLYGON);
+        return builder.endTable();
+    }
+
+    /**
+     * Properti: berurutan (uint16 indeks kolom, nilai LE); string = uint32 panjang + UTF-8; null dilewati
+     */
+    private byte[] encodeProperties(Object[] values) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        ByteBuffer scalar = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        for (int c = 0; c < columns.size() && c < values.length; c++) {
+            Object value = values[c];
+            if (value == null) {
+                continue;
+            }
+            scalar.clear();
+            scalar.putShort((short) c);
+            out.write(scalar.array(), 0, 2);
+            scalar.clear();
+            switch (columns.get(c).type()) {
+                case STRING -> {
+                    byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+                    scalar.putInt(bytes.length);
+                    out.write(scalar.array(), 0, 4);
+                    out.write(bytes, 0, bytes.length);
+                }
+                case DOUBLE -> {
+                    scalar.putDouble(value instanceof Number number ? number.doubleValue()
+                            : new BigDecimal(value.toString().trim()).doubleValue());
+                    out.write(scalar.array(), 0, 8);
+                }
+                case LONG -> {
+                    scalar.putLong(value instanceof Number number ? number.longValue()
+                            : new BigDecimal(value.toString().trim()).longValue());
+                    out.write(scalar.array(), 0, 8);
+                }
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * FlatBuffers builder minimal (ditulis dari belakang ke depan seperti builder resmi),
+     * cukup untuk tabel Header/Column/Crs/Feature/Geometry FlatGeobuf
+     */
+    private static final class Builder {
+
+        private byte[] buffer;
+        private int space;
+        private int minAlign = 1;
+        private int[] vtable;
+        private int objectStart;
+
+        Builder(int initialSize) {
+            buffer = new byte[initialSize];
+            space = initialSize;
+        }
+
+        int offset() {
+            return buffer.length - space;
+        }
+
+        private void prep(int size, int additional) {
+            if (size > minAlign) {
+                minAlign = size;
+            }
+            int alignSize = (~(buffer.length - space + additional) + 1) & (size - 1);
+            while (space < alignSize + size + additional) {
+                int oldLength = buffer.length;
+                byte[] grown = new byte[oldLength * 2];
+                System.arraycopy(buffer, 0, grown, oldLength, oldLength);
+                buffer = grown;
+                space += oldLength;
+            }
+            space -= alignSize;
+        }
+
+        private void putByte(byte value) {
+            buffer[--space] = value;
+        }
+
+        private void putShort(short value) {
+            space -= 2;
+            ByteBuffer.wrap(buffer, space, 2).order(ByteOrder.LITTLE_ENDIAN).putShort(value);
+        }
+
+        private void putInt(int value) {
+            space -= 4;
+            ByteBuffer.wrap(buffer, space, 4).order(ByteOrder.LITTLE_ENDIAN).putInt(value);
+        }
+
+        private void putLong(long value) {
+            space -= 8;
+            ByteBuffer.wrap(buffer, space, 8).order(ByteOrder.LITTLE_ENDIAN).putLong(value);
+        }
+
+        private void putDouble(double value) {
+            space -= 8;
+            ByteBuffer.wrap(buffer, space, 8).order(ByteOrder.LITTLE_ENDIAN).putDouble(value);
+        }
+
+        private void writeOffset(int target) {
+            prep(4, 0);
+            putInt(offset() - target + 4);
+        }
+
+        int createString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            prep(4, bytes.length + 1);
+            putByte((byte) 0);
+            space -= bytes.length;
+            System.arraycopy(bytes, 0, buffer, space, bytes.length);
+            putInt(bytes.length);
+            return offset();
+        }
+
+        int createByteVector(byte[] values) {
+            prep(4, values.length);
+            space -= values.length;
+            System.arraycopy(values, 0, buffer, space, values.length);
+            putInt(values.length);
+            return offset();
+        }
+
+        int createIntVector(int[] values) {
+            prep(4, 4 * values.length);
+            for (int i = values.length - 1; i >= 0; i--) {
+                putInt(values[i]);
+            }
+            putInt(values.length);
+            return offset();
+        }
+
+        int createDoubleVector(double[] values) {
+            prep(4, 8 * values.length);
+            prep(8, 8 * values.length);
+            for (int i = values.length - 1; i >= 0; i--) {
+                putDouble(values[i]);
+            }
+            putInt(values.length);
+            return offset();
+        }
+
+        int createOffsetVector(int[] offsets) {
+            prep(4, 4 * offsets.length);
+            for (int i = offsets.length - 1; i >= 0; i--) {
+                writeOffset(offsets[i]);
+            }
+            putInt(offsets.length);
+            return offset();
+        }
+
+        void startTable(int numFields) {
+            vtable = new int[numFields];
+            objectStart = offset();
+        }
+
+        void addByte(int field, byte value) {
+            prep(1, 0);
+            putByte(value);
+            vtable[field] = offset();
+        }
+
+        void addShort(int field, short value) {
+            prep(2, 0);
+            putShort(value);
+            vtable[field] = offset();
+        }
+
+        void addInt(int field, int value) {
+            prep(4, 0);
+            putInt(value);
+            vtable[field] = offset();
+        }
+
+        void addLong(int field, long value) {
+            prep(8, 0);
+            putLong(value);
+            vtable[field] = offset();
+        }
+
+        void addOffset(int field, int target) {
+            writeOffset(target);
+            vtable[field] = offset();
+        }
+
+        int endTable() {
+            prep(4, 0);
+            putInt(0);
+            int tableOffset = offset();
+            int numFields = vtable.length;
+            while (numFields > 0 && vtable[numFields - 1] == 0) {
+                numFields--;
+            }
+            for (int i = numFields - 1; i >= 0; i--) {
+                prep(2, 0);
+                putShort((short) (vtable[i] != 0 ? tableOffset - vtable[i] : 0));
+            }
+            prep(2, 0);
+            putShort((short) (tableOffset - objectStart));
+            putShort((short) ((numFields + 2) * 2));
+            int vtableOffset = offset();
+            ByteBuffer.wrap(buffer, buffer.length - tableOffset, 4).order(ByteOrder.LITTLE_ENDIAN)
+                    .putInt(vtableOffset - tableOffset);
+            vtable = null;
+            return tableOffset;
+        }
+
+        byte[] finishSizePrefixed(int root) {
+            prep(minAlign, 8);
+            writeOffset(root);
+            prep(4, 0);
+            putInt(offset());
+            return Arrays.copyOfRange(buffer, space, buffer.length);
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package com.example.leaflet_geo.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.locationtech.jts.algorithm.Orientation;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.io.WKBReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Pembaca file geometri untuk import bidang
+ *
+ * Format yang didukung:
+ * - GeoJSON FeatureCollection/Feature (.geojson, .json), NOP dari properti nopField
+ * - CSV "nop,wkb_hex" (.csv, .txt, .wkb), WKB atau EWKB hex (SRID 4326), baris header dilewati
+ * - Shapefile dalam zip (.zip berisi .shp + .dbf), NOP dari kolom DBF nopField
+ *
+ * Setiap baris/feature menghasilkan {@link Feature}; feature yang gagal dibaca
+ * tidak melempar exception tetapi membawa pesan error agar semua kesalahan
+ * dilaporkan sekaligus.
+ */
+public class GeometryImportReader {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final GeometryFactory geometryFactory = new GeometryFactory();
+
+    private GeometryImportReader() {
+    }
+
+    /**
+     * Hasil baca satu feature
+     *
+     * @param line     nomor baris (CSV) atau urutan feature/record (GeoJSON, Shapefile), mulai 1
+     * @param nop      nilai NOP apa adanya dari file
+     * @param geometry geometri, null jika error
+     * @param error    pesan error, null jika berhasil
+     */
+    public record Feature(int line, String nop, Geometry geometry, String error) {
+    }
+
+    /**
+     * Baca file berdasarkan ekstensi nama file
+     */
+    public static List<Feature> read(String filename, InputStream in, String nopField) throws IOException {
+        String name = filename != null ? filename.toLowerCase(Locale.ROOT) : "";
+        if (name.endsWith(".geojson") || name.endsWith(".json")) {
+            return readGeoJson(in, nopField);
+        }
+        if (name.endsWith(".zip")) {
+            return readShapefileZip(in, nopField);
+        }
+        if (name.endsWith(".csv") || name.endsWith(".txt") || name.endsWith(".wkb")) {
+            return readWkbCsv(in);
+        }
+        throw new IllegalArgumentException("Format file tidak didukung: " + filename
+                + " (gunakan .geojson, .json, .csv, .txt, .wkb atau .zip shapefile)");
+    }
+
+    // ===================== GeoJSON =====================
+
+    public static List<Feature> readGeoJson(InputStream in, String nopField) throws IOException {
+        JsonNode root = objectMapper.readTree(in);
+        List<JsonNode> features = new ArrayList<>();
+        String type = root.path("type").asText();
+        if ("FeatureCollection".equals(type)) {
+            root.path("features").forEach(features::add);
+        } else if ("Feature".equals(type)) {
+            features.add(root);
+        } else {
+            throw new IllegalArgumentException("GeoJSON harus berupa FeatureCollection atau Feature");
+        }
+
+        List<Feature> result = new ArrayList<>(features.size());
+        for (int i = 0; i < features.size(); i++) {
+            JsonNode feature = features.get(i);
+            JsonNode nopNode = feature.path("properties").path(nopField);
+            String nop = nopNode.isMissingNode() || nopNode.isNull() ? null : nopNode.asText();
+            try {
+                result.add(new Feature(i + 1, nop, geoJsonGeometry(feature.path("geometry")), null));
+            } catch (RuntimeException e) {
+                result.add(new Feature(i + 1, nop, null, e.getMessage()));
+            }
+        }
+        return result;
+    }
+
+    private static Geometry geoJsonGeometry(JsonNode geometry) {
+        if (geometry.isMissingNode() || geometry.isNull()) {
+            throw new IllegalArgumentException("Geometri kosong");
+        }
+        JsonNode coordinates = geometry.path("coordinates");
+        String type = geometry.path("type").asText();
+        Geometry result = switch (type) {
+            case "Polygon" -> geoJsonPolygon(coordinates);
+            case "MultiPolygon" -> {
+                Polygon[] polygons = new Polygon[coordinates.size()];
+                for (int i = 0; i < polygons.length; i++) {
+                    polygons[i] = geoJsonPolygon(coordinates.get(i));
+                }
+                yield geometryFactory.createMultiPolygon(polygons);
+            }
+            default -> throw new IllegalArgumentException("Tipe geometri tidak didukung: " + type);
+        };
+        result.setSRID(4326);
+        return result;
+    }
+
+    private static Polygon geoJsonPolygon(JsonNode rings) {
+        if (!rings.isArray() || rings.isEmpty()) {
+            throw new IllegalArgumentException("Polygon tanpa ring");
+        }
+        LinearRing shell = geoJsonRing(rings.get(0));
+        LinearRing[] holes = new LinearRing[rings.size() - 1];
+        for (int i = 1; i < rings.size(); i++) {
+            holes[i - 1] = geoJsonRing(rings.get(i));
+        }
+        return geometryFactory.createPolygon(shell, holes);
+    }
+
+    private static LinearRing geoJsonRing(JsonNode positions) {
+        Coordinate[] coordinates = new Coordinate[positions.size()];
+        for (int i = 0; i < coordinates.length; i++) {
+            JsonNode position = positions.get(i);
+            if (position.size() < 2) {
+                throw new IllegalArgumentException("Koordinat tidak valid");
+            }
+            coordinates[i] = position.size() > 2
+                    ? new Coordinate(position.get(0).asDouble(), position.get(1).asDouble(), position.get(2).asDouble())
+                    : new Coordinate(position.get(0).asDouble(), position.get(1).asDouble());
+        }
+        return geometryFactory.createLinearRing(coordinates);
+    }
+
+    // ===================== CSV nop,wkb =====================
+
+    public static List<Feature> readWkbCsv(InputStream in) throws IOException {
+        List<Feature> result = new ArrayList<>();
+        WKBReader wkbReader = new WKBReader(geometryFactory);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        int lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank()) {
+                continue;
+            }
+            String[] parts = line.split("[,;\t]", 2);
+            String nop = parts[0].trim();
+            String hex = parts.length > 1 ? parts[1].trim() : "";
+            if (!hex.matches("[0-9A-Fa-f]+")) {
+                if (lineNo == 1) {
+                    // header
+                    continue;
+                }
+                result.add(new Feature(lineNo, nop, null, "WKB hex tidak valid"));
+                continue;
+            }
+            try {
+                Geometry geometry = wkbReader.read(WKBReader.hexToBytes(hex));
+                // EWKB membawa SRID sendiri; WKB biasa (SRID 0) dianggap 4326 saat import
+                if (geometry.getSRID() != 0 && geometry.getSRID() != 4326) {
+                    result.add(new Feature(lineNo, nop, null, "SRID harus 4326, bukan " + geometry.getSRID()));
+                    continue;
+                }
+                result.add(new Feature(lineNo, nop, geometry, null));
+            } catch (Exception e) {
+                result.add(new Feature(lineNo, nop, null, "WKB tidak valid: " + e.getMessage()));
+            }
+        }
+        return result;
+    }
+
+    // ===================== Shapefile (zip) =====================
+
+    public static List<Feature> readShapefileZip(InputStream in, String nopField) throws IOException {
+        Map<String, byte[]> files = new HashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(in)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                String name = entry.getName().toLowerCase(Locale.ROOT);
+                int dot = name.lastIndexOf('.');
+                if (!entry.isDirectory() && dot >= 0 && !name.contains("__macosx")) {
+                    String ext = name.substring(dot + 1);
+                    if (files.putIfAbsent(ext, zip.readAllBytes()) != null && ext.equals("shp")) {
+                        throw new IllegalArgumentException("Zip berisi lebih dari satu shapefile");
+                    }
+                }
+            }
+        }
+        byte[] shp = files.get("shp");
+        byte[] dbf = files.get("dbf");
+        if (shp == null || dbf == null) {
+            throw new IllegalArgumentException("Zip shapefile harus berisi file .shp dan .dbf");
+        }
+        byte[] prj = files.get("prj");
+        if (prj != null && new String(prj, StandardCharsets.ISO_8859_1).trim().startsWith("PROJCS")) {
+            throw new IllegalArgumentException("Shapefile harus dalam koordinat geografis EPSG:4326, bukan proyeksi");
+        }
+
+        List<Map<String, String>> records = readDbf(dbf);
+        List<Object> shapes = readShp(shp);
+
+        List<Feature> result = new ArrayList<>(shapes.size());
+        for (int i = 0; i < shapes.size(); i++) {
+            String nop = i < records.size() ? records.get(i).get(nopField.toUpperCase(Locale.ROOT)) : null;
+            Object shape = shapes.get(i);
+            if (shape instanceof Geometry geometry) {
+                result.add(new Feature(i + 1, nop, geometry, null));
+            } else {
+                result.add(new Feature(i + 1, nop, null, (String) shape));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Record .shp sebagai Geometry, atau String pesan error untuk record yang tidak didukung
+     */
+    private static List<Object> readShp(byte[] shp) {
+        ByteBuffer buffer = ByteBuffer.wrap(shp);
+        if (shp.length < 100 || buffer.order(ByteOrder.BIG_ENDIAN).getInt(0) != 9994) {
+            throw new IllegalArgumentException("File .shp tidak valid");
+        }
+        List<Object> shapes = new ArrayList<>();
+        int position = 100;
+        while (position + 8 <= shp.length) {
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            int contentLength = buffer.getInt(position + 4) * 2;
+            int start = position + 8;
+            position = start + contentLength;
+            if (position > shp.length) {
+                throw new IllegalArgumentException("File .shp terpotong");
+            }
+
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            int shapeType = buffer.getInt(start);
+            if (shapeType != 5 && shapeType != 15 && shapeType != 25) {
+                shapes.add(shapeType == 0 ? "Geometri kosong" : "Tipe shape tidak didukung: " + shapeType);
+                continue;
+            }
+            int numParts = buffer.getInt(start + 36);
+            int numPoints = buffer.getInt(start + 40);
+            int partsOffset = start + 44;
+            int pointsOffset = partsOffset + numParts * 4;
+            int zOffset = pointsOffset + numPoints * 16 + 16;
+
+            Coordinate[] points = new Coordinate[numPoints];
+            for (int p = 0; p < numPoints; p++) {
+                double x = buffer.getDouble(pointsOffset + p * 16);
+                double y = buffer.getDouble(pointsOffset + p * 16 + 8);
+                points[p] = shapeType == 15 ? new Coordinate(x, y, buffer.getDouble(zOffset + p * 8))
+                        : new Coordinate(x, y);
+            }
+
+            try {
+                List<LinearRing> rings = new ArrayList<>(numParts);
+                for (int part = 0; part < numParts; part++) {
+                    int from = buffer.getInt(partsOffset + part * 4);
+                    int to = part + 1 < numParts ? buffer.getInt(partsOffset + (part + 1) * 4) : numPoints;
+                    Coordinate[] ring = new Coordinate[to - from];
+                    System.arraycopy(points, from, ring, 0, ring.length);
+                    rings.add(geometryFactory.createLinearRing(ring));
+                }
+                Geometry geometry = shpPolygon(rings);
+                geometry.setSRID(4326);
+                shapes.add(geometry);
+            } catch (RuntimeException e) {
+                shapes.add("Polygon tidak valid: " + e.getMessage());
+            }
+        }
+        return shapes;
+    }
+
+    /**
+     * Ring searah jarum jam = shell, berlawanan = hole milik shell yang memuatnya
+     */
+    private static Geometry shpPolygon(List<LinearRing> rings) {
+        List<LinearRing> shells = new ArrayList<>();
+        List<List<LinearRing>> holes = new ArrayList<>();
+        for (LinearRing ring : rings) {
+            if (!Orientation.isCCW(ring.getCoordinates()) || shells.isEmpty()) {
+                shells.add(ring);
+                holes.add(new ArrayList<>());
+                continue;
+            }
+            int owner = shells.size() - 1;
+            for (int s = 0; s < shells.size(); s++) {
+                if (geometryFactory.createPolygon(shells.get(s)).contains(ring.getStartPoint())) {
+                    owner = s;
+                    break;
+                }
+            }
+            holes.get(owner).add(ring);
+        }
+        Polygon[] polygons = new Polygon[shells.size()];
+        for (int s = 0; s < shells.size(); s++) {
+            polygons[s] = geometryFactory.createPolygon(shells.get(s), holes.get(s).toArray(new LinearRing[0]));
+        }
+        return polygons.length == 1 ? polygons[0] : geometryFactory.createMultiPolygon(polygons);
+    }
+
+    /**
+     * Record .dbf sebagai map nama kolom (uppercase) -> nilai (trim), record terhapus tetap
+     * diikutkan agar indeks sejajar dengan .shp
+     */
+    private static List<Map<String, String>> readDbf(byte[] dbf) {
+        ByteBuffer buffer = ByteBuffer.wrap(dbf).order(ByteOrder.LITTLE_ENDIAN);
+        int recordCount = buffer.getInt(4);
+        int headerLength = Short.toUnsignedInt(buffer.getShort(8));
+        int recordLength = Short.toUnsignedInt(buffer.getShort(10));
+
+        List<String> names = new ArrayList<>();
+        List<Integer> lengths = new ArrayList<>();
+        for (int offset = 32; offset + 32 <= headerLength && dbf[offset] != 0x0D; offset += 32) {
+            int end = offset;
+            while (end < offset + 11 && dbf[end] != 0) {
+                end++;
+            }
+            names.add(new String(dbf, offset, end - offset, StandardCharsets.ISO_8859_1).toUpperCase(Locale.ROOT));
+            lengths.add(Byte.toUnsignedInt(dbf[offset + 16]));
+        }
+
+        List<Map<String, String>> records = new ArrayList<>(recordCount);
+        for (int r = 0; r < recordCount; r++) {
+            int offset = headerLength + r * recordLength + 1;
+            if (offset + recordLength - 1 > dbf.length) {
+                break;
+            }
+            Map<String, String> record = new HashMap<>();
+            for (int f = 0; f < names.size(); f++) {
+                record.put(names.get(f), new String(dbf, offset, lengths.get(f), StandardCharsets.ISO_8859_1).trim());
+                offset += lengths.get(f);
+            }
+            records.add(record);
+        }
+        return records;
+    }
+}
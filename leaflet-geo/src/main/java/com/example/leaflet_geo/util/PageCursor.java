@@ -0,0 +1,62 @@
+package com.example.leaflet_geo.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor token for keyset (seek) pagination
+ *
+ * Menyimpan nilai sort key dari baris terakhir sebuah halaman sehingga halaman
+ * berikutnya cukup membaca "WHERE key > nilai_terakhir" tanpa OFFSET.
+ * Token di-encode sebagai URL-safe Base64 agar client tidak bergantung pada
+ * format internal.
+ */
+public final class PageCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private PageCursor() {
+    }
+
+    /**
+     * Encode nilai-nilai sort key menjadi token
+     *
+     * @param values Nilai sort key dari baris terakhir (urutan sesuai ORDER BY)
+     * @return Token cursor
+     */
+    public static String encode(Object... values) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(SEPARATOR);
+            }
+            sb.append(values[i] != null ? values[i].toString() : "");
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode token menjadi nilai-nilai sort key
+     *
+     * @param token         Token cursor dari client
+     * @param expectedParts Jumlah kolom sort key yang diharapkan
+     * @return Nilai sort key, atau null jika token kosong (halaman pertama)
+     * @throws IllegalArgumentException jika token tidak valid
+     */
+    public static String[] decode(String token, int expectedParts) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != expectedParts) {
+                throw new IllegalArgumentException("Cursor tidak valid");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor tidak valid", e);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.leaflet_geo.util;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Polygon;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Penulis Shapefile polygon (EPSG:4326) dalam satu zip (.shp, .shx, .dbf, .prj, .cpg)
+ *
+ * Header .shp/.shx/.dbf memuat jumlah record dan bounding box yang baru
+ * diketahui di akhir, jadi body record ditulis ke file sementara saat baris
+ * datang dari cursor, lalu {@link #writeZip} menulis header + menyalin body
+ * ke output. Memori tidak bergantung pada jumlah record.
+ */
+public class ShapefileWriter implements Closeable {
+
+    private static final int SHAPE_POLYGON = 5;
+
+    private static final String PRJ_WGS84 = "GEOGCS[\"GCS_WGS_1984\",DATUM[\"D_WGS_1984\","
+            + "SPHEROID[\"WGS_1984\",6378137.0,298.257223563]],PRIMEM[\"Greenwich\",0.0],"
+            + "UNIT[\"Degree\",0.0174532925199433]]";
+
+    /**
+     * Kolom DBF: type 'C' (teks) atau 'N' (angka), nama maksimal 10 karakter
+     */
+    public record Field(String name, char type, int length, int decimals) {
+    }
+
+    private final List<Field> fields;
+    private final int recordLength;
+    private final Path shpBody;
+    private final Path shxBody;
+    private final Path dbfBody;
+    private final OutputStream shpOut;
+    private final OutputStream shxOut;
+    private final OutputStream dbfOut;
+
+    private final Envelope extent = new Envelope();
+    private int count;
+    private int offsetWords = 50;
+
+    public ShapefileWriter(List<Field> fields) throws IOException {
+        this.fields = List.copyOf(fields);
+        int length = 1;
+        for (Field field : fields) {
+            length += field.length();
+        }
+        this.recordLength = length;
+        this.shpBody = Files.createTempFile("export-", ".shp");
+        this.shxBody = Files.createTempFile("export-", ".shx");
+        this.dbfBody = Files.createTempFile("export-", ".dbf");
+        this.shpOut = new BufferedOutputStream(Files.newOutputStream(shpBody), 1 << 16);
+        this.shxOut = new BufferedOutputStream(Files.newOutputStream(shxBody), 1 << 16);
+        this.dbfOut = new BufferedOutputStream(Files.newOutputStream(dbfBody), 1 << 16);
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Tulis satu record; geometry harus Polygon atau MultiPolygon, values sejajar dengan fields
+     */
+    public void write(Geometry geometry, Object[] values) throws IOException {
+        List<LineString> rings = new ArrayList<>();
+        for (int i = 0; i < geometry.getNumGeometries(); i++) {
+            Geometry part = geometry.getGeometryN(i).copy();
+            if (!(part instanceof Polygon polygon)) {
+                throw new IllegalArgumentException("Bukan polygon: " + part.getGeometryType());
+            }
+            // normalize: shell searah jarum jam, hole berlawanan (konvensi shapefile)
+            polygon.normalize();
+            rings.add(polygon.getExteriorRing());
+            for (int h = 0; h < polygon.getNumInteriorRing(); h++) {
+                rings.add(polygon.getInteriorRingN(h));
+            }
+        }
+        int numPoints = 0;
+        for (LineString ring : rings) {
+            numPoints += ring.getNumPoints();
+        }
+        Envelope envelope = geometry.getEnvelopeInternal();
+        extent.expandToInclude(envelope);
+
+        int contentLength = 44 + 4 * rings.size() + 16 * numPoints;
+        ByteBuffer record = ByteBuffer.allocate(8 + contentLength);
+        record.order(ByteOrder.BIG_ENDIAN).putInt(count + 1).putInt(contentLength / 2);
+        record.order(ByteOrder.LITTLE_ENDIAN).putInt(SHAPE_POLYGON)
+                .putDouble(envelope.getMinX()).putDouble(envelope.getMinY())
+                .putDouble(envelope.getMaxX()).putDouble(envelope.getMaxY())
+                .putInt(rings.size()).putInt(numPoints);
+        int start = 0;
+        for (LineString ring : rings) {
+            record.putInt(start);
+            start += ring.getNumPoints();
+        }
+        for (LineString ring : rings) {
+            for (Coordinate coordinate : ring.getCoordinates()) {
+                record.putDouble(coordinate.getX()).putDouble(coordinate.getY());
+            }
+        }
+        shpOut.write(record.array());
+
+        ByteBuffer index = ByteBuffer.allocate(8).order(ByteOrder.BIG_ENDIAN);
+        index.putInt(offsetWords).putInt(contentLength / 2);
+        shxOut.write(index.array());
+        offsetWords += (8 + contentLength) / 2;
+
+        dbfOut.write(dbfRecord(values));
+        count++;
+    }
+
+    /**
+     * Tulis zip berisi baseName.shp/.shx/.dbf/.prj/.cpg
+     */
+    public void writeZip(OutputStream out, String baseName) throws IOException {
+        shpOut.close();
+        shxOut.close();
+        dbfOut.close();
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+        zip.putNextEntry(new ZipEntry(baseName + ".shp"));
+        zip.write(mainHeader(offsetWords));
+        Files.copy(shpBody, zip);
+        zip.closeEntry();
+
+        zip.putNextEntry(new ZipEntry(baseName + ".shx"));
+        zip.write(mainHeader(50 + 4 * count));
+        Files.copy(shxBody, zip);
+        zip.closeEntry();
+
+        zip.putNextEntry(new ZipEntry(baseName + ".dbf"));
+        zip.write(dbfHeader());
+        Files.copy(dbfBody, zip);
+        zip.write(0x1A);
+        zip.closeEntry();
+
+        zip.putNextEntry(new ZipEntry(baseName + ".prj"));
+        zip.write(PRJ_WGS84.getBytes(StandardCharsets.US_ASCII));
+        zip.closeEntry();
+
+        zip.putNextEntry(new ZipEntry(baseName + ".cpg"));
+        zip.write("UTF-8".getBytes(StandardCharsets.US_ASCII));
+        zip.closeEntry();
+        zip.finish();
+    }
+
+    @Override
+    public void close() throws IOException {
+        shpOut.close();
+        shxOut.close();
+        dbfOut.close();
+        Files.deleteIfExists(shpBody);
+        Files.deleteIfExists(shxBody);
+        Files.deleteIfExists(dbfBody);
+    }
+
+    private byte[] mainHeader(int fileLengthWords) {
+        ByteBuffer header = ByteBuffer.allocate(100);
+        header.order(ByteOrder.BIG_ENDIAN).putInt(0, 9994).putInt(24, fileLengthWords);
+        header.order(ByteOrder.LITTLE_ENDIAN).putInt(28, 1000).putInt(32, SHAPE_POLYGON);
+        if (!extent.isNull()) {
+            header.putDouble(36, extent.getMinX()).putDouble(44, extent.getMinY())
+                    .putDouble(52, extent.getMaxX()).putDouble(60, extent.getMaxY());
+        }
+        return header.array();
+    }
+
+    private byte[] dbfHeader() {
+        int headerLength = 32 + 32 * fields.size() + 1;
+        ByteBuffer header = ByteBuffer.allocate(headerLength).order(ByteOrder.LITTLE_ENDIAN);
+        LocalDate today = LocalDate.now();
+        header.put((byte) 0x03)
+                .put((byte) (today.getYear() - 1900)).put((byte) today.getMonthValue()).put((byte) today.getDayOfMonth())
+                .putInt(count)
+                .putShort((short) headerLength)
+                .putShort((short) recordLength);
+        header.position(32);
+        for (Field field : fields) {
+            byte[] name = new byte[11];
+            byte[] source = field.name().getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(source, 0, name, 0, Math.min(10, source.length));
+            header.put(name).put((byte) field.type()).putInt(0)
+                    .put((byte) field.length()).put((byte) field.decimals())
+                    .put(new byte[14]);
+        }
+        header.put((byte) 0x0D);
+        return header.array();
+    }
+
+    private byte[] dbfRecord(Object[] values) {
+        byte[] record = new byte[recordLength];
+        Arrays.fill(record, (byte) ' ');
+        int offset = 1;
+        for (int f = 0; f < fields.size(); f++) {
+            Field field = fields.get(f);
+            Object value = f < values.length ? values[f] : null;
+            if (value != null) {
+                byte[] bytes = field.type() == 'N' ? number(value, field) : text(value.toString(), field.length());
+                int pad = field.type() == 'N' ? field.length() - bytes.length : 0;
+                System.arraycopy(bytes, 0, record, offset + Math.max(0, pad), Math.min(bytes.length, field.length()));
+            }
+            offset += field.length();
+        }
+        return record;
+    }
+
+    private static byte[] number(Object value, Field field) {
+        BigDecimal number = value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString().trim());
+        String text = number.setScale(field.decimals(), RoundingMode.HALF_UP).toPlainString();
+        return text.length() > field.length() ? new byte[0] : text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * UTF-8 dipotong ke maxBytes tanpa memotong karakter multibyte
+     */
+    private static byte[] text(String value, int maxBytes) {
+        String trimmed = value.trim();
+        byte[] bytes = trimmed.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= maxBytes) {
+            return bytes;
+        }
+        int end = maxBytes;
+        while (end > 0 && (bytes[end] & 0xC0) == 0x80) {
+            end--;
+        }
+        return Arrays.copyOf(bytes, end);
+    }
+}
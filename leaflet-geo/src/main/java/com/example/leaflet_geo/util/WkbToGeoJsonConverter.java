@@ -3,6 +3,8 @@ package com.example.leaflet_geo.util;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.io.WKBReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.*;
 
@@ -11,6 +13,8 @@ import java.util.*;
  */
 public class WkbToGeoJsonConverter {
 
+    private static final Logger log = LoggerFactory.getLogger(WkbToGeoJsonConverter.class);
+
     private static final WKBReader wkbReader = new WKBReader();
 
     /**
@@ -22,7 +26,7 @@ public class WkbToGeoJsonConverter {
     public static Map<String, Object> convertWkbHexToGeoJson(String wkbHex) {
         try {
             if (wkbHex == null || wkbHex.trim().isEmpty()) {
-                System.err.println("❌ WKB hex string is null or empty");
+                log.debug("WKB hex string is null or empty");
                 return null;
             }
 
@@ -33,7 +37,7 @@ public class WkbToGeoJsonConverter {
             Geometry geometry = wkbReader.read(wkbBytes);
             
             if (geometry == null) {
-                System.err.println("❌ Failed to parse WKB to geometry");
+                log.warn("Failed to parse WKB to geometry");
                 return null;
             }
 
@@ -43,8 +47,7 @@ public class WkbToGeoJsonConverter {
             return geoJsonGeometry;
             
         } catch (Exception e) {
-            System.err.println("❌ Error converting WKB to GeoJSON: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Error converting WKB to GeoJSON: {}", e.getMessage());
             return null;
         }
     }
@@ -110,7 +113,7 @@ public class WkbToGeoJsonConverter {
                 break;
                 
             default:
-                System.err.println("⚠️ Unsupported geometry type: " + geometryType);
+                log.warn("Unsupported geometry type: {}", geometryType);
                 break;
         }
         
@@ -157,7 +160,7 @@ public class WkbToGeoJsonConverter {
     /**
      * Convert hex string to byte array
      */
-    private static byte[] hexStringToByteArray(String hex) {
+    public static byte[] hexStringToByteArray(String hex) {
         int len = hex.length();
         byte[] data = new byte[len / 2];
         for (int i = 0; i < len; i += 2) {
@@ -0,0 +1,17 @@
+-- Index untuk keyset pagination sig.bidang
+-- Urutan listing: ORDER BY created_at DESC, id DESC (hanya baris aktif)
+
+CREATE INDEX IF NOT EXISTS idx_bidang_active_created
+    ON sig.bidang (created_at DESC, id DESC)
+    WHERE is_active = true;
+
+CREATE INDEX IF NOT EXISTS idx_bidang_kec_created
+    ON sig.bidang (kd_prop, kd_dati2, kd_kec, created_at DESC, id DESC)
+    WHERE is_active = true;
+
+CREATE INDEX IF NOT EXISTS idx_bidang_kel_created
+    ON sig.bidang (kd_prop, kd_dati2, kd_kec, kd_kel, created_at DESC, id DESC)
+    WHERE is_active = true;
+
+-- Statistik planner dipakai untuk count=estimate
+ANALYZE sig.bidang;
@@ -0,0 +1,195 @@
+-- Mirror lokal tabel SISMIOP (Oracle) di PostgreSQL, diisi oleh SismiopMirrorService
+-- Nama kolom sama dengan Oracle (tanpa quote, jadi lowercase) sehingga query
+-- repository cukup mengganti nama tabel. Kolom tambahan per baris:
+--   row_hash       md5 nilai kolom saat terakhir disalin
+--   sync_partition partisi sinkronisasi (mis. kecamatan.kelurahan)
+--   synced_at      waktu baris terakhir ditulis
+
+CREATE SCHEMA IF NOT EXISTS sismiop;
+
+CREATE TABLE IF NOT EXISTS sismiop.ref_propinsi (
+    kd_propinsi     varchar(2) NOT NULL,
+    nm_propinsi     varchar,
+    row_hash        varchar(32) NOT NULL,
+    sync_partition  varchar(100) NOT NULL,
+    synced_at       timestamp NOT NULL DEFAULT now(),
+    PRIMARY KEY (kd_propinsi)
+);
+
+CREATE TABLE IF NOT EXISTS sismiop.ref_dati2 (
+    kd_propinsi     varchar(2) NOT NULL,
+    kd_dati2        varchar(2) NOT NULL,
+    nm_dati2        varchar,
+    row_hash        varchar(32) NOT NULL,
+    sync_partition  varchar(100) NOT NULL,
+    synced_at       timestamp NOT NULL DEFAULT now(),
+    PRIMARY KEY (kd_propinsi, kd_dati2)
+);
+
+CREATE TABLE IF NOT EXISTS sismiop.ref_kecamatan (
+    kd_propinsi     varchar(2) NOT NULL,
+    kd_dati2        varchar(2) NOT NULL,
+    kd_kecamatan    varchar(3) NOT NULL,
+    nm_kecamatan    varchar,
+    row_hash        varchar(32) NOT NULL,
+    sync_partition  varchar(100) NOT NULL,
+    synced_at       timestamp NOT NULL DEFAULT now(),
+    PRIMARY KEY (kd_propinsi, kd_dati2, kd_kecamatan)
+);
+
+CREATE TABLE IF NOT EXISTS sismiop.ref_kelurahan (
+    kd_propinsi      varchar(2) NOT NULL,
+    kd_dati2         varchar(2) NOT NULL,
+    kd_kecamatan     varchar(3) NOT NULL,
+    kd_kelurahan     varchar(3) NOT NULL,
+    kd_sektor        varchar,
+    nm_kelurahan     varchar,
+    no_kelurahan     numeric,
+    kd_pos_kelurahan varchar,
+    row_hash         varchar(32) NOT NULL,
+    sync_partition   varchar(100) NOT NULL,
+    synced_at        timestamp NOT NULL DEFAULT now(),
+    PRIMARY KEY (kd_propinsi, kd_dati2, kd_kecamatan, kd_kelurahan)
+);
+
+CREATE TABLE IF NOT EXISTS sismiop.dat_subjek_pajak (
+    subjek_pajak_id     varchar(30) NOT NULL,
+    nm_wp               varchar,
+    jalan_wp            varchar,
+    blok_kav_no_wp      varchar,
+    rw_wp               varchar,
+    rt_wp               varchar,
+    kelurahan_wp        varchar,
+    kota_wp             varchar,
+    kd_pos_wp           varchar,
+    telp_wp             varchar,
+    npwp                varchar,
+    status_pekerjaan_wp varchar,
+    npwpd               varchar,
+    email               varchar,
+    row_hash            varchar(32) NOT NULL,
+    sync_partition      varchar(100) NOT NULL,
+    synced_at           timestamp NOT NULL DEFAULT now(),
+    PRIMARY KEY (subjek_pajak_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_sismiop_subjek_npwp ON sismiop.dat_subjek_pajak (npwp);
+CREATE INDEX IF NOT EXISTS idx_sismiop_subjek_partition ON sismiop.dat_subjek_pajak (sync_partition);
+
+CREATE TABLE IF NOT EXISTS sismiop.dat_objek_pajak (
+    kd_propinsi        varchar(2) NOT NULL,
+    kd_dati2           varchar(2) NOT NULL,
+    kd_kecamatan       varchar(3) NOT NULL,
+    kd_kelurahan       varchar(3) NOT NULL,
+    kd_blok            varchar(3) NOT NULL,
+    no_urut            varchar(4) NOT NULL,
+    kd_jns_op          varchar(1) NOT NULL,
+    subjek_pajak_id    varchar,
+    no_formulir_spop   varchar,
+    no_persil          varchar,
+    jalan_op           varchar,
+    blok_kav_no_op     varchar,
+    rw_op              varchar,
+    rt_op              varchar,
+    kd_status_cabang   numeric,
+    kd_status_wp       varchar,
+    total_luas_bumi    numeric,
+    total_luas_bng     numeric,
+    njop_bumi          numeric,
+    njop_bng           numeric,
+    status_peta_op     numeric,
+    jns_transaksi_op   varchar,
+    tgl_pendataan_op   date,
+    nip_pendata        varchar,
+    tgl_pemeriksaan_op date,
+    nip_pemeriksa_op   varchar,
+    tgl_perekaman_op   date,
+    nip_perekam_op     varchar,
+    no_sertifikat      varchar,
+    keterangan_op      varchar,
+    keterangan_spop    varchar,
+    latitude           varchar,
+    longitude          varchar,
+    row_hash           varchar(32) NOT NULL,
+    sync_partition     varchar(100) NOT NULL,
+    synced_at          timestamp NOT NULL DEFAULT now(),
+    PRIMARY KEY (kd_propinsi, kd_dati2, kd_kecamatan, kd_kelurahan, kd_blok, no_urut, kd_jns_op)
+);
+
+CREATE INDEX IF NOT EXISTS idx_sismiop_objek_subjek ON sismiop.dat_objek_pajak (subjek_pajak_id);
+CREATE INDEX IF NOT EXISTS idx_sismiop_objek_formulir ON sismiop.dat_objek_pajak (no_formulir_spop);
+CREATE INDEX IF NOT EXISTS idx_sismiop_objek_partition ON sismiop.dat_objek_pajak (sync_partition);
+
+CREATE TABLE IF NOT EXISTS sismiop.sppt (
+    kd_propinsi               varchar(2) NOT NULL,
+    kd_dati2                  varchar(2) NOT NULL,
+    kd_kecamatan              varchar(3) NOT NULL,
+    kd_kelurahan              varchar(3) NOT NULL,
+    kd_blok                   varchar(3) NOT NULL,
+    no_urut                   varchar(4) NOT NULL,
+    kd_jns_op                 varchar(1) NOT NULL,
+    thn_pajak_sppt            varchar(4) NOT NULL,
+    siklus_sppt               numeric,
+    nm_wp_sppt                varchar,
+    jln_wp_sppt               varchar,
+    blok_kav_no_wp_sppt       varchar,
+    rw_wp_sppt                varchar,
+    rt_wp_sppt                varchar,
+    kelurahan_wp_sppt         varchar,
+    kota_wp_sppt              varchar,
+    kd_pos_wp_sppt            varchar,
+    npwp_sppt                 varchar,
+    no_persil_sppt            varchar,
+    kd_kls_tanah              varchar,
+    thn_awal_kls_tanah        varchar,
+    kd_kls_bng                varchar,
+    thn_awal_kls_bng          varchar,
+    tgl_jatuh_tempo_sppt      date,
+    luas_bumi_sppt            numeric,
+    luas_bng_sppt             numeric,
+    njop_bumi_sppt            numeric,
+    njop_bng_sppt             numeric,
+    njop_sppt                 numeric,
+    njoptkp_sppt              numeric,
+    pbb_terhutang_sppt        numeric,
+    faktor_pengurang_sppt     numeric,
+    pbb_yg_harus_dibayar_sppt numeric,
+    status_pembayaran_sppt    varchar,
+    status_tagihan_sppt       varchar,
+    status_cetak_sppt         varchar,
+    tgl_terbit_sppt           date,
+    tgl_cetak_sppt            date,
+    nip_pencetak_sppt         varchar,
+    row_hash                  varchar(32) NOT NULL,
+    sync_partition            varchar(100) NOT NULL,
+    synced_at                 timestamp NOT NULL DEFAULT now(),
+    PRIMARY KEY (kd_propinsi, kd_dati2, kd_kecamatan, kd_kelurahan, kd_blok, no_urut, kd_jns_op, thn_pajak_sppt)
+);
+
+CREATE INDEX IF NOT EXISTS idx_sismiop_sppt_tahun ON sismiop.sppt (thn_pajak_sppt);
+CREATE INDEX IF NOT EXISTS idx_sismiop_sppt_partition ON sismiop.sppt (sync_partition);
+
+-- Checksum Oracle per partisi (COUNT dan SUM(ORA_HASH(baris))) dari sinkronisasi terakhir;
+-- partisi yang checksum-nya tidak berubah dilewati tanpa membaca barisnya
+CREATE TABLE IF NOT EXISTS sismiop.sync_partition (
+    table_name     varchar(30) NOT NULL,
+    partition_key  varchar(100) NOT NULL,
+    row_count      bigint NOT NULL,
+    checksum       numeric NOT NULL,
+    synced_at      timestamp NOT NULL DEFAULT now(),
+    PRIMARY KEY (table_name, partition_key)
+);
+
+-- Status per tabel; repository membaca mirror setelah semua tabel pernah sukses
+CREATE TABLE IF NOT EXISTS sismiop.sync_table (
+    table_name          varchar(30) PRIMARY KEY,
+    last_success_at     timestamp,
+    last_error          text,
+    last_error_at       timestamp,
+    row_count           bigint,
+    partitions          integer,
+    changed_partitions  integer,
+    upserted            bigint,
+    deleted             bigint,
+    duration_ms         bigint
+);
@@ -0,0 +1,17 @@
+-- Index pencarian NOP sig.bidang
+-- nop bertipe char(24); operator LIKE/ILIKE pada bpchar tidak memakai index
+-- text, jadi index dibuat atas nop::text dan query menulis CAST(nop AS text)
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Prefix: CAST(nop AS text) LIKE '35.08.130%'
+CREATE INDEX IF NOT EXISTS idx_bidang_nop_prefix
+    ON sig.bidang ((nop::text) text_pattern_ops)
+    WHERE is_active = true;
+
+-- Substring/fuzzy: CAST(nop AS text) ILIKE '%0139%'
+CREATE INDEX IF NOT EXISTS idx_bidang_nop_trgm
+    ON sig.bidang USING gin ((nop::text) gin_trgm_ops)
+    WHERE is_active = true;
+
+ANALYZE sig.bidang;
@@ -0,0 +1,44 @@
+-- Full-text search nama wajib pajak di mirror SISMIOP (sismiop.dat_subjek_pajak)
+-- Dokumen: NM_WP (bobot A), JALAN_WP (B), KELURAHAN_WP (C), setelah normalisasi
+-- sismiop.normalize_nama. Query dinormalisasi dengan fungsi yang sama, lihat
+-- DatSubjekPajakRepository.searchByName.
+
+-- Normalisasi varian penulisan nama Indonesia:
+--   ejaan lama      OE -> U, DJ -> J, TJ -> C, lalu J -> Y (SOEHARTO = SUHARTO, TJAHJO = CAHYO)
+--   CH/KH -> H      ACHMAD = AKHMAD = AHMAD
+--   huruf ganda     MUHAMMAD = MUHAMAD
+--   singkatan       MOCH/MOH/MUH/MOHAMAD/MHD -> MUHAMAD, ABD -> ABDUL
+--   gelar/sapaan    H, HJ, HAJI, IR, DR, DRS, SH, SE, ALM, NY, BPK, IBU, ... dibuang
+CREATE OR REPLACE FUNCTION sismiop.normalize_nama(value text) RETURNS text
+    LANGUAGE plpgsql IMMUTABLE PARALLEL SAFE AS $$
+DECLARE
+    s text := upper(coalesce(value, ''));
+BEGIN
+    s := regexp_replace(s, '[^A-Z0-9]+', ' ', 'g');
+    s := replace(s, 'OE', 'U');
+    s := replace(s, 'DJ', 'J');
+    s := replace(s, 'TJ', 'C');
+    s := replace(s, 'CH', 'H');
+    s := replace(s, 'KH', 'H');
+    s := replace(s, 'J', 'Y');
+    s := regexp_replace(s, '([A-Z])\1+', '\1', 'g');
+    s := regexp_replace(s, '\m(MOH|MUH|MOHAMAD|MUHAMAD|MOHAMED|MUHAMED|MOHD|MUHD|MHD)\M', 'MUHAMAD', 'g');
+    s := regexp_replace(s, '\mABD\M', 'ABDUL', 'g');
+    s := regexp_replace(s,
+            '\m(H|HY|HAYI|HAYAH|IR|DR|DRS|DRA|SH|SE|ST|SPD|SAG|SKM|MM|MSI|MPD|ALM|ALMH|NY|TN|SDR|BPK|BAPAK|IBU)\M',
+            ' ', 'g');
+    RETURN trim(regexp_replace(s, '\s+', ' ', 'g'));
+END;
+$$;
+
+ALTER TABLE sismiop.dat_subjek_pajak
+    ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', sismiop.normalize_nama(nm_wp)), 'A') ||
+        setweight(to_tsvector('simple', sismiop.normalize_nama(jalan_wp)), 'B') ||
+        setweight(to_tsvector('simple', sismiop.normalize_nama(kelurahan_wp)), 'C')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_sismiop_subjek_search
+    ON sismiop.dat_subjek_pajak USING gin (search_vector);
+
+ANALYZE sismiop.dat_subjek_pajak;
@@ -0,0 +1,24 @@
+-- Mirror SISMIOP DAT_OP_BUMI (ZNT dan jenis penggunaan bumi per objek pajak),
+-- dipakai peta tematik ZNT / penggunaan tanah (TematikService). Struktur kolom
+-- tambahan sama dengan tabel mirror lain, lihat V005__sismiop_mirror.sql.
+
+CREATE TABLE IF NOT EXISTS sismiop.dat_op_bumi (
+    kd_propinsi       varchar(2) NOT NULL,
+    kd_dati2          varchar(2) NOT NULL,
+    kd_kecamatan      varchar(3) NOT NULL,
+    kd_kelurahan      varchar(3) NOT NULL,
+    kd_blok           varchar(3) NOT NULL,
+    no_urut           varchar(4) NOT NULL,
+    kd_jns_op         varchar(1) NOT NULL,
+    no_bumi           numeric NOT NULL,
+    kd_znt            varchar,
+    luas_bumi         numeric,
+    jns_bumi          varchar,
+    nilai_sistem_bumi numeric,
+    row_hash          varchar(32) NOT NULL,
+    sync_partition    varchar(100) NOT NULL,
+    synced_at         timestamp NOT NULL DEFAULT now(),
+    PRIMARY KEY (kd_propinsi, kd_dati2, kd_kecamatan, kd_kelurahan, kd_blok, no_urut, kd_jns_op, no_bumi)
+);
+
+CREATE INDEX IF NOT EXISTS idx_sismiop_op_bumi_partition ON sismiop.dat_op_bumi (sync_partition);
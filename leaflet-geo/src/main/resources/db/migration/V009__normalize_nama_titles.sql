@@ -0,0 +1,46 @@
+-- Perbaikan sismiop.normalize_nama (V007): gelar dibuang SEBELUM huruf ganda
+-- digabung. Di V007 penggabungan jalan lebih dulu, sehingga alternatif MM
+-- tidak pernah cocok dan "S.E., M.M." menyisakan token S, E, M.
+--   gelar bertitik  S.E. / M.M. / S.Pd. / M.Si. digabung dulu menjadi SE, MM, SPD, MSI
+--   ejaan lama      OE -> U, DJ -> J, TJ -> C, lalu J -> Y (SOEHARTO = SUHARTO, TJAHJO = CAHYO)
+--   CH/KH -> H      ACHMAD = AKHMAD = AHMAD
+--   gelar/sapaan    H, HJ, HAJI, HAJJAH, IR, DR, DRS, SH, SE, MM, ALM, NY, BPK, IBU, ... dibuang
+--   huruf ganda     MUHAMMAD = MUHAMAD
+--   singkatan       MOCH/MOH/MUH/MOHAMAD/MHD -> MUHAMAD, ABD -> ABDUL
+CREATE OR REPLACE FUNCTION sismiop.normalize_nama(value text) RETURNS text
+    LANGUAGE plpgsql IMMUTABLE PARALLEL SAFE AS $$
+DECLARE
+    s text := upper(coalesce(value, ''));
+BEGIN
+    s := regexp_replace(s, '\m([A-Z])\.(?=[A-Z]{1,2}\.)', '\1', 'g');
+    s := regexp_replace(s, '[^A-Z0-9]+', ' ', 'g');
+    s := replace(s, 'OE', 'U');
+    s := replace(s, 'DJ', 'J');
+    s := replace(s, 'TJ', 'C');
+    s := replace(s, 'CH', 'H');
+    s := replace(s, 'KH', 'H');
+    s := replace(s, 'J', 'Y');
+    s := regexp_replace(s,
+            '\m(H|HY|HAYI|HAYAH|HAYYAH|IR|DR|DRS|DRA|SH|SE|ST|SPD|SAG|SKM|MM|MSI|MPD|ALM|ALMH|NY|TN|SDR|BPK|BAPAK|IBU)\M',
+            ' ', 'g');
+    s := regexp_replace(s, '([A-Z])\1+', '\1', 'g');
+    s := regexp_replace(s, '\m(MOH|MUH|MOHAMAD|MUHAMAD|MOHAMED|MUHAMED|MOHD|MUHD|MHD)\M', 'MUHAMAD', 'g');
+    s := regexp_replace(s, '\mABD\M', 'ABDUL', 'g');
+    RETURN trim(regexp_replace(s, '\s+', ' ', 'g'));
+END;
+$$;
+
+-- Kolom generated STORED tidak dihitung ulang saat fungsinya diganti: buat ulang
+ALTER TABLE sismiop.dat_subjek_pajak DROP COLUMN IF EXISTS search_vector;
+
+ALTER TABLE sismiop.dat_subjek_pajak
+    ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', sismiop.normalize_nama(nm_wp)), 'A') ||
+        setweight(to_tsvector('simple', sismiop.normalize_nama(jalan_wp)), 'B') ||
+        setweight(to_tsvector('simple', sismiop.normalize_nama(kelurahan_wp)), 'C')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_sismiop_subjek_search
+    ON sismiop.dat_subjek_pajak USING gin (search_vector);
+
+ANALYZE sismiop.dat_subjek_pajak;
@@ -0,0 +1,144 @@
+package com.example.leaflet_geo.security;
+
+import com.example.leaflet_geo.security.LoginAttemptLimiter.TooManyAttemptsException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginAttemptLimiterTest {
+
+    private static final String IP = "10.0.0.1";
+
+    private final long[] now = { 1_000_000L };
+    private final LoginAttemptLimiter limiter = new LoginAttemptLimiter(5, 20, 900, 1_000, 300, () -> now[0]);
+
+    @Test
+    void freeAttemptsThenExponentialBackoff() {
+        fail("admin", 4);
+        assertThatCode(() -> limiter.acquire("admin", IP)).doesNotThrowAnyException();
+        limiter.recordFailure("admin", IP);
+
+        // kegagalan ke-5: jeda 1 detik
+        assertRetryAfter("admin", IP, 1);
+        now[0] += 1_000;
+        fail("admin", 1);
+        // kegagalan ke-6: jeda berlipat dua
+        assertRetryAfter("admin", IP, 2);
+        now[0] += 1_999;
+        assertRetryAfter("admin", IP, 1);
+        now[0] += 1;
+        assertThatCode(() -> limiter.acquire("admin", IP)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void backoffIsCapped() {
+        for (int i = 0; i < 40; i++) {
+            fail("admin", 1);
+            now[0] += 300_000;
+        }
+        fail("admin", 1);
+        assertRetryAfter("admin", IP, 300);
+    }
+
+    @Test
+    void usernameBackoffAppliesAcrossIps() {
+        fail("admin", 5);
+        assertRetryAfter("admin", "10.0.0.2", 1);
+        now[0] += 1_000;
+        assertThatCode(() -> limiter.acquire("admin", "10.0.0.2")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void successResetsUsernameCounter() {
+        fail("admin", 4);
+        limiter.acquire("admin", IP);
+        limiter.recordSuccess("admin", IP);
+
+        fail("admin", 4);
+        assertThatCode(() -> limiter.acquire("admin", IP)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void successHalvesIpCounter() {
+        for (int i = 0; i < 19; i++) {
+            fail("user" + i, 1);
+        }
+        limiter.acquire("kasir", IP);
+        limiter.recordSuccess("kasir", IP);
+
+        // 19 -> 9 kegagalan, masih ada 11 sebelum batas IP
+        for (int i = 0; i < 10; i++) {
+            fail("lain" + i, 1);
+        }
+        assertThatCode(() -> limiter.acquire("lain10", IP)).doesNotThrowAnyException();
+        limiter.recordFailure("lain10", IP);
+        assertRetryAfter("lain11", IP, 1);
+    }
+
+    @Test
+    void concurrentAttemptsCountTowardsLimit() {
+        fail("admin", 3);
+        limiter.acquire("admin", IP);
+        limiter.acquire("admin", IP);
+
+        // 3 gagal + 2 berjalan: percobaan bersamaan berikutnya ditolak
+        assertRetryAfter("admin", IP, 1);
+        limiter.recordFailure("admin", IP);
+        assertRetryAfter("admin", IP, 1);
+    }
+
+    @Test
+    void releaseIsNotCountedAsFailure() {
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire("admin", IP);
+            limiter.release("admin", IP);
+        }
+        fail("admin", 4);
+        assertThatCode(() -> limiter.acquire("admin", IP)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void rejectedIpDoesNotLeakUserReservation() {
+        for (int i = 0; i < 20; i++) {
+            fail("user" + i, 1);
+        }
+        for (int i = 0; i < 10; i++) {
+            assertRetryAfter("admin", IP, 1);
+        }
+        fail("admin", 4, "10.0.0.2");
+        assertThatCode(() -> limiter.acquire("admin", "10.0.0.2")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void countersExpireAfterWindow() {
+        fail("admin", 4);
+        now[0] += 900_001;
+        fail("admin", 4);
+        assertThatCode(() -> limiter.acquire("admin", IP)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void usernameIsCaseInsensitive() {
+        fail("Admin", 5);
+        assertRetryAfter("admin", IP, 1);
+    }
+
+    private void fail(String username, int times) {
+        fail(username, times, IP);
+    }
+
+    private void fail(String username, int times, String ip) {
+        for (int i = 0; i < times; i++) {
+            limiter.acquire(username, ip);
+            limiter.recordFailure(username, ip);
+        }
+    }
+
+    private void assertRetryAfter(String username, String ip, long seconds) {
+        assertThatThrownBy(() -> limiter.acquire(username, ip))
+                .isInstanceOfSatisfying(TooManyAttemptsException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(seconds));
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.leaflet_geo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheServiceTest {
+
+    private final ResponseCacheService service = new ResponseCacheService(new ObjectMapper(),
+            new SingleFlightService(5_000), 600, 1);
+
+    @Test
+    void acceptsGzipListedWithPositiveQuality() {
+        assertThat(ResponseCacheService.acceptsGzip("gzip")).isTrue();
+        assertThat(ResponseCacheService.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(ResponseCacheService.acceptsGzip("br;q=1.0, gzip;q=0.8")).isTrue();
+        assertThat(ResponseCacheService.acceptsGzip("x-gzip")).isTrue();
+    }
+
+    @Test
+    void acceptsGzipIgnoresCase() {
+        assertThat(ResponseCacheService.acceptsGzip("GZIP")).isTrue();
+        assertThat(ResponseCacheService.acceptsGzip("Deflate, GZip;Q=0.5")).isTrue();
+        assertThat(ResponseCacheService.acceptsGzip("gzip;Q=0")).isFalse();
+    }
+
+    @Test
+    void qualityZeroRefusesGzip() {
+        assertThat(ResponseCacheService.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(ResponseCacheService.acceptsGzip("gzip; q=0.000")).isFalse();
+        assertThat(ResponseCacheService.acceptsGzip("gzip;q=abc")).isFalse();
+    }
+
+    @Test
+    void wildcardAppliesOnlyWhenGzipIsNotListed() {
+        assertThat(ResponseCacheService.acceptsGzip("*")).isTrue();
+        assertThat(ResponseCacheService.acceptsGzip("br, *;q=0.1")).isTrue();
+        assertThat(ResponseCacheService.acceptsGzip("*;q=0")).isFalse();
+        assertThat(ResponseCacheService.acceptsGzip("gzip;q=0, *")).isFalse();
+        assertThat(ResponseCacheService.acceptsGzip("*;q=0, gzip")).isTrue();
+    }
+
+    @Test
+    void missingOrOtherCodingsRefuseGzip() {
+        assertThat(ResponseCacheService.acceptsGzip(null)).isFalse();
+        assertThat(ResponseCacheService.acceptsGzip("")).isFalse();
+        assertThat(ResponseCacheService.acceptsGzip("identity")).isFalse();
+        assertThat(ResponseCacheService.acceptsGzip("br, deflate")).isFalse();
+    }
+
+    @Test
+    void cachedBodyIsServedGzipOrDecompressed() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        Map<String, Object> body = Map.of("type", "FeatureCollection");
+
+        ResponseEntity<?> gzip = service.get("batas", "v1", "gzip", () -> {
+            loads.incrementAndGet();
+            return ResponseEntity.ok(body);
+        });
+        ResponseEntity<?> plain = service.get("batas", "v1", "gzip;q=0", () -> {
+            loads.incrementAndGet();
+            return ResponseEntity.ok(body);
+        });
+
+        assertThat(loads).hasValue(1);
+        assertThat(gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream((byte[]) gzip.getBody()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8))
+                    .isEqualTo("{\"type\":\"FeatureCollection\"}");
+        }
+        assertThat(plain.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+        assertThat(new String((byte[]) plain.getBody(), StandardCharsets.UTF_8))
+                .isEqualTo("{\"type\":\"FeatureCollection\"}");
+    }
+}
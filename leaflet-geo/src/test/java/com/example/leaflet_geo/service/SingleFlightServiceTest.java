@@ -0,0 +1,135 @@
+package com.example.leaflet_geo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightServiceTest {
+
+    private final SingleFlightService service = new SingleFlightService(5_000);
+
+    @Test
+    void concurrentCallsShareOneComputation() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        Object result = new Object();
+        Supplier<Object> slow = () -> {
+            calls.incrementAndGet();
+            await(release);
+            return result;
+        };
+
+        CompletableFuture<Object> leader = CompletableFuture.supplyAsync(() -> service.execute("key", slow));
+        awaitCalls(calls, 1);
+        CompletableFuture<Object> follower = CompletableFuture.supplyAsync(() -> service.execute("key", slow));
+        awaitCoalesced(1);
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isSameAs(result);
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isSameAs(result);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void differentKeysAreNotCoalesced() {
+        AtomicInteger calls = new AtomicInteger();
+
+        service.execute("a", calls::incrementAndGet);
+        service.execute("b", calls::incrementAndGet);
+
+        assertThat(calls).hasValue(2);
+        assertThat(service.coalescedCount()).isZero();
+    }
+
+    @Test
+    void exceptionIsPropagatedToWaiters() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        IllegalStateException failure = new IllegalStateException("BPRD tidak tersedia");
+        Supplier<Object> failing = () -> {
+            calls.incrementAndGet();
+            await(release);
+            throw failure;
+        };
+
+        CompletableFuture<Object> leader = CompletableFuture.supplyAsync(() -> service.execute("key", failing));
+        awaitCalls(calls, 1);
+        CompletableFuture<Object> follower = CompletableFuture.supplyAsync(() -> service.execute("key", failing));
+        awaitCoalesced(1);
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCause(failure);
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasCause(failure);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void keyIsReleasedAfterSuccessAndFailure() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThat(service.execute("key", calls::incrementAndGet)).isEqualTo(1);
+        assertThat(service.execute("key", calls::incrementAndGet)).isEqualTo(2);
+        assertThatThrownBy(() -> service.execute("key", () -> {
+            calls.incrementAndGet();
+            throw new IllegalArgumentException("gagal");
+        })).isInstanceOf(IllegalArgumentException.class);
+        assertThat(service.execute("key", calls::incrementAndGet)).isEqualTo(4);
+        assertThat(service.coalescedCount()).isZero();
+    }
+
+    @Test
+    void waiterTimesOutWhileLeaderContinues() throws Exception {
+        SingleFlightService shortWait = new SingleFlightService(50);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<Object> slow = () -> {
+            calls.incrementAndGet();
+            await(release);
+            return "done";
+        };
+
+        CompletableFuture<Object> leader = CompletableFuture.supplyAsync(() -> shortWait.execute("key", slow));
+        awaitCalls(calls, 1);
+
+        assertThatThrownBy(() -> shortWait.execute("key", slow))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Timeout");
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("done");
+        assertThat(calls).hasValue(1);
+    }
+
+    private void awaitCoalesced(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (service.coalescedCount() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(service.coalescedCount()).isEqualTo(expected);
+    }
+
+    private static void awaitCalls(AtomicInteger calls, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (calls.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(calls).hasValue(expected);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("latch tidak dilepas");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.leaflet_geo.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlStatsServiceTest {
+
+    private final SqlStatsService service = new SqlStatsService(500, 3);
+
+    @AfterEach
+    void clearRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void fingerprintReplacesLiterals() {
+        assertThat(service.fingerprint("SELECT * FROM bidang WHERE kd_kec = '130' AND luas > 12.5 AND no_urut = 7"))
+                .isEqualTo("SELECT * FROM bidang WHERE kd_kec = ? AND luas > ? AND no_urut = ?");
+        // kutip ganda di dalam literal tetap satu literal
+        assertThat(service.fingerprint("SELECT 1 FROM users WHERE nama = 'O''Brien'"))
+                .isEqualTo("SELECT ? FROM users WHERE nama = ?");
+    }
+
+    @Test
+    void fingerprintKeepsDigitsInsideIdentifiers() {
+        assertThat(service.fingerprint("SELECT ST_AsText(geom) FROM dat_op_bumi2 t1 WHERE ST_SRID(geom) = 4326"))
+                .isEqualTo("SELECT ST_AsText(geom) FROM dat_op_bumi2 t1 WHERE ST_SRID(geom) = ?");
+    }
+
+    @Test
+    void fingerprintCollapsesInListsAndWhitespace() {
+        String expected = "SELECT nop FROM bidang WHERE id IN (?+) ORDER BY nop";
+        assertThat(service.fingerprint("SELECT nop\n  FROM bidang\n WHERE id IN (1, 2, 3)\n ORDER BY nop"))
+                .isEqualTo(expected);
+        assertThat(service.fingerprint("SELECT nop FROM bidang WHERE id IN ( ?,? ) ORDER BY nop  "))
+                .isEqualTo(expected);
+    }
+
+    @Test
+    void fingerprintIsStableForCachedSql() {
+        String sql = "SELECT * FROM bidang WHERE kd_kel = '001'";
+        assertThat(service.fingerprint(sql)).isSameAs(service.fingerprint(sql));
+    }
+
+    @Test
+    void endpointUsesHandlerPattern() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/bidang/130/001");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/bidang/{kdKec}/{kdKel}");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        service.record("postgres", "SELECT 1", null, 1_000, false);
+
+        assertThat(service.top(10, "total")).extracting(row -> row.get("endpoint"))
+                .containsExactly("GET /api/bidang/{kdKec}/{kdKel}");
+    }
+
+    @Test
+    void unmappedRequestsShareOneEndpointLabel() {
+        for (int i = 0; i < 10; i++) {
+            RequestContextHolder.setRequestAttributes(
+                    new ServletRequestAttributes(new MockHttpServletRequest("GET", "/tidak-ada/" + i)));
+            service.record("postgres", "SELECT " + i + " FROM bidang WHERE kd_kec = '" + i + "'", null, 1_000, false);
+        }
+
+        List<Map<String, Object>> rows = service.top(10, "count");
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0)).containsEntry("endpoint", "<unmapped>").containsEntry("count", 10L);
+    }
+
+    @Test
+    void overflowGoesToOtherFingerprint() {
+        for (int i = 0; i < 10; i++) {
+            service.record("postgres", "SELECT * FROM tabel_" + (char) ('a' + i), null, 1_000, false);
+        }
+
+        assertThat(service.size()).isEqualTo(4);
+        assertThat(service.top(10, "count").get(0))
+                .containsEntry("endpoint", "-")
+                .containsEntry("fingerprint", "<other>")
+                .containsEntry("count", 7L);
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.leaflet_geo.util;
+
+import com.example.leaflet_geo.util.FlatGeobufWriter.Column;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.io.WKTReader;
+import org.wololo.flatgeobuf.ColumnMeta;
+import org.wololo.flatgeobuf.GeometryConversions;
+import org.wololo.flatgeobuf.HeaderMeta;
+import org.wololo.flatgeobuf.PackedRTree;
+import org.wololo.flatgeobuf.generated.ColumnType;
+import org.wololo.flatgeobuf.generated.Feature;
+import org.wololo.flatgeobuf.generated.GeometryType;
+import org.wololo.flatgeobuf.generated.Header;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Round-trip FlatGeobufWriter lewat reader referensi (org.wololo:flatgeobuf)
+ */
+class FlatGeobufWriterTest {
+
+    private static final List<Column> COLUMNS = List.of(
+            new Column("NOP", FlatGeobufWriter.ColumnType.STRING),
+            new Column("LUAS", FlatGeobufWriter.ColumnType.DOUBLE),
+            new Column("NJOP", FlatGeobufWriter.ColumnType.LONG));
+
+    private static final String[][] FEATURES = {
+            { "POLYGON ((113.1 -8.1, 113.2 -8.1, 113.2 -8.0, 113.1 -8.0, 113.1 -8.1))", "35.08.130.001.001-0001.0" },
+            { "MULTIPOLYGON (((113.5 -8.5, 113.6 -8.5, 113.6 -8.4, 113.5 -8.5)),"
+                    + " ((113.7 -8.5, 113.8 -8.5, 113.8 -8.4, 113.7 -8.5)))", "35.08.130.001.001-0002.0" },
+            { "POLYGON ((112.9 -7.9, 113.0 -7.9, 113.0 -7.8, 112.9 -7.8, 112.9 -7.9),"
+                    + " (112.92 -7.88, 112.94 -7.88, 112.94 -7.86, 112.92 -7.88))", "35.08.130.001.001-0003.0" },
+    };
+
+    @Test
+    void headerMatchesReferenceReader() throws Exception {
+        ByteBuffer file = write();
+        HeaderMeta header = HeaderMeta.read(file);
+
+        // HeaderMeta.read tidak mengisi name, baca tabel Header (setelah magic + uint32 panjang) langsung
+        assertThat(Header.getRootAsHeader(file.duplicate().position(12).slice().order(ByteOrder.LITTLE_ENDIAN))
+                .name()).isEqualTo("bidang_test");
+        assertThat((int) header.geometryType).isEqualTo(GeometryType.MultiPolygon);
+        assertThat(header.featuresCount).isEqualTo(FEATURES.length);
+        assertThat(header.indexNodeSize).isEqualTo(16);
+        assertThat(header.srid).isEqualTo(4326);
+        assertThat(header.envelope).isEqualTo(new Envelope(112.9, 113.8, -8.5, -7.8));
+        assertThat(header.columns).extracting(column -> column.name).containsExactly("NOP", "LUAS", "NJOP");
+        assertThat(header.columns).extracting(column -> (int) column.type)
+                .containsExactly(ColumnType.String, ColumnType.Double, ColumnType.Long);
+    }
+
+    @Test
+    void featuresRoundTrip() throws Exception {
+        ByteBuffer file = write();
+        HeaderMeta header = HeaderMeta.read(file);
+        int featuresStart = header.offset + (int) PackedRTree.calcSize((int) header.featuresCount, header.indexNodeSize);
+
+        Map<String, Decoded> features = new HashMap<>();
+        int position = featuresStart;
+        for (int i = 0; i < header.featuresCount; i++) {
+            Decoded feature = readFeature(file, position, header);
+            features.put((String) feature.properties().get("NOP"), feature);
+            position += 4 + file.getInt(position);
+        }
+        assertThat(position).isEqualTo(file.limit());
+
+        WKTReader wkt = new WKTReader();
+        for (int i = 0; i < FEATURES.length; i++) {
+            Decoded feature = features.get(FEATURES[i][1]);
+            assertThat(feature).as(FEATURES[i][1]).isNotNull();
+            Geometry expected = wkt.read(FEATURES[i][0]);
+            assertThat(feature.geometry().getGeometryType()).isEqualTo("MultiPolygon");
+            assertThat(feature.geometry().equalsExact(multi(expected))).as(FEATURES[i][1]).isTrue();
+            assertThat(feature.properties()).containsEntry("LUAS", 100.5 * (i + 1));
+            if (i == 1) {
+                // null tidak ditulis
+                assertThat(feature.properties()).doesNotContainKey("NJOP");
+            } else {
+                assertThat(feature.properties()).containsEntry("NJOP", 1_000_000L * (i + 1));
+            }
+        }
+    }
+
+    @Test
+    void bboxSearchReturnsOnlyIntersectingFeatures() throws Exception {
+        ByteBuffer file = write();
+        HeaderMeta header = HeaderMeta.read(file);
+        int featuresStart = header.offset + (int) PackedRTree.calcSize((int) header.featuresCount, header.indexNodeSize);
+
+        List<String> hits = search(file, header, featuresStart, new Envelope(113.55, 113.75, -8.45, -8.42));
+        assertThat(hits).containsExactly(FEATURES[1][1]);
+
+        hits = search(file, header, featuresStart, new Envelope(112.95, 113.15, -8.05, -7.85));
+        assertThat(hits).containsExactlyInAnyOrder(FEATURES[0][1], FEATURES[2][1]);
+
+        assertThat(search(file, header, featuresStart, new Envelope(100, 101, 0, 1))).isEmpty();
+    }
+
+    @Test
+    void emptyFileHasHeaderOnly() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (FlatGeobufWriter writer = new FlatGeobufWriter("kosong", COLUMNS)) {
+            writer.writeTo(out);
+        }
+        ByteBuffer file = ByteBuffer.wrap(out.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        HeaderMeta header = HeaderMeta.read(file);
+
+        assertThat(header.featuresCount).isZero();
+        assertThat(header.indexNodeSize).isZero();
+        assertThat(header.offset).isEqualTo(file.limit());
+    }
+
+    private static ByteBuffer write() throws Exception {
+        WKTReader wkt = new WKTReader();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (FlatGeobufWriter writer = new FlatGeobufWriter("bidang_test", COLUMNS)) {
+            for (int i = 0; i < FEATURES.length; i++) {
+                writer.write(wkt.read(FEATURES[i][0]), new Object[] {
+                        FEATURES[i][1], 100.5 * (i + 1), i == 1 ? null : 1_000_000L * (i + 1) });
+            }
+            assertThat(writer.count()).isEqualTo(FEATURES.length);
+            writer.writeTo(out);
+        }
+        return ByteBuffer.wrap(out.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static List<String> search(ByteBuffer file, HeaderMeta header, int featuresStart, Envelope bbox) {
+        List<String> result = new ArrayList<>();
+        for (PackedRTree.SearchHit hit : PackedRTree.search(file, header.offset, (int) header.featuresCount,
+                header.indexNodeSize, bbox)) {
+            result.add((String) readFeature(file, featuresStart + (int) hit.offset, header).properties().get("NOP"));
+        }
+        return result;
+    }
+
+    private static Decoded readFeature(ByteBuffer file, int position, HeaderMeta header) {
+        int length = file.getInt(position);
+        ByteBuffer slice = file.duplicate().position(position + 4).limit(position + 4 + length).slice()
+                .order(ByteOrder.LITTLE_ENDIAN);
+        Feature feature = Feature.getRootAsFeature(slice);
+        Geometry geometry = GeometryConversions.deserialize(feature.geometry(), header.geometryType);
+        return new Decoded(geometry, properties(feature, header.columns));
+    }
+
+    /**
+     * Properti menurut spesifikasi FlatGeobuf: uint16 indeks kolom lalu nilai little-endian
+     */
+    private static Map<String, Object> properties(Feature feature, List<ColumnMeta> columns) {
+        ByteBuffer buffer = feature.propertiesAsByteBuffer().slice().order(ByteOrder.LITTLE_ENDIAN);
+        Map<String, Object> properties = new HashMap<>();
+        while (buffer.hasRemaining()) {
+            ColumnMeta column = columns.get(Short.toUnsignedInt(buffer.getShort()));
+            Object value = switch (column.type) {
+                case ColumnType.String -> {
+                    byte[] bytes = new byte[buffer.getInt()];
+                    buffer.get(bytes);
+                    yield new String(bytes, StandardCharsets.UTF_8);
+                }
+                case ColumnType.Double -> buffer.getDouble();
+                case ColumnType.Long -> buffer.getLong();
+                default -> throw new IllegalStateException("Tipe kolom tidak diharapkan: " + column.type);
+            };
+            properties.put(column.name, value);
+        }
+        return properties;
+    }
+
+    private static Geometry multi(Geometry geometry) {
+        if (geometry.getGeometryType().equals("MultiPolygon")) {
+            return geometry;
+        }
+        return geometry.getFactory().createMultiPolygon(new Polygon[] { (Polygon) geometry });
+    }
+
+    private record Decoded(Geometry geometry, Map<String, Object> properties) {
+    }
+}
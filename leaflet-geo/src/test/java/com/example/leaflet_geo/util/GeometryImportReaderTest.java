@@ -0,0 +1,292 @@
+package com.example.leaflet_geo.util;
+
+import com.example.leaflet_geo.util.GeometryImportReader.Feature;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.io.WKBWriter;
+import org.locationtech.jts.io.WKTReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Shapefile dan DBF dibangun byte demi byte menurut spesifikasi ESRI/dBASE
+ */
+class GeometryImportReaderTest {
+
+    private static final String NOP_1 = "35.08.130.001.001-0001.0";
+    private static final String NOP_2 = "35.08.130.001.001-0002.0";
+    private static final String NOP_3 = "35.08.130.001.001-0003.0";
+
+    // Shell searah jarum jam, hole berlawanan (aturan shapefile)
+    private static final double[][] SHELL_1 = { { 0, 0 }, { 0, 10 }, { 10, 10 }, { 10, 0 }, { 0, 0 } };
+    private static final double[][] HOLE_1 = { { 2, 2 }, { 4, 2 }, { 4, 4 }, { 2, 4 }, { 2, 2 } };
+    private static final double[][] SHELL_2 = { { 20, 0 }, { 20, 10 }, { 30, 10 }, { 30, 0 }, { 20, 0 } };
+    private static final double[][] HOLE_2 = { { 22, 2 }, { 24, 2 }, { 24, 4 }, { 22, 4 }, { 22, 2 } };
+
+    @Test
+    void polygonZReadsZAfterPointsAndZRange() throws Exception {
+        double[] z = { 10, 11, 12, 13, 10 };
+        byte[] shp = shp(polygonZShape(new double[][][] { SHELL_1 }, z));
+        List<Feature> features = readZip(shp, dbf(new String[] { NOP_1 }, new boolean[1]));
+
+        assertThat(features).hasSize(1);
+        Geometry geometry = features.get(0).geometry();
+        assertThat(features.get(0).error()).isNull();
+        assertThat(geometry.getSRID()).isEqualTo(4326);
+        assertThat(geometry.equalsExact(polygon(SHELL_1))).isTrue();
+        assertThat(Arrays.stream(geometry.getCoordinates()).mapToDouble(Coordinate::getZ).toArray())
+                .containsExactly(z);
+    }
+
+    @Test
+    void multiPartPolygonAssignsHolesToContainingShell() throws Exception {
+        // hole_1 ditulis setelah shell_2: pemiliknya harus dicari dengan contains, bukan shell terakhir
+        byte[] shp = shp(polygonShape(new double[][][] { SHELL_1, SHELL_2, HOLE_1, HOLE_2 }));
+        List<Feature> features = readZip(shp, dbf(new String[] { NOP_1 }, new boolean[1]));
+
+        Geometry geometry = features.get(0).geometry();
+        assertThat(geometry).isInstanceOf(MultiPolygon.class);
+        assertThat(geometry.isValid()).isTrue();
+        Geometry expected = new WKTReader().read("MULTIPOLYGON ("
+                + "((0 0, 0 10, 10 10, 10 0, 0 0), (2 2, 4 2, 4 4, 2 4, 2 2)),"
+                + " ((20 0, 20 10, 30 10, 30 0, 20 0), (22 2, 24 2, 24 4, 22 4, 22 2)))");
+        assertThat(geometry.equalsExact(expected)).isTrue();
+        assertThat(geometry.getArea()).isEqualTo(2 * (100.0 - 4));
+    }
+
+    @Test
+    void dbfRecordsStayAlignedWithShapes() throws Exception {
+        byte[] shp = shp(polygonShape(new double[][][] { SHELL_1 }), nullShape(),
+                polygonShape(new double[][][] { SHELL_2 }));
+        // record ke-2 ditandai terhapus di DBF, tetapi tetap berpasangan dengan shape ke-2
+        byte[] dbf = dbf(new String[] { NOP_1, NOP_2, NOP_3 }, new boolean[] { false, true, false });
+        List<Feature> features = readZip(shp, dbf);
+
+        assertThat(features).extracting(Feature::line).containsExactly(1, 2, 3);
+        assertThat(features).extracting(Feature::nop).containsExactly(NOP_1, NOP_2, NOP_3);
+        assertThat(features.get(1).error()).isEqualTo("Geometri kosong");
+        assertThat(features.get(2).geometry().equalsExact(polygon(SHELL_2))).isTrue();
+    }
+
+    @Test
+    void dbfFieldLookupIsCaseInsensitive() throws Exception {
+        byte[] zip = zip(shp(polygonShape(new double[][][] { SHELL_1 })),
+                dbf(new String[] { NOP_1 }, new boolean[1]), null);
+        List<Feature> features = GeometryImportReader.read("BIDANG.ZIP", new ByteArrayInputStream(zip), "Nop");
+
+        assertThat(features).extracting(Feature::nop).containsExactly(NOP_1);
+    }
+
+    @Test
+    void projectedShapefileIsRejected() {
+        byte[] prj = "PROJCS[\"WGS_1984_UTM_Zone_49S\",GEOGCS[\"GCS_WGS_1984\"]]".getBytes(StandardCharsets.US_ASCII);
+        byte[] zip = zip(shp(polygonShape(new double[][][] { SHELL_1 })),
+                dbf(new String[] { NOP_1 }, new boolean[1]), prj);
+
+        assertThatThrownBy(() -> GeometryImportReader.readShapefileZip(new ByteArrayInputStream(zip), "nop"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("EPSG:4326");
+    }
+
+    @Test
+    void csvSkipsHeaderAndBlankLines() throws Exception {
+        String csv = "nop,wkb_hex\n"
+                + NOP_1 + "," + wkbHex(polygon(SHELL_1), 0) + "\n"
+                + "\n"
+                + NOP_2 + ";bukan-hex\n"
+                + NOP_3 + "\t" + wkbHex(polygon(SHELL_2), 4326) + "\n";
+        List<Feature> features = read("bidang.csv", csv);
+
+        assertThat(features).extracting(Feature::line).containsExactly(2, 4, 5);
+        assertThat(features).extracting(Feature::nop).containsExactly(NOP_1, NOP_2, NOP_3);
+        assertThat(features).extracting(Feature::error).containsExactly(null, "WKB hex tidak valid", null);
+        assertThat(features.get(0).geometry().equalsExact(polygon(SHELL_1))).isTrue();
+        assertThat(features.get(2).geometry().getSRID()).isEqualTo(4326);
+    }
+
+    @Test
+    void csvInvalidFirstLineWithHexIsNotTreatedAsHeader() throws Exception {
+        List<Feature> features = read("bidang.txt", NOP_1 + ",0102\n");
+
+        assertThat(features).hasSize(1);
+        assertThat(features.get(0).line()).isEqualTo(1);
+        assertThat(features.get(0).error()).startsWith("WKB tidak valid");
+    }
+
+    @Test
+    void ewkbWithOtherSridIsRejected() throws Exception {
+        String csv = NOP_1 + "," + wkbHex(polygon(SHELL_1), 32749) + "\n";
+        List<Feature> features = read("bidang.wkb", csv);
+
+        assertThat(features).hasSize(1);
+        assertThat(features.get(0).geometry()).isNull();
+        assertThat(features.get(0).error()).isEqualTo("SRID harus 4326, bukan 32749");
+    }
+
+    @Test
+    void unsupportedExtensionIsRejected() {
+        assertThatThrownBy(() -> read("bidang.kml", ""))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("bidang.kml");
+    }
+
+    // ===================== helper =====================
+
+    private static List<Feature> read(String filename, String content) throws IOException {
+        return GeometryImportReader.read(filename,
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), "nop");
+    }
+
+    private static List<Feature> readZip(byte[] shp, byte[] dbf) throws IOException {
+        return GeometryImportReader.read("bidang.zip", new ByteArrayInputStream(zip(shp, dbf, null)), "nop");
+    }
+
+    private static Polygon polygon(double[][] shell) {
+        GeometryFactory factory = new GeometryFactory();
+        Coordinate[] coordinates = new Coordinate[shell.length];
+        for (int i = 0; i < shell.length; i++) {
+            coordinates[i] = new Coordinate(shell[i][0], shell[i][1]);
+        }
+        return factory.createPolygon(coordinates);
+    }
+
+    private static String wkbHex(Geometry geometry, int srid) {
+        geometry.setSRID(srid);
+        return WKBWriter.toHex(new WKBWriter(2, srid != 0).write(geometry));
+    }
+
+    private static byte[] zip(byte[] shp, byte[] dbf, byte[] prj) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry("bidang/bidang.shp"));
+            zip.write(shp);
+            zip.putNextEntry(new ZipEntry("bidang/bidang.dbf"));
+            zip.write(dbf);
+            if (prj != null) {
+                zip.putNextEntry(new ZipEntry("bidang/bidang.prj"));
+                zip.write(prj);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * File .shp: header 100 byte lalu record (nomor + panjang big-endian, isi little-endian)
+     */
+    private static byte[] shp(byte[]... contents) {
+        int length = 100 + Arrays.stream(contents).mapToInt(content -> 8 + content.length).sum();
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.order(ByteOrder.BIG_ENDIAN).putInt(0, 9994).putInt(24, length / 2);
+        buffer.order(ByteOrder.LITTLE_ENDIAN).putInt(28, 1000).putInt(32, 5);
+        buffer.position(100);
+        for (int i = 0; i < contents.length; i++) {
+            buffer.order(ByteOrder.BIG_ENDIAN).putInt(i + 1).putInt(contents[i].length / 2);
+            buffer.put(contents[i]);
+        }
+        return buffer.array();
+    }
+
+    private static byte[] nullShape() {
+        return ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(0).array();
+    }
+
+    private static byte[] polygonShape(double[][][] parts) {
+        return polygonRecord(5, parts, null);
+    }
+
+    private static byte[] polygonZShape(double[][][] parts, double[] z) {
+        return polygonRecord(15, parts, z);
+    }
+
+    /**
+     * Polygon (5): bbox, numParts, numPoints, parts, points. PolygonZ (15) menambah
+     * z range + z[], lalu m range + m[] (diisi agar pembaca tidak salah mengambil M sebagai Z)
+     */
+    private static byte[] polygonRecord(int shapeType, double[][][] parts, double[] z) {
+        List<double[]> points = new ArrayList<>();
+        int[] starts = new int[parts.length];
+        for (int p = 0; p < parts.length; p++) {
+            starts[p] = points.size();
+            points.addAll(Arrays.asList(parts[p]));
+        }
+        int length = 44 + parts.length * 4 + points.size() * 16
+                + (z != null ? 2 * (16 + points.size() * 8) : 0);
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(shapeType);
+        buffer.putDouble(0).putDouble(0).putDouble(30).putDouble(10);
+        buffer.putInt(parts.length).putInt(points.size());
+        for (int start : starts) {
+            buffer.putInt(start);
+        }
+        for (double[] point : points) {
+            buffer.putDouble(point[0]).putDouble(point[1]);
+        }
+        if (z != null) {
+            buffer.putDouble(Arrays.stream(z).min().orElse(0)).putDouble(Arrays.stream(z).max().orElse(0));
+            for (double value : z) {
+                buffer.putDouble(value);
+            }
+            buffer.putDouble(-1).putDouble(-1);
+            for (int i = 0; i < points.size(); i++) {
+                buffer.putDouble(-1);
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * File .dbf (dBASE III): kolom LUAS (N 10) lalu NOP (C 24), record diawali flag ' ' atau '*' (terhapus)
+     */
+    private static byte[] dbf(String[] nops, boolean[] deleted) {
+        String[] names = { "LUAS", "nop" };
+        char[] types = { 'N', 'C' };
+        int[] lengths = { 10, 24 };
+        int headerLength = 32 + names.length * 32 + 1;
+        int recordLength = 1 + Arrays.stream(lengths).sum();
+
+        ByteBuffer buffer = ByteBuffer.allocate(headerLength + nops.length * recordLength + 1)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(0, (byte) 0x03);
+        buffer.putInt(4, nops.length).putShort(8, (short) headerLength).putShort(10, (short) recordLength);
+        for (int f = 0; f < names.length; f++) {
+            int offset = 32 + f * 32;
+            byte[] name = names[f].getBytes(StandardCharsets.US_ASCII);
+            buffer.put(offset, name);
+            buffer.put(offset + 11, (byte) types[f]);
+            buffer.put(offset + 16, (byte) lengths[f]);
+        }
+        buffer.put(headerLength - 1, (byte) 0x0D);
+
+        buffer.position(headerLength);
+        for (int r = 0; r < nops.length; r++) {
+            buffer.put((byte) (deleted[r] ? '*' : ' '));
+            buffer.put(pad(String.valueOf(100 * (r + 1)), lengths[0]));
+            buffer.put(pad(nops[r], lengths[1]));
+        }
+        buffer.put((byte) 0x1A);
+        return buffer.array();
+    }
+
+    private static byte[] pad(String value, int length) {
+        return String.format("%-" + length + "s", value).getBytes(StandardCharsets.ISO_8859_1);
+    }
+}
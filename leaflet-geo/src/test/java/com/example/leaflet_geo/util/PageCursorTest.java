@@ -0,0 +1,66 @@
+package com.example.leaflet_geo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageCursorTest {
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 14, 9, 26, 53, 589_000_000);
+        String token = PageCursor.encode(createdAt, "5f0c7a1e-3b1d-4c62-9d7e-1a2b3c4d5e6f");
+
+        assertThat(PageCursor.decode(token, 2))
+                .containsExactly(createdAt.toString(), "5f0c7a1e-3b1d-4c62-9d7e-1a2b3c4d5e6f");
+    }
+
+    @Test
+    void tokenIsUrlSafeWithoutPadding() {
+        String token = PageCursor.encode("35", "08", "130", "017", "001", "0001", "0", "???>>>");
+
+        assertThat(token).doesNotContain("+", "/", "=");
+        assertThat(PageCursor.decode(token, 8)).endsWith("???>>>");
+    }
+
+    @Test
+    void nullValueEncodesAsEmptyPart() {
+        assertThat(PageCursor.decode(PageCursor.encode("a", null, "c"), 3)).containsExactly("a", "", "c");
+    }
+
+    @Test
+    void emptyTokenMeansFirstPage() {
+        assertThat(PageCursor.decode(null, 2)).isNull();
+        assertThat(PageCursor.decode("", 2)).isNull();
+        assertThat(PageCursor.decode("   ", 2)).isNull();
+    }
+
+    @Test
+    void rejectsWrongPartCount() {
+        String token = PageCursor.encode("a", "b", "c");
+
+        assertThatThrownBy(() -> PageCursor.decode(token, 2))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Cursor tidak valid");
+    }
+
+    @Test
+    void rejectsInvalidBase64() {
+        assertThatThrownBy(() -> PageCursor.decode("not*base64!", 2))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Cursor tidak valid");
+    }
+
+    @Test
+    void rejectsStandardBase64Alphabet() {
+        String token = Base64.getEncoder().encodeToString("a??|b>>".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(token).containsAnyOf("+", "/");
+        assertThatThrownBy(() -> PageCursor.decode(token, 2)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,49 @@
+-- Synthetic dataset for load tests (kode wilayah sama dengan stub BPRD)
+-- 5 kecamatan x 4 kelurahan x 5 blok x 40 bidang = 4.000 bidang
+-- Geometri: grid bersarang di sekitar Lumajang, disimpan sebagai WKB hex (seperti produksi)
+
+INSERT INTO system.pemda (id, nm_prop, nm_dati2, nm_ibukota, kd_prop, kd_dati2, latitude, longitude, zoom, is_active)
+VALUES (1, 'JAWA TIMUR', 'LUMAJANG', 'LUMAJANG', '35', '08', -8.13, 113.22, 12, true);
+
+-- Kecamatan: kolom 0.05 derajat
+INSERT INTO system.kecamatan (kd_prop, kd_dati2, kd_kec, nama, color, geom, is_active)
+SELECT '35', '08', lpad((k * 10)::text, 3, '0'), 'KECAMATAN ' || k, '#3388ff',
+       encode(ST_AsEWKB(ST_MakeEnvelope(113.0 + (k - 1) * 0.05, -8.2, 113.0 + k * 0.05, -8.0, 4326)), 'hex'),
+       true
+FROM generate_series(1, 5) k;
+
+-- Kelurahan: 4 baris per kecamatan
+INSERT INTO system.kelurahan (kd_prop, kd_dati2, kd_kec, kd_kel, nama, geom, is_active)
+SELECT '35', '08', lpad((k * 10)::text, 3, '0'), lpad(l::text, 3, '0'), 'KELURAHAN ' || k || '.' || l,
+       encode(ST_AsEWKB(ST_MakeEnvelope(113.0 + (k - 1) * 0.05, -8.2 + (l - 1) * 0.05,
+                                        113.0 + k * 0.05, -8.2 + l * 0.05, 4326)), 'hex'),
+       true
+FROM generate_series(1, 5) k, generate_series(1, 4) l;
+
+-- Blok: 5 kolom per kelurahan
+INSERT INTO sig.blok (kd_prop, kd_dati2, kd_kec, kd_kel, kd_blok, geom, is_active)
+SELECT '35', '08', lpad((k * 10)::text, 3, '0'), lpad(l::text, 3, '0'), lpad(b::text, 3, '0'),
+       encode(ST_AsEWKB(ST_MakeEnvelope(113.0 + (k - 1) * 0.05 + (b - 1) * 0.01, -8.2 + (l - 1) * 0.05,
+                                        113.0 + (k - 1) * 0.05 + b * 0.01, -8.2 + l * 0.05, 4326)), 'hex'),
+       true
+FROM generate_series(1, 5) k, generate_series(1, 4) l, generate_series(1, 5) b;
+
+-- Bidang: 40 persil per blok (strip 0.01 x 0.00125)
+INSERT INTO sig.bidang (kd_prop, kd_dati2, kd_kec, kd_kel, kd_blok, no_urut, kd_jns_op, nop, geom, created_at, is_active)
+SELECT '35', '08', kec, kel, blok, no_urut, '0',
+       '35.08.' || kec || '.' || kel || '.' || blok || '.' || no_urut || '.0',
+       encode(ST_AsEWKB(ST_MakeEnvelope(x0, y0 + (n - 1) * 0.00125, x0 + 0.01, y0 + n * 0.00125, 4326)), 'hex'),
+       now() - (n || ' minutes')::interval,
+       true
+FROM (
+    SELECT lpad((k * 10)::text, 3, '0') AS kec, lpad(l::text, 3, '0') AS kel, lpad(b::text, 3, '0') AS blok,
+           lpad(n::text, 4, '0') AS no_urut, n,
+           113.0 + (k - 1) * 0.05 + (b - 1) * 0.01 AS x0, -8.2 + (l - 1) * 0.05 AS y0
+    FROM generate_series(1, 5) k, generate_series(1, 4) l, generate_series(1, 5) b, generate_series(1, 40) n
+) s;
+
+INSERT INTO system.anggaran (tahun_anggaran, jenis_pajak, nilai_anggaran)
+SELECT y, j, 1000000000
+FROM generate_series(2023, 2025) y, unnest(ARRAY['PBB', 'BPHTB', 'HOTEL', 'RESTORAN']) j;
+
+ANALYZE;
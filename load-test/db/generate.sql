@@ -0,0 +1,190 @@
+-- Synthetic parcel dataset generator (psql script)
+--
+-- Mengisi system.kecamatan, system.kelurahan, sig.blok dan sig.bidang dengan
+-- wilayah bersarang dan NOP valid. Skala diatur lewat variabel psql:
+--
+--   kabupaten  jumlah kabupaten (kd_dati2 '08', '09', ...)   default 1
+--   kecamatan  kecamatan per kabupaten (kd_kec '010'..'990') default 25
+--   kelurahan  kelurahan per kecamatan (kd_kel '001'..'999') default 20
+--   blok       blok per kelurahan      (kd_blok '001'..'999') default 30
+--   bidang     bidang per blok         (no_urut '0001'..'9999') default 40
+--   vertices   vertex per bidang (4 = persegi empat, maks 16) default 8
+--   inactive   fraksi bidang is_active = false                default 0.01
+--   seed       seed random() agar hasil bisa diulang           default 0.42
+--
+-- Default = 1 x 25 x 20 x 30 x 40 = 600.000 bidang (kira-kira Lumajang).
+-- Contoh 10x: -v kabupaten=10. Puluhan juta: -v kabupaten=40 -v bidang=60.
+--
+--   psql -v ON_ERROR_STOP=1 -v kabupaten=10 -f db/generate.sql
+--
+-- Keempat tabel dikosongkan dulu (TRUNCATE), jadi hanya untuk database uji.
+-- Geometri disimpan sebagai WKB hex seperti produksi. Bidang dimasukkan per
+-- kecamatan (satu transaksi per kecamatan) dan index sekunder sig.bidang
+-- dibangun ulang di akhir.
+
+\set ON_ERROR_STOP 1
+\if :{?kabupaten}
+\else
+    \set kabupaten 1
+\endif
+\if :{?kecamatan}
+\else
+    \set kecamatan 25
+\endif
+\if :{?kelurahan}
+\else
+    \set kelurahan 20
+\endif
+\if :{?blok}
+\else
+    \set blok 30
+\endif
+\if :{?bidang}
+\else
+    \set bidang 40
+\endif
+\if :{?vertices}
+\else
+    \set vertices 8
+\endif
+\if :{?inactive}
+\else
+    \set inactive 0.01
+\endif
+\if :{?seed}
+\else
+    \set seed 0.42
+\endif
+
+SELECT :kabupaten BETWEEN 1 AND 91
+   AND :kecamatan BETWEEN 1 AND 99
+   AND :kelurahan BETWEEN 1 AND 999
+   AND :blok BETWEEN 1 AND 999
+   AND :bidang BETWEEN 1 AND 9999
+   AND :vertices BETWEEN 4 AND 16 AS valid \gset
+\if :valid
+\else
+    \echo 'Parameter di luar rentang kode NOP (kabupaten<=91, kecamatan<=99, kelurahan/blok<=999, bidang<=9999, vertices 4..16)'
+    \quit
+\endif
+
+SELECT :kabupaten::bigint * :kecamatan * :kelurahan * :blok * :bidang AS total \gset
+\echo Generating :total bidang (:kabupaten kabupaten x :kecamatan kecamatan x :kelurahan kelurahan x :blok blok x :bidang bidang)
+
+SET synchronous_commit = off;
+SET maintenance_work_mem = '512MB';
+
+-- Ukuran sel (derajat). Kabupaten disusun dalam grid persegi, kecamatan
+-- berupa kolom, kelurahan baris di dalam kecamatan, blok kolom di dalam
+-- kelurahan, bidang grid di dalam blok.
+CREATE TEMP TABLE gen_param AS
+SELECT :kabupaten AS n_kab, :kecamatan AS n_kec, :kelurahan AS n_kel, :blok AS n_blok, :bidang AS n_bid,
+       ceil(sqrt(:kabupaten))::int AS kab_cols,
+       0.05::float8 AS kec_w,
+       0.05::float8 AS kel_h,
+       0.05::float8 / :blok AS blok_w,
+       ceil(sqrt(:bidang))::int AS bid_cols,
+       ceil(:bidang::float8 / ceil(sqrt(:bidang)))::int AS bid_rows,
+       :vertices AS n_vert,
+       :inactive::float8 AS inactive;
+
+-- Origin (sudut kiri bawah) setiap kecamatan
+CREATE TEMP TABLE gen_kec AS
+SELECT d, k,
+       lpad((7 + d)::text, 2, '0') AS kd_dati2,
+       lpad((k * 10)::text, 3, '0') AS kd_kec,
+       112.5 + ((d - 1) % p.kab_cols) * (p.n_kec * p.kec_w + 0.02) + (k - 1) * p.kec_w AS x0,
+       -8.5 + ((d - 1) / p.kab_cols) * (p.n_kel * p.kel_h + 0.02) AS y0
+FROM gen_param p, generate_series(1, p.n_kab) d, generate_series(1, p.n_kec) k;
+
+TRUNCATE sig.bidang, sig.blok, system.kelurahan, system.kecamatan;
+
+INSERT INTO system.pemda (id, nm_prop, nm_dati2, nm_ibukota, kd_prop, kd_dati2, latitude, longitude, zoom, is_active)
+VALUES (1, 'JAWA TIMUR', 'LUMAJANG', 'LUMAJANG', '35', '08', -8.13, 113.22, 12, true)
+ON CONFLICT (id) DO NOTHING;
+
+INSERT INTO system.kecamatan (kd_prop, kd_dati2, kd_kec, nama, color, geom, created_at, is_active)
+SELECT '35', c.kd_dati2, c.kd_kec, 'KECAMATAN ' || c.d || '.' || c.k,
+       '#' || lpad(to_hex((c.k * 2654435761) % 16777216), 6, '0'),
+       encode(ST_AsEWKB(ST_MakeEnvelope(c.x0, c.y0, c.x0 + p.kec_w, c.y0 + p.n_kel * p.kel_h, 4326)), 'hex'),
+       now(), true
+FROM gen_kec c, gen_param p;
+
+INSERT INTO system.kelurahan (kd_prop, kd_dati2, kd_kec, kd_kel, nama, geom, created_at, is_active)
+SELECT '35', c.kd_dati2, c.kd_kec, lpad(l::text, 3, '0'), 'KELURAHAN ' || c.d || '.' || c.k || '.' || l,
+       encode(ST_AsEWKB(ST_MakeEnvelope(c.x0, c.y0 + (l - 1) * p.kel_h,
+                                        c.x0 + p.kec_w, c.y0 + l * p.kel_h, 4326)), 'hex'),
+       now(), true
+FROM gen_kec c, gen_param p, generate_series(1, p.n_kel) l;
+
+INSERT INTO sig.blok (kd_prop, kd_dati2, kd_kec, kd_kel, kd_blok, geom, created_at, is_active)
+SELECT '35', c.kd_dati2, c.kd_kec, lpad(l::text, 3, '0'), lpad(b::text, 3, '0'),
+       encode(ST_AsEWKB(ST_MakeEnvelope(c.x0 + (b - 1) * p.blok_w, c.y0 + (l - 1) * p.kel_h,
+                                        c.x0 + b * p.blok_w, c.y0 + l * p.kel_h, 4326)), 'hex'),
+       now(), true
+FROM gen_kec c, gen_param p, generate_series(1, p.n_kel) l, generate_series(1, p.n_blok) b;
+
+-- Index sekunder (bukan PK/unique constraint) dilepas selama load
+CREATE TEMP TABLE gen_index AS
+SELECT i.indexname, i.indexdef
+FROM pg_indexes i
+WHERE i.schemaname = 'sig' AND i.tablename = 'bidang'
+  AND NOT EXISTS (SELECT 1 FROM pg_constraint c WHERE c.conname = i.indexname);
+
+SELECT format('DROP INDEX IF EXISTS sig.%I', indexname) FROM gen_index \gexec
+
+-- Bidang: sel grid di dalam blok, sudut dan titik tepi digeser acak ke dalam
+-- sel sehingga poligon tidak beraturan tetapi tetap di dalam bloknya dan
+-- tidak saling tumpang tindih.
+CREATE OR REPLACE FUNCTION pg_temp.gen_parcel(x0 float8, y0 float8, w float8, h float8, n_vert int)
+RETURNS geometry LANGUAGE sql AS $$
+    SELECT ST_MakePolygon(ST_AddPoint(line, ST_StartPoint(line)))
+    FROM (
+        -- Titik ke-i di keliling sel (sisi 0..3 = bawah, kanan, atas, kiri), lalu
+        -- ditarik ke pusat sel sebesar 3-10%
+        SELECT ST_MakeLine(ST_MakePoint(x0 + w * (0.5 + (px - 0.5) * k),
+                                         y0 + h * (0.5 + (py - 0.5) * k)) ORDER BY i) AS line
+        FROM (
+            SELECT i, 1 - 2 * (0.03 + random() * 0.07) AS k,
+                   CASE side WHEN 0 THEN f WHEN 1 THEN 1 WHEN 2 THEN 1 - f ELSE 0 END AS px,
+                   CASE side WHEN 0 THEN 0 WHEN 1 THEN f WHEN 2 THEN 1 ELSE 1 - f END AS py
+            FROM (
+                SELECT i, floor(4.0 * i / n_vert)::int AS side, 4.0 * i / n_vert - floor(4.0 * i / n_vert) AS f
+                FROM generate_series(0, n_vert - 1) i
+            ) s
+        ) t
+    ) l
+$$;
+
+SELECT setseed(:seed);
+
+SELECT format($f$
+INSERT INTO sig.bidang (kd_prop, kd_dati2, kd_kec, kd_kel, kd_blok, no_urut, kd_jns_op, nop, geom, created_at, is_active)
+SELECT '35', %1$L, %2$L, kel, blok, no_urut, '0',
+       '35.' || %1$L || '.' || %2$L || '.' || kel || '.' || blok || '.' || no_urut || '.0',
+       encode(ST_AsEWKB(ST_SetSRID(pg_temp.gen_parcel(x, y, w, h, p.n_vert), 4326)), 'hex'),
+       now() - random() * interval '5 years',
+       random() >= p.inactive
+FROM gen_param p, LATERAL (
+    SELECT lpad(l::text, 3, '0') AS kel, lpad(b::text, 3, '0') AS blok, lpad(n::text, 4, '0') AS no_urut,
+           %3$s + (b - 1) * p.blok_w + ((n - 1) %% p.bid_cols) * p.blok_w / p.bid_cols AS x,
+           %4$s + (l - 1) * p.kel_h + ((n - 1) / p.bid_cols) * p.kel_h / p.bid_rows AS y,
+           p.blok_w / p.bid_cols AS w,
+           p.kel_h / p.bid_rows AS h
+    FROM generate_series(1, p.n_kel) l, generate_series(1, p.n_blok) b, generate_series(1, p.n_bid) n
+) s
+$f$, kd_dati2, kd_kec, x0, y0)
+FROM gen_kec
+ORDER BY d, k \gexec
+
+\echo Rebuilding secondary indexes
+SELECT indexdef FROM gen_index \gexec
+
+VACUUM ANALYZE system.kecamatan;
+VACUUM ANALYZE system.kelurahan;
+VACUUM ANALYZE sig.blok;
+VACUUM ANALYZE sig.bidang;
+
+SELECT count(*) AS bidang, count(*) FILTER (WHERE is_active) AS aktif,
+       pg_size_pretty(pg_total_relation_size('sig.bidang')) AS ukuran
+FROM sig.bidang;
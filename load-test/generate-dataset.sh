@@ -0,0 +1,24 @@
+#!/usr/bin/env bash
+# Isi database load test dengan dataset sintetis berskala (db/generate.sql).
+#
+#   ./generate-dataset.sh                          # 600.000 bidang (default)
+#   ./generate-dataset.sh kabupaten=10             # 6 juta bidang (10x)
+#   ./generate-dataset.sh kabupaten=40 bidang=60   # 36 juta bidang
+#   ./generate-dataset.sh kecamatan=5 kelurahan=4 blok=5 bidang=40   # 4.000 bidang
+#
+# Argumen NAME=VALUE diteruskan sebagai variabel psql (lihat header db/generate.sql).
+# Tanpa PGHOST, psql dijalankan di dalam container `db` dari docker-compose.yml.
+set -euo pipefail
+
+HERE="$(cd "$(dirname "$0")" && pwd)"
+VARS=()
+for arg in "$@"; do
+  VARS+=(-v "$arg")
+done
+
+if [[ -n "${PGHOST:-}" ]]; then
+  psql -v ON_ERROR_STOP=1 "${VARS[@]}" -f "$HERE/db/generate.sql"
+else
+  docker compose -f "$HERE/docker-compose.yml" exec -T db \
+    psql -U postgres -d sig -v ON_ERROR_STOP=1 "${VARS[@]}" -f - < "$HERE/db/generate.sql"
+fi
@@ -0,0 +1,137 @@
+// Mixed map + dashboard workload against leaflet-geo.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 k6/endpoints.js
+//
+// Every request is tagged with `name` so the summary reports
+// p50/p95/p99 and throughput per endpoint, not just overall.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const RATE = parseInt(__ENV.RATE || '50', 10);          // requests per second
+const DURATION = __ENV.DURATION || '2m';
+
+// Kode wilayah from db/20-seed.sql and stub/BprdStub.java
+const KEC = ['010', '020', '030', '040', '050'];
+const KEL = ['001', '002', '003', '004'];
+const BLOK = ['001', '002', '003', '004', '005'];
+
+const pick = (arr) => arr[Math.floor(Math.random() * arr.length)];
+const tag = (name) => ({ tags: { name } });
+const json = (name, extra) => Object.assign({ headers: Object.assign({ 'Content-Type': 'application/json' }, extra) }, tag(name));
+
+// [name, weight, request builder]
+const ENDPOINTS = [
+  ['kecamatan-list', 5, () => http.get(`${BASE_URL}/api/kecamatan/list?option=false`, tag('kecamatan-list'))],
+  ['kelurahan-list', 5, () => http.get(`${BASE_URL}/api/kelurahan/list?kd_kec=${pick(KEC)}&option=false`, tag('kelurahan-list'))],
+  ['blok-list', 5, () => http.get(`${BASE_URL}/api/blok/list?kd_kec=${pick(KEC)}&kd_kel=${pick(KEL)}`, tag('blok-list'))],
+  ['bidang-list', 15, () => http.get(`${BASE_URL}/api/bidang/list?kd_kec=${pick(KEC)}&kd_kel=${pick(KEL)}&kd_blok=${pick(BLOK)}`, tag('bidang-list'))],
+  ['bidang-page', 5, () => http.get(`${BASE_URL}/api/bidang/kelurahan/35/08/${pick(KEC)}/${pick(KEL)}?size=50`, tag('bidang-page'))],
+  ['kecamatan-with-count', 5, () => http.get(`${BASE_URL}/api/bidang/kecamatan-with-count/35/08`, tag('kecamatan-with-count'))],
+  ['kelurahan-with-count', 5, () => http.get(`${BASE_URL}/api/bidang/kelurahan-with-count/35/08/${pick(KEC)}`, tag('kelurahan-with-count'))],
+  ['blok-with-count', 5, () => http.get(`${BASE_URL}/api/bidang/blok-with-count/35/08/${pick(KEC)}/${pick(KEL)}`, tag('blok-with-count'))],
+  ['carinop', 5, () => http.get(`${BASE_URL}/api/map/carinop?nop=35.08.${pick(KEC)}.${pick(KEL)}.${pick(BLOK)}.0001.0`, tag('carinop'))],
+  ['pemda-defaultview', 2, () => http.get(`${BASE_URL}/api/pemda/defaultview`, tag('pemda-defaultview'))],
+  ['bprd-boundaries', 3, () => http.get(`${BASE_URL}/api/bprd/boundaries`, tag('bprd-boundaries'))],
+  ['bprd-bidang', 10, () => http.get(`${BASE_URL}/api/bprd/bidang?kd_kec=${pick(KEC)}&kd_kel=${pick(KEL)}&kd_blok=${pick(BLOK)}`, tag('bprd-bidang'))],
+  ['bprd-tematik', 5, () => http.post(`${BASE_URL}/api/bprd/tematik`,
+      JSON.stringify({ id_kecamatan: pick(KEC), id_kelurahan: [pick(KEL)], tahun: 2025, tematik: 'luas_bumi' }),
+      json('bprd-tematik'))],
+  ['anggaran', 5, (token) => http.get(`${BASE_URL}/api/anggaran?tahun_anggaran=2025`,
+      json('anggaran', { Authorization: `Bearer ${token}` }))],
+];
+
+// Dashboard endpoints backed by SIMATDA/BPHTB/SISMIOP; only meaningful when
+// those databases are reachable from the app (DASHBOARD_FULL=1)
+if (__ENV.DASHBOARD_FULL === '1') {
+  ENDPOINTS.push(['pendapatan-summary', 5, () => http.get(`${BASE_URL}/api/pendapatan/summary?tahun=2025`, tag('pendapatan-summary'))]);
+  ENDPOINTS.push(['pendapatan-trend', 3, () => http.get(`${BASE_URL}/api/pendapatan/trend-bulanan?tahun=2025`, tag('pendapatan-trend'))]);
+}
+
+const TOTAL_WEIGHT = ENDPOINTS.reduce((sum, e) => sum + e[1], 0);
+
+// Per-endpoint thresholds make k6 keep a sub-metric per name in the summary
+const thresholds = { http_req_failed: ['rate<0.01'] };
+for (const [name] of ENDPOINTS) {
+  thresholds[`http_req_duration{name:${name}}`] = ['p(99)<30000'];
+  thresholds[`http_reqs{name:${name}}`] = ['count>=0'];
+}
+
+export const options = {
+  scenarios: {
+    mixed: {
+      executor: 'constant-arrival-rate',
+      rate: RATE,
+      timeUnit: '1s',
+      duration: DURATION,
+      preAllocatedVUs: Math.max(10, RATE),
+      maxVUs: RATE * 4,
+    },
+  },
+  thresholds,
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+  const credentials = JSON.stringify({ username: 'loadtest', password: 'loadtest' });
+  const params = { headers: { 'Content-Type': 'application/json' } };
+  http.post(`${BASE_URL}/api/auth/createadmin`, credentials, params);   // 400 if it already exists
+  const res = http.post(`${BASE_URL}/api/auth/login`, credentials, params);
+  return { token: res.json('data.token') };
+}
+
+export default function (data) {
+  let r = Math.random() * TOTAL_WEIGHT;
+  for (const [name, weight, request] of ENDPOINTS) {
+    r -= weight;
+    if (r <= 0) {
+      const res = request(data.token);
+      check(res, { [`${name} 2xx`]: (x) => x.status >= 200 && x.status < 300 });
+      return;
+    }
+  }
+}
+
+export function handleSummary(data) {
+  const seconds = data.state.testRunDurationMs / 1000;
+  const rows = [];
+  for (const [name] of ENDPOINTS) {
+    const d = data.metrics[`http_req_duration{name:${name}}`];
+    const c = data.metrics[`http_reqs{name:${name}}`];
+    if (!d || !c) continue;
+    const v = d.values;
+    rows.push({
+      endpoint: name,
+      requests: c.values.count,
+      rps: +(c.values.count / seconds).toFixed(2),
+      p50: +v['p(50)'].toFixed(1),
+      p95: +v['p(95)'].toFixed(1),
+      p99: +v['p(99)'].toFixed(1),
+      max: +v.max.toFixed(1),
+    });
+  }
+
+  const cols = (cells) => cells[0].padEnd(24) + cells.slice(1).map((c, i) => String(c).padStart(i === 0 ? 8 : 10)).join('');
+  const text = [
+    cols(['endpoint', 'req', 'rps', 'p50 ms', 'p95 ms', 'p99 ms', 'max ms']),
+    ...rows.map((x) => cols([x.endpoint, x.requests, x.rps, x.p50, x.p95, x.p99, x.max])),
+    '',
+    `total: ${data.metrics.http_reqs.values.count} requests, ${data.metrics.http_reqs.values.rate.toFixed(2)} req/s, `
+      + `failed ${(data.metrics.http_req_failed.values.rate * 100).toFixed(2)}%`,
+    '',
+  ].join('\n');
+
+  const out = __ENV.RESULT_DIR || 'results';
+  return {
+    stdout: text,
+    [`${out}/summary.txt`]: text,
+    [`${out}/summary.json`]: JSON.stringify({
+      endpoints: rows,
+      total: {
+        count: data.metrics.http_reqs.values.count,
+        rps: data.metrics.http_reqs.values.rate,
+        failed: data.metrics.http_req_failed.values.rate,
+      },
+    }, null, 2),
+  };
+}
@@ -0,0 +1,80 @@
+#!/usr/bin/env bash
+# Reproducible load test: PostGIS (docker) + BPRD stub + leaflet-geo + k6.
+#
+#   ./run.sh                       # 50 req/s for 2 minutes
+#   RATE=200 DURATION=5m ./run.sh
+#   KEEP_DB=1 ./run.sh             # leave the database running afterwards
+#   DATASET="kabupaten=10" ./run.sh   # regenerate a larger dataset first (generate-dataset.sh)
+#
+# Requires: docker compose, Java 21, Maven, k6 (or docker to run grafana/k6).
+set -euo pipefail
+
+HERE="$(cd "$(dirname "$0")" && pwd)"
+APP_DIR="$HERE/../leaflet-geo"
+RESULT_DIR="${RESULT_DIR:-$HERE/results/$(date +%Y%m%d-%H%M%S)}"
+DB_PORT="${LOADTEST_DB_PORT:-55432}"
+STUB_PORT="${STUB_PORT:-8089}"
+APP_PORT="${APP_PORT:-8080}"
+export RATE="${RATE:-50}" DURATION="${DURATION:-2m}" LOADTEST_DB_PORT="$DB_PORT"
+
+mkdir -p "$RESULT_DIR"
+PIDS=()
+cleanup() {
+  for pid in "${PIDS[@]:-}"; do kill "$pid" 2>/dev/null || true; done
+  if [[ "${KEEP_DB:-0}" != "1" ]]; then
+    docker compose -f "$HERE/docker-compose.yml" down -v >/dev/null 2>&1 || true
+  fi
+}
+trap cleanup EXIT
+
+wait_for() {
+  local url="$1" name="$2"
+  for _ in $(seq 1 90); do
+    if curl -fsS -o /dev/null "$url"; then return 0; fi
+    sleep 2
+  done
+  echo "$name did not become ready ($url)" >&2
+  exit 1
+}
+
+echo "==> Starting PostGIS on port $DB_PORT"
+docker compose -f "$HERE/docker-compose.yml" up -d --wait db
+
+if [[ -n "${DATASET:-}" ]]; then
+  echo "==> Generating dataset: $DATASET"
+  # shellcheck disable=SC2086
+  "$HERE/generate-dataset.sh" $DATASET
+fi
+
+echo "==> Starting BPRD stub on port $STUB_PORT"
+java "$HERE/stub/BprdStub.java" "$STUB_PORT" > "$RESULT_DIR/stub.log" 2>&1 &
+PIDS+=($!)
+
+echo "==> Building and starting leaflet-geo on port $APP_PORT"
+(cd "$APP_DIR" && mvn -B -q package -DskipTests)
+SPRING_DATASOURCE_JDBC_URL="jdbc:postgresql://localhost:$DB_PORT/sig" \
+SPRING_DATASOURCE_USERNAME=postgres \
+SPRING_DATASOURCE_PASSWORD=postgres \
+java ${APP_JAVA_OPTS:--Xms1g -Xmx1g} -jar "$APP_DIR"/target/leaflet-geo-*.jar \
+  --server.port="$APP_PORT" \
+  --bprd.base-url="http://localhost:$STUB_PORT/api" \
+  --spring.jpa.show-sql=false \
+  > "$RESULT_DIR/app.log" 2>&1 &
+PIDS+=($!)
+
+wait_for "http://localhost:$STUB_PORT/api/kecamatan/list" "BPRD stub"
+wait_for "http://localhost:$APP_PORT/api/bidang/health" "leaflet-geo"
+
+echo "==> Running k6 ($RATE req/s for $DURATION)"
+if command -v k6 >/dev/null 2>&1; then
+  k6 run -e BASE_URL="http://localhost:$APP_PORT" -e RESULT_DIR="$RESULT_DIR" \
+    -e RATE="$RATE" -e DURATION="$DURATION" -e DASHBOARD_FULL="${DASHBOARD_FULL:-0}" \
+    "$HERE/k6/endpoints.js"
+else
+  docker run --rm --network host -v "$HERE/k6:/scripts:ro" -v "$RESULT_DIR:/results" \
+    -e BASE_URL="http://localhost:$APP_PORT" -e RESULT_DIR=/results \
+    -e RATE="$RATE" -e DURATION="$DURATION" -e DASHBOARD_FULL="${DASHBOARD_FULL:-0}" \
+    grafana/k6 run /scripts/endpoints.js
+fi
+
+echo "==> Results in $RESULT_DIR"
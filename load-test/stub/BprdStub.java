@@ -0,0 +1,247 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stand-in for the BPRD API used by BprdProxyController.
+ *
+ * Single-file program, no dependencies:  java BprdStub.java [port]
+ *
+ * Serves the same kode wilayah as db/20-seed.sql (5 kecamatan x 4 kelurahan
+ * x 5 blok x 40 bidang by default) with WKB hex geometries, so the proxy does
+ * the same conversion work as against production.
+ *
+ * Environment:
+ *   STUB_LATENCY_MS      added latency per request (default 20)
+ *   STUB_BIDANG_PER_BLOK parcels per blok (default 40)
+ *   STUB_VERTICES        vertices per parcel polygon (default 5)
+ */
+public class BprdStub {
+
+    private static final String TOKEN = "stub-token-0123456789abcdef";
+    private static final int KECAMATAN = 5;
+    private static final int KELURAHAN = 4;
+    private static final int BLOK = 5;
+
+    private static int latencyMs;
+    private static int bidangPerBlok;
+    private static int vertices;
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+        latencyMs = Integer.parseInt(System.getenv().getOrDefault("STUB_LATENCY_MS", "20"));
+        bidangPerBlok = Integer.parseInt(System.getenv().getOrDefault("STUB_BIDANG_PER_BLOK", "40"));
+        vertices = Integer.parseInt(System.getenv().getOrDefault("STUB_VERTICES", "5"));
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 256);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/api/user/login", ex -> respond(ex, "{\"user\":{\"nama\":\"Stub\",\"token\":\"" + TOKEN + "\"}}"));
+        server.createContext("/api/auth/signin", ex -> respond(ex, "{\"token\":\"" + TOKEN + "\"}"));
+        server.createContext("/api/kecamatan/list", BprdStub::kecamatan);
+        server.createContext("/api/kelurahan/list", BprdStub::kelurahan);
+        server.createContext("/api/blok/list", BprdStub::blok);
+        server.createContext("/api/bidang/list", BprdStub::bidang);
+        server.createContext("/api/map/tematik", BprdStub::tematik);
+        server.createContext("/api/map/infonop", BprdStub::infonop);
+        server.start();
+        System.out.println("BPRD stub listening on http://localhost:" + port + "/api");
+    }
+
+    private static void kecamatan(HttpExchange ex) throws IOException {
+        StringBuilder sb = new StringBuilder("[");
+        for (int k = 1; k <= KECAMATAN; k++) {
+            if (k > 1) sb.append(',');
+            double x0 = 113.0 + (k - 1) * 0.05;
+            sb.append("{\"id\":\"kec-").append(k).append("\",\"kd_kec\":\"").append(kec(k))
+                    .append("\",\"nama\":\"KECAMATAN ").append(k).append("\",\"color\":\"#3388ff\",\"is_active\":true,")
+                    .append("\"geom\":\"").append(box(x0, -8.2, x0 + 0.05, -8.0, 200)).append("\"}");
+        }
+        respond(ex, sb.append(']').toString());
+    }
+
+    private static void kelurahan(HttpExchange ex) throws IOException {
+        int k = code(query(ex).get("kd_kec")) / 10;
+        StringBuilder sb = new StringBuilder("[");
+        for (int l = 1; l <= KELURAHAN && k >= 1 && k <= KECAMATAN; l++) {
+            if (l > 1) sb.append(',');
+            double x0 = 113.0 + (k - 1) * 0.05;
+            double y0 = -8.2 + (l - 1) * 0.05;
+            sb.append("{\"id\":\"kel-").append(k).append('-').append(l).append("\",\"kd_kec\":\"").append(kec(k))
+                    .append("\",\"kd_kel\":\"").append(pad(l, 3)).append("\",\"nama\":\"KELURAHAN ").append(k).append('.').append(l)
+                    .append("\",\"is_active\":true,\"geom\":\"").append(box(x0, y0, x0 + 0.05, y0 + 0.05, 80)).append("\"}");
+        }
+        respond(ex, sb.append(']').toString());
+    }
+
+    private static void blok(HttpExchange ex) throws IOException {
+        Map<String, String> q = query(ex);
+        int k = code(q.get("kd_kec")) / 10;
+        int l = code(q.get("kd_kel"));
+        StringBuilder sb = new StringBuilder("[");
+        for (int b = 1; b <= BLOK; b++) {
+            if (b > 1) sb.append(',');
+            double x0 = 113.0 + (k - 1) * 0.05 + (b - 1) * 0.01;
+            double y0 = -8.2 + (l - 1) * 0.05;
+            sb.append("{\"id\":\"blok-").append(k).append('-').append(l).append('-').append(b)
+                    .append("\",\"kd_kec\":\"").append(kec(k)).append("\",\"kd_kel\":\"").append(pad(l, 3))
+                    .append("\",\"kd_blok\":\"").append(pad(b, 3)).append("\",\"is_active\":true,\"geom\":\"")
+                    .append(box(x0, y0, x0 + 0.01, y0 + 0.05, 20)).append("\"}");
+        }
+        respond(ex, sb.append(']').toString());
+    }
+
+    private static void bidang(HttpExchange ex) throws IOException {
+        Map<String, String> q = query(ex);
+        int k = code(q.get("kd_kec")) / 10;
+        int l = code(q.get("kd_kel"));
+        int b = code(q.get("kd_blok"));
+        StringBuilder sb = new StringBuilder("[");
+        for (int n = 1; n <= bidangPerBlok; n++) {
+            if (n > 1) sb.append(',');
+            appendBidang(sb, k, l, b, n);
+        }
+        respond(ex, sb.append(']').toString());
+    }
+
+    /**
+     * Tematik: every bidang in the requested kelurahan, split over 3 classes.
+     * A tenth of the parcels is left out so the proxy reports "unclassified".
+     */
+    private static void tematik(HttpExchange ex) throws IOException {
+        String body = new String(ex.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        int k = code(firstMatch(body, "\"id_kecamatan\"\\s*:\\s*\"(\\d+)\"")) / 10;
+        int l = code(firstMatch(body, "\"id_kelurahan\"\\s*:\\s*\\[\\s*\"(\\d+)\""));
+        String[] labels = { "< 100 m2", "100 - 500 m2", "> 500 m2" };
+        String[] colors = { "RGB(0,128,0)", "RGB(255,165,0)", "RGB(255,0,0)" };
+        StringBuilder[] data = { new StringBuilder(), new StringBuilder(), new StringBuilder() };
+        for (int b = 1; b <= BLOK; b++) {
+            for (int n = 1; n <= bidangPerBlok; n++) {
+                if (n % 10 == 0) continue;
+                StringBuilder target = data[n % 3];
+                if (target.length() > 0) target.append(',');
+                appendBidang(target, k, l, b, n);
+            }
+        }
+        StringBuilder sb = new StringBuilder("{\"layer\":{");
+        for (int i = 0; i < labels.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append('"').append(i + 1).append("\":{\"label\":\"").append(labels[i]).append("\",\"color\":\"")
+                    .append(colors[i]).append("\",\"data\":[").append(data[i]).append("]}");
+        }
+        respond(ex, sb.append("}}").toString());
+    }
+
+    private static void infonop(HttpExchange ex) throws IOException {
+        Map<String, String> q = query(ex);
+        String nop = String.join(".", q.getOrDefault("kd_prop", "35"), q.getOrDefault("kd_dati2", "08"),
+                q.getOrDefault("kd_kec", ""), q.getOrDefault("kd_kel", ""), q.getOrDefault("kd_blok", ""),
+                q.getOrDefault("no_urut", ""), q.getOrDefault("kd_jns_op", "0"));
+        respond(ex, "{\"nop\":\"" + nop + "\",\"nm_wp\":\"WAJIB PAJAK STUB\",\"jalan_op\":\"JL. STUB\","
+                + "\"luas_bumi\":250,\"luas_bng\":72,\"njop_bumi\":125000000,\"njop_bng\":180000000}");
+    }
+
+    private static void appendBidang(StringBuilder sb, int k, int l, int b, int n) {
+        double x0 = 113.0 + (k - 1) * 0.05 + (b - 1) * 0.01;
+        double y0 = -8.2 + (l - 1) * 0.05 + (n - 1) * 0.00125;
+        String noUrut = pad(n, 4);
+        String nop = "35.08." + kec(k) + "." + pad(l, 3) + "." + pad(b, 3) + "." + noUrut + ".0";
+        sb.append("{\"id\":\"").append(nop).append("\",\"kd_prop\":\"35\",\"kd_dati2\":\"08\",\"kd_kec\":\"").append(kec(k))
+                .append("\",\"kd_kel\":\"").append(pad(l, 3)).append("\",\"kd_blok\":\"").append(pad(b, 3))
+                .append("\",\"no_urut\":\"").append(noUrut).append("\",\"kd_jns_op\":\"0\",\"nop\":\"").append(nop)
+                .append("\",\"is_active\":true,\"geom\":\"").append(box(x0, y0, x0 + 0.01, y0 + 0.00125, vertices))
+                .append("\"}");
+    }
+
+    /**
+     * Polygon EWKB hex (little endian, SRID 4326) approximating a box with
+     * the given number of vertices spread along its edges
+     */
+    private static String box(double x0, double y0, double x1, double y1, int points) {
+        int n = Math.max(4, points);
+        ByteBuffer buf = ByteBuffer.allocate(1 + 4 + 4 + 4 + 4 + (n + 1) * 16).order(ByteOrder.LITTLE_ENDIAN);
+        buf.put((byte) 1).putInt(0x20000003).putInt(4326).putInt(1).putInt(n + 1);
+        double[] first = null;
+        for (int i = 0; i < n; i++) {
+            double t = 4.0 * i / n;
+            int side = (int) t;
+            double f = t - side;
+            double x = switch (side) {
+                case 0 -> x0 + f * (x1 - x0);
+                case 1 -> x1;
+                case 2 -> x1 - f * (x1 - x0);
+                default -> x0;
+            };
+            double y = switch (side) {
+                case 0 -> y0;
+                case 1 -> y0 + f * (y1 - y0);
+                case 2 -> y1;
+                default -> y1 - f * (y1 - y0);
+            };
+            if (first == null) first = new double[] { x, y };
+            buf.putDouble(x).putDouble(y);
+        }
+        buf.putDouble(first[0]).putDouble(first[1]);
+        return HexFormat.of().withUpperCase().formatHex(buf.array());
+    }
+
+    private static void respond(HttpExchange ex, String json) throws IOException {
+        try {
+            if (latencyMs > 0) Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json");
+        ex.sendResponseHeaders(200, bytes.length);
+        try (OutputStream os = ex.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    private static Map<String, String> query(HttpExchange ex) {
+        Map<String, String> result = new HashMap<>();
+        String raw = ex.getRequestURI().getRawQuery();
+        if (raw == null) return result;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                result.put(pair.substring(0, eq), URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return result;
+    }
+
+    private static String firstMatch(String text, String regex) {
+        Matcher m = Pattern.compile(regex).matcher(text);
+        return m.find() ? m.group(1) : null;
+    }
+
+    private static int code(String value) {
+        try {
+            return value == null ? 0 : Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static String kec(int k) {
+        return pad(k * 10, 3);
+    }
+
+    private static String pad(int value, int width) {
+        return String.format("%0" + width + "d", value);
+    }
+}